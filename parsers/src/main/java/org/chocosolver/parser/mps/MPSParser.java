@@ -9,6 +9,10 @@
  */
 package org.chocosolver.parser.mps;
 
+import gnu.trove.list.array.TByteArrayList;
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TObjectIntHashMap;
 import org.chocosolver.parser.ParserException;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
@@ -21,11 +25,8 @@ import org.chocosolver.util.tools.ArrayUtils;
 import org.chocosolver.util.tools.VariableUtils;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.regex.Pattern;
+import java.util.*;
+import java.util.stream.IntStream;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -36,8 +37,6 @@ import java.util.zip.GZIPInputStream;
  */
 public class MPSParser {
 
-    private static final Pattern twopart = Pattern.compile("");
-
     private static final String TAG_NAME = "NAME";
     private static final String TAG_ROWS = "ROWS";
     private static final String TAG_COLUMNS = "COLUMNS";
@@ -48,17 +47,39 @@ public class MPSParser {
     private static final String TAG_MARKER = "'MARKER'";
     private static final String TAG_INTORG = "'INTORG'";
 
-    private static final int CACHING = 12 * 5;
-
-    private HashMap<String, String> ope4eq;
-    private HashMap<String, List<Number>> coeffs4eq;
-    private HashMap<String, ArrayList<String>> vars4eq;
-    private HashMap<String, Number> rhs4eq;
-    private HashMap<String, Number> range4eq;
-    private List<String> allvars;
-    private HashMap<String, Variable> decVars;
-    private HashMap<String, Boolean> varsIsInt;
-    private HashMap<String, Number[]> varsDom;
+    /**
+     * Operators of the rows, <i>null</i> stands for the objective function
+     */
+    private static final String[] OPERATORS = {null, "=", "<=", ">="};
+    private static final byte OBJ = 0;
+    private static final byte EQ = 1;
+    private static final byte LE = 2;
+    private static final byte GE = 3;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // Rows, indexed by their order of declaration
+    private TObjectIntHashMap<String> rowIdx;
+    private List<String> rowNames;
+    private TByteArrayList rowOps;
+    private TDoubleArrayList rowRhs;
+    private TDoubleArrayList rowRng;
+    // Stores, for each row, whether the rhs, the range and the coefficients are not integers
+    private BitSet rowRhsIsReal;
+    private BitSet rowRngIsReal;
+    private BitSet rowCoeffsAreReal;
+    // Columns, indexed by their order of appearance
+    private TObjectIntHashMap<String> colIdx;
+    private List<String> colNames;
+    private BitSet colIsInt;
+    private TDoubleArrayList colLB;
+    private TDoubleArrayList colUB;
+    // Non-zero coefficients, in order of appearance (which is column-wise)
+    private TIntArrayList nzRow;
+    private TIntArrayList nzCol;
+    private TDoubleArrayList nzVal;
+
+    private Variable[] decVars;
 
     private double POS_INF;
 
@@ -68,360 +89,368 @@ public class MPSParser {
                       double ninf, double pinf,
                       boolean ibex,
                       boolean noeq) throws IOException {
-        ope4eq = new HashMap<>();
-        coeffs4eq = new HashMap<>();
-        vars4eq = new HashMap<>();
-        rhs4eq = new HashMap<>();
-        range4eq = new HashMap<>();
-        decVars = new HashMap<>();
-        allvars = new ArrayList<>();
-        varsIsInt = new HashMap<>();
-        varsDom = new HashMap<>();
-
         this.POS_INF = pinf;
         this.NEG_INF = ninf;
+        read(instance);
+        build(model, maximize, ibex, noeq);
+    }
 
-        Reader reader = null;
-        GZIPInputStream gzis = null;
+    /**
+     * Read the instance in one pass.
+     * Rows and columns are interned, and coefficients are stored in primitive arrays.
+     *
+     * @param instance path to the instance, possibly gzipped
+     * @throws IOException if the file cannot be read
+     */
+    private void read(String instance) throws IOException {
+        rowIdx = new TObjectIntHashMap<>(16, .5f, -1);
+        rowNames = new ArrayList<>();
+        rowOps = new TByteArrayList();
+        rowRhs = new TDoubleArrayList();
+        rowRng = new TDoubleArrayList();
+        rowRhsIsReal = new BitSet();
+        rowRngIsReal = new BitSet();
+        rowCoeffsAreReal = new BitSet();
+        colIdx = new TObjectIntHashMap<>(16, .5f, -1);
+        colNames = new ArrayList<>();
+        colIsInt = new BitSet();
+        colLB = new TDoubleArrayList();
+        colUB = new TDoubleArrayList();
+        nzRow = new TIntArrayList();
+        nzCol = new TIntArrayList();
+        nzVal = new TDoubleArrayList();
+
+        InputStream is = new FileInputStream(instance);
         if (instance.endsWith("mps.gz")) {
-            FileInputStream fin = new FileInputStream(instance);
-            gzis = new GZIPInputStream(fin);
-            reader = new InputStreamReader(gzis);
-        } else {
-            reader = new FileReader(instance);
+            is = new GZIPInputStream(is, BUFFER_SIZE);
         }
-        try (BufferedReader br = new BufferedReader(reader)) {
-            readName(br);
-            readRows(br);
-            readColumns(br);
-            readRHS(br);
-            // optional tags
-            br.reset();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(is), BUFFER_SIZE)) {
+            String[] values = new String[6];
+            String section = null;
+            BitSet colAssigned = new BitSet();
+            boolean isInt = false;
             String line = br.readLine();
+            // read NAME
+            while (line != null && !line.startsWith(TAG_NAME)) {
+                line = br.readLine();
+            }
+            if (line == null) {
+                throw new ParserException("No tag \"NAME\" found");
+            }
+            line = br.readLine();
+            if (line == null || !line.startsWith(TAG_ROWS)) {
+                throw new ParserException("No tag \"ROWS\" found");
+            }
             while (line != null && !line.startsWith(TAG_ENDATA)) {
-                if (line.startsWith(TAG_RANGES)) {
-                    readRanges(br);
-                }
-                if (line.startsWith(TAG_BOUNDS)) {
-                    readBounds(br);
+                if (line.length() == 0 || line.charAt(0) == '*') {
+                    // empty line or comment
+                } else if (line.charAt(0) > ' ') {
+                    section = line;
+                } else {
+                    int n = split(line, values);
+                    if (n == 0) {
+                        // blank line
+                    } else if (section.startsWith(TAG_ROWS)) {
+                        check(n == 2, line);
+                        readRow(values);
+                    } else if (section.startsWith(TAG_COLUMNS)) {
+                        if (n > 1 && values[1].equals(TAG_MARKER)) {
+                            check(n == 3, line);
+                            isInt = values[2].equals(TAG_INTORG);
+                        } else {
+                            check(n == 3 || n == 5, line);
+                            int col = column(values[0]);
+                            if (colAssigned.get(col)) {
+                                if (colIsInt.get(col) != isInt) {
+                                    throw new ParserException("Incorrect type found");
+                                }
+                            } else {
+                                colAssigned.set(col);
+                                colIsInt.set(col, isInt);
+                            }
+                            addElement(values[1], col, values[2]);
+                            if (n == 5) {
+                                addElement(values[3], col, values[4]);
+                            }
+                        }
+                    } else if (section.startsWith(TAG_RHS)) {
+                        check(n == 3 || n == 5, line);
+                        addRhs(values[1], values[2], rowRhs, rowRhsIsReal);
+                        if (n == 5) {
+                            addRhs(values[3], values[4], rowRhs, rowRhsIsReal);
+                        }
+                    } else if (section.startsWith(TAG_RANGES)) {
+                        check(n == 3 || n == 5, line);
+                        addRhs(values[1], values[2], rowRng, rowRngIsReal);
+                        if (n == 5) {
+                            addRhs(values[3], values[4], rowRng, rowRngIsReal);
+                        }
+                    } else if (section.startsWith(TAG_BOUNDS)) {
+                        check(n == 3 || n == 4, line);
+                        readBound(values, n);
+                    }
                 }
-                br.mark(CACHING);
                 line = br.readLine();
             }
         }
-        build(model, maximize, ibex, noeq);
-        reader.close();
-        if(gzis != null) {
-            gzis.close();
-        }
     }
 
-    private void readName(BufferedReader br) throws IOException {
-        String line = br.readLine();
-        // read NAME
-        while (line != null && !line.startsWith(TAG_NAME)) {
-            line = br.readLine();
-        }
-        if (line == null) {
-            throw new ParserException("No tag \"NAME\" found");
+    /**
+     * Split a line into tokens separated by blanks
+     *
+     * @param line   a line
+     * @param values array to store the tokens in
+     * @return the number of tokens
+     */
+    private static int split(String line, String[] values) {
+        int n = 0;
+        int i = 0;
+        int len = line.length();
+        while (i < len && n < values.length) {
+            while (i < len && line.charAt(i) <= ' ') i++;
+            int j = i;
+            while (j < len && line.charAt(j) > ' ') j++;
+            if (j > i) {
+                values[n++] = line.substring(i, j);
+            }
+            i = j;
         }
-        br.mark(CACHING);
-        line = br.readLine();
-        assert line.startsWith(TAG_ROWS);
+        return n;
     }
 
-    private void readRows(BufferedReader br) throws IOException {
-        br.reset();
-        String line = br.readLine();
-        if (line == null || !line.startsWith(TAG_ROWS)) {
-            throw new ParserException("No tag \"ROWS\" found");
-        }
-        line = br.readLine();
-        String[] values;
-        // read the next one, which contains the name of the first constraint
-        while (line != null && !line.startsWith(TAG_COLUMNS)) {
-            // Fields start in column 2, 5, 15, 25, 40 and 50
-            values = Arrays.stream(line.split(" ")).filter(v -> v.length() > 0).toArray(String[]::new);
-            switch (values[0]) {
-                case "N":
-                    break;
-                case "E":
-                    ope4eq.put(values[1], "=");
-                    break;
-                case "L":
-                    ope4eq.put(values[1], "<=");
-                    break;
-                case "G":
-                    ope4eq.put(values[1], ">=");
-                    break;
-                default:
-                    throw new ParserException("Unknown identifier \"" + values[0] + "\"");
-            }
-            br.mark(CACHING);
-            line = br.readLine();
+    /**
+     * @param wellFormed <i>true</i> if the line holds the expected number of tokens
+     * @param line       the line read
+     * @throws ParserException if the line is not well-formed
+     */
+    private static void check(boolean wellFormed, String line) {
+        if (!wellFormed) {
+            throw new ParserException("Malformed line \"" + line.trim() + "\"");
         }
     }
 
-    private void readColumns(BufferedReader br) throws IOException {
-        br.reset();
-        String line = br.readLine();
-        if (line == null || !line.startsWith(TAG_COLUMNS)) {
-            throw new ParserException("No tag \"COLUMNS\" found");
+    /**
+     * @param token a token
+     * @return <i>true</i> if the token is an integer (that is, matches "-?\\d+")
+     */
+    private static boolean isInt(String token) {
+        int i = token.charAt(0) == '-' ? 1 : 0;
+        if (i == token.length()) {
+            return false;
         }
-        line = br.readLine();
-        boolean isInt = false;
-        String[] values;
-        // read the next one, which contains the first instruction
-        while (line != null && !line.startsWith(TAG_RHS)) {
-            values = Arrays.stream(line.split(" ")).filter(v -> v.length() > 0).toArray(String[]::new);
-            if (values[1].equals(TAG_MARKER)) {
-                isInt = values[2].equals(TAG_INTORG);
-            } else {
-                if (!decVars.containsKey(values[0])) {
-                    decVars.put(values[0], null);
-                    allvars.add(values[0]);
-                }
-                addElement(values[1], values[0], values[2], isInt);
-                if (values.length == 5) {
-                    addElement(values[3], values[0], values[4], isInt);
-                }
+        for (; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
             }
-            br.mark(CACHING);
-            line = br.readLine();
         }
+        return true;
     }
 
-    private void addElement(String cnam, String vnam, String coeff, boolean isInt) {
-        List<Number> coeffs = coeffs4eq.get(cnam);
-        ArrayList<String> vars = vars4eq.get(cnam);
-        if (coeffs == null) {
-            coeffs = new ArrayList<>();
-            vars = new ArrayList<>();
-            coeffs4eq.put(cnam, coeffs);
-            vars4eq.put(cnam, vars);
-        }
-        if (coeff.matches("-?\\d+")) {
-            coeffs.add(Integer.parseInt(coeff));
-        } else {
-            coeffs.add(Double.parseDouble(coeff));
-        }
-        vars.add(vnam);
-        Boolean vint = varsIsInt.get(vnam);
-        if (vint == null) {
-            vint = isInt;
-            varsIsInt.put(vnam, vint);
-        } else if (vint != isInt) {
-            throw new ParserException("Incorrect type found");
-        }
+    private static double parse(String token, boolean isInt) {
+        return isInt ? Integer.parseInt(token) : Double.parseDouble(token);
     }
 
-    private void readRHS(BufferedReader br) throws IOException {
-        br.reset();
-        String line = br.readLine();
-        if (line == null || !line.startsWith(TAG_RHS)) {
-            throw new ParserException("No tag \"RHS\" found");
-        }
-        line = br.readLine();
-        String[] values;
-        while (line != null
-                && !line.startsWith(TAG_RANGES)
-                && !line.startsWith(TAG_BOUNDS)
-                && !line.startsWith(TAG_ENDATA)) {
-            values = Arrays.stream(line.split(" ")).filter(v -> v.length() > 0).toArray(String[]::new);
-            addRhs(values[1], values[2]);
-            if (values.length == 5) {
-                addRhs(values[3], values[4]);
-            }
-            br.mark(CACHING);
-            line = br.readLine();
+    private void readRow(String[] values) {
+        byte op;
+        switch (values[0]) {
+            case "N":
+                op = OBJ;
+                break;
+            case "E":
+                op = EQ;
+                break;
+            case "L":
+                op = LE;
+                break;
+            case "G":
+                op = GE;
+                break;
+            default:
+                throw new ParserException("Unknown identifier \"" + values[0] + "\"");
         }
+        rowOps.set(row(values[1]), op);
     }
 
-    private void addRhs(String cnam, String rhsv) {
-        Number rhs = rhs4eq.get(cnam);
-        if (rhs == null) {
-            if (rhsv.matches("-?\\d+")) {
-                rhs = Integer.parseInt(rhsv);
-            } else {
-                rhs = Double.parseDouble(rhsv);
-            }
-            rhs4eq.put(cnam, rhs);
+    private int row(String rnam) {
+        int row = rowIdx.get(rnam);
+        if (row == -1) {
+            row = rowNames.size();
+            rowIdx.put(rnam, row);
+            rowNames.add(rnam);
+            rowOps.add(OBJ);
+            rowRhs.add(Double.NaN);
+            rowRng.add(Double.NaN);
         }
+        return row;
     }
 
-    private void readRanges(BufferedReader br) throws IOException {
-        br.reset();
-        String line = br.readLine();
-        if (line == null || !line.startsWith(TAG_RANGES)) {
-            throw new ParserException("No tag \"RANGES\" found");
+    private int column(String vnam) {
+        int col = colIdx.get(vnam);
+        if (col == -1) {
+            col = colNames.size();
+            colIdx.put(vnam, col);
+            colNames.add(vnam);
+            colLB.add(0);
+            colUB.add(POS_INF);
         }
-        line = br.readLine();
-        String[] values;
-        while (line != null
-                && !line.startsWith(TAG_BOUNDS)
-                && !line.startsWith(TAG_ENDATA)) {
-            values = Arrays.stream(line.split(" ")).filter(v -> v.length() > 0).toArray(String[]::new);
-            addRange(values[1], values[2]);
-            if (values.length > 3) {
-                addRange(values[3], values[4]);
-            }
-            br.mark(CACHING);
-            line = br.readLine();
+        return col;
+    }
+
+    private void addElement(String cnam, int col, String coeff) {
+        int row = row(cnam);
+        boolean isInt = isInt(coeff);
+        if (!isInt) {
+            rowCoeffsAreReal.set(row);
         }
+        nzRow.add(row);
+        nzCol.add(col);
+        nzVal.add(parse(coeff, isInt));
     }
 
-    private void addRange(String cnam, String range) {
-        Number rng = range4eq.get(cnam);
-        if (rng == null) {
-            if (range.matches("-?\\d+")) {
-                rng = Integer.parseInt(range);
-            } else {
-                rng = Double.parseDouble(range);
-            }
-            range4eq.put(cnam, rng);
+    private void addRhs(String cnam, String rhsv, TDoubleArrayList values, BitSet isReal) {
+        int row = rowIdx.get(cnam);
+        // only the first value is considered
+        if (row > -1 && Double.isNaN(values.get(row))) {
+            boolean isInt = isInt(rhsv);
+            values.set(row, parse(rhsv, isInt));
+            isReal.set(row, !isInt);
         }
     }
 
-    private void readBounds(BufferedReader br) throws IOException {
-        br.reset();
-        String line = br.readLine();
-        if (line == null || !line.startsWith(TAG_BOUNDS)) {
-            throw new ParserException("No tag \"BOUNDS\" found");
+    private void readBound(String[] values, int n) {
+        int col = colIdx.get(values[2]);
+        if (col == -1) {
+            // the variable does not appear in any row
+            return;
         }
-        line = br.readLine();
-        String[] values;
-        while (line != null
-                && !line.startsWith(TAG_ENDATA)) {
-            values = Arrays.stream(line.split(" ")).filter(v -> v.length() > 0).toArray(String[]::new);
-            String var = values[2];
-            Number[] bounds = varsDom.get(var);
-            if (bounds == null) {
-                bounds = new Number[]{0, POS_INF};
-                varsDom.put(var, bounds);
-            }
-            String val = values.length > 3 ? values[3] : "--";
-            switch (values[0]) {
-                case "LO":
-                    if (val.matches("-?\\d+")) {
-                        bounds[0] = Integer.parseInt(val);
-                    } else {
-                        bounds[0] = Double.parseDouble(val);
-                    }
-                    break;
-                case "UP":
-                    if (val.matches("-?\\d+")) {
-                        bounds[1] = Integer.parseInt(val);
-                    } else {
-                        bounds[1] = Double.parseDouble(val);
-                    }
-                    break;
-                case "FX":
-                    if (val.matches("-?\\d+")) {
-                        bounds[0] = bounds[1] = Integer.parseInt(val);
-                    } else {
-                        bounds[0] = bounds[1] = Double.parseDouble(val);
-                    }
-                    break;
-                case "FR":
-                    bounds[0] = NEG_INF;
-                    bounds[1] = POS_INF;
-                    break;
-                case "MI":
-                    bounds[0] = NEG_INF;
-                    bounds[1] = 0;
-                    break;
-                case "PL":
-                    bounds[0] = 0;
-                    bounds[1] = POS_INF;
-                    break;
-                case "BV":
-                    varsIsInt.put(var, true);
-                    bounds[0] = 0;
-                    bounds[1] = 1;
-                    break;
-                case "UI":
-                    varsIsInt.put(var, true);
-                    if (val.matches("-?\\d+")) {
-                        bounds[1] = Integer.parseInt(val);
-                    } else {
-                        throw new ParserException("UI refers to double instead of int");
-                    }
-                    break;
-                case "LI":
-                    varsIsInt.put(var, true);
-                    if (val.matches("-?\\d+")) {
-                        bounds[0] = Integer.parseInt(val);
-                    } else {
-                        throw new ParserException("LI refers to double instead of int");
-                    }
-                    break;
-                case "SC":
-                    throw new ParserException("semi-continuous not supported");
-                default:
-                    throw new ParserException("Unknown identifier \"" + values[0] + "\"");
-            }
-            br.mark(CACHING);
-            line = br.readLine();
+        String val = n > 3 ? values[3] : "--";
+        switch (values[0]) {
+            case "LO":
+                colLB.set(col, parse(val, isInt(val)));
+                break;
+            case "UP":
+                colUB.set(col, parse(val, isInt(val)));
+                break;
+            case "FX":
+                colLB.set(col, parse(val, isInt(val)));
+                colUB.set(col, colLB.get(col));
+                break;
+            case "FR":
+                colLB.set(col, NEG_INF);
+                colUB.set(col, POS_INF);
+                break;
+            case "MI":
+                colLB.set(col, NEG_INF);
+                colUB.set(col, 0);
+                break;
+            case "PL":
+                colLB.set(col, 0);
+                colUB.set(col, POS_INF);
+                break;
+            case "BV":
+                colIsInt.set(col);
+                colLB.set(col, 0);
+                colUB.set(col, 1);
+                break;
+            case "UI":
+                colIsInt.set(col);
+                if (isInt(val)) {
+                    colUB.set(col, Integer.parseInt(val));
+                } else {
+                    throw new ParserException("UI refers to double instead of int");
+                }
+                break;
+            case "LI":
+                colIsInt.set(col);
+                if (isInt(val)) {
+                    colLB.set(col, Integer.parseInt(val));
+                } else {
+                    throw new ParserException("LI refers to double instead of int");
+                }
+                break;
+            case "SC":
+                throw new ParserException("semi-continuous not supported");
+            default:
+                throw new ParserException("Unknown identifier \"" + values[0] + "\"");
         }
     }
 
-
     private void build(Model model, boolean maximize, boolean ibex, boolean noeq) {
         // First, create variables
-        for (int i = 0; i < allvars.size(); i++) {
-            String vnam = allvars.get(i);
-            Number[] bounds = varsDom.get(vnam);
-            if (varsIsInt.get(vnam)) {
-                if (bounds == null) {
-                    bounds = new Number[]{0, POS_INF};
-                }
-                IntVar ivar = model.intVar(vnam, bounds[0].intValue(), bounds[1].intValue());
-                decVars.put(vnam, ivar);
+        decVars = new Variable[colNames.size()];
+        for (int i = 0; i < decVars.length; i++) {
+            String vnam = colNames.get(i);
+            if (colIsInt.get(i)) {
+                decVars[i] = model.intVar(vnam, (int) colLB.get(i), (int) colUB.get(i));
             } else {
-                if (bounds == null) {
-                    bounds = new Number[]{0, POS_INF};
-                }
-                RealVar rvar = model.realVar(vnam, bounds[0].doubleValue(), bounds[1].doubleValue(), model.getPrecision());
-                decVars.put(vnam, rvar);
+                decVars[i] = model.realVar(vnam, colLB.get(i), colUB.get(i), model.getPrecision());
             }
         }
+        // then, store coefficients row-wise (CSR), preserving their order of appearance
+        int nbRows = rowNames.size();
+        int[] rowStart = new int[nbRows + 1];
+        for (int k = 0; k < nzRow.size(); k++) {
+            rowStart[nzRow.getQuick(k) + 1]++;
+        }
+        for (int r = 0; r < nbRows; r++) {
+            rowStart[r + 1] += rowStart[r];
+        }
+        int[] cols = new int[nzRow.size()];
+        double[] vals = new double[nzRow.size()];
+        int[] pos = Arrays.copyOf(rowStart, nbRows);
+        for (int k = 0; k < nzRow.size(); k++) {
+            int p = pos[nzRow.getQuick(k)]++;
+            cols[p] = nzCol.getQuick(k);
+            vals[p] = nzVal.getQuick(k);
+        }
+        nzRow = nzCol = null;
+        nzVal = null;
         // then create constraints
-        String[] cnames = vars4eq.keySet().toArray(new String[vars4eq.size()]);
-        Arrays.sort(cnames); // preserve order for determinism
+        Integer[] rows = IntStream.range(0, nbRows)
+                .filter(r -> rowStart[r + 1] > rowStart[r])
+                .boxed()
+                .sorted(Comparator.comparing(rowNames::get)) // preserve order for determinism
+                .toArray(Integer[]::new);
         boolean foundObj = false;
         boolean unimod = true;
-        for (int i = 0; i < cnames.length; i++) {
-            String cnam = cnames[i];
-            List<Number> coefs = coeffs4eq.get(cnam);
-            unimod &= coefs.stream().allMatch(n -> (n.getClass() == Integer.class) && Math.abs(n.intValue()) == 1);
-            String op = ope4eq.get(cnam);
-            Number rhs = rhs4eq.get(cnam);
-            Number rng = range4eq.get(cnam);
-            if (rhs == null) rhs = 0;
-            List<String> vars = vars4eq.get(cnam);
-            if (vars.stream().allMatch(v -> varsIsInt.get(v))
-                    && coefs.stream().allMatch(n -> n.getClass() == Integer.class)
-                    && rhs.getClass() == Integer.class
-                    && (rng == null || rng.getClass() == Integer.class)) {
+        for (int r : rows) {
+            int from = rowStart[r];
+            int to = rowStart[r + 1];
+            int[] rcols = Arrays.copyOfRange(cols, from, to);
+            double[] coefs = Arrays.copyOfRange(vals, from, to);
+            unimod &= !rowCoeffsAreReal.get(r) && Arrays.stream(coefs).allMatch(c -> Math.abs(c) == 1);
+            String op = OPERATORS[rowOps.getQuick(r)];
+            double rhs = Double.isNaN(rowRhs.getQuick(r)) ? 0 : rowRhs.getQuick(r);
+            double rng = rowRng.getQuick(r);
+            if (Arrays.stream(rcols).allMatch(colIsInt::get)
+                    && !rowCoeffsAreReal.get(r)
+                    && !rowRhsIsReal.get(r)
+                    && !rowRngIsReal.get(r)) {
+                IntVar[] ivars = Arrays.stream(rcols).mapToObj(c -> (IntVar) decVars[c]).toArray(IntVar[]::new);
+                int[] icoefs = Arrays.stream(coefs).mapToInt(c -> (int) c).toArray();
+                Integer irng = Double.isNaN(rng) ? null : (int) rng;
                 if (op == null) {
-                    foundObj = postIntObectiveFunction(model, vars, coefs, rhs, rng, maximize, foundObj, noeq);
+                    foundObj = postIntObectiveFunction(model, ivars, icoefs, (int) rhs, irng, maximize, foundObj, noeq);
                 } else {
-                    postIntEquation(model, vars, coefs, op, rhs, rng, noeq);
+                    postIntEquation(model, ivars, icoefs, op, (int) rhs, irng, noeq);
                 }
             } else {
+                Variable[] vars = Arrays.stream(rcols).mapToObj(c -> decVars[c]).toArray(Variable[]::new);
+                Double drng = Double.isNaN(rng) ? null : rng;
                 if (ibex) {
                     // ibex function
                     if (op == null) {
                         // objective function
-                        foundObj = postIbexObjectiveFunction(model, vars, coefs, rhs, rng, maximize, foundObj);
+                        foundObj = postIbexObjectiveFunction(model, vars, coefs, rhs, drng, maximize, foundObj);
                     } else {
-                        postIbexEquation(model, vars, coefs, op, rhs, rng);
+                        postIbexEquation(model, vars, coefs, op, rhs, drng);
                     }
                 } else {
                     if (op == null) {
-                        foundObj = postObjectiveFunction(model, vars, coefs, rhs, rng, maximize, foundObj);
+                        foundObj = postObjectiveFunction(model, vars, coefs, rhs, drng, maximize, foundObj);
                     } else {
-                        postEquation(model, vars, coefs, op, rhs, rng);
+                        postEquation(model, vars, coefs, op, rhs, drng);
                     }
                 }
             }
@@ -429,83 +458,49 @@ public class MPSParser {
         model.getSolver().log().white().printf("c Unimodular: %s\n", unimod);
     }
 
-    private void postIntEquation(Model model, List<String> vars, List<Number> coefs, String op,
-                                 Number rhs, Number rng, boolean noeq) {
+    private void postIntEquation(Model model, IntVar[] vars, int[] coefs, String op,
+                                 int rhs, Integer rng, boolean noeq) {
         switch (op) {
             case "=":
                 if (rng == null) {
                     // only made of int var, and all coeffs are int
-                    if(noeq) {
-                        model.scalar(vars.stream().map(s -> (IntVar) decVars.get(s)).toArray(IntVar[]::new),
-                                coefs.stream().mapToInt(Number::intValue).toArray(), "<=", rhs.intValue()
-                        ).post();
-                        model.scalar(vars.stream().map(s -> (IntVar) decVars.get(s)).toArray(IntVar[]::new),
-                                coefs.stream().mapToInt(Number::intValue).toArray(), ">=", rhs.intValue()
-                        ).post();
-                    }else{
-                        model.scalar(vars.stream().map(s -> (IntVar) decVars.get(s)).toArray(IntVar[]::new),
-                                coefs.stream().mapToInt(Number::intValue).toArray(), op, rhs.intValue()
-                        ).post();
+                    if (noeq) {
+                        model.scalar(vars, coefs, "<=", rhs).post();
+                        model.scalar(vars, coefs, ">=", rhs).post();
+                    } else {
+                        model.scalar(vars, coefs, op, rhs).post();
                     }
                 } else {
-                    if (rng.intValue() > 0) {
-                        model.scalar(vars.stream().map(s -> (IntVar) decVars.get(s)).toArray(IntVar[]::new),
-                                coefs.stream().mapToInt(Number::intValue).toArray(), ">=", rhs.intValue()
-                        ).post();
-                        model.scalar(vars.stream().map(s -> (IntVar) decVars.get(s)).toArray(IntVar[]::new),
-                                coefs.stream().mapToInt(Number::intValue).toArray(), "<=",
-                                rhs.intValue() + rng.intValue()
-                        ).post();
+                    if (rng > 0) {
+                        model.scalar(vars, coefs, ">=", rhs).post();
+                        model.scalar(vars, coefs, "<=", rhs + rng).post();
                     } else {
-                        model.scalar(vars.stream().map(s -> (IntVar) decVars.get(s)).toArray(IntVar[]::new),
-                                coefs.stream().mapToInt(Number::intValue).toArray(), "<=", rhs.intValue()
-                        ).post();
-                        model.scalar(vars.stream().map(s -> (IntVar) decVars.get(s)).toArray(IntVar[]::new),
-                                coefs.stream().mapToInt(Number::intValue).toArray(), ">=",
-                                rhs.intValue() + rng.intValue()
-                        ).post();
+                        model.scalar(vars, coefs, "<=", rhs).post();
+                        model.scalar(vars, coefs, ">=", rhs + rng).post();
                     }
                 }
                 break;
             default:
                 // only made of int var, and all coeffs are int
-                model.scalar(
-                        vars.stream()
-                                .map(s -> (IntVar) decVars.get(s))
-                                .toArray(IntVar[]::new),
-                        coefs.stream()
-                                .mapToInt(Number::intValue)
-                                .toArray(),
-                        op,
-                        rhs.intValue()
-                ).post();
+                model.scalar(vars, coefs, op, rhs).post();
                 if (rng != null) {
                     String nop = ">=";
-                    int b = rhs.intValue();
+                    int b = rhs;
                     if (op.equals(">=")) {
                         nop = "<=";
-                        b += Math.abs(rng.intValue());
+                        b += Math.abs(rng);
                     } else {
-                        b -= Math.abs(rng.intValue());
+                        b -= Math.abs(rng);
                     }
-                    model.scalar(
-                            vars.stream()
-                                    .map(s -> (IntVar) decVars.get(s))
-                                    .toArray(IntVar[]::new),
-                            coefs.stream()
-                                    .mapToInt(Number::intValue)
-                                    .toArray(),
-                            nop,
-                            b
-                    ).post();
+                    model.scalar(vars, coefs, nop, b).post();
                 }
 
                 break;
         }
     }
 
-    private boolean postIntObectiveFunction(Model model, List<String> vars, List<Number> coefs,
-                                            Number rhs, Number rng,
+    private boolean postIntObectiveFunction(Model model, IntVar[] vars, int[] coefs,
+                                            int rhs, Integer rng,
                                             boolean maximize, boolean foundObj, boolean noeq) {
         if (foundObj) {
             throw new ParserException("More than one objective function found");
@@ -514,33 +509,13 @@ public class MPSParser {
         } else {
             IntVar objective = model.intVar("OBJ", (int) Math.ceil(NEG_INF), (int) Math.floor(POS_INF));
             model.setObjective(maximize, objective);
-            IntVar[] ivars = vars.stream().map(s -> (IntVar) decVars.get(s)).toArray(IntVar[]::new);
-            if(noeq) {
-                model.scalar(
-                        ArrayUtils.append(ivars, new IntVar[]{objective}),
-                        ArrayUtils.concat(coefs.stream()
-                                .mapToInt(Number::intValue)
-                                .toArray(), -1),
-                        "<=",
-                        rhs.intValue()
-                ).post();
-                model.scalar(
-                        ArrayUtils.append(ivars, new IntVar[]{objective}),
-                        ArrayUtils.concat(coefs.stream()
-                                .mapToInt(Number::intValue)
-                                .toArray(), -1),
-                        ">=",
-                        rhs.intValue()
-                ).post();
-            }else{
-                model.scalar(
-                        ArrayUtils.append(ivars, new IntVar[]{objective}),
-                        ArrayUtils.concat(coefs.stream()
-                                .mapToInt(Number::intValue)
-                                .toArray(), -1),
-                        "=",
-                        rhs.intValue()
-                ).post();
+            IntVar[] ivars = ArrayUtils.append(vars, new IntVar[]{objective});
+            int[] icoefs = ArrayUtils.concat(coefs, -1);
+            if (noeq) {
+                model.scalar(ivars, icoefs, "<=", rhs).post();
+                model.scalar(ivars, icoefs, ">=", rhs).post();
+            } else {
+                model.scalar(ivars, icoefs, "=", rhs).post();
             }
         }
         return true;
@@ -552,73 +527,43 @@ public class MPSParser {
     }
 
 
-    private void postEquation(Model model, List<String> vars, List<Number> coefs, String op,
-                              Number rhs, Number rng) {
+    private void postEquation(Model model, Variable[] vars, double[] coefs, String op,
+                              double rhs, Double rng) {
         switch (op) {
             case "=":
                 if (rng == null) {
                     // only made of int var, and all coeffs are int
-                    mixedScalar(vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new),
-                            coefs.stream().mapToDouble(Number::doubleValue).toArray(), op, rhs.doubleValue()
-                    ).post();
+                    mixedScalar(vars, coefs, op, rhs).post();
                 } else {
                     if (rng.intValue() > 0) {
-                        mixedScalar(vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new),
-                                coefs.stream().mapToDouble(Number::doubleValue).toArray(), ">=", rhs.doubleValue()
-                        ).post();
-                        mixedScalar(vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new),
-                                coefs.stream().mapToDouble(Number::doubleValue).toArray(), "<=",
-                                rhs.doubleValue() + rng.doubleValue()
-                        ).post();
+                        mixedScalar(vars, coefs, ">=", rhs).post();
+                        mixedScalar(vars, coefs, "<=", rhs + rng).post();
                     } else {
-                        mixedScalar(vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new),
-                                coefs.stream().mapToDouble(Number::doubleValue).toArray(), "<=", rhs.doubleValue()
-                        ).post();
-                        mixedScalar(vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new),
-                                coefs.stream().mapToDouble(Number::doubleValue).toArray(), ">=",
-                                rhs.doubleValue() + rng.doubleValue()
-                        ).post();
+                        mixedScalar(vars, coefs, "<=", rhs).post();
+                        mixedScalar(vars, coefs, ">=", rhs + rng).post();
                     }
                 }
                 break;
             default:
                 // only made of int var, and all coeffs are int
-                mixedScalar(
-                        vars.stream()
-                                .map(s -> decVars.get(s))
-                                .toArray(Variable[]::new),
-                        coefs.stream()
-                                .mapToDouble(Number::doubleValue)
-                                .toArray(),
-                        op,
-                        rhs.doubleValue()
-                ).post();
+                mixedScalar(vars, coefs, op, rhs).post();
                 if (rng != null) {
                     String nop = ">=";
-                    double b = rhs.doubleValue();
+                    double b = rhs;
                     if (op.equals(">=")) {
                         nop = "<=";
-                        b += Math.abs(rng.doubleValue());
+                        b += Math.abs(rng);
                     } else {
-                        b -= Math.abs(rng.doubleValue());
+                        b -= Math.abs(rng);
                     }
-                    mixedScalar(
-                            vars.stream()
-                                    .map(s -> decVars.get(s))
-                                    .toArray(Variable[]::new),
-                            coefs.stream()
-                                    .mapToDouble(Number::doubleValue)
-                                    .toArray(),
-                            nop,
-                            b
-                    ).post();
+                    mixedScalar(vars, coefs, nop, b).post();
                 }
                 break;
         }
     }
 
-    private boolean postObjectiveFunction(Model model, List<String> vars, List<Number> coefs,
-                                          Number rhs, Number rng,
+    private boolean postObjectiveFunction(Model model, Variable[] vars, double[] coefs,
+                                          double rhs, Double rng,
                                           boolean maximize, boolean foundObj) {
         if (foundObj) {
             throw new ParserException("More than one objective function found");
@@ -627,75 +572,61 @@ public class MPSParser {
         } else {
             RealVar objective = model.realVar("OBJ", NEG_INF, POS_INF, model.getPrecision());
             model.setObjective(maximize, objective);
-            Variable[] svars = vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new);
-            coefs.add(-1d);
+            double[] dcoefs = Arrays.copyOf(coefs, coefs.length + 1);
+            dcoefs[coefs.length] = -1d;
             mixedScalar(
-                    ArrayUtils.append(svars, new RealVar[]{objective}),
-                    coefs.stream().mapToDouble(Number::doubleValue)
-                            .toArray(),
+                    ArrayUtils.append(vars, new RealVar[]{objective}),
+                    dcoefs,
                     "=",
-                    rhs.doubleValue()).post();
-            coefs.remove(coefs.size() - 1);
+                    rhs).post();
         }
         return true;
     }
 
-    private void postIbexEquation(Model model, List<String> vars, List<Number> coefs, String op,
-                                  Number rhs, Number rng) {
+    private void postIbexEquation(Model model, Variable[] vars, double[] coefs, String op,
+                                  double rhs, Double rng) {
         StringBuilder fct = new StringBuilder();
-        for (int j = 0; j < vars.size(); j++) {
+        for (int j = 0; j < vars.length; j++) {
             if (j > 0) fct.append('+');
-            fct.append('{').append(j).append('}').append("*").append(coefs.get(j).doubleValue());
+            fct.append('{').append(j).append('}').append("*").append(coefs[j]);
         }
         switch (op) {
             case "=":
                 if (rng == null) {
-                    fct.append(op).append(rhs.doubleValue());
-                    model.realIbexGenericConstraint(fct.toString(), vars.stream()
-                            .map(s -> decVars.get(s))
-                            .toArray(Variable[]::new)).post();
+                    fct.append(op).append(rhs);
+                    model.realIbexGenericConstraint(fct.toString(), vars).post();
                 } else {
                     if (rng.intValue() > 0) {
-                        model.realIbexGenericConstraint(fct + ">=" + rhs.doubleValue(),
-                                vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new)).post();
-                        model.realIbexGenericConstraint(fct + "<=" +
-                                        rhs.doubleValue() + rng.doubleValue(),
-                                vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new)).post();
+                        model.realIbexGenericConstraint(fct + ">=" + rhs, vars).post();
+                        model.realIbexGenericConstraint(fct + "<=" + rhs + rng, vars).post();
                     } else {
-                        model.realIbexGenericConstraint(fct + "<=" + rhs.doubleValue(),
-                                vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new)).post();
-                        model.realIbexGenericConstraint(fct + ">=" +
-                                        rhs.doubleValue() + rng.doubleValue(),
-                                vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new)).post();
+                        model.realIbexGenericConstraint(fct + "<=" + rhs, vars).post();
+                        model.realIbexGenericConstraint(fct + ">=" + rhs + rng, vars).post();
                     }
                 }
                 break;
             default:
-                fct.append(op).append(rhs.doubleValue());
-                model.realIbexGenericConstraint(fct.toString(), vars.stream()
-                        .map(s -> decVars.get(s))
-                        .toArray(Variable[]::new)).post();
+                fct.append(op).append(rhs);
+                model.realIbexGenericConstraint(fct.toString(), vars).post();
                 if (rng != null) {
                     String nop = ">=";
-                    double b = rhs.doubleValue();
+                    double b = rhs;
                     if (op.equals(">=")) {
                         nop = "<=";
-                        b += Math.abs(rng.doubleValue());
+                        b += Math.abs(rng);
                     } else {
-                        b -= Math.abs(rng.doubleValue());
+                        b -= Math.abs(rng);
                     }
                     fct.append(nop).append(b);
-                    model.realIbexGenericConstraint(fct.toString(), vars.stream()
-                            .map(s -> decVars.get(s))
-                            .toArray(Variable[]::new)).post();
+                    model.realIbexGenericConstraint(fct.toString(), vars).post();
                 }
                 break;
         }
 
     }
 
-    private boolean postIbexObjectiveFunction(Model model, List<String> vars, List<Number> coefs,
-                                              Number rhs, Number rng,
+    private boolean postIbexObjectiveFunction(Model model, Variable[] vars, double[] coefs,
+                                              double rhs, Double rng,
                                               boolean maximize, boolean foundObj) {
         if (foundObj) {
             throw new ParserException("More than one objective function found");
@@ -703,16 +634,15 @@ public class MPSParser {
             throw new ParserException("Range found for objective function");
         } else {
             StringBuilder fct = new StringBuilder();
-            for (int j = 0; j < vars.size(); j++) {
+            for (int j = 0; j < vars.length; j++) {
                 if (j > 0) fct.append('+');
-                fct.append('{').append(j).append('}').append("*").append(coefs.get(j).doubleValue());
+                fct.append('{').append(j).append('}').append("*").append(coefs[j]);
             }
             RealVar objective = model.realVar("OBJ", NEG_INF, POS_INF, model.getPrecision());
             model.setObjective(maximize, objective);
-            fct.append('=').append('{').append(vars.size()).append('}').append('+').append(rhs.doubleValue());
-            Variable[] svars = vars.stream().map(s -> decVars.get(s)).toArray(Variable[]::new);
+            fct.append('=').append('{').append(vars.length).append('}').append('+').append(rhs);
             model.realIbexGenericConstraint(fct.toString(),
-                    ArrayUtils.append(svars, new Variable[]{objective})).post();
+                    ArrayUtils.append(vars, new Variable[]{objective})).post();
         }
         return true;
     }
@@ -720,10 +650,9 @@ public class MPSParser {
 
     public String printSolution() {
         StringBuilder st = new StringBuilder();
-        for (int i = 0; i < allvars.size(); i++) {
-            String vnam = allvars.get(i);
-            st.append(vnam).append('\t');
-            Variable var = decVars.get(vnam);
+        for (int i = 0; i < decVars.length; i++) {
+            st.append(colNames.get(i)).append('\t');
+            Variable var = decVars[i];
             if (VariableUtils.isReal(var)) {
                 st.append(var.asRealVar().getLB());
             } else {
@@ -734,5 +663,3 @@ public class MPSParser {
         return st.toString();
     }
 }
-
-
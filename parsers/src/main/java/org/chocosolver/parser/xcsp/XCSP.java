@@ -9,6 +9,7 @@
  */
 package org.chocosolver.parser.xcsp;
 
+import gnu.trove.map.hash.TObjectIntHashMap;
 import org.chocosolver.cutoffseq.LubyCutoffStrategy;
 import org.chocosolver.parser.Level;
 import org.chocosolver.parser.RegParser;
@@ -20,7 +21,9 @@ import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.logger.Logger;
 import org.kohsuke.args4j.Option;
+import org.xcsp.parser.XParser;
 import org.xcsp.parser.callbacks.SolutionChecker;
+import org.xcsp.parser.entries.XVariables;
 
 import java.io.ByteArrayInputStream;
 import java.nio.file.Paths;
@@ -90,34 +93,68 @@ public class XCSP extends RegParser {
     @Override
     public void buildModel() {
         List<Model> models = portfolio.getModels();
+        long rtime = -System.currentTimeMillis();
+        XParser xparser;
+        TObjectIntHashMap<XVariables.XVar> index;
+        try {
+            xparser = XCSPParser.parse(instance);
+            index = XCSPParser.index(xparser);
+        } catch (Exception e) {
+            unsupported(models.get(0), e);
+            return;
+        }
+        rtime += System.currentTimeMillis();
+        // the models are built one after the other from the same parsed instance:
+        // xcsp3-tools completes and recognizes the parsed constraints on the fly,
+        // which makes concurrent loading unsafe
         for (int i = 0; i < models.size(); i++) {
             try {
                 long ptime = -System.currentTimeMillis();
-                parse(models.get(i), parsers[i], i);
+                parse(models.get(i), parsers[i], xparser, index, i);
                 models.get(i).getSolver().logWithANSI(ansi);
                 if (level.isLoggable(Level.INFO)) {
-                    models.get(i).getSolver().log().white().printf("File parsed in %d ms%n", (ptime + System.currentTimeMillis()));
+                    models.get(i).getSolver().log().white().printf("File read in %d ms, parsed in %d ms%n",
+                            rtime, (ptime + System.currentTimeMillis()));
                 }
                 if (level.is(Level.JSON)) {
                     models.get(i).getSolver().log().printf("{\"name\":\"%s\",\"stats\":[", instance);
                 }
             } catch (Exception e) {
-                if (level.isLoggable(Level.INFO)) {
-                    models.get(i).getSolver().log().red().print("s UNSUPPORTED\n");
-                    models.get(i).getSolver().log().printf("c %s\n", e.getMessage());
-                }
-                e.printStackTrace();
-                throw new RuntimeException("UNSUPPORTED");
+                unsupported(models.get(i), e);
             }
         }
     }
 
+    private void unsupported(Model model, Exception e) {
+        if (level.isLoggable(Level.INFO)) {
+            model.getSolver().log().red().print("s UNSUPPORTED\n");
+            model.getSolver().log().printf("c %s\n", e.getMessage());
+        }
+        e.printStackTrace();
+        throw new RuntimeException("UNSUPPORTED");
+    }
+
     public void parse(Model target, XCSPParser parser, int i) throws Exception {
-        parser.model(target, instance);
+        XParser xparser = XCSPParser.parse(instance);
+        parse(target, parser, xparser, XCSPParser.index(xparser), i);
+    }
+
+    /**
+     * Feed a model with an instance parsed beforehand
+     *
+     * @param target  the model to feed
+     * @param parser  the parser dedicated to the model
+     * @param xparser the parsed instance
+     * @param index   the index of the variables of the instance
+     * @param i       index of the model in the portfolio
+     */
+    public void parse(Model target, XCSPParser parser, XParser xparser,
+                      TObjectIntHashMap<XVariables.XVar> index, int i) {
+        parser.model(target, xparser, index);
         if (i == 0) {
             IntVar[] decVars = (IntVar[]) getModel().getHook("decisions");
             if (decVars == null) {
-                decVars = parser.mvars.values().toArray(new IntVar[0]);
+                decVars = parser.vars();
             }
             Arrays.sort(decVars, Comparator.comparingInt(IntVar::getId));
             Solver solver = target.getSolver();
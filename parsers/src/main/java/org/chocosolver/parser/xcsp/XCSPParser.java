@@ -35,7 +35,9 @@ import org.xcsp.common.Types;
 import org.xcsp.common.predicates.XNode;
 import org.xcsp.common.predicates.XNodeParent;
 import org.xcsp.common.structures.Transition;
+import org.xcsp.parser.XParser;
 import org.xcsp.parser.callbacks.XCallbacks2;
+import org.xcsp.parser.entries.ParsingEntry;
 import org.xcsp.parser.entries.XConstraints;
 import org.xcsp.parser.entries.XVariables;
 
@@ -63,9 +65,21 @@ public class XCSPParser implements XCallbacks2 {
     private static final String S_VALU_OUT = "</values>";
 
     /**
-     * Mapping between XCSP vars and Choco vars
+     * Dense index of XCSP vars, shared by all the parsers fed with the same instance
      */
-    protected HashMap<XVariables.XVar, IntVar> mvars;
+    protected TObjectIntHashMap<XVariables.XVar> varIdx;
+    /**
+     * XCSP vars, by index
+     */
+    private XVariables.XVar[] declared;
+    /**
+     * Index of the next XCSP var expected to be built
+     */
+    private int cursor;
+    /**
+     * Mapping between XCSP vars, through their index, and Choco vars
+     */
+    protected IntVar[] mvars;
     protected HashSet<IntVar> symbolics;
     protected TObjectIntHashMap<String> symbolToInt;
     protected TIntObjectHashMap<String> intToSymbol;
@@ -79,32 +93,109 @@ public class XCSPParser implements XCallbacks2 {
     Implem implem;
 
     public void model(Model model, String instance) throws Exception {
-        this.model = model;
-        this.mvars = new HashMap<>();
-        this.symbolics = new HashSet<>();
-        this.symbolToInt = new TObjectIntHashMap<>();
-        this.intToSymbol = new TIntObjectHashMap<>();
-        this.implem = new Implem(this);
+        XParser parser = parse(instance);
+        model(model, parser, index(parser));
+    }
+
+    /**
+     * Parse an instance once, the returned parser can then feed as many models as needed
+     * with {@link #model(Model, XParser, TObjectIntHashMap)}.
+     *
+     * @param instance path to the instance
+     * @return the parsed instance
+     * @throws Exception if the instance cannot be parsed
+     */
+    public static XParser parse(String instance) throws Exception {
         File file = new File(instance);
         if (file.exists()) {
-            loadInstance(instance);
+            return new XParser(new XCSPParser().loadDocument(instance));
         } else {
             throw new RuntimeException("FILE DOES NOT EXIST");
         }
     }
 
+    /**
+     * Assign a dense index to each variable declared in a parsed instance.
+     *
+     * @param parser a parsed instance
+     * @return a map from variables to their index
+     */
+    public static TObjectIntHashMap<XVariables.XVar> index(XParser parser) {
+        TObjectIntHashMap<XVariables.XVar> index = new TObjectIntHashMap<>(16, .5f, -1);
+        for (ParsingEntry.VEntry entry : parser.vEntries) {
+            if (entry instanceof XVariables.XArray) {
+                for (XVariables.XVar var : ((XVariables.XArray) entry).vars) {
+                    if (var != null) {
+                        index.putIfAbsent(var, index.size());
+                    }
+                }
+            } else {
+                index.putIfAbsent((XVariables.XVar) entry, index.size());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Feed a model with a parsed instance.
+     * The parsed instance and the index can be shared by parsers feeding distinct models one after the other.
+     * They must not be used concurrently: xcsp3-tools modifies the parsed entries while loading them,
+     * and replaying them concurrently fails (e.g., with "same constraint posted twice").
+     *
+     * @param model  the model to feed
+     * @param parser a parsed instance
+     * @param index  the index of the variables, see {@link #index(XParser)}
+     */
+    public void model(Model model, XParser parser, TObjectIntHashMap<XVariables.XVar> index) {
+        this.model = model;
+        this.varIdx = index;
+        this.mvars = new IntVar[index.size()];
+        this.declared = new XVariables.XVar[index.size()];
+        index.forEachEntry((x, i) -> {
+            declared[i] = x;
+            return true;
+        });
+        this.cursor = 0;
+        this.symbolics = new HashSet<>();
+        this.symbolToInt = new TObjectIntHashMap<>();
+        this.intToSymbol = new TIntObjectHashMap<>();
+        this.implem = new Implem(this);
+        implem.resetStructures();
+        beginInstance(parser.typeFramework);
+        beginVariables(parser.vEntries);
+        loadVariables(parser);
+        endVariables();
+        beginConstraints(parser.cEntries);
+        loadConstraints(parser);
+        endConstraints();
+        beginObjectives(parser.oEntries, parser.typeCombination);
+        loadObjectives(parser);
+        endObjectives();
+        beginAnnotations(parser.aEntries);
+        loadAnnotations(parser);
+        endAnnotations();
+        endInstance();
+    }
+
+    /**
+     * @return the Choco variables built so far, in the order of their declaration
+     */
+    public IntVar[] vars() {
+        return Arrays.stream(mvars).filter(Objects::nonNull).toArray(IntVar[]::new);
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     /////////////////////////////////////////// VARIABLES //////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     @Override
     public void buildVarInteger(XVariables.XVarInteger x, int minValue, int maxValue) {
-        mvars.put(x, model.intVar(x.id, minValue, maxValue));
+        mvars[position(x)] = model.intVar(x.id, minValue, maxValue);
     }
 
     @Override
     public void buildVarInteger(XVariables.XVarInteger x, int[] values) {
-        mvars.put(x, model.intVar(x.id, values));
+        mvars[position(x)] = model.intVar(x.id, values);
     }
 
     @Override
@@ -121,7 +212,7 @@ public class XCSPParser implements XCallbacks2 {
             }
             domain[i] = value;
         }
-        mvars.put(x, model.intVar(x.id, domain));
+        mvars[position(x)] = model.intVar(x.id, domain);
         symbolics.add(var(x));
     }
 
@@ -282,8 +373,27 @@ public class XCSPParser implements XCallbacks2 {
     }
 
 
+    /**
+     * Variables are built in the order of their declaration, which is the one of the index,
+     * so the index of a variable to build is found by moving forward in the declared variables,
+     * skipping the ones that are not built (e.g., unused ones), rather than by looking it up.
+     *
+     * @param x a variable to build
+     * @return its index
+     */
+    private int position(XVariables.XVar x) {
+        while (cursor < declared.length && declared[cursor] != x) {
+            cursor++;
+        }
+        if (cursor == declared.length) {
+            // not built in the order of the declaration
+            cursor = varIdx.get(x);
+        }
+        return cursor++;
+    }
+
     private <V extends XVariables.XVar> IntVar var(V var) {
-        return mvars.get(var);
+        return mvars[varIdx.get(var)];
     }
 
     private <V extends XVariables.XVar> IntVar[] vars(V[] vars) {
@@ -295,7 +405,7 @@ public class XCSPParser implements XCallbacks2 {
     }
 
     private <V extends XVariables.XVar> BoolVar bool(V var) {
-        return (BoolVar) mvars.get(var);
+        return (BoolVar) mvars[varIdx.get(var)];
     }
 
     private <V extends XVariables.XVar> BoolVar[] bools(V[] vars) {
@@ -318,7 +428,7 @@ public class XCSPParser implements XCallbacks2 {
     public String printSolution(boolean format) {
         StringBuilder buffer = new StringBuilder();
         if (ovars == null) {
-            ovars = new ArrayList<>(mvars.values());
+            ovars = new ArrayList<>(Arrays.asList(vars()));
             ovars.sort(IntVar::compareTo);
         }
         buffer.append(String.format(S_INST_IN, model.getSolver().getSolutionCount()));
@@ -0,0 +1,205 @@
+/*
+ * This file is part of choco-parsers, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.mps;
+
+import org.chocosolver.parser.ParserException;
+import org.chocosolver.parser.mps.MPSParser;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.Variable;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * <p> Project: choco-parsers.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class MPSParserTest {
+
+    private static Model parse(String... lines) throws IOException {
+        Path file = Files.createTempFile("instance", ".mps");
+        try {
+            Files.write(file, Arrays.asList(lines));
+            Model model = new Model();
+            new MPSParser().model(model, file.toString(), false, -999, 999, false, false);
+            return model;
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Variable var(Model model, String name) {
+        return Arrays.stream(model.getVars())
+                .filter(v -> v.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(name + " not found"));
+    }
+
+    private static long count(Model model) {
+        return model.getSolver().findAllSolutions().size();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBlankLinesAndComments() throws IOException {
+        Model model = parse(
+                "* a comment before the name",
+                "NAME          BLANKS",
+                "ROWS",
+                " N  COST",
+                "   ",
+                " L  LIM1",
+                "COLUMNS",
+                "    MARKER                 'MARKER'                 'INTORG'",
+                "    X         COST                 1   LIM1                 1",
+                "\t",
+                "* a comment",
+                "    Y         COST                 2   LIM1                 1",
+                "  ",
+                "    MARKER                 'MARKER'                 'INTEND'",
+                "RHS",
+                "    RHS1      LIM1                 3",
+                "      ",
+                "",
+                "BOUNDS",
+                " UP BND1      X                    5",
+                "    ",
+                " UP BND1      Y                    5",
+                "ENDATA");
+        // blank lines neither repeat a coefficient nor a rhs
+        Assert.assertEquals(model.getNbCstrs(), 2);
+        Assert.assertEquals(count(model), 10);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testMarkers() throws IOException {
+        Model model = parse(
+                "NAME          MARKERS",
+                "ROWS",
+                " N  COST",
+                " L  LIM1",
+                "COLUMNS",
+                "    R1        COST                 1   LIM1                 1",
+                "    MARKER                 'MARKER'                 'INTORG'",
+                "    I1        COST                 1   LIM1                 1",
+                "    I2        LIM1                 1",
+                "    MARKER                 'MARKER'                 'INTEND'",
+                "    R2        LIM1               1.5",
+                "RHS",
+                "    RHS1      LIM1                 4",
+                "ENDATA");
+        Assert.assertTrue(var(model, "I1") instanceof IntVar);
+        Assert.assertTrue(var(model, "I2") instanceof IntVar);
+        Assert.assertTrue(var(model, "R1") instanceof RealVar);
+        Assert.assertTrue(var(model, "R2") instanceof RealVar);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = ParserException.class)
+    public void testIncorrectType() throws IOException {
+        parse("NAME          TYPES",
+                "ROWS",
+                " N  COST",
+                "COLUMNS",
+                "    X         COST                 1",
+                "    MARKER                 'MARKER'                 'INTORG'",
+                "    X         COST                 1",
+                "    MARKER                 'MARKER'                 'INTEND'",
+                "RHS",
+                "ENDATA");
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRanges() throws IOException {
+        // 2 <= X + Y <= 4 and 1 <= X - Y <= 2, with 0 <= X, Y <= 3
+        Model model = parse(
+                "NAME          RANGES",
+                "ROWS",
+                " N  COST",
+                " L  LIM1",
+                " E  EQ1",
+                "COLUMNS",
+                "    MARKER                 'MARKER'                 'INTORG'",
+                "    X         COST                 1   LIM1                 1",
+                "    X         EQ1                  1",
+                "    Y         COST                 1   LIM1                 1",
+                "    Y         EQ1                 -1",
+                "    MARKER                 'MARKER'                 'INTEND'",
+                "RHS",
+                "    RHS1      LIM1                 4   EQ1                  1",
+                "RANGES",
+                "    RNG1      LIM1                 2   EQ1                  1",
+                "BOUNDS",
+                " UP BND1      X                    3",
+                " UP BND1      Y                    3",
+                "ENDATA");
+        // (2,0), (2,1) and (3,1)
+        Assert.assertEquals(count(model), 3);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBounds() throws IOException {
+        Model model = parse(
+                "NAME          BOUNDS",
+                "ROWS",
+                " N  COST",
+                " G  LIM1",
+                "COLUMNS",
+                "    MARKER                 'MARKER'                 'INTORG'",
+                "    A         COST                 1   LIM1                 1",
+                "    B         COST                 1   LIM1                 1",
+                "    C         COST                 1   LIM1                 1",
+                "    D         COST                 1   LIM1                 1",
+                "    E         COST                 1   LIM1                 1",
+                "    F         COST                 1   LIM1                 1",
+                "    G         COST                 1   LIM1                 1",
+                "    MARKER                 'MARKER'                 'INTEND'",
+                "RHS",
+                "    RHS1      LIM1               -50",
+                "BOUNDS",
+                " LO BND1      A                    2",
+                " UP BND1      A                    7",
+                " FX BND1      B                    3",
+                " BV BND1      C",
+                " MI BND1      D",
+                " FR BND1      E",
+                " LI BND1      F                   -4",
+                " UI BND1      F                    4",
+                " PL BND1      G",
+                " UP BND1      UNUSED               1",
+                "ENDATA");
+        int[][] bounds = {{2, 7}, {3, 3}, {0, 1}, {-999, 0}, {-999, 999}, {-4, 4}, {0, 999}};
+        for (int i = 0; i < bounds.length; i++) {
+            IntVar v = (IntVar) var(model, String.valueOf((char) ('A' + i)));
+            Assert.assertEquals(v.getLB(), bounds[i][0], v.getName());
+            Assert.assertEquals(v.getUB(), bounds[i][1], v.getName());
+        }
+        // the bound of a variable not declared in any row is ignored
+        Assert.assertTrue(Arrays.stream(model.getVars()).noneMatch(v -> v.getName().equals("UNUSED")));
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = ParserException.class)
+    public void testMalformedLine() throws IOException {
+        parse("NAME          MALFORMED",
+                "ROWS",
+                " N  COST",
+                " L  LIM1",
+                "COLUMNS",
+                "    X         COST                 1   LIM1",
+                "RHS",
+                "ENDATA");
+    }
+}
@@ -9,12 +9,16 @@
  */
 package org.chocosolver.parser.flatzinc;
 
+import org.chocosolver.parser.SetUpException;
 import org.chocosolver.solver.Model;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /*
 * User : CPRUDHOM
@@ -113,4 +117,27 @@ public class FlatzincModelTest {
         Assert.assertEquals(model.getSolver().getSolutionCount(), 1);
     }
 
+    @Test(groups = "1s")
+    public void test14() throws IOException, SetUpException {
+        Path file = Files.createTempFile("model", ".fzn");
+        Files.write(file, ("array[1 .. 3] of var 1 .. 3: q::output_array([1..3]);\n" +
+                "constraint int_ne(q[1], q[2]);\n" +
+                "constraint int_ne(q[1], q[3]);\n" +
+                "constraint int_ne(q[2], q[3]);\n" +
+                "solve satisfy;").getBytes());
+        // each model of the portfolio parses the file
+        for (int p = 1; p < 3; p++) {
+            Flatzinc fzn = new Flatzinc();
+            fzn.setUp(file.toString(), "-p", Integer.toString(p), "-lvl", "SILENT");
+            fzn.createSolver();
+            fzn.buildModel();
+            Assert.assertEquals(fzn.datas.length, p);
+            Model model = fzn.getModel();
+            Assert.assertEquals(model.getNbVars(), 3);
+            while (model.getSolver().solve()) ;
+            Assert.assertEquals(model.getSolver().getSolutionCount(), 6);
+        }
+        Files.delete(file);
+    }
+
 }
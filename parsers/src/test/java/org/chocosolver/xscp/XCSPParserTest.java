@@ -0,0 +1,61 @@
+/*
+ * This file is part of choco-parsers, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.xscp;
+
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.chocosolver.parser.xcsp.XCSPParser;
+import org.chocosolver.solver.Model;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.xcsp.parser.XParser;
+import org.xcsp.parser.entries.XVariables;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class XCSPParserTest {
+
+    @DataProvider()
+    public Object[][] instances() {
+        return new Object[][]{
+                {"/xcsp/basics/Allergy.xml.lzma", 1},
+                {"/xcsp/basics/AllInterval-005.xml.lzma", 1},
+                {"/xcsp/basics/CostasArray-12.xml.lzma", 1},
+        };
+    }
+
+    @Test(groups = "1s", dataProvider = "instances", timeOut = 60000)
+    public void testReplay(String path, int solutions) throws Exception {
+        String file = this.getClass().getResource(path).getFile();
+        // the instance is parsed once and replayed on two models
+        XParser xparser = XCSPParser.parse(file);
+        TObjectIntHashMap<XVariables.XVar> index = XCSPParser.index(xparser);
+        Model m1 = new Model();
+        new XCSPParser().model(m1, xparser, index);
+        Model m2 = new Model();
+        new XCSPParser().model(m2, xparser, index);
+        // and parsed again for a third one
+        Model m3 = new Model();
+        new XCSPParser().model(m3, file);
+        for (Model m : new Model[]{m2, m3}) {
+            Assert.assertEquals(m.getNbVars(), m1.getNbVars());
+            Assert.assertEquals(m.getNbCstrs(), m1.getNbCstrs());
+        }
+        for (Model m : new Model[]{m1, m2, m3}) {
+            m.getSolver().findSolution();
+            Assert.assertEquals(m.getSolver().getSolutionCount(), solutions);
+            Assert.assertEquals(m.getSolver().getNodeCount(), m1.getSolver().getNodeCount());
+        }
+    }
+}
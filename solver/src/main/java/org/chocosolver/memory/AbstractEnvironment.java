@@ -13,6 +13,11 @@ import org.chocosolver.memory.structure.BasicIndexedBipartiteSet;
 import org.chocosolver.memory.structure.OneWordS32BitSet;
 import org.chocosolver.memory.structure.OneWordS64BitSet;
 import org.chocosolver.memory.structure.S64BitSet;
+import org.chocosolver.memory.structure.S64BlockBitSet;
+import org.chocosolver.memory.structure.TrailedIntHeap;
+import org.chocosolver.memory.structure.TrailedIntIntMap;
+import org.chocosolver.memory.structure.TrailedSparseSet;
+import org.chocosolver.memory.structure.TrailedUnionFind;
 
 /**
  * Super class of all environments !
@@ -30,6 +35,12 @@ public abstract class AbstractEnvironment implements IEnvironment {
      */
     private BasicIndexedBipartiteSet booleanSet;
 
+    /**
+     * Fraction of the words of a bit set modified in a world above which all its words are saved at once,
+     * a negative value disables block trailing
+     */
+    private double blockThreshold = -1;
+
     protected AbstractEnvironment() {
         this.timestamp = 0;
     }
@@ -56,12 +67,56 @@ public abstract class AbstractEnvironment implements IEnvironment {
             return new OneWordS32BitSet(this, size);
         } else if (size < 64) {
             return new OneWordS64BitSet(this, size);
+        } else if (blockThreshold >= 0) {
+            return new S64BlockBitSet(this, size, blockThreshold);
         } else {
             return new S64BitSet(this, size);
         }
     }
 
+    /**
+     * Enable block trailing of the bit sets built afterwards with {@link #makeBitSet(int)}:
+     * words modified in a world are saved one by one until their number exceeds
+     * <i>threshold</i> times the number of words of the bit set,
+     * then all the words are copied at once (see {@link S64BlockBitSet}).
+     *
+     * @param threshold fraction in [0,1] of the words, or a negative value to disable block trailing
+     */
+    public void setBlockTrailing(double threshold) {
+        this.blockThreshold = threshold;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateSparseSet makeSparseSet(int offset, int size) {
+        return new TrailedSparseSet(this, offset, size);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateIntHeap makeIntHeap(int capacity, boolean min) {
+        return new TrailedIntHeap(this, capacity, min);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateIntIntMap makeIntIntMap(int capacity, int noEntryValue) {
+        return new TrailedIntIntMap(this, capacity, noEntryValue);
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateUnionFind makeUnionFind(int size) {
+        return new TrailedUnionFind(this, size);
+    }
     /**
      * {@inheritDoc}
      */
@@ -40,6 +40,12 @@ public class EnvironmentBuilder {
      */
     private double loadfactor = EnvironmentTrailing.LOADFACTOR;
 
+    /**
+     * Fraction of the words of a bit set modified in a world above which all its words are saved at once,
+     * a negative value disables block trailing.
+     */
+    private double blockThreshold = -1;
+
     /**
      * Trail to consider to manage doubles
      */
@@ -93,6 +99,19 @@ public class EnvironmentBuilder {
         return this;
     }
 
+    /**
+     * Enable block trailing of bit sets: words of a bit set modified in a world are saved one by one
+     * until their number exceeds <i>threshold</i> times the number of words of the bit set,
+     * then all the words are copied at once into a reused buffer.
+     * Worth it when most of the words are modified between two choice points, like
+     * domains of large variables are.
+     * @param threshold fraction in [0,1] of the words, or a negative value to disable block trailing (default)
+     * @return {@code this}
+     */
+    public EnvironmentBuilder setBlockTrailing(double threshold){
+        blockThreshold = threshold;
+        return this;
+    }
 
     /**
      * Set the int trail.
@@ -175,6 +194,7 @@ public class EnvironmentBuilder {
         env.setDoubleTrail(dt);
         env.setOperationTrail(ot);
         env.setLongTrail(lt);
+        env.setBlockTrailing(blockThreshold);
         return env;
     }
 
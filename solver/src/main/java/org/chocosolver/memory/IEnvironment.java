@@ -140,6 +140,46 @@ public interface IEnvironment  {
      */
     IStateDoubleVector makeDoubleVector(int size, double initialValue);
 
+    /**
+     * Factory pattern: new IStateSparseSet objects are created by the environment.
+     * The set initially contains all values in [offset, offset + size[.
+     *
+     * @param offset the smallest value
+     * @param size   the number of values
+     * @return a backtrackable sparse set
+     */
+    IStateSparseSet makeSparseSet(int offset, int size);
+
+    /**
+     * Factory pattern: new IStateIntHeap objects are created by the environment.
+     * The heap is initially empty.
+     *
+     * @param capacity the number of elements, in [0, capacity[
+     * @param min      set to <i>true</i> to get the element with the smallest key at the top,
+     *                 to <i>false</i> to get the one with the largest key
+     * @return a backtrackable heap
+     */
+    IStateIntHeap makeIntHeap(int capacity, boolean min);
+
+    /**
+     * Factory pattern: new IStateIntIntMap objects are created by the environment.
+     * The map is initially empty.
+     *
+     * @param capacity     the maximum number of entries
+     * @param noEntryValue the value returned when a key is not mapped
+     * @return a backtrackable map
+     */
+    IStateIntIntMap makeIntIntMap(int capacity, int noEntryValue);
+
+    /**
+     * Factory pattern: new IStateUnionFind objects are created by the environment.
+     * Each element of [0, size[ is initially in its own set.
+     *
+     * @param size the number of elements
+     * @return a backtrackable union-find
+     */
+    IStateUnionFind makeUnionFind(int size);
+
     /**
      * Factory pattern : shared IndexedBipartiteSet object is return by the environment
      *
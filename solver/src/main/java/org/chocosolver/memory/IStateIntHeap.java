@@ -0,0 +1,72 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory;
+
+/**
+ * A backtrackable binary heap of elements in [0, capacity[, ordered by integer keys.
+ * Depending on its declaration, the top of the heap is the element with the smallest or the largest key.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public interface IStateIntHeap {
+
+    /**
+     * @return the number of elements in the heap
+     */
+    int size();
+
+    /**
+     * @return <i>true</i> if the heap is empty
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @param element an element
+     * @return <i>true</i> if <i>element</i> is in the heap
+     */
+    boolean contains(int element);
+
+    /**
+     * @param element an element in the heap
+     * @return the key of <i>element</i>
+     */
+    int getKey(int element);
+
+    /**
+     * Add <i>element</i> to the heap, or update its key if it is already in the heap.
+     *
+     * @param element an element
+     * @param key     the key of <i>element</i>
+     */
+    void add(int element, int key);
+
+    /**
+     * Remove <i>element</i> from the heap.
+     *
+     * @param element an element
+     * @return <i>true</i> if the heap has changed
+     */
+    boolean remove(int element);
+
+    /**
+     * @return the element at the top of the heap, or -1 if the heap is empty
+     */
+    int peek();
+
+    /**
+     * Remove the element at the top of the heap.
+     *
+     * @return the removed element, or -1 if the heap is empty
+     */
+    int poll();
+}
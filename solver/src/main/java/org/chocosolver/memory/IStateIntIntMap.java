@@ -0,0 +1,65 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory;
+
+/**
+ * A backtrackable map from int keys to int values.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public interface IStateIntIntMap {
+
+    /**
+     * @return the number of entries in the map
+     */
+    int size();
+
+    /**
+     * @return <i>true</i> if the map is empty
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @param key a key
+     * @return <i>true</i> if <i>key</i> is mapped
+     */
+    boolean containsKey(int key);
+
+    /**
+     * @param key a key
+     * @return the value mapped to <i>key</i>, or {@link #getNoEntryValue()}
+     */
+    int get(int key);
+
+    /**
+     * Map <i>key</i> to <i>value</i>.
+     *
+     * @param key   a key
+     * @param value a value
+     * @return the value previously mapped to <i>key</i>, or {@link #getNoEntryValue()}
+     */
+    int put(int key, int value);
+
+    /**
+     * Remove the mapping of <i>key</i>.
+     *
+     * @param key a key
+     * @return the value previously mapped to <i>key</i>, or {@link #getNoEntryValue()}
+     */
+    int remove(int key);
+
+    /**
+     * @return the value returned when a key is not mapped
+     */
+    int getNoEntryValue();
+}
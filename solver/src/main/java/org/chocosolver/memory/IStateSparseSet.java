@@ -0,0 +1,68 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory;
+
+/**
+ * A backtrackable sparse set of integers in [offset, offset + capacity[, initially full.
+ * <p>
+ * Values can only be removed, they are restored upon backtrack.
+ * Values currently in the set are stored in positions [0, size()[ and can be read with {@link #get(int)}.
+ * </p>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public interface IStateSparseSet {
+
+    /**
+     * @return the number of values in the set
+     */
+    int size();
+
+    /**
+     * @return <i>true</i> if the set is empty
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @param value an integer
+     * @return <i>true</i> if <i>value</i> is in the set
+     */
+    boolean contains(int value);
+
+    /**
+     * @param position a position in [0, size()[
+     * @return the value at <i>position</i>
+     */
+    int get(int position);
+
+    /**
+     * Remove <i>value</i> from the set.
+     *
+     * @param value an integer
+     * @return <i>true</i> if the set has changed
+     */
+    boolean remove(int value);
+
+    /**
+     * Remove all values but <i>value</i> from the set.
+     *
+     * @param value an integer
+     * @return <i>true</i> if the set has changed
+     */
+    boolean removeAllBut(int value);
+
+    /**
+     * Remove all values from the set.
+     */
+    void clear();
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory;
+
+/**
+ * A backtrackable union-find over elements in [0, size[, initially all disjoint.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public interface IStateUnionFind {
+
+    /**
+     * @param element an element
+     * @return the representative of the set containing <i>element</i>
+     */
+    int find(int element);
+
+    /**
+     * Merge the sets containing <i>a</i> and <i>b</i>.
+     *
+     * @param a an element
+     * @param b an element
+     * @return <i>true</i> if the two elements were in distinct sets
+     */
+    boolean union(int a, int b);
+
+    /**
+     * @param a an element
+     * @param b an element
+     * @return <i>true</i> if <i>a</i> and <i>b</i> are in the same set
+     */
+    default boolean sameSet(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * @param element an element
+     * @return the number of elements in the set containing <i>element</i>
+     */
+    int sizeOf(int element);
+
+    /**
+     * @return the number of disjoint sets
+     */
+    int getNbSets();
+}
@@ -0,0 +1,260 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.structure;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
+
+/**
+ * Backtrackable bit set whose words are trailed as a block (see {@link TrailedLongBlock}),
+ * instead of being stored in one {@link org.chocosolver.memory.IStateLong} each like {@link S64BitSet}.
+ * A world where most words are modified costs a single copy of the words
+ * instead of one trail entry per word.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class S64BlockBitSet extends TrailedLongBlock implements IStateBitSet {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+    private static final long WORD_MASK = 0xffffffffffffffffL;
+
+    /**
+     * Creates a bit set large enough to represent bits with indices in [0, nbits[,
+     * all bits are initially <code>false</code>.
+     *
+     * @param environment backtrackable environment
+     * @param nbits       the initial size of the bit set
+     * @param threshold   fraction of the words to log in a world before copying all of them
+     */
+    public S64BlockBitSet(IEnvironment environment, int nbits, double threshold) {
+        super(environment, wordIndex(Math.max(nbits, 1) - 1) + 1, threshold);
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private static void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if (toIndex < 0)
+            throw new IndexOutOfBoundsException("toIndex < 0: " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + " > toIndex: " + toIndex);
+    }
+
+    @Override
+    public int size() {
+        return words.length * BITS_PER_WORD;
+    }
+
+    /**
+     * @return the index of the highest set bit plus one, or 0 if no bit is set
+     */
+    public int length() {
+        for (int u = words.length - 1; u >= 0; u--) {
+            if (words[u] != 0) {
+                return BITS_PER_WORD * u + (BITS_PER_WORD - Long.numberOfLeadingZeros(words[u]));
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int cardinality() {
+        int sum = 0;
+        for (long word : words) {
+            sum += Long.bitCount(word);
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean get(int bitIndex) {
+        int u = bitIndex >> ADDRESS_BITS_PER_WORD;
+        return u < words.length && (words[u] & (1L << bitIndex)) != 0;
+    }
+
+    @Override
+    public void set(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        int u = wordIndex(bitIndex);
+        ensureLength(u + 1);
+        write(u, words[u] | (1L << bitIndex));
+    }
+
+    @Override
+    public void set(int index, boolean value) {
+        if (value) {
+            set(index);
+        } else {
+            clear(index);
+        }
+    }
+
+    @Override
+    public void set(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return;
+        int startWordIndex = wordIndex(fromIndex);
+        int endWordIndex = wordIndex(toIndex - 1);
+        ensureLength(endWordIndex + 1);
+        long firstWordMask = WORD_MASK << fromIndex;
+        long lastWordMask = WORD_MASK >>> -toIndex;
+        if (startWordIndex == endWordIndex) {
+            write(startWordIndex, words[startWordIndex] | (firstWordMask & lastWordMask));
+        } else {
+            write(startWordIndex, words[startWordIndex] | firstWordMask);
+            for (int i = startWordIndex + 1; i < endWordIndex; i++) {
+                write(i, WORD_MASK);
+            }
+            write(endWordIndex, words[endWordIndex] | lastWordMask);
+        }
+    }
+
+    @Override
+    public void clear(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        int u = wordIndex(bitIndex);
+        if (u < words.length) {
+            write(u, words[u] & ~(1L << bitIndex));
+        }
+    }
+
+    @Override
+    public void clear(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        int startWordIndex = wordIndex(fromIndex);
+        if (fromIndex == toIndex || startWordIndex >= words.length)
+            return;
+        int endWordIndex = wordIndex(toIndex - 1);
+        if (endWordIndex >= words.length) {
+            toIndex = size();
+            endWordIndex = words.length - 1;
+        }
+        long firstWordMask = WORD_MASK << fromIndex;
+        long lastWordMask = WORD_MASK >>> -toIndex;
+        if (startWordIndex == endWordIndex) {
+            write(startWordIndex, words[startWordIndex] & ~(firstWordMask & lastWordMask));
+        } else {
+            write(startWordIndex, words[startWordIndex] & ~firstWordMask);
+            for (int i = startWordIndex + 1; i < endWordIndex; i++) {
+                write(i, 0L);
+            }
+            write(endWordIndex, words[endWordIndex] & ~lastWordMask);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < words.length; i++) {
+            write(i, 0L);
+        }
+    }
+
+    @Override
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        int u = wordIndex(fromIndex);
+        if (u >= words.length)
+            return -1;
+        long word = words[u] & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0)
+                return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            if (++u == words.length)
+                return -1;
+            word = words[u];
+        }
+    }
+
+    @Override
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        int u = wordIndex(fromIndex);
+        if (u >= words.length)
+            return fromIndex;
+        long word = ~words[u] & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0)
+                return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            if (++u == words.length)
+                return words.length * BITS_PER_WORD;
+            word = ~words[u];
+        }
+    }
+
+    @Override
+    public int prevSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            return -1;
+        }
+        int u = wordIndex(fromIndex);
+        if (u >= words.length)
+            return length() - 1;
+        long word = words[u] & (WORD_MASK >>> -(fromIndex + 1));
+        while (true) {
+            if (word != 0)
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            if (u-- == 0)
+                return -1;
+            word = words[u];
+        }
+    }
+
+    @Override
+    public int prevClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            return -1;
+        }
+        int u = wordIndex(fromIndex);
+        if (u >= words.length)
+            return fromIndex;
+        long word = ~words[u] & (WORD_MASK >>> -(fromIndex + 1));
+        while (true) {
+            if (word != 0)
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            if (u-- == 0)
+                return -1;
+            word = ~words[u];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder("{");
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            if (b.length() > 1) {
+                b.append(", ");
+            }
+            b.append(i);
+        }
+        return b.append('}').toString();
+    }
+}
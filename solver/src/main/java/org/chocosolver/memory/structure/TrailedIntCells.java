@@ -0,0 +1,125 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.structure;
+
+import org.chocosolver.memory.IEnvironment;
+
+import java.util.Arrays;
+
+/**
+ * Base class of backtrackable structures stored in arrays of int, called cells.
+ * <p>
+ * Instead of saving one entry on the trail per modified cell, a structure is saved on the trail
+ * only once per world, on its first modification in that world.
+ * Former values of the cells are logged locally, each cell at most once per world,
+ * and are all restored at once upon backtrack.
+ * </p>
+ * Sub-classes read their arrays directly but must modify them through {@link #write(int, int, int)}.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public abstract class TrailedIntCells implements IOperation {
+
+    /**
+     * The current environment.
+     */
+    protected final IEnvironment environment;
+    /**
+     * The arrays of cells
+     */
+    private final int[][] cells;
+    /**
+     * For each cell, the world in which it was last logged
+     */
+    private final int[][] stamps;
+    /**
+     * The world in which the structure was last saved
+     */
+    private int timeStamp;
+    /**
+     * Local log, 4 ints per entry: array, index, former value and former stamp
+     */
+    private int[] log;
+    private int logSize;
+    /**
+     * For each saved world: the position in the log and the former time stamp
+     */
+    private int[] marks;
+    private int nbMarks;
+
+    /**
+     * Declare the arrays of cells of a backtrackable structure.
+     *
+     * @param environment the environment
+     * @param cells       arrays of cells, referenced by their position in the sequence
+     */
+    protected TrailedIntCells(IEnvironment environment, int[]... cells) {
+        this.environment = environment;
+        this.cells = cells;
+        this.stamps = new int[cells.length][];
+        for (int a = 0; a < cells.length; a++) {
+            stamps[a] = new int[cells[a].length];
+        }
+        this.timeStamp = environment.getWorldIndex();
+        this.log = new int[64];
+        this.marks = new int[16];
+    }
+
+    /**
+     * Set the <i>i</i>-th cell of the <i>a</i>-th array to <i>v</i>,
+     * and log its former value if needed.
+     *
+     * @param a index of the array
+     * @param i index of the cell in the array
+     * @param v new value of the cell
+     */
+    protected final void write(int a, int i, int v) {
+        int[] c = cells[a];
+        if (c[i] != v) {
+            int wi = environment.getWorldIndex();
+            int[] s = stamps[a];
+            if (s[i] < wi) {
+                if (timeStamp < wi) {
+                    if (nbMarks + 2 > marks.length) {
+                        marks = Arrays.copyOf(marks, marks.length * 2);
+                    }
+                    marks[nbMarks++] = logSize;
+                    marks[nbMarks++] = timeStamp;
+                    timeStamp = wi;
+                    environment.save(this);
+                }
+                if (logSize + 4 > log.length) {
+                    log = Arrays.copyOf(log, log.length * 2);
+                }
+                log[logSize++] = a;
+                log[logSize++] = i;
+                log[logSize++] = c[i];
+                log[logSize++] = s[i];
+                s[i] = wi;
+            }
+            c[i] = v;
+        }
+    }
+
+    @Override
+    public final void undo() {
+        timeStamp = marks[--nbMarks];
+        int from = marks[--nbMarks];
+        while (logSize > from) {
+            int s = log[--logSize];
+            int v = log[--logSize];
+            int i = log[--logSize];
+            int a = log[--logSize];
+            cells[a][i] = v;
+            stamps[a][i] = s;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.structure;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateIntHeap;
+
+import java.util.Arrays;
+
+/**
+ * Backtrackable binary heap, all the modified cells of a world are restored at once upon backtrack.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class TrailedIntHeap extends TrailedIntCells implements IStateIntHeap {
+
+    private static final int HEAP = 0;
+    private static final int POS = 1;
+    private static final int KEY = 2;
+    private static final int SIZE = 3;
+
+    /**
+     * Elements in the heap, in heap order
+     */
+    private final int[] heap;
+    /**
+     * Position of each element in the heap, or -1
+     */
+    private final int[] pos;
+    private final int[] keys;
+    private final int[] size;
+    /**
+     * Set to <i>true</i> when the top of the heap is the element with the smallest key
+     */
+    private final boolean min;
+
+    /**
+     * Create an empty heap.
+     *
+     * @param environment the environment
+     * @param capacity    the number of elements
+     * @param min         set to <i>true</i> to get the element with the smallest key at the top,
+     *                    to <i>false</i> to get the one with the largest key
+     */
+    public TrailedIntHeap(IEnvironment environment, int capacity, boolean min) {
+        this(environment, new int[capacity], filled(capacity), new int[capacity], new int[1], min);
+    }
+
+    private TrailedIntHeap(IEnvironment environment, int[] heap, int[] pos, int[] keys, int[] size, boolean min) {
+        super(environment, heap, pos, keys, size);
+        this.heap = heap;
+        this.pos = pos;
+        this.keys = keys;
+        this.size = size;
+        this.min = min;
+    }
+
+    private static int[] filled(int capacity) {
+        int[] pos = new int[capacity];
+        Arrays.fill(pos, -1);
+        return pos;
+    }
+
+    @Override
+    public int size() {
+        return size[0];
+    }
+
+    @Override
+    public boolean contains(int element) {
+        return pos[element] >= 0;
+    }
+
+    @Override
+    public int getKey(int element) {
+        return keys[element];
+    }
+
+    @Override
+    public void add(int element, int key) {
+        if (pos[element] < 0) {
+            int s = size[0];
+            write(SIZE, 0, s + 1);
+            write(KEY, element, key);
+            place(element, s);
+            up(s);
+        } else {
+            int old = keys[element];
+            write(KEY, element, key);
+            if (before(key, old)) {
+                up(pos[element]);
+            } else {
+                down(pos[element]);
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(int element) {
+        int p = pos[element];
+        if (p < 0) {
+            return false;
+        }
+        int s = size[0] - 1;
+        write(SIZE, 0, s);
+        write(POS, element, -1);
+        if (p < s) {
+            int last = heap[s];
+            place(last, p);
+            if (before(keys[last], keys[element])) {
+                up(p);
+            } else {
+                down(p);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int peek() {
+        return size[0] > 0 ? heap[0] : -1;
+    }
+
+    @Override
+    public int poll() {
+        int top = peek();
+        if (top >= 0) {
+            remove(top);
+        }
+        return top;
+    }
+
+    private boolean before(int k1, int k2) {
+        return min ? k1 < k2 : k1 > k2;
+    }
+
+    private void place(int element, int p) {
+        write(HEAP, p, element);
+        write(POS, element, p);
+    }
+
+    private void up(int p) {
+        int e = heap[p];
+        int k = keys[e];
+        while (p > 0) {
+            int q = (p - 1) >> 1;
+            int f = heap[q];
+            if (!before(k, keys[f])) {
+                break;
+            }
+            place(f, p);
+            p = q;
+        }
+        place(e, p);
+    }
+
+    private void down(int p) {
+        int e = heap[p];
+        int k = keys[e];
+        int s = size[0];
+        int half = s >> 1;
+        while (p < half) {
+            int c = 2 * p + 1;
+            int r = c + 1;
+            if (r < s && before(keys[heap[r]], keys[heap[c]])) {
+                c = r;
+            }
+            if (!before(keys[heap[c]], k)) {
+                break;
+            }
+            place(heap[c], p);
+            p = c;
+        }
+        place(e, p);
+    }
+}
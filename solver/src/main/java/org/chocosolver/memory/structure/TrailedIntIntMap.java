@@ -0,0 +1,180 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.structure;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateIntIntMap;
+
+/**
+ * Backtrackable hash map with open addressing and linear probing.
+ * The table is not resized: its capacity must be given on creation.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class TrailedIntIntMap extends TrailedIntCells implements IStateIntIntMap {
+
+    private static final int KEYS = 0;
+    private static final int VALUES = 1;
+    private static final int STATES = 2;
+    private static final int SIZE = 3;
+
+    private static final int FREE = 0;
+    private static final int FULL = 1;
+    private static final int REMOVED = 2;
+
+    private final int[] keys;
+    private final int[] values;
+    private final int[] states;
+    /**
+     * Number of entries, then number of slots not free (entries or removed entries)
+     */
+    private final int[] size;
+    private final int mask;
+    private final int capacity;
+    private final int noEntryValue;
+
+    /**
+     * Create an empty map.
+     *
+     * @param environment  the environment
+     * @param capacity     the maximum number of entries
+     * @param noEntryValue the value returned when a key is not mapped
+     */
+    public TrailedIntIntMap(IEnvironment environment, int capacity, int noEntryValue) {
+        this(environment, tableSize(capacity), capacity, noEntryValue);
+    }
+
+    private TrailedIntIntMap(IEnvironment environment, int length, int capacity, int noEntryValue) {
+        this(environment, new int[length], new int[length], new int[length], new int[2], capacity, noEntryValue);
+    }
+
+    private TrailedIntIntMap(IEnvironment environment, int[] keys, int[] values, int[] states, int[] size,
+                             int capacity, int noEntryValue) {
+        super(environment, keys, values, states, size);
+        this.keys = keys;
+        this.values = values;
+        this.states = states;
+        this.size = size;
+        this.mask = keys.length - 1;
+        this.capacity = capacity;
+        this.noEntryValue = noEntryValue;
+    }
+
+    private static int tableSize(int capacity) {
+        // keep the load factor below 1/2
+        return Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+    }
+
+    private int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @return the position of key in the table, or -1
+     */
+    private int indexOf(int key) {
+        int i = hash(key);
+        while (states[i] != FREE) {
+            if (states[i] == FULL && keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size[0];
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int get(int key) {
+        int i = indexOf(key);
+        return i >= 0 ? values[i] : noEntryValue;
+    }
+
+    @Override
+    public int put(int key, int value) {
+        int i = hash(key);
+        int slot = -1;
+        while (states[i] != FREE) {
+            if (states[i] == FULL) {
+                if (keys[i] == key) {
+                    int prev = values[i];
+                    write(VALUES, i, value);
+                    return prev;
+                }
+            } else if (slot < 0) {
+                slot = i;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size[0] == capacity) {
+            throw new IllegalStateException("The map is full (" + capacity + " entries)");
+        }
+        if (slot < 0) {
+            if (size[1] + 1 > (mask + 1) * 3 / 4) {
+                // too many removed entries, they are cleaned up
+                rehash();
+                return put(key, value);
+            }
+            slot = i;
+            write(SIZE, 1, size[1] + 1);
+        }
+        write(KEYS, slot, key);
+        write(VALUES, slot, value);
+        write(STATES, slot, FULL);
+        write(SIZE, 0, size[0] + 1);
+        return noEntryValue;
+    }
+
+    private void rehash() {
+        int n = size[0];
+        int[] ks = new int[n];
+        int[] vs = new int[n];
+        int k = 0;
+        for (int i = 0; i <= mask; i++) {
+            if (states[i] == FULL) {
+                ks[k] = keys[i];
+                vs[k++] = values[i];
+            }
+            write(STATES, i, FREE);
+        }
+        write(SIZE, 0, 0);
+        write(SIZE, 1, 0);
+        for (int j = 0; j < n; j++) {
+            put(ks[j], vs[j]);
+        }
+    }
+
+    @Override
+    public int remove(int key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return noEntryValue;
+        }
+        write(STATES, i, REMOVED);
+        write(SIZE, 0, size[0] - 1);
+        return values[i];
+    }
+
+    @Override
+    public int getNoEntryValue() {
+        return noEntryValue;
+    }
+}
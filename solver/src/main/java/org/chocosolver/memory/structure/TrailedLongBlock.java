@@ -0,0 +1,193 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.structure;
+
+import org.chocosolver.memory.IEnvironment;
+
+import java.util.Arrays;
+
+/**
+ * Base class of backtrackable structures stored in a contiguous array of long, called words.
+ * <p>
+ * As in {@link TrailedIntCells}, the structure is saved on the trail only once per world,
+ * and the former values of the words are logged locally, each word at most once per world.
+ * But once the number of words logged in a world exceeds a given fraction of the array,
+ * the whole array is copied at once, with {@link System#arraycopy(Object, int, Object, int, int)},
+ * into a buffer that is reused from one world to another, and the following modifications
+ * of that world are no longer logged.
+ * </p>
+ * Sub-classes read {@link #words} directly but must modify it through {@link #write(int, long)}.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public abstract class TrailedLongBlock implements IOperation {
+
+    /**
+     * The current environment.
+     */
+    protected final IEnvironment environment;
+    /**
+     * The words
+     */
+    protected long[] words;
+    /**
+     * For each word, the world in which it was last logged
+     */
+    private int[] stamps;
+    /**
+     * Fraction of the words to log in a world before copying the whole array
+     */
+    private final double threshold;
+    /**
+     * Maximum number of words logged in a world, based on {@link #threshold}
+     */
+    private int limit;
+    /**
+     * The world in which the structure was last saved
+     */
+    private int timeStamp;
+    /**
+     * The world in which the whole array was last copied
+     */
+    private int blockStamp;
+    /**
+     * Local log: index, former value and former stamp of the logged words
+     */
+    private int[] logIndices;
+    private long[] logValues;
+    private int[] logStamps;
+    private int logSize;
+    /**
+     * For each saved world: the position in the log, the former time stamp and the former block stamp
+     */
+    private int[] marks;
+    private int nbMarks;
+    /**
+     * Copies of the array, one per world in which it was copied, and their length.
+     * Buffers are kept once allocated to be reused by the next copies.
+     */
+    private long[][] copies;
+    private int[] copyLengths;
+    private int nbCopies;
+
+    /**
+     * Declare a backtrackable array of words, all set to 0.
+     *
+     * @param environment the environment
+     * @param length      number of words
+     * @param threshold   fraction of the words (in [0,1]) to log in a world before copying the whole array:
+     *                    0 always copies the array, 1 always logs words one by one
+     */
+    protected TrailedLongBlock(IEnvironment environment, int length, double threshold) {
+        this.environment = environment;
+        this.words = new long[length];
+        this.stamps = new int[length];
+        this.threshold = threshold;
+        this.limit = (int) (threshold * length);
+        this.timeStamp = environment.getWorldIndex();
+        this.blockStamp = -1;
+        this.logIndices = new int[16];
+        this.logValues = new long[16];
+        this.logStamps = new int[16];
+        this.marks = new int[24];
+        this.copies = new long[8][];
+        this.copyLengths = new int[8];
+    }
+
+    /**
+     * Ensures that the array holds at least <i>length</i> words, new words are set to 0.
+     *
+     * @param length the minimum number of words
+     */
+    protected final void ensureLength(int length) {
+        if (words.length < length) {
+            int request = Math.max(2 * words.length, length);
+            words = Arrays.copyOf(words, request);
+            stamps = Arrays.copyOf(stamps, request);
+            limit = (int) (threshold * request);
+        }
+    }
+
+    /**
+     * Set the <i>i</i>-th word to <i>v</i>, and log its former value if needed.
+     *
+     * @param i index of the word
+     * @param v new value of the word
+     */
+    protected final void write(int i, long v) {
+        if (words[i] != v) {
+            int wi = environment.getWorldIndex();
+            if (stamps[i] < wi && blockStamp < wi) {
+                if (timeStamp < wi) {
+                    if (nbMarks + 3 > marks.length) {
+                        marks = Arrays.copyOf(marks, marks.length * 2);
+                    }
+                    marks[nbMarks++] = logSize;
+                    marks[nbMarks++] = timeStamp;
+                    marks[nbMarks++] = blockStamp;
+                    timeStamp = wi;
+                    environment.save(this);
+                }
+                if (logSize - marks[nbMarks - 3] >= limit) {
+                    copy(wi);
+                } else {
+                    log(i, wi);
+                }
+            }
+            words[i] = v;
+        }
+    }
+
+    private void log(int i, int wi) {
+        if (logSize == logIndices.length) {
+            int n = logSize * 2;
+            logIndices = Arrays.copyOf(logIndices, n);
+            logValues = Arrays.copyOf(logValues, n);
+            logStamps = Arrays.copyOf(logStamps, n);
+        }
+        logIndices[logSize] = i;
+        logValues[logSize] = words[i];
+        logStamps[logSize++] = stamps[i];
+        stamps[i] = wi;
+    }
+
+    private void copy(int wi) {
+        if (nbCopies == copies.length) {
+            copies = Arrays.copyOf(copies, nbCopies * 2);
+            copyLengths = Arrays.copyOf(copyLengths, nbCopies * 2);
+        }
+        int n = words.length;
+        if (copies[nbCopies] == null || copies[nbCopies].length < n) {
+            copies[nbCopies] = new long[n];
+        }
+        System.arraycopy(words, 0, copies[nbCopies], 0, n);
+        copyLengths[nbCopies++] = n;
+        blockStamp = wi;
+    }
+
+    @Override
+    public final void undo() {
+        if (blockStamp == timeStamp) {
+            int n = copyLengths[--nbCopies];
+            System.arraycopy(copies[nbCopies], 0, words, 0, n);
+            // words added after the copy did not exist at the beginning of the world
+            Arrays.fill(words, n, words.length, 0L);
+        }
+        blockStamp = marks[--nbMarks];
+        timeStamp = marks[--nbMarks];
+        int from = marks[--nbMarks];
+        while (logSize > from) {
+            int i = logIndices[--logSize];
+            words[i] = logValues[logSize];
+            stamps[i] = logStamps[logSize];
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.structure;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateSparseSet;
+
+/**
+ * Backtrackable sparse set, for which only the size is saved:
+ * removed values are swapped beyond the size, so restoring the size restores the values.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class TrailedSparseSet extends TrailedIntCells implements IStateSparseSet {
+
+    private static final int SIZE = 0;
+
+    private final int offset;
+    private final int[] values;
+    private final int[] positions;
+    private final int[] size;
+
+    /**
+     * Create a sparse set initially containing all values in [offset, offset + capacity[.
+     *
+     * @param environment the environment
+     * @param offset      the smallest value
+     * @param capacity    the number of values
+     */
+    public TrailedSparseSet(IEnvironment environment, int offset, int capacity) {
+        this(environment, offset, capacity, new int[]{capacity});
+    }
+
+    private TrailedSparseSet(IEnvironment environment, int offset, int capacity, int[] size) {
+        super(environment, size);
+        this.size = size;
+        this.offset = offset;
+        this.values = new int[capacity];
+        this.positions = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            values[i] = i + offset;
+            positions[i] = i;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size[SIZE];
+    }
+
+    @Override
+    public boolean contains(int value) {
+        int i = value - offset;
+        return i >= 0 && i < positions.length && positions[i] < size[SIZE];
+    }
+
+    @Override
+    public int get(int position) {
+        assert position < size[SIZE];
+        return values[position];
+    }
+
+    @Override
+    public boolean remove(int value) {
+        if (contains(value)) {
+            int last = size[SIZE] - 1;
+            swap(positions[value - offset], last);
+            write(SIZE, 0, last);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeAllBut(int value) {
+        if (contains(value)) {
+            if (size[SIZE] > 1) {
+                swap(positions[value - offset], 0);
+                write(SIZE, 0, 1);
+                return true;
+            }
+            return false;
+        }
+        boolean change = size[SIZE] > 0;
+        clear();
+        return change;
+    }
+
+    @Override
+    public void clear() {
+        write(SIZE, 0, 0);
+    }
+
+    private void swap(int p, int q) {
+        int vp = values[p];
+        int vq = values[q];
+        values[p] = vq;
+        values[q] = vp;
+        positions[vq - offset] = p;
+        positions[vp - offset] = q;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder("{");
+        for (int i = 0; i < size[SIZE]; i++) {
+            if (i > 0) {
+                st.append(", ");
+            }
+            st.append(values[i]);
+        }
+        return st.append('}').toString();
+    }
+}
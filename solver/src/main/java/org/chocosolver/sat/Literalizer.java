@@ -16,6 +16,8 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSetUtils;
 
 import java.util.Objects;
 
@@ -80,6 +82,18 @@ public interface Literalizer {
 
     boolean check(boolean sign);
 
+    /**
+     * Add to {@code set} the values of this CP variable for which the literal, with the given sign, holds.
+     * This is only relevant for integer and boolean variables, and is used to explain SAT deductions
+     * in terms of signed clauses.
+     *
+     * @param sign the sign of the literal
+     * @param set  the set to fill
+     */
+    default void toSet(boolean sign, IntIterableRangeSet set) {
+        throw new UnsupportedOperationException("Cannot turn " + this.getClass().getSimpleName() + " into a set of values");
+    }
+
     class BoolLit implements Literalizer {
 
         public final BoolVar cpVar;
@@ -133,6 +147,11 @@ public interface Literalizer {
             return cpVar.getBooleanValue().equals(ESat.eval(sign));
         }
 
+        @Override
+        public void toSet(boolean sign, IntIterableRangeSet set) {
+            set.add(sign ? 1 : 0);
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -202,6 +221,16 @@ public interface Literalizer {
             return sign ? cpVar.isInstantiatedTo(val) : !cpVar.contains(val);
         }
 
+        @Override
+        public void toSet(boolean sign, IntIterableRangeSet set) {
+            if (sign) {
+                set.add(val);
+            } else {
+                set.addBetween(IntIterableRangeSet.MIN, val - 1);
+                set.addBetween(val + 1, IntIterableRangeSet.MAX);
+            }
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -271,12 +300,21 @@ public interface Literalizer {
             return sign ? cpVar.getUB() <= val : cpVar.getLB() > val;
         }
 
+        @Override
+        public void toSet(boolean sign, IntIterableRangeSet set) {
+            if (sign) {
+                set.addBetween(IntIterableRangeSet.MIN, val);
+            } else {
+                set.addBetween(val + 1, IntIterableRangeSet.MAX);
+            }
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
             if (!(o instanceof IntLeLit)) return false;
             IntLeLit intLeLit = (IntLeLit) o;
-            return val == intLeLit.val && satVar == intLeLit.satVar && cpVar.equals(intLeLit.cpVar);
+            return val == intLeLit.val && cpVar.equals(intLeLit.cpVar);
         }
 
         @Override
@@ -285,6 +323,98 @@ public interface Literalizer {
         }
     }
 
+    class IntInLit implements Literalizer {
+        public final IntVar cpVar;
+        public final IntIterableRangeSet set;
+        public int satVar;
+
+        public IntInLit(IntVar cpVar, IntIterableRangeSet set) {
+            this.cpVar = cpVar;
+            this.set = set.duplicate();
+            this.satVar = -1;
+        }
+
+        @Override
+        public void svar(int svar) {
+            if (satVar == -1) {
+                this.satVar = svar;
+            } else {
+                throw new UnsupportedOperationException("Overriding Literalizer's satVar is forbidden");
+            }
+        }
+
+        @Override
+        public int svar() {
+            return satVar;
+        }
+
+        @Override
+        public Variable cvar() {
+            return cpVar;
+        }
+
+        @Override
+        public boolean canReact() {
+            return IntIterableSetUtils.includedIn(cpVar, set) || !set.intersect(cpVar);
+        }
+
+        @Override
+        public int toLit() {
+            return MiniSat.makeLiteral(satVar, IntIterableSetUtils.includedIn(cpVar, set));
+        }
+
+        @Override
+        public boolean toEvent(int lit, ICause cause) throws ContradictionException {
+            assert satVar == var(lit);
+            if (sgn(lit)) {
+                return cpVar.removeAllValuesBut(set, cause);
+            } else {
+                return cpVar.removeValues(set, cause);
+            }
+        }
+
+        @Override
+        public boolean check(boolean sign) {
+            return sign ? IntIterableSetUtils.includedIn(cpVar, set) : !set.intersect(cpVar);
+        }
+
+        @Override
+        public void toSet(boolean sign, IntIterableRangeSet set) {
+            if (sign) {
+                set.addAll(this.set);
+            } else {
+                int lb = IntIterableRangeSet.MIN;
+                for (int r = 0; r < this.set.getNbRanges(); r++) {
+                    set.addBetween(lb, this.set.minOfRange(r) - 1);
+                    lb = this.set.maxOfRange(r) + 1;
+                }
+                set.addBetween(lb, IntIterableRangeSet.MAX);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IntInLit)) return false;
+            IntInLit intInLit = (IntInLit) o;
+            if (!cpVar.equals(intInLit.cpVar) || set.getNbRanges() != intInLit.set.getNbRanges()) return false;
+            for (int r = 0; r < set.getNbRanges(); r++) {
+                if (set.minOfRange(r) != intInLit.set.minOfRange(r)
+                        || set.maxOfRange(r) != intInLit.set.maxOfRange(r)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = cpVar.hashCode();
+            for (int r = 0; r < set.getNbRanges(); r++) {
+                h = 31 * (31 * h + set.minOfRange(r)) + set.maxOfRange(r);
+            }
+            return h;
+        }
+    }
+
     class SetInLit implements Literalizer {
         public final SetVar cpVar;
         public final int val;
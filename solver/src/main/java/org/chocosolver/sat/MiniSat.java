@@ -45,7 +45,7 @@ public class MiniSat implements SatFactory, Dimacs {
     private static final int litUndef = -2;
     // undefined clause
     static final Clause CR_Undef = new Clause(new int[0]);
-    static final VarData VD_Undef = new VarData(CR_Undef, -1);
+    static final VarData VD_Undef = new VarData(CR_Undef, -1, -1);
 
     // If false, the constraints are already unsatisfiable. No part of
     // the solver state may be used!
@@ -138,7 +138,7 @@ public class MiniSat implements SatFactory, Dimacs {
     public int newVariable() {
         int v = incrementVariableCounter();
         assignment_.add(v, Boolean.lUndef);
-        vardata.add(new VarData(CR_Undef, 0));
+        vardata.add(new VarData(CR_Undef, 0, -1));
         //activity .push(0);
         activity.add(rnd_init_act ? rand.nextDouble() * 0.00001 : 0);
         seen.clear(v);
@@ -309,7 +309,7 @@ public class MiniSat implements SatFactory, Dimacs {
         while (vardata.size() < var(l)) {
             vardata.add(VD_Undef);
         }
-        vardata.set(var(l), new VarData(from, trailMarker()));
+        vardata.set(var(l), new VarData(from, trailMarker(), trail_.size()));
         trail_.add(l);
     }
 
@@ -753,6 +753,10 @@ public class MiniSat implements SatFactory, Dimacs {
         return vardata.get(x).level;
     }
 
+    int trailPosition(int x) {
+        return vardata.get(x).pos;
+    }
+
     boolean locked(Clause c) {
         return valueLit(c._g(0)) == Boolean.lTrue
                 && reason(var(c._g(0))) != CR_Undef
@@ -991,10 +995,15 @@ public class MiniSat implements SatFactory, Dimacs {
     static class VarData {
         Clause cr;
         int level;
+        /**
+         * Position of the literal in the trail
+         */
+        int pos;
 
-        public VarData(Clause cr, int level) {
+        public VarData(Clause cr, int level, int pos) {
             this.cr = cr;
             this.level = level;
+            this.pos = pos;
         }
     }
 }
\ No newline at end of file
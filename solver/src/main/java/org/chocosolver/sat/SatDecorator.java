@@ -12,6 +12,7 @@ package org.chocosolver.sat;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.hash.TIntHashSet;
 import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Model;
@@ -21,6 +22,7 @@ import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.queues.CircularQueue;
 
 import java.util.*;
+import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 
 /**
@@ -35,6 +37,10 @@ public class SatDecorator extends MiniSat {
     public ArrayList<Clause> dynClauses = new ArrayList<>();
     private final TIntObjectHashMap<Literalizer> lits = new TIntObjectHashMap<>();
     private final HashMap<Variable, List<Literalizer>> vars = new HashMap<>();
+    /**
+     * All literalizers, to retrieve already bound relationships in constant time
+     */
+    private final HashMap<Literalizer, Literalizer> known = new HashMap<>();
     /**
      * For comparison with SAT solver trail, to deal properly with backtrack
      */
@@ -50,6 +56,24 @@ public class SatDecorator extends MiniSat {
      */
     private final TIntList early_deductions_;
 
+    /**
+     * Lazy clauses learnt during resolution, not attached yet
+     */
+    private final ArrayList<int[]> pending_ = new ArrayList<>();
+    /**
+     * Set to <i>true</i> when the modifications made by this are explained from clauses,
+     * see {@link #explain(Variable, BiPredicate)}
+     */
+    private boolean explainable_ = false;
+    /**
+     * Last conflicting clause met in {@link #propagateOneLiteral(int)}, if any
+     */
+    private Clause conflict_ = CR_Undef;
+    /**
+     * Literal whose propagation led to {@link #conflict_}
+     */
+    private int conflictLit_;
+
     public SatDecorator(Model model) {
         super();
         early_deductions_ = new TIntArrayList();
@@ -157,8 +181,18 @@ public class SatDecorator extends MiniSat {
         // Unchecked enqueue
         assert valueLit(lit) == Boolean.lUndef;
         assignment_.set(var(lit), makeBoolean(sgn(lit)));
+        if (explainable_) {
+            // the literal comes from the CP side, it has no reason
+            vardata.set(var(lit), new VarData(CR_Undef, trailMarker(), trail_.size()));
+        }
         trail_.add(lit);
-        return propagate() == CR_Undef;
+        Clause confl = propagate();
+        if (confl != CR_Undef) {
+            conflict_ = confl;
+            conflictLit_ = lit;
+            return false;
+        }
+        return true;
     }
 
     public void bound(Variable cpvar, ICause cause) throws ContradictionException {
@@ -167,6 +201,7 @@ public class SatDecorator extends MiniSat {
                 cancelUntil(sat_trail_.get());
                 assert (sat_trail_.get() == trailMarker());
             }
+            conflict_ = CR_Undef;
             toCheck.addFirst(cpvar);
             while (toCheck.size() > 0) {
                 Variable cvar = toCheck.pollFirst();
@@ -227,15 +262,233 @@ public class SatDecorator extends MiniSat {
         if (tmp.isEmpty()) {
             actionOnNew.accept(bvar);
         }
-        Optional<Literalizer> opt = tmp.stream().filter(l -> l.equals(ltz)).findFirst();
-        if (!opt.isPresent()) {
-            int var = newVariable();
-            ltz.svar(var);
-            lits.put(var, ltz);
-            tmp.add(ltz);
-            opt = Optional.of(ltz);
+        Literalizer prev = known.putIfAbsent(ltz, ltz);
+        if (prev != null) {
+            return prev.svar();
+        }
+        int var = newVariable();
+        ltz.svar(var);
+        lits.put(var, ltz);
+        tmp.add(ltz);
+        return var;
+    }
+
+    /**
+     * @param svar a SAT variable
+     * @return the literalizer that connects {@code svar} to a CP variable, or {@code null}
+     * if {@code svar} does not exist on CP side
+     */
+    public Literalizer literalizer(int svar) {
+        return lits.get(svar);
+    }
+
+    /**
+     * Record the level and the trail position of the literals pushed by the CP side,
+     * which is required to explain the modifications of this from clauses.
+     * This is expected to be called before resolution, in lazy clause generation mode.
+     */
+    public void setExplainable() {
+        explainable_ = true;
+    }
+
+    /**
+     * @return <i>true</i> if the modifications made by this can be explained from clauses
+     * @see #setExplainable()
+     */
+    public boolean isExplainable() {
+        return explainable_;
+    }
+
+    /**
+     * Record a clause learnt from a conflict.
+     * The clause is not attached immediately, since it is expected to be unit only
+     * once the resolution has backjumped, but on the next call to {@link #settle(ICause)}.
+     *
+     * @param ps the literals of the clause, at least two
+     */
+    public void learnLazyClause(int... ps) {
+        assert ps.length > 1;
+        pending_.add(ps);
+    }
+
+    /**
+     * @return <i>true</i> if some lazy clauses are waiting to be attached
+     */
+    public boolean hasPendingClauses() {
+        return !pending_.isEmpty();
+    }
+
+    /**
+     * Attach the lazy clauses recorded since the last call and propagate them.
+     * The SAT solver is first synchronized with the CP variables of the clauses, then
+     * each clause is watched on its non-false literals, as in a regular CDCL solver after backjump.
+     * A clause which is unit is propagated and its consequences are pushed to the CP side.
+     *
+     * @param cause the cause of the modifications on CP side
+     * @return {@code false} if a clause is falsified
+     * @throws ContradictionException if a modification on CP side fails
+     */
+    public boolean settle(ICause cause) throws ContradictionException {
+        try {
+            for (int k = 0; k < pending_.size(); k++) {
+                int[] ps = pending_.get(k);
+                for (int i = 0; i < ps.length; i++) {
+                    bound(lits.get(var(ps[i])).cvar(), cause);
+                }
+            }
+            for (int k = 0; k < pending_.size(); k++) {
+                Clause cr = new Clause(watchOrder(pending_.get(k)));
+                dynClauses.add(cr);
+                attachClause(cr);
+                int first = cr._g(0);
+                if (valueLit(first) == Boolean.lFalse) {
+                    return false;
+                } else if (valueLit(first) == Boolean.lUndef && valueLit(cr._g(1)) == Boolean.lFalse) {
+                    touched_variables_.resetQuick();
+                    pushTrailMarker();
+                    uncheckedEnqueue(first, cr);
+                    Clause confl = propagate();
+                    sat_trail_.set(trailMarker());
+                    if (confl != CR_Undef) {
+                        return false;
+                    }
+                    int[] implied = touched_variables_.toArray();
+                    touched_variables_.resetQuick();
+                    for (int lit : implied) {
+                        Literalizer lzr = lits.get(var(lit));
+                        if (lzr != null) {
+                            lzr.toEvent(lit, cause);
+                        }
+                    }
+                    for (int lit : implied) {
+                        Literalizer lzr = lits.get(var(lit));
+                        if (lzr != null) {
+                            bound(lzr.cvar(), cause);
+                        }
+                    }
+                }
+            }
+            return true;
+        } finally {
+            touched_variables_.resetQuick();
+            pending_.clear();
+        }
+    }
+
+    /**
+     * Order the literals of a clause as expected by the two-watched-literal scheme:
+     * true literals first, then undefined ones, then false ones by decreasing level.
+     */
+    private int[] watchOrder(int[] ps) {
+        Integer[] order = new Integer[ps.length];
+        for (int i = 0; i < ps.length; i++) {
+            order[i] = ps[i];
+        }
+        Arrays.sort(order, Comparator.comparingInt(this::watchRank));
+        for (int i = 0; i < ps.length; i++) {
+            ps[i] = order[i];
+        }
+        return ps;
+    }
+
+    private int watchRank(int lit) {
+        if (valueLit(lit) == Boolean.lTrue) {
+            return Integer.MIN_VALUE;
+        } else if (valueLit(lit) == Boolean.lUndef) {
+            return Integer.MIN_VALUE + 1;
+        }
+        return -level(var(lit));
+    }
+
+    /**
+     * Explain, in terms of literals bound to CP variables, why a modification
+     * was made on {@code cvar} by the SAT solver.
+     * The literals of {@code cvar} that are currently true and implied by a clause are examined first,
+     * then the last conflict met while propagating a literal of {@code cvar}.
+     * The clause found is expanded by resolution until it only involves literals that are known
+     * on CP side.
+     *
+     * @param cvar   a CP variable
+     * @param pivot  returns <i>true</i> if the literalizer, with the given sign, is the one that
+     *               explains the modification
+     * @return an implied clause whose literals are all false, except the one of the pivot,
+     * or {@code null} if none can be found or if this is not {@link #isExplainable() explainable}
+     */
+    public int[] explain(Variable cvar, BiPredicate<Literalizer, java.lang.Boolean> pivot) {
+        List<Literalizer> myLits = vars.get(cvar);
+        if (!explainable_ || myLits == null) {
+            return null;
+        }
+        // the earliest literal in the trail is the one that triggered the event,
+        // the next ones may depend on later modifications
+        int best = -1;
+        int pos = Integer.MAX_VALUE;
+        for (int i = 0; i < myLits.size(); i++) {
+            Literalizer ltz = myLits.get(i);
+            int x = ltz.svar();
+            Boolean val = valueVar(x);
+            if (val != Boolean.lUndef && level(x) > 0 && reason(x) != CR_Undef
+                    && pivot.test(ltz, val == Boolean.lTrue)) {
+                int t = trailPosition(x);
+                if (t < pos) {
+                    pos = t;
+                    best = x;
+                }
+            }
+        }
+        if (best > -1) {
+            return expand(reason(best), best, level(best));
+        }
+        if (conflict_ != CR_Undef) {
+            Literalizer ltz = lits.get(var(conflictLit_));
+            if (ltz.cvar() == cvar && pivot.test(ltz, !sgn(conflictLit_))) {
+                return expand(conflict_, var(conflictLit_), level(var(conflictLit_)));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolve {@code start} with the reasons of its literals until only remain
+     * the one of {@code keep}, those pushed by the CP side and those propagated
+     * before {@code lvl}, which are known on CP side too.
+     * Literals fixed at level 0 are always false and ignored.
+     */
+    private int[] expand(Clause start, int keep, int lvl) {
+        TIntArrayList out = new TIntArrayList();
+        TIntArrayList stack = new TIntArrayList();
+        TIntHashSet seen = new TIntHashSet();
+        boolean found = false;
+        for (int i = 0; i < start.size(); i++) {
+            stack.add(start._g(i));
+        }
+        while (!stack.isEmpty()) {
+            int q = stack.removeAt(stack.size() - 1);
+            int x = var(q);
+            if (!seen.add(x)) {
+                continue;
+            }
+            if (x == keep) {
+                out.add(q);
+                found = true;
+                continue;
+            }
+            int lx = level(x);
+            if (lx == 0) {
+                continue;
+            }
+            Clause r = reason(x);
+            if (lits.containsKey(x) && (lx < lvl || r == CR_Undef)) {
+                out.add(q);
+            } else if (r == CR_Undef) {
+                return null;
+            } else {
+                for (int i = 0; i < r.size(); i++) {
+                    stack.add(r._g(i));
+                }
+            }
         }
-        return opt.get().svar();
+        return found ? out.toArray() : null;
     }
 
 
@@ -27,6 +27,34 @@ import java.util.function.Consumer;
  */
 public interface ICause  {
 
+    /**
+     * Kind of cause that is neither a propagator nor a decision.
+     */
+    int OTHER = 0;
+    /**
+     * Kind of cause that is a propagator.
+     */
+    int PROPAGATOR = 1;
+    /**
+     * Kind of cause that is a propagator of signed clauses,
+     * which always comes with its own explanation.
+     */
+    int CLAUSE = 2;
+    /**
+     * Kind of cause that is an integer decision.
+     */
+    int DECISION = 3;
+
+    /**
+     * Return the kind of this cause, among {@link #OTHER}, {@link #PROPAGATOR}, {@link #CLAUSE}
+     * and {@link #DECISION}.
+     * It enables conflict analysis to dispatch on causes without any reflective call.
+     * @return the kind of this cause
+     */
+    default int getCauseKind(){
+        return OTHER;
+    }
+
     /**
      * Clausal explanation for this cause.
      * <p>
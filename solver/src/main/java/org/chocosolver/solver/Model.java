@@ -118,6 +118,11 @@ public class Model implements IModel {
      */
     private int cIdx;
 
+    /**
+     * Number of times a constraint has been posted or unposted
+     */
+    private long cStamp;
+
     /**
      * Environment, based of the search tree (trailing or copying)
      */
@@ -506,6 +511,16 @@ public class Model implements IModel {
         return cIdx;
     }
 
+    /**
+     * Return a stamp of the constraint network, which changes each time a constraint is posted or unposted.
+     * Comparing two stamps is a cheap way to know whether the set of constraints changed in between.
+     *
+     * @return number of constraints posted or unposted so far
+     */
+    public long getCstrsStamp() {
+        return cStamp;
+    }
+
     /**
      * Returns a sequential {@code Stream} with this model's constraints as its source.
      *
@@ -902,6 +917,7 @@ public class Model implements IModel {
             }
             c.declareAs(Constraint.Status.POSTED, cIdx);
             cstrs[cIdx++] = c;
+            cStamp++;
         }
     }
 
@@ -957,6 +973,7 @@ public class Model implements IModel {
                     cstrs[idx].declareAs(Constraint.Status.POSTED, idx);
                 }
                 cstrs[cIdx] = null;
+                cStamp++;
                 // 3. check if the resolution already started -> if true, dynamic deletion
                 PropagationEngine engine = getSolver().getEngine();
                 if (engine.isInitialized()) {
@@ -57,6 +57,13 @@ import static org.chocosolver.solver.search.strategy.Search.*;
  *      Otherwise, unexpected behaviors may occur.
  * </p>
  * <p>
+ *     Table constraints are memory-consuming, when declared with large tuples.
+ *     Creating the {@link org.chocosolver.solver.constraints.extension.Tuples} once and passing them to each model,
+ *     created with {@link Settings#setShareExtensionStructures(boolean)} enabled,
+ *     lets the models share the static structures of these constraints
+ *     (see {@link org.chocosolver.solver.constraints.extension.ExtensionStructures}).
+ * </p>
+ * <p>
  *     The resolution process is synchronized. As soon as one model ends (naturally or by hitting a limit)
  *     the other ones are eagerly stopped.
  *     Moreover, when dealing with an optimization problem, cut on the objective variable's value is propagated
@@ -49,6 +49,8 @@ public class Settings {
 
     private int maxTupleSizeForSubstitution = 10_000;
 
+    private boolean shareExtensionStructures = false;
+
     private boolean sortPropagatorActivationWRTPriority = true;
 
     private int maxPropagatorPriority = PropagatorPriority.VERY_SLOW.getValue();
@@ -61,6 +63,8 @@ public class Settings {
 
     private IntPredicate enableIncrementalityOnBoolSum = i -> i > 10;
 
+    private IntPredicate enableIncrementalityOnSum = i -> i > 100;
+
     private boolean enableSAT = false;
 
     private boolean swapOnPassivate = false;
@@ -91,6 +95,10 @@ public class Settings {
 
     private Function<Model, Solver> initSolver = Solver::new;
 
+    private long stopCriteriaCheckPeriod = 1_000_000L;
+
+    private boolean checkUserStopCriteriaLazily = false;
+
     private final HashMap<String, Object> additionalSettings = new HashMap<>();
 
     private Settings() {
@@ -160,6 +168,14 @@ public class Settings {
      *     return ESat.TRUE.equals(solver.isSatisfied());
      *     }
      * </pre>
+     * Checking all constraints on each solution may be costly when many solutions are found,
+     * the following checkers are cheaper alternatives:
+     * <ul>
+     *     <li>{@link org.chocosolver.solver.checker.IncrementalModelChecker} only checks the constraints
+     *     whose variables changed since the last solution,</li>
+     *     <li>{@link org.chocosolver.solver.checker.SamplingModelChecker} checks a random sample of the constraints,</li>
+     *     <li>{@link org.chocosolver.solver.checker.AsyncModelChecker} checks the solutions on a background thread.</li>
+     * </ul>
      *
      * @param modelChecker a predicate to check the solution
      * @return the current instance
@@ -289,6 +305,29 @@ public class Settings {
     }
 
 
+    /**
+     * @return <tt>true</tt> if the static structures of extension constraints are shared with other models
+     */
+    public boolean shareExtensionStructures() {
+        return shareExtensionStructures;
+    }
+
+    /**
+     * Define whether the static structures of extension constraints (support bitsets, decision diagrams)
+     * are shared with the other models declaring the same tuples over the same domains,
+     * typically the models of a {@link ParallelPortfolio}.
+     * Shared structures are softly referenced: they may be reclaimed when memory runs low, and then built again.
+     *
+     * @param shareExtensionStructures set to <tt>true</tt> to share the structures of extension constraints
+     * @return the current instance
+     * @see org.chocosolver.solver.constraints.extension.ExtensionStructures
+     */
+    public Settings setShareExtensionStructures(boolean shareExtensionStructures) {
+        this.shareExtensionStructures = shareExtensionStructures;
+        return this;
+    }
+
+
     /**
      * @return {@code true} if propagators are sorted wrt their priority on initial activation.
      */
@@ -423,6 +462,28 @@ public class Settings {
         return this;
     }
 
+    /**
+     * @param nbvars number of variables in the constraint
+     * @return {@code true} if the incrementality is enabled on integer sum and scalar product,
+     * based on the number of variables involved.
+     */
+    public boolean enableIncrementalityOnSum(int nbvars) {
+        return enableIncrementalityOnSum.test(nbvars);
+    }
+
+    /**
+     * Define the predicate to choose incremental sum or scalar product over integer variables,
+     * based on number variables declared.
+     * Incrementality pays off on long linear constraints, where a bound event rarely triggers filtering.
+     *
+     * @param enableIncrementalityOnSum predicate to pick declare sum
+     * @return the current instance
+     */
+    public Settings setEnableIncrementalityOnSum(IntPredicate enableIncrementalityOnSum) {
+        this.enableIncrementalityOnSum = enableIncrementalityOnSum;
+        return this;
+    }
+
     /**
      * @return <i>true</i> when an underlying SAT solver is used to manage clauses declared through {@link ISatFactory},
      * <i>false</i> when clauses are managed with CSP constraints only.
@@ -760,6 +821,52 @@ public class Settings {
         return ibexRestoreRounding;
     }
 
+    /**
+     * @return the targeted duration, in nanoseconds, between two evaluations of the time-based stop criteria
+     * in the search loop (default is 1ms).
+     */
+    public long getStopCriteriaCheckPeriod() {
+        return stopCriteriaCheckPeriod;
+    }
+
+    /**
+     * Define the targeted duration, in nanoseconds, between two evaluations of the time-based stop criteria
+     * (and of the user-defined ones, see {@link #setCheckUserStopCriteriaLazily(boolean)}) in the search loop.
+     * The number of iterations between two evaluations is adapted on the fly to meet this period,
+     * so that the overshoot of a time limit is bounded by it.
+     * Counters on nodes, fails, backtracks, restarts and solutions are checked at each iteration anyway.
+     * Setting the period to 0 restores a check at each iteration.
+     *
+     * @param period duration in nanoseconds
+     * @return the current instance
+     */
+    public Settings setStopCriteriaCheckPeriod(long period) {
+        this.stopCriteriaCheckPeriod = period;
+        return this;
+    }
+
+    /**
+     * @return <i>true</i> if user-defined stop criteria (like lambdas) are evaluated
+     * with the same period as time-based ones, <i>false</i> (default value) if they are evaluated at each iteration.
+     */
+    public boolean checkUserStopCriteriaLazily() {
+        return checkUserStopCriteriaLazily;
+    }
+
+    /**
+     * Set to <i>true</i> to evaluate user-defined stop criteria (like lambdas) with the same period as
+     * time-based ones (see {@link #setStopCriteriaCheckPeriod(long)}).
+     * This is relevant when such criteria are costly to evaluate, but they may then be met a few
+     * iterations after the limit is actually reached, which is not suitable for criteria based on equality.
+     *
+     * @param lazily <i>true</i> to evaluate user-defined stop criteria lazily
+     * @return the current instance
+     */
+    public Settings setCheckUserStopCriteriaLazily(boolean lazily) {
+        this.checkUserStopCriteriaLazily = lazily;
+        return this;
+    }
+
     public Object get(String key) {
         return additionalSettings.get(key);
     }
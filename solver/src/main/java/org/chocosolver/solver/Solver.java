@@ -20,7 +20,13 @@ import org.chocosolver.solver.objective.IObjectiveManager;
 import org.chocosolver.solver.objective.ObjectiveFactory;
 import org.chocosolver.solver.propagation.PropagationEngine;
 import org.chocosolver.solver.search.SearchState;
+import org.chocosolver.solver.search.limits.BacktrackCounter;
+import org.chocosolver.solver.search.limits.FailCounter;
 import org.chocosolver.solver.search.limits.ICounter;
+import org.chocosolver.solver.search.limits.NodeCounter;
+import org.chocosolver.solver.search.limits.RestartCounter;
+import org.chocosolver.solver.search.limits.SolutionCounter;
+import org.chocosolver.solver.search.limits.TimeCounter;
 import org.chocosolver.solver.search.loop.Reporting;
 import org.chocosolver.solver.search.loop.learn.Learn;
 import org.chocosolver.solver.search.loop.learn.LearnNothing;
@@ -32,10 +38,12 @@ import org.chocosolver.solver.search.loop.move.MoveSeq;
 import org.chocosolver.solver.search.loop.propagate.Propagate;
 import org.chocosolver.solver.search.loop.propagate.PropagateBasic;
 import org.chocosolver.solver.search.measure.IMeasures;
+import org.chocosolver.solver.search.measure.Measures;
 import org.chocosolver.solver.search.measure.MeasuresRecorder;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
 import org.chocosolver.solver.trace.IOutputFactory;
 import org.chocosolver.solver.variables.Task;
@@ -79,6 +87,11 @@ import static org.chocosolver.util.ESat.*;
  */
 public class Solver implements ISolver, IMeasures, IOutputFactory {
 
+    /**
+     * Maximum number of search loop iterations between two evaluations of the lazy stop criteria
+     */
+    private static final int MAX_STRIDE = 1 << 14;
+
     /**
      * Define the possible actions of SearchLoop
      */
@@ -165,12 +178,72 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
      * Index of the world where the search starts, after initialization.
      */
     private int searchWorldIndex = 0;
+
+    /**
+     * Index of the world after the initial propagation, that is, where assumptions are applied.
+     * See {@link #solveUnder(IntDecision...)}.
+     */
+    private int assumptionWorldIndex = 0;
+
+    /**
+     * Assumptions of the last call to {@link #solveUnder(IntDecision...)}
+     */
+    private IntDecision[] assumptions = new IntDecision[0];
+
+    /**
+     * Set to <tt>true</tt> when the solver is left below assumptions by {@link #solveUnder(IntDecision...)},
+     * the next call to {@link #solve()} then starts from the fix point of the initial propagation.
+     */
+    private boolean underAssumptions = false;
+
+    /**
+     * Number of assumptions involved in the last failure of {@link #solveUnder(IntDecision...)},
+     * or -1 if the assumptions were satisfiable.
+     */
+    private int failedAssumptions = -1;
+
+    /**
+     * Set to <tt>true</tt> when the last failure of {@link #solveUnder(IntDecision...)} was detected by propagation
+     */
+    private boolean assumptionsFailedOnPropagation;
     /**
      * List of stopping criteria.
      * When at least one is satisfied, the search loop ends.
      */
     protected List<Criterion> criteria;
 
+    /**
+     * Stop criteria evaluated at each iteration of the search loop, that is, the built-in counters.
+     */
+    private Criterion[] eagerCriteria = new Criterion[0];
+
+    /**
+     * Stop criteria evaluated every {@link #stride} iterations of the search loop,
+     * that is, time-based ones and, when enabled, user-defined ones.
+     */
+    private Criterion[] lazyCriteria = new Criterion[0];
+
+    /**
+     * Set to <tt>true</tt> when the stop criteria have to be dispatched again
+     */
+    private boolean criteriaChanged = true;
+
+    /**
+     * Number of search loop iterations between two evaluations of {@link #lazyCriteria},
+     * adapted on the fly to meet {@link Settings#getStopCriteriaCheckPeriod()}.
+     */
+    private int stride = 1;
+
+    /**
+     * Number of search loop iterations before next evaluation of {@link #lazyCriteria}
+     */
+    private int countdown;
+
+    /**
+     * Time of the last evaluation of {@link #lazyCriteria}
+     */
+    private long lastLazyCheck;
+
     /**
      * Indicates if the default search loop is in use (set to <tt>true</tt> in that case).
      */
@@ -289,6 +362,9 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         if (getModel().getObjective() == null && !satPb) {
             throw new SolverException("No objective variable has been defined whereas policy implies optimization");
         }
+        if (underAssumptions) {
+            leaveAssumptions();
+        }
         stop = !canBeRepaired;
         if (action == initialize) {
             searchMonitors.beforeInitialize();
@@ -315,15 +391,23 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         boolean solution = false;
         boolean left = true;
         Thread th = Thread.currentThread();
+        dispatchCriteria();
+        countdown = 0;
+        lastLazyCheck = System.nanoTime();
         while (!stop) {
-            stop = isStopCriterionMet();
-            if (stop || th.isInterrupted()) {
-                if (stop) {
-                    mMeasures.setSearchState(SearchState.STOPPED);
-                } else {
+            if (criteriaChanged) {
+                dispatchCriteria();
+            }
+            stop = isEagerCriterionMet();
+            if (!stop && --countdown <= 0) {
+                stop = isLazyCriterionMet();
+                if (!stop && th.isInterrupted()) {
                     mMeasures.setSearchState(SearchState.KILLED);
                 }
             }
+            if (stop) {
+                mMeasures.setSearchState(SearchState.STOPPED);
+            }
             switch (action) {
                 case initialize:
                     throw new UnsupportedOperationException("should not initialize during search loop");
@@ -408,6 +492,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
             action = extend;
             mModel.getEnvironment().worldPush(); // store state after initial propagation; w = 1 -> 2
             searchWorldIndex = mModel.getEnvironment().getWorldIndex(); // w = 2
+            assumptionWorldIndex = searchWorldIndex;
             mModel.getEnvironment().worldPush(); // store another time for restart purpose: w = 2 -> 3
         } catch (ContradictionException ce) {
             engine.flush();
@@ -598,6 +683,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
             mModel.getEnvironment().worldPopUntil(rootWorldIndex);
         }
         searchWorldIndex = 0;
+        underAssumptions = false;
         action = initialize;
         mMeasures.reset();
         engine.reset();
@@ -850,6 +936,203 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         return success;
     }
 
+    /**
+     * <p>
+     * Look for a solution in which all the <i>assumptions</i> hold, without posting nor removing any constraint.
+     * </p>
+     * <p>
+     * The initial propagation is run on the first call only and its fix point is kept.
+     * Then, each call backtracks to this fix point, applies the assumptions as non-refutable decisions
+     * and runs the search loop below them.
+     * So, the search never calls {@link #reset()} and never propagates the root node again,
+     * which makes it suited to answer many queries like "can <i>x</i> still be equal to <i>v</i>?".
+     * When a solution is found, it is kept in the variables until the next call.
+     * A call to {@link #solve()} afterwards runs a search without the assumptions, from the same fix point.
+     * </p>
+     * <p>
+     * Learnt clauses, if any, are kept from one call to the other, since they do not depend on the assumptions.
+     * When the assumptions are not satisfiable, {@link #findFailedAssumptions()} returns
+     * a subset of the assumptions that is not satisfiable either.
+     * </p>
+     * <pre> {@code
+     * DecisionPath dp = solver.getDecisionPath();
+     * ESat possible = solver.solveUnder(dp.makeIntDecision(x, DecisionOperatorFactory.makeIntEq(), v));
+     * }</pre>
+     * Only satisfaction problems are supported.
+     *
+     * @param assumptions decisions to apply before searching, they are not modified
+     * @return {@link ESat#TRUE} if a solution is found, {@link ESat#FALSE} if there is no solution
+     * in which all the assumptions hold, {@link ESat#UNDEFINED} if a stop criterion is met before.
+     * @throws SolverException if an objective is declared
+     * @see #findFailedAssumptions()
+     */
+    public ESat solveUnder(IntDecision... assumptions) {
+        if (getModel().getResolutionPolicy() != ResolutionPolicy.SATISFACTION) {
+            throw new SolverException("Solving under assumptions does not support optimization");
+        }
+        this.assumptions = assumptions.clone();
+        mMeasures.setSearchState(SearchState.RUNNING);
+        if (action == initialize) {
+            searchMonitors.beforeInitialize();
+            boolean ok = initialize();
+            searchMonitors.afterInitialize(ok);
+            if (!ok) {
+                failedAssumptions = 0;
+                assumptionsFailedOnPropagation = true;
+                return closeUnder(FALSE);
+            }
+        }
+        int k = applyAssumptions(this.assumptions, assumptions.length);
+        if (k < assumptions.length) {
+            failedAssumptions = k + 1;
+            assumptionsFailedOnPropagation = true;
+            return closeUnder(FALSE);
+        }
+        IEnvironment environment = mModel.getEnvironment();
+        environment.worldPush(); // store state after propagating the assumptions
+        searchWorldIndex = environment.getWorldIndex();
+        environment.worldPush(); // store another time for restart purpose
+        M.setTopDecisionPosition(dpath.size() - 1);
+        action = extend;
+        jumpTo = 0;
+        stop = false;
+        canBeRepaired = true;
+        long solutions = mMeasures.getSolutionCount();
+        searchLoop();
+        ESat result = mMeasures.getSolutionCount() > solutions ? TRUE : isStopCriterionMet() ? UNDEFINED : FALSE;
+        if (result == FALSE) {
+            failedAssumptions = assumptions.length;
+            assumptionsFailedOnPropagation = false;
+        }
+        return closeUnder(result);
+    }
+
+    /**
+     * Backtrack to the fix point of the initial propagation, then apply the <i>n</i> first assumptions,
+     * one world per assumption.
+     *
+     * @return the index of the assumption whose propagation fails, <i>n</i> if none fails.
+     * In case of failure, the state is restored to the fix point of the initial propagation.
+     */
+    private int applyAssumptions(IntDecision[] assumptions, int n) {
+        IEnvironment environment = mModel.getEnvironment();
+        while (environment.getWorldIndex() > assumptionWorldIndex) {
+            environment.worldPop();
+        }
+        dpath.synchronize();
+        searchWorldIndex = assumptionWorldIndex;
+        int i = 0;
+        try {
+            for (; i < n; i++) {
+                IntDecision decision = assumptions[i].duplicate();
+                decision.setRefutable(false);
+                dpath.pushDecision(decision);
+                environment.worldPush();
+                mMeasures.incFixpointCount();
+                P.execute(this);
+            }
+        } catch (ContradictionException ce) {
+            engine.flush();
+            mMeasures.incFailCount();
+            searchMonitors.onContradiction(ce);
+            L.record(this);
+            L.forget(this);
+            while (environment.getWorldIndex() > assumptionWorldIndex) {
+                environment.worldPop();
+            }
+            dpath.synchronize();
+        }
+        return i;
+    }
+
+    private ESat closeUnder(ESat result) {
+        if (result != FALSE) {
+            failedAssumptions = -1;
+        }
+        if (action != initialize) {
+            // the search below the assumptions is over, the next one starts from the initial fix point
+            searchWorldIndex = assumptionWorldIndex;
+            M.setTopDecisionPosition(0);
+            underAssumptions = true;
+        }
+        searchMonitors.beforeClose();
+        closeSearch();
+        searchMonitors.afterClose();
+        feasible = result;
+        return result;
+    }
+
+    /**
+     * Backtrack to the fix point of the initial propagation, removing the assumptions,
+     * and prepare a search from there, as {@link #initialize()} does.
+     */
+    private void leaveAssumptions() {
+        applyAssumptions(assumptions, 0);
+        mModel.getEnvironment().worldPush(); // store another time for restart purpose
+        action = extend;
+        jumpTo = 0;
+        canBeRepaired = true;
+        underAssumptions = false;
+    }
+
+    /**
+     * <p>
+     * Return a subset of the assumptions of the last call to {@link #solveUnder(IntDecision...)}
+     * which cannot be satisfied, when this call returned {@link ESat#FALSE}.
+     * </p>
+     * <p>
+     * The subset is computed on demand by removing assumptions one by one, as long as they remain unsatisfiable.
+     * When the failure was detected by propagating the assumptions, only the assumptions applied so far are
+     * considered and each test is a propagation, so the subset fails by propagation.
+     * Otherwise, each test is a search under the remaining assumptions,
+     * which benefits from the clauses learnt so far, if learning is on.
+     * Either way, the subset is minimal: removing any assumption from it makes the test succeed,
+     * unless a stop criterion interrupts a test, in which case the assumption is kept.
+     * </p>
+     * <p>
+     * The tests are not part of the resolution: search monitors are not notified and measures are left unchanged.
+     * </p>
+     * The solver is then restored to the fix point of the initial propagation.
+     *
+     * @return a list of assumptions that cannot be satisfied, empty if the model has no solution
+     * @throws SolverException if the last call to {@link #solveUnder(IntDecision...)} did not return {@link ESat#FALSE}
+     */
+    public List<IntDecision> findFailedAssumptions() {
+        if (failedAssumptions < 0) {
+            throw new SolverException("The last assumptions are not known to be unsatisfiable");
+        }
+        IntDecision[] all = assumptions;
+        int size = failedAssumptions;
+        boolean byPropagation = assumptionsFailedOnPropagation;
+        List<IntDecision> core = new ArrayList<>(Arrays.asList(all).subList(0, size));
+        // the tests are not part of the resolution: monitors are not notified and measures are restored
+        Measures measures = new Measures(mMeasures);
+        SearchMonitorList monitors = searchMonitors;
+        searchMonitors = new SearchMonitorList();
+        try {
+            for (int i = core.size() - 1; i >= 0; i--) {
+                IntDecision removed = core.remove(i);
+                IntDecision[] others = core.toArray(new IntDecision[0]);
+                boolean unsat = byPropagation ?
+                        applyAssumptions(others, others.length) < others.length :
+                        solveUnder(others) == FALSE;
+                if (!unsat) {
+                    core.add(i, removed);
+                }
+            }
+        } finally {
+            searchMonitors = monitors;
+            mMeasures.restore(measures);
+        }
+        applyAssumptions(all, 0);
+        // restore the state of the last call
+        assumptions = all;
+        failedAssumptions = size;
+        assumptionsFailedOnPropagation = byPropagation;
+        feasible = FALSE;
+        return core;
+    }
+
     /**
      * Solving is executing if the search state is different from NEW, that is,
      * if it has started to branch decisions.
@@ -968,6 +1251,74 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         return ismet;
     }
 
+    /**
+     * Split the declared stop criteria into the ones evaluated at each iteration of the search loop
+     * and the ones evaluated lazily.
+     */
+    private void dispatchCriteria() {
+        boolean lazyUser = mModel.getSettings().checkUserStopCriteriaLazily();
+        List<Criterion> eager = new ArrayList<>();
+        List<Criterion> lazy = new ArrayList<>();
+        for (int i = 0; i < criteria.size(); i++) {
+            Criterion c = criteria.get(i);
+            if (c instanceof NodeCounter || c instanceof FailCounter || c instanceof BacktrackCounter
+                    || c instanceof SolutionCounter || c instanceof RestartCounter) {
+                eager.add(c);
+            } else if (c instanceof TimeCounter || lazyUser) {
+                lazy.add(c);
+            } else {
+                eager.add(c);
+            }
+        }
+        eagerCriteria = eager.toArray(new Criterion[0]);
+        lazyCriteria = lazy.toArray(new Criterion[0]);
+        criteriaChanged = false;
+    }
+
+    /**
+     * @return <tt>true</tt> if at least one of the stop criteria evaluated at each iteration is met.
+     */
+    private boolean isEagerCriterionMet() {
+        for (int i = 0; i < eagerCriteria.length; i++) {
+            if (eagerCriteria[i].isMet()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluate the lazy stop criteria and set the number of iterations before the next evaluation.
+     * The stride is doubled when the last one was traversed in less than half of the period,
+     * and halved when it took more than the period.
+     * Thus, a time limit is overshot by at most the period, as long as an iteration does not take longer.
+     *
+     * @return <tt>true</tt> if at least one of the stop criteria evaluated lazily is met.
+     */
+    private boolean isLazyCriterionMet() {
+        boolean ismet = false;
+        for (int i = 0; i < lazyCriteria.length && !ismet; i++) {
+            ismet = lazyCriteria[i].isMet();
+        }
+        long period = mModel.getSettings().getStopCriteriaCheckPeriod();
+        if (period > 0) {
+            long now = System.nanoTime();
+            long elapsed = now - lastLazyCheck;
+            lastLazyCheck = now;
+            if (elapsed < period >> 1) {
+                if (stride < MAX_STRIDE) {
+                    stride <<= 1;
+                }
+            } else if (elapsed > period && stride > 1) {
+                stride >>= 1;
+            }
+        } else {
+            stride = 1;
+        }
+        countdown = stride;
+        return ismet;
+    }
+
     /**
      * @return the index of the world where the search starts, after initialization.
      */
@@ -1210,6 +1561,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
     public void addStopCriterion(Criterion... criterion) {
         if (criterion != null) {
             Collections.addAll(criteria, criterion);
+            criteriaChanged = true;
         }
     }
 
@@ -1223,6 +1575,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
             for (Criterion c : criterion) {
                 criteria.remove(c);
             }
+            criteriaChanged = true;
         }
     }
 
@@ -1233,6 +1586,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
     @SuppressWarnings("WeakerAccess")
     public void removeAllStopCriteria() {
         this.criteria.clear();
+        this.criteriaChanged = true;
     }
 
     /**
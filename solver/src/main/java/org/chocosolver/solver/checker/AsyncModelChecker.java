@@ -0,0 +1,232 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.checker;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.InvalidSolutionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.ESat;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A model checker that checks each solution on a background thread, so that the search goes on meanwhile.
+ * <p>
+ * Since constraints are checked against the domains of their variables, which keep on changing during search,
+ * the solutions are checked on a copy of the model, made by the given supplier.
+ * The copy must declare the same variables, in the same order, and the same constraints as the solved model,
+ * typically by calling the same modelling code. It is created once per solver, on the first solution.
+ * Values of the variables are recorded on each solution, then they are set in the copy
+ * and its constraints are checked, like {@link Solver#isSatisfied()} does.
+ * </p>
+ * <p>
+ * An invalid solution is thus reported after the fact:
+ * an {@link InvalidSolutionException} is thrown on the next solution found or when the search is closed,
+ * once all the solutions found so far are checked.
+ * When the checking thread is late by too many solutions, the search waits for it.
+ * </p>
+ * <pre>
+ *     {@code
+ *     Model model = new Model(Settings.init().setModelChecker(new AsyncModelChecker(() -> makeModel())));
+ *     }
+ * </pre>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class AsyncModelChecker implements Predicate<Solver> {
+
+    private final Supplier<Model> copies;
+    /**
+     * Maximum number of solutions waiting for a check
+     */
+    private final int capacity;
+    /**
+     * Name of the hook storing the data of the checker in each model it is called on.
+     * The data are thus released with the model.
+     */
+    private static final String HOOK_NAME = "H_ASYNCCHECKER";
+
+    /**
+     * @param copies creates a copy of the model to check solutions on
+     */
+    public AsyncModelChecker(Supplier<Model> copies) {
+        this(copies, 1024);
+    }
+
+    /**
+     * @param copies   creates a copy of the model to check solutions on
+     * @param capacity maximum number of solutions waiting for a check before the search waits
+     */
+    public AsyncModelChecker(Supplier<Model> copies, int capacity) {
+        this.copies = copies;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean test(Solver solver) {
+        State state = (State) solver.getModel().getHook(HOOK_NAME);
+        if (state == null) {
+            state = attach(solver);
+        }
+        state.report(solver.getModel());
+        state.submit(solver.getModel());
+        return true;
+    }
+
+    /**
+     * Create the state of <i>solver</i> and wait for the checking thread when the search is closed.
+     */
+    private State attach(Solver solver) {
+        Model copy = copies.get();
+        if (copy.getNbVars() != solver.getModel().getNbVars()) {
+            throw new SolverException("The copy of the model does not declare the same variables");
+        }
+        State state = new State(copy);
+        solver.plugMonitor(new IMonitorClose() {
+            @Override
+            public void afterClose() {
+                state.close(solver.getModel());
+            }
+        });
+        solver.getModel().addHook(HOOK_NAME, state);
+        return state;
+    }
+
+    private final class State {
+
+        private final Model copy;
+        private ThreadPoolExecutor executor;
+        private long count;
+        private volatile String failure;
+
+        State(Model copy) {
+            this.copy = copy;
+        }
+
+        /**
+         * Record the current solution of <i>model</i> and submit it to the checking thread
+         */
+        void submit(Model model) {
+            if (executor == null) {
+                executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(capacity),
+                        r -> {
+                            Thread t = new Thread(r, "solution-checker");
+                            t.setDaemon(true);
+                            return t;
+                        },
+                        (r, e) -> {
+                            // the search waits for the checking thread
+                            try {
+                                e.getQueue().put(r);
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            }
+            Object[] values = new Object[model.getNbVars()];
+            for (int i = 0; i < values.length; i++) {
+                Variable v = model.getVar(i);
+                if ((v.getTypeAndKind() & Variable.TYPE) != Variable.CSTE && v.isInstantiated()) {
+                    switch (v.getTypeAndKind() & Variable.KIND) {
+                        case Variable.INT:
+                        case Variable.BOOL:
+                            values[i] = ((IntVar) v).getValue();
+                            break;
+                        case Variable.SET:
+                            values[i] = ((SetVar) v).getValue().toArray();
+                            break;
+                        case Variable.REAL:
+                            values[i] = new double[]{((RealVar) v).getLB(), ((RealVar) v).getUB()};
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+            long number = ++count;
+            executor.execute(() -> check(values, number));
+        }
+
+        /**
+         * Check a solution on the copy of the model, from the checking thread.
+         */
+        private void check(Object[] values, long number) {
+            if (failure != null) {
+                return;
+            }
+            copy.getEnvironment().worldPush();
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    Variable v = copy.getVar(i);
+                    if (values[i] instanceof Integer) {
+                        ((IntVar) v).instantiateTo((Integer) values[i], Cause.Null);
+                    } else if (values[i] instanceof int[]) {
+                        ((SetVar) v).instantiateTo((int[]) values[i], Cause.Null);
+                    } else if (values[i] instanceof double[]) {
+                        double[] bounds = (double[]) values[i];
+                        ((RealVar) v).updateBounds(bounds[0], bounds[1], Cause.Null);
+                    }
+                }
+                for (Constraint c : copy.getCstrs()) {
+                    if (c.isEnabled() && ESat.FALSE == c.isSatisfied()) {
+                        failure = "Solution #" + number + " does not satisfy " + c;
+                        return;
+                    }
+                }
+            } catch (ContradictionException e) {
+                failure = "Solution #" + number + " cannot be set in the copy of the model: " + e.getMessage();
+            } finally {
+                copy.getEnvironment().worldPop();
+            }
+        }
+
+        /**
+         * Throw an exception if a solution checked so far is invalid.
+         */
+        void report(Model model) {
+            if (failure != null) {
+                String message = failure;
+                failure = null;
+                throw new InvalidSolutionException(message, model);
+            }
+        }
+
+        /**
+         * Wait for the checking thread, then throw an exception if a solution is invalid.
+         */
+        void close(Model model) {
+            if (executor != null) {
+                executor.shutdown();
+                try {
+                    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                executor = null;
+            }
+            report(model);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.checker;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.ESat;
+
+import java.util.function.Predicate;
+
+/**
+ * A model checker that only checks the constraints whose variables changed since the last validated solution.
+ * <p>
+ * The first solution is fully checked, like {@link Solver#isSatisfied()} does.
+ * Then, the value of each integer variable is compared with its value in the previous solution,
+ * and only the constraints involving at least one modified variable are checked again.
+ * Other kinds of variables (set, real, ...) are always considered as modified.
+ * Like the default checker, a solution is rejected only when a constraint is not satisfied
+ * (that is, {@link Constraint#isSatisfied()} returns {@link ESat#FALSE}).
+ * </p>
+ * <p>
+ * The scope of each constraint is computed once, from the variables of its propagators,
+ * and is computed again when constraints are posted or removed, as told by {@link Model#getCstrsStamp()}.
+ * Constraints over variables that are not declared in the model are checked on each solution.
+ * This checker can be shared by several models.
+ * </p>
+ * <pre>
+ *     {@code
+ *     Model model = new Model(Settings.init().setModelChecker(new IncrementalModelChecker()));
+ *     }
+ * </pre>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class IncrementalModelChecker implements Predicate<Solver> {
+
+    /**
+     * Name of the hook storing the data of the checker in each model it is called on.
+     * The data are thus released with the model.
+     */
+    private static final String HOOK_NAME = "H_INCRCHECKER";
+
+    @Override
+    public boolean test(Solver solver) {
+        Model model = solver.getModel();
+        State state = (State) model.getHook(HOOK_NAME);
+        if (state == null) {
+            state = new State();
+            model.addHook(HOOK_NAME, state);
+        }
+        return state.check(model);
+    }
+
+    private static final class State {
+        /**
+         * Constraints of the model when the scopes were computed
+         */
+        private Constraint[] cstrs = new Constraint[0];
+        /**
+         * Stamp of the constraint network when the scopes were computed
+         */
+        private long cstrsStamp;
+        /**
+         * Indices of the constraints of each variable, in model order
+         */
+        private int[][] cstrsOf;
+        /**
+         * Indices of the constraints to check on each solution,
+         * that is, those with a variable unknown from the model
+         */
+        private int[] always;
+        /**
+         * Values of integer variables in the last validated solution
+         */
+        private int[] values;
+        private boolean[] known;
+        // stamp of the last check of each constraint
+        private int[] checked;
+        private int stamp;
+        private final TIntArrayList modified = new TIntArrayList();
+
+        boolean check(Model model) {
+            boolean all = update(model);
+            modified.resetQuick();
+            int n = model.getNbVars();
+            for (int i = 0; i < n; i++) {
+                Variable v = model.getVar(i);
+                if (all || !known[i] || !isIntVar(v) || !v.isInstantiated()
+                        || ((IntVar) v).getValue() != values[i]) {
+                    modified.add(i);
+                }
+            }
+            stamp++;
+            for (int c : always) {
+                checked[c] = stamp;
+                if (cstrs[c].isEnabled() && ESat.FALSE == cstrs[c].isSatisfied()) {
+                    return false;
+                }
+            }
+            for (int j = 0; j < modified.size(); j++) {
+                for (int c : cstrsOf[modified.getQuick(j)]) {
+                    if (checked[c] != stamp) {
+                        checked[c] = stamp;
+                        if (cstrs[c].isEnabled() && ESat.FALSE == cstrs[c].isSatisfied()) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            if (all) {
+                // constraints with no variable
+                for (int c = 0; c < cstrs.length; c++) {
+                    if (checked[c] != stamp && cstrs[c].isEnabled() && ESat.FALSE == cstrs[c].isSatisfied()) {
+                        return false;
+                    }
+                }
+            }
+            for (int j = 0; j < modified.size(); j++) {
+                int i = modified.getQuick(j);
+                Variable v = model.getVar(i);
+                known[i] = isIntVar(v) && v.isInstantiated();
+                if (known[i]) {
+                    values[i] = ((IntVar) v).getValue();
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Compute the scopes of the constraints, if the model changed.
+         *
+         * @return <i>true</i> if the scopes were computed
+         */
+        private boolean update(Model model) {
+            int n = model.getNbVars();
+            if (values != null && values.length == n && model.getCstrsStamp() == cstrsStamp) {
+                return false;
+            }
+            cstrs = model.getCstrs();
+            cstrsStamp = model.getCstrsStamp();
+            TIntIntHashMap indices = new TIntIntHashMap(n, .5f, -1, -1);
+            for (int i = 0; i < n; i++) {
+                indices.put(model.getVar(i).getId(), i);
+            }
+            TIntArrayList[] lists = new TIntArrayList[n];
+            TIntArrayList unknown = new TIntArrayList();
+            for (int c = 0; c < cstrs.length; c++) {
+                for (Propagator<?> p : cstrs[c].getPropagators()) {
+                    for (int k = 0; k < p.getNbVars(); k++) {
+                        int i = indices.get(p.getVar(k).getId());
+                        if (i >= 0) {
+                            if (lists[i] == null) {
+                                lists[i] = new TIntArrayList();
+                            }
+                            if (lists[i].isEmpty() || lists[i].getQuick(lists[i].size() - 1) != c) {
+                                lists[i].add(c);
+                            }
+                        } else if (unknown.isEmpty() || unknown.getQuick(unknown.size() - 1) != c) {
+                            unknown.add(c);
+                        }
+                    }
+                }
+            }
+            cstrsOf = new int[n][];
+            for (int i = 0; i < n; i++) {
+                cstrsOf[i] = lists[i] == null ? new int[0] : lists[i].toArray();
+            }
+            always = unknown.toArray();
+            values = new int[n];
+            known = new boolean[n];
+            checked = new int[cstrs.length];
+            stamp = 0;
+            return true;
+        }
+
+        private static boolean isIntVar(Variable v) {
+            return (v.getTypeAndKind() & Variable.INT) != 0;
+        }
+    }
+}
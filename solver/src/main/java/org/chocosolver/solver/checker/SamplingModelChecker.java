@@ -0,0 +1,81 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.checker;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.util.ESat;
+
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+/**
+ * A model checker that only checks a random sample of the constraints on each solution.
+ * Each constraint is checked with a given probability, independently of the others,
+ * so that an invalid solution is eventually detected when solutions are enumerated.
+ * <p>
+ * The constraints to skip are drawn from a geometric distribution,
+ * so the cost of a check is proportional to the number of constraints actually checked.
+ * This checker should not be shared by models solved concurrently.
+ * </p>
+ * <pre>
+ *     {@code
+ *     // check about 5% of the constraints on each solution
+ *     Model model = new Model(Settings.init().setModelChecker(new SamplingModelChecker(.05, 0L)));
+ *     }
+ * </pre>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class SamplingModelChecker implements Predicate<Solver> {
+
+    private final double ratio;
+    // logarithm of the probability for a constraint not to be checked
+    private final double logSkip;
+    private final SplittableRandom random;
+
+    /**
+     * @param ratio probability for a constraint to be checked, in ]0,1]
+     * @param seed  seed of the random number generator
+     */
+    public SamplingModelChecker(double ratio, long seed) {
+        if (ratio <= 0. || ratio > 1.) {
+            throw new IllegalArgumentException("The ratio must be in ]0,1]");
+        }
+        this.ratio = ratio;
+        this.logSkip = Math.log(1. - ratio);
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public boolean test(Solver solver) {
+        Constraint[] cstrs = solver.getModel().getCstrs();
+        int n = cstrs.length;
+        for (int c = skip(n); c < n; c += 1 + skip(n)) {
+            if (cstrs[c].isEnabled() && ESat.FALSE == cstrs[c].isSatisfied()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param max maximum value to return
+     * @return the number of constraints not to check before the next one to check
+     */
+    private int skip(int max) {
+        if (ratio == 1.) {
+            return 0;
+        }
+        double skip = Math.floor(Math.log(1. - random.nextDouble()) / logSkip);
+        return (int) Math.min(skip, max);
+    }
+}
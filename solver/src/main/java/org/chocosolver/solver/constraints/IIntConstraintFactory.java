@@ -16,6 +16,7 @@ import org.chocosolver.solver.ISelf;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.binary.*;
 import org.chocosolver.solver.constraints.binary.element.ElementFactory;
+import org.chocosolver.solver.constraints.extension.ExtensionStructures;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.constraints.extension.TuplesFactory;
 import org.chocosolver.solver.constraints.extension.binary.*;
@@ -717,7 +718,7 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      * The consistency level should be chosen among "BC", "AC" and "DEFAULT".
      *
      * @param vars        list of variables
-     * @param CONSISTENCY consistency level, among {"BC", "AC_REGIN", "AC", "AC_ZHANG", "DEFAULT"}
+     * @param CONSISTENCY consistency level, among {"BC", "AC_REGIN", "AC", "AC_ZHANG", "AC_BITSET", "DEFAULT"}
      *                    <p>
      *                    <b>BC</b>:
      *                    Based on: "A Fast and Simple Algorithm for Bounds Consistency of the AllDifferent Constraint"</br>
@@ -730,6 +731,10 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      *                    <b>AC, AC_ZHANG</b>:
      *                    Uses Zhang improvement of Regin algorithm
      *                    <p>
+     *                    <b>AC_BITSET</b>:
+     *                    Uses Regin algorithm on bitsets, repairing the matching incrementally.
+     *                    Suited to permutation-like problems, where the union of the domains is dense.
+     *                    <p>
      *                    <b>DEFAULT</b>:
      *                    <br/>
      *                    Uses BC plus a probabilistic AC_ZHANG propagator to get a compromise between BC and AC_ZHANG
@@ -1359,10 +1364,33 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      * @return a non-overlapping constraint
      */
     default Constraint diffN(IntVar[] X, IntVar[] Y, IntVar[] width, IntVar[] height, boolean addCumulativeReasoning) {
+        return diffN(X, Y, width, height, addCumulativeReasoning, false);
+    }
+
+    /**
+     * Creates a diffN constraint. Constrains each rectangle<sub>i</sub>, given by their origins X<sub>i</sub>,Y<sub>i</sub>
+     * and sizes width<sub>i</sub>,height<sub>i</sub>, to be non-overlapping.
+     * <p>
+     * Rectangles that may overlap are found either by checking all pairs of rectangles,
+     * or by sweeping over the rectangles along the first dimension, which is advised for
+     * large sets of rectangles, as only pairs of rectangles that overlap in the first dimension are checked.
+     * Both ways achieve the same filtering.
+     *
+     * @param X                      collection of coordinates in first dimension
+     * @param Y                      collection of coordinates in second dimension
+     * @param width                  collection of width (each duration should be > 0)
+     * @param height                 collection of height (each height should be >= 0)
+     * @param addCumulativeReasoning indicates whether or not redundant cumulative constraints should be put on each dimension (advised)
+     * @param sweep                  set to <i>true</i> to find rectangles that may overlap with a sweep,
+     *                               to <i>false</i> to check all pairs of rectangles
+     * @return a non-overlapping constraint
+     */
+    default Constraint diffN(IntVar[] X, IntVar[] Y, IntVar[] width, IntVar[] height, boolean addCumulativeReasoning,
+                             boolean sweep) {
         Model model = X[0].getModel();
         Constraint diffNCons = new Constraint(
                 ConstraintsName.DIFFN,
-                new PropDiffN(X, Y, width, height)
+                new PropDiffN(X, Y, width, height, sweep)
         );
         if (addCumulativeReasoning) {
             IntVar[] EX = new IntVar[X.length];
@@ -1425,7 +1453,9 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      * Creates a global cardinality constraint (GCC):
      * Each value values[i] should be taken by exactly occurrences[i] variables of vars.
      * <br/>
-     * This constraint does not ensure any well-defined level of consistency, yet.
+     * Arc consistency is ensured on vars when their domains are enumerated and small,
+     * bound consistency otherwise (see {@link GlobalCardinality#DEFAULT}).
+     * No particular consistency is ensured on occurrences.
      *
      * @param vars        collection of variables
      * @param values      collection of constrained values
@@ -1433,9 +1463,39 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      * @param closed      restricts domains of vars to values if set to true
      */
     default Constraint globalCardinality(IntVar[] vars, int[] values, IntVar[] occurrences, boolean closed) {
+        return globalCardinality(vars, values, occurrences, closed, GlobalCardinality.DEFAULT);
+    }
+
+    /**
+     * Creates a global cardinality constraint (GCC):
+     * Each value values[i] should be taken by exactly occurrences[i] variables of vars.
+     * <br/>
+     * Consistency on vars is given by <i>consistency</i>:
+     * <br/>
+     * - <b>FAST</b>: no particular consistency but fast,
+     * <br/>
+     * - <b>BC</b>: bound consistency, based on a flow over intervals of values,
+     * whose size does not depend on the size of the domains,
+     * <br/>
+     * - <b>AC</b>: arc consistency, based on a flow over values (Régin's algorithm),
+     * <br/>
+     * - <b>DEFAULT</b>: AC when all domains are enumerated with at most
+     * {@link GlobalCardinality#AC_MAX_DOMAIN_SIZE} values, BC otherwise.
+     * <br/>
+     * No particular consistency is ensured on occurrences.
+     *
+     * @param vars        collection of variables
+     * @param values      collection of constrained values
+     * @param occurrences collection of cardinality variables
+     * @param closed      restricts domains of vars to values if set to true
+     * @param consistency consistency level, among {"FAST", "BC", "AC", "DEFAULT"}
+     * @throws org.chocosolver.solver.exception.SolverException if the consistency level is unknown
+     */
+    default Constraint globalCardinality(IntVar[] vars, int[] values, IntVar[] occurrences, boolean closed,
+                                         String consistency) {
         assert values.length == occurrences.length;
         if (!closed) {
-            return new GlobalCardinality(vars, values, occurrences);
+            return new GlobalCardinality(vars, values, occurrences, consistency);
         } else {
             TIntArrayList toAdd = new TIntArrayList();
             TIntSet givenValues = new TIntHashSet();
@@ -1463,9 +1523,9 @@ public interface IIntConstraintFactory extends ISelf<Model> {
                     v2[i] = toAdd.get(i - values.length);
                     cards[i] = vars[0].getModel().intVar(0);
                 }
-                return new GlobalCardinality(vars, v2, cards);
+                return new GlobalCardinality(vars, v2, cards, consistency);
             } else {
-                return new GlobalCardinality(vars, values, occurrences);
+                return new GlobalCardinality(vars, values, occurrences, consistency);
             }
         }
     }
@@ -2304,6 +2364,11 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      * - <b>FC</b>: Forward Checking.
      * <br/>
      * - <b>MDD+</b>: uses a multi-valued decision diagram for allowed tuples (see mddc constraint),
+     * <p>
+     * The support bitsets of <b>CT+</b> and the diagram of <b>MDD+</b> are shared between constraints
+     * declared with the same tuples over variables with the same domains, even in different models,
+     * when {@link org.chocosolver.solver.Settings#shareExtensionStructures()} is enabled
+     * (see {@link ExtensionStructures}).
      *
      * @param vars   variables forming the tuples
      * @param tuples the relation between the variables (list of allowed/forbidden tuples). Should not be modified once passed to the constraint.
@@ -2341,7 +2406,8 @@ public interface IIntConstraintFactory extends ISelf<Model> {
             }
             break;
             case "MDD+":
-                p = new PropLargeMDDC(new MultivaluedDecisionDiagram(vars, tuples), vars);
+                p = new PropLargeMDDC(ExtensionStructures.get(tuples, MultivaluedDecisionDiagram.class, vars,
+                        () -> new MultivaluedDecisionDiagram(vars, tuples)), vars);
                 break;
             case "FC":
                 p = new PropLargeFC(vars, tuples);
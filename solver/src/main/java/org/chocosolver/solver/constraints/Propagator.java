@@ -860,6 +860,11 @@ public abstract class Propagator<V extends Variable> implements ICause, Identity
         }
     }
 
+    @Override
+    public int getCauseKind() {
+        return PROPAGATOR;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////
     // FOR PROPAGATION PURPOSE
     ////////////////////////////////////////////////////////////////////////////////////////////////
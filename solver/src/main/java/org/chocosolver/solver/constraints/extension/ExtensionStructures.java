@@ -0,0 +1,142 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension;
+
+import org.chocosolver.solver.variables.IntVar;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Static structures of extension constraints (e.g., support bitsets or decision diagrams),
+ * built once and shared by all the propagators declared with the same {@link Tuples} object
+ * over variables with the same initial domains, in models where
+ * {@link org.chocosolver.solver.Settings#shareExtensionStructures()} is enabled.
+ * Otherwise, each propagator builds its own structures.
+ * <p>
+ * This is typically the case when several copies of a model are solved in a
+ * {@link org.chocosolver.solver.ParallelPortfolio}: as long as the tuples are created once and passed to each copy,
+ * the structures are computed by the first copy only, and are then read by the others.
+ * Only the reversible state of the propagators is duplicated.
+ * </p>
+ * <p>
+ * The structures are immutable once built and can be read concurrently.
+ * They are forgotten once the tuples are no longer referenced, and are softly referenced meanwhile:
+ * a structure reclaimed by the garbage collector is built again when needed.
+ * Tuples should not be modified once passed to a constraint;
+ * adding tuples or changing the universal value anyway leads to new structures.
+ * </p>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public final class ExtensionStructures {
+
+    /**
+     * Structures built so far, by tuples
+     */
+    private static final Map<Tuples, List<Entry>> STRUCTURES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ExtensionStructures() {
+    }
+
+    /**
+     * Get the structure of a given kind built from <i>tuples</i> over <i>vars</i>, or build it.
+     * If the model of <i>vars</i> does not share extension structures, the structure is simply built.
+     * The builder must only depend on the tuples and on the current domains of <i>vars</i>,
+     * and the structure must not be modified afterwards.
+     *
+     * @param tuples  the tuples the structure is built from
+     * @param kind    the kind of structure, typically the class of the propagator
+     * @param vars    the variables the structure is built over
+     * @param builder builds the structure, if it does not exist yet
+     * @param <T>     the type of the structure
+     * @return a structure shared with the other propagators over the same tuples and domains
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(Tuples tuples, Class<?> kind, IntVar[] vars, Supplier<T> builder) {
+        if (vars.length == 0 || !vars[0].getModel().getSettings().shareExtensionStructures()) {
+            return builder.get();
+        }
+        Entry key = new Entry(kind, tuples, vars);
+        List<Entry> entries = STRUCTURES.computeIfAbsent(tuples, t -> new ArrayList<>());
+        // one structure is built at a time for given tuples, the others wait for it
+        synchronized (entries) {
+            for (Entry e : entries) {
+                if (e.matches(key)) {
+                    Object structure = e.structure.get();
+                    if (structure == null) {
+                        structure = builder.get();
+                        e.structure = new SoftReference<>(structure);
+                    }
+                    return (T) structure;
+                }
+            }
+            T structure = builder.get();
+            key.structure = new SoftReference<>(structure);
+            entries.add(key);
+            return structure;
+        }
+    }
+
+    /**
+     * @param tuples some tuples
+     * @return the number of structures built from <i>tuples</i> and not reclaimed yet
+     */
+    public static int count(Tuples tuples) {
+        List<Entry> entries = STRUCTURES.get(tuples);
+        if (entries == null) {
+            return 0;
+        }
+        synchronized (entries) {
+            int count = 0;
+            for (Entry e : entries) {
+                if (e.structure.get() != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static final class Entry {
+        private final Class<?> kind;
+        private final int nbTuples;
+        private final int star;
+        private final int[][] domains;
+        private SoftReference<Object> structure;
+
+        Entry(Class<?> kind, Tuples tuples, IntVar[] vars) {
+            this.kind = kind;
+            this.nbTuples = tuples.nbTuples();
+            this.star = tuples.allowUniversalValue() ? tuples.getStarValue() : Integer.MIN_VALUE;
+            this.domains = new int[vars.length][];
+            for (int i = 0; i < vars.length; i++) {
+                domains[i] = new int[vars[i].getDomainSize()];
+                int k = 0;
+                int ub = vars[i].getUB();
+                for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
+                    domains[i][k++] = v;
+                }
+            }
+        }
+
+        boolean matches(Entry other) {
+            return kind == other.kind && nbTuples == other.nbTuples && star == other.star
+                    && Arrays.deepEquals(domains, other.domains);
+        }
+    }
+}
@@ -14,12 +14,14 @@ import org.chocosolver.memory.IStateInt;
 import org.chocosolver.memory.IStateLong;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.extension.ExtensionStructures;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
 import org.chocosolver.util.procedure.UnaryIntProcedure;
 
 /**
@@ -43,6 +45,10 @@ public class PropCompactTable extends Propagator<IntVar> {
     protected int[] offset;
     protected IIntDeltaMonitor[] monitors;
     private final UnaryIntProcedure<Integer> onValRem;
+    /**
+     * Values to remove from a variable, removed all at once
+     */
+    private final IntIterableBitSet vrms;
 
     //***********************************************************************************
     // CONSTRUCTOR
@@ -64,6 +70,7 @@ public class PropCompactTable extends Propagator<IntVar> {
             monitors[i] = vars[i].monitorDelta(this);
         }
         onValRem = makeProcedure();
+        vrms = new IntIterableBitSet();
     }
 
     //***********************************************************************************
@@ -92,16 +99,24 @@ public class PropCompactTable extends Propagator<IntVar> {
     protected void computeSupports(Tuples tuples) {
         int n = vars.length;
         offset = new int[n];
-        supports = new long[n][][];
         residues = new int[n][];
-        long[] tmp;
         for (int i = 0; i < n; i++) {
             int lb = vars[i].getLB();
             int ub = vars[i].getUB();
             offset[i] = lb;
-            supports[i] = new long[ub - lb + 1][currTable.words.length];
             residues[i] = new int[ub - lb + 1];
         }
+        // supports only depend on the tuples and the domains, they are shared with similar propagators
+        supports = ExtensionStructures.get(tuples, PropCompactTable.class, vars, () -> buildSupports(tuples));
+    }
+
+    private long[][][] buildSupports(Tuples tuples) {
+        int n = vars.length;
+        long[][][] supports = new long[n][][];
+        long[] tmp;
+        for (int i = 0; i < n; i++) {
+            supports[i] = new long[vars[i].getUB() - offset[i] + 1][currTable.words.length];
+        }
         int wI = 0;
         byte bI = 63;
         top:
@@ -121,6 +136,7 @@ public class PropCompactTable extends Propagator<IntVar> {
                 wI++;
             }
         }
+        return supports;
     }
 
     //***********************************************************************************
@@ -213,18 +229,21 @@ public class PropCompactTable extends Propagator<IntVar> {
     }
 
     private void enumFilter(int i) throws ContradictionException {
+        vrms.clear();
+        vrms.setOffset(vars[i].getLB());
         int ub = vars[i].getUB();
         for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
             int index = residues[i][v - offset[i]];
             if ((currTable.words[index].get() & supports[i][v - offset[i]][index]) == 0L) {
                 index = currTable.intersectIndex(supports[i][v - offset[i]]);
                 if (index == -1) {
-                    vars[i].removeValue(v, this);
+                    vrms.add(v);
                 } else {
                     residues[i][v - offset[i]] = index;
                 }
             }
         }
+        vars[i].removeValues(vrms, this);
     }
 
     @Override
@@ -9,6 +9,7 @@
  */
 package org.chocosolver.solver.constraints.extension.nary;
 
+import org.chocosolver.solver.constraints.extension.ExtensionStructures;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
@@ -73,17 +74,27 @@ public class PropCompactTableStar extends PropCompactTable {
     protected void computeSupports(Tuples tuples) {
         int n = vars.length;
         offset = new int[n];
-        supports = new long[n][][];
-        inc_supports = new long[n][][];
         residues = new int[n][];
         for (int i = 0; i < n; i++) {
             int lb = vars[i].getLB();
             int ub = vars[i].getUB();
             offset[i] = lb;
-            supports[i] = new long[ub - lb + 1][currTable.words.length];
-            inc_supports[i] = new long[ub - lb + 1][currTable.words.length];
             residues[i] = new int[ub - lb + 1];
         }
+        long[][][][] both = ExtensionStructures.get(tuples, PropCompactTableStar.class, vars, () -> buildSupports(tuples));
+        supports = both[0];
+        inc_supports = both[1];
+    }
+
+    private long[][][][] buildSupports(Tuples tuples) {
+        int n = vars.length;
+        long[][][] supports = new long[n][][];
+        long[][][] inc_supports = new long[n][][];
+        for (int i = 0; i < n; i++) {
+            int size = vars[i].getUB() - offset[i] + 1;
+            supports[i] = new long[size][currTable.words.length];
+            inc_supports[i] = new long[size][currTable.words.length];
+        }
         int wI = 0;
         byte bI = 63;
         int star = tuples.getStarValue();
@@ -113,5 +124,6 @@ public class PropCompactTableStar extends PropCompactTable {
                 wI++;
             }
         }
+        return new long[][][][]{supports, inc_supports};
     }
-}
\ No newline at end of file
+}
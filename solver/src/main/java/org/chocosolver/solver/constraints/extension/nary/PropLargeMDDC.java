@@ -18,6 +18,7 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.StoredSparseSet;
 import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
 
 /**
  * Implementation based on "Maintaining GAC on adhoc r-ary constraints", Cheng and Yap, CP12.
@@ -29,6 +30,10 @@ public class PropLargeMDDC extends Propagator<IntVar> {
 
     private final TIntSet yes;
     private final TIntSet[] sets;
+    /**
+     * Values to remove from a variable, removed all at once
+     */
+    private final IntIterableBitSet vrms;
     private final StoredSparseSet no;
     private final MultivaluedDecisionDiagram MDD;
     private final int nvars;
@@ -50,6 +55,7 @@ public class PropLargeMDDC extends Propagator<IntVar> {
         for (int i = 0; i < nvars; i++) {
             this.sets[i] = new TIntHashSet(vars[i].getDomainSize());
         }
+        this.vrms = new IntIterableBitSet();
     }
 
     @Override
@@ -87,9 +93,12 @@ public class PropLargeMDDC extends Propagator<IntVar> {
         for (int i = 0; i < nvars; i++) {
             int o = MDD.getOffset(i);
             int[] values = sets[i].toArray();
+            vrms.clear();
+            vrms.setOffset(vars[i].getLB());
             for (int j = 0; j < values.length; j++) {
-                vars[i].removeValue(values[j] + o, this);
+                vrms.add(values[j] + o);
             }
+            vars[i].removeValues(vrms, this);
         }
     }
 
@@ -21,6 +21,7 @@ import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
 
 import java.util.ArrayList;
 import java.util.BitSet;
@@ -45,6 +46,10 @@ public class PropTableStr2 extends Propagator<IntVar> {
     private boolean firstProp = true;
     private final Tuples tuplesObject;
     private final int star;
+    /**
+     * Values to remove from a variable, removed all at once
+     */
+    private final IntIterableBitSet vrms;
 
     //***********************************************************************************
     // CONSTRUCTOR
@@ -69,6 +74,7 @@ public class PropTableStr2 extends Propagator<IntVar> {
         tuples = SetFactory.makeStoredSet(SetType.BIPARTITESET, 0, model);
         ssup = new ArrayList<>();
         sval = new ArrayList<>();
+        vrms = new IntIterableBitSet();
     }
 
     //***********************************************************************************
@@ -173,7 +179,7 @@ public class PropTableStr2 extends Propagator<IntVar> {
             }
         }
         for (int i = 0; i < ssup.size(); i++) {
-            ssup.get(i).remove_unsupported_value(this);
+            ssup.get(i).remove_unsupported_value(vrms, this);
         }
     }
 
@@ -221,13 +227,17 @@ public class PropTableStr2 extends Propagator<IntVar> {
             cnt = var.getDomainSize();
         }
 
-        private void remove_unsupported_value(ICause cause) throws ContradictionException {
-            for (int val = var.getLB(); cnt > 0 && val <= var.getUB(); val = var.nextValue(val)) {
+        private void remove_unsupported_value(IntIterableBitSet vrms, ICause cause) throws ContradictionException {
+            vrms.clear();
+            vrms.setOffset(var.getLB());
+            int ub = var.getUB();
+            for (int val = var.getLB(); cnt > 0 && val <= ub; val = var.nextValue(val)) {
                 if (!ac.get(val - offset)) {
-                    var.removeValue(val, cause);
+                    vrms.add(val);
                     cnt--;
                 }
             }
+            var.removeValues(vrms, cause);
         }
     }
 }
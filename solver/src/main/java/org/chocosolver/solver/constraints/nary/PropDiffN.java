@@ -21,9 +21,24 @@ import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.graphs.UndirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.objects.tree.Interval;
+import org.chocosolver.util.objects.tree.IntervalTree;
 import org.chocosolver.util.tools.ArrayUtils;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+
 /**
+ * Non-overlapping constraint between rectangles.
+ * <p>
+ * Boxes that may overlap are stored in a backtrackable graph, which is built
+ * either by checking all pairs of boxes, or by a sweep over the boxes along the first dimension
+ * that keeps the active boxes in an {@link IntervalTree} over the second dimension,
+ * and thus only checks pairs that overlap in the first dimension.
+ * Then, only neighbors of modified boxes are checked.
+ * </p>
+ *
  * @author Jean-Guillaume Fages
  * @since 31/01/13
  */
@@ -37,27 +52,53 @@ public class PropDiffN extends Propagator<IntVar> {
     private final UndirectedGraph overlappingBoxes;
     private final TIntArrayList boxesToCompute;
     private final TIntArrayList pruneList;
+    private final BitSet inBoxesToCompute;
+    private final BitSet inPruneList;
+    /**
+     * Set to <i>true</i> to find boxes that may overlap with a sweep
+     */
+    private final boolean sweep;
 
     //***********************************************************************************
     // CONSTRUCTOR
     //***********************************************************************************
 
     public PropDiffN(IntVar[] x, IntVar[] y, IntVar[] dx, IntVar[] dy) {
+        this(x, y, dx, dy, false);
+    }
+
+    /**
+     * @param x     coordinates in the first dimension
+     * @param y     coordinates in the second dimension
+     * @param dx    widths
+     * @param dy    heights
+     * @param sweep set to <i>true</i> to find boxes that may overlap with a sweep, in O(n.log(n) + k),
+     *              where k is the number of pairs of boxes that overlap in the first dimension,
+     *              instead of checking the n.(n-1)/2 pairs of boxes
+     */
+    public PropDiffN(IntVar[] x, IntVar[] y, IntVar[] dx, IntVar[] dy, boolean sweep) {
         super(ArrayUtils.append(x, y, dx, dy), PropagatorPriority.LINEAR, true);
         n = x.length;
         if (!(n == y.length && n == dx.length && n == dy.length)) {
             throw new SolverException("PropDiffN variable arrays do not have same size");
         }
+        this.sweep = sweep;
         overlappingBoxes = new UndirectedGraph(model, n, SetType.LINKED_LIST, true);
         boxesToCompute = new TIntArrayList(n);
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                if (mayOverlap(i, j)) {
-                    overlappingBoxes.addEdge(i, j);
+        pruneList = new TIntArrayList(n);
+        inBoxesToCompute = new BitSet(n);
+        inPruneList = new BitSet(n);
+        if (sweep) {
+            sweepOverlappingBoxes();
+        } else {
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    if (mayOverlap(i, j)) {
+                        overlappingBoxes.addEdge(i, j);
+                    }
                 }
             }
         }
-        pruneList = new TIntArrayList(n);
     }
 
     //***********************************************************************************
@@ -84,7 +125,8 @@ public class PropDiffN extends Propagator<IntVar> {
                 overlappingBoxes.removeEdge(v, i);
             }
         }
-        if (!boxesToCompute.contains(v)) {
+        if (!inBoxesToCompute.get(v)) {
+            inBoxesToCompute.set(v);
             boxesToCompute.add(v);
         }
     }
@@ -94,10 +136,29 @@ public class PropDiffN extends Propagator<IntVar> {
         boolean hasFiltered = true;
         while(hasFiltered) {
             hasFiltered = false;
-            if(PropagatorEventType.isFullPropagation(evtmask)) {
+            if (PropagatorEventType.isFullPropagation(evtmask) && sweep) {
                 boxesToCompute.resetQuick();
+                sweepOverlappingBoxes();
                 for (int i = 0; i < n; i++) {
                     boxesToCompute.add(i);
+                    inBoxesToCompute.set(i);
+                    ISetIterator iter = overlappingBoxes.getNeighborsOf(i).iterator();
+                    while (iter.hasNext()) {
+                        int j = iter.nextInt();
+                        if (i < j) {
+                            if (!mayOverlap(i, j)) {
+                                overlappingBoxes.removeEdge(i, j);
+                            } else if (boxInstantiated(i) && boxInstantiated(j)) {
+                                fails(); // TODO: could be more precise, for explanation purpose
+                            }
+                        }
+                    }
+                }
+            } else if(PropagatorEventType.isFullPropagation(evtmask)) {
+                boxesToCompute.resetQuick();
+                for (int i = 0; i < n; i++) {
+                    boxesToCompute.add(i);
+                    inBoxesToCompute.set(i);
                     for (int j = i + 1; j < n; j++) {
                         if (mayOverlap(i, j)) {
                             overlappingBoxes.addEdge(i, j);
@@ -111,18 +172,80 @@ public class PropDiffN extends Propagator<IntVar> {
                 }
             }
             pruneList.clear();
+            inPruneList.clear();
             for(int k = 0; k<boxesToCompute.size(); k++)  {
                 int i = boxesToCompute.getQuick(k);
                 energyCheck(i);
                 hasFiltered |= prune(i);
             }
             boxesToCompute.clear();
+            inBoxesToCompute.clear();
             for(int k = 0; k< pruneList.size(); k++) {
                 prop(pruneList.getQuick(k));
             }
         }
     }
 
+    /**
+     * Add an edge between each pair of boxes that may overlap.
+     * Boxes are swept in increasing order of their smallest start in the first dimension,
+     * boxes whose range in the first dimension contains the current position are active,
+     * and are stored in an interval tree according to their range in the second dimension.
+     */
+    private void sweepOverlappingBoxes() {
+        long[] byStart = new long[n];
+        long[] byEnd = new long[n];
+        for (int i = 0; i < n; i++) {
+            byStart[i] = ((long) vars[i].getLB() << 32) | i;
+            byEnd[i] = ((long) (vars[i].getUB() + vars[i + 2 * n].getUB()) << 32) | i;
+        }
+        Arrays.sort(byStart);
+        Arrays.sort(byEnd);
+        IntervalTree<Boxes> active = new IntervalTree<>();
+        Boxes[] boxes = new Boxes[n];
+        int e = 0;
+        for (int k = 0; k < n; k++) {
+            int j = (int) byStart[k];
+            int start = (int) (byStart[k] >> 32);
+            // remove boxes that end before the current one starts
+            while (e < n && (int) (byEnd[e] >> 32) <= start) {
+                int i = (int) byEnd[e++];
+                if (boxes[i] != null) {
+                    boxes[i].remove(i, active);
+                    boxes[i] = null;
+                }
+            }
+            int ys = vars[j + n].getLB();
+            int ye = vars[j + n].getUB() + vars[j + 3 * n].getUB();
+            Iterator<Boxes> it = active.overlappers(ys, ye);
+            while (it.hasNext()) {
+                Boxes b = it.next();
+                for (int p = 0; p < b.boxes.size(); p++) {
+                    int i = b.boxes.getQuick(p);
+                    if (mayOverlap(i, j)) {
+                        overlappingBoxes.addEdge(i, j);
+                    }
+                }
+            }
+            if (vars[j].getUB() + vars[j + 2 * n].getUB() > start) {
+                Boxes b = active.get(ys, ye);
+                if (b == null) {
+                    b = new Boxes(ys, ye);
+                    active.insert(b);
+                }
+                b.boxes.add(j);
+                boxes[j] = b;
+            }
+        }
+    }
+
+    private void addToPruneList(int i) {
+        if (!inPruneList.get(i)) {
+            inPruneList.set(i);
+            pruneList.add(i);
+        }
+    }
+
     private boolean prune(int j) throws ContradictionException {
         boolean hasFiltered = false;
         ISetIterator iter = overlappingBoxes.getNeighborsOf(j).iterator();
@@ -199,33 +322,25 @@ public class PropDiffN extends Propagator<IntVar> {
         if (s_i < e_i || s_j < e_j) {
             if (e_j > s_i) {
                 if(vars[j + offSet].updateLowerBound(e_i, this)) {
-                    if(!pruneList.contains(j)) {
-                        pruneList.add(j);
-                    }
+                    addToPruneList(j);
                     hasFiltered = true;
                 }
                 boolean filtPrun1 = vars[i + offSet].updateUpperBound(s_j - vars[i + 2 * n + offSet].getLB(), this);
                 boolean filtPrun2 = vars[i + offSet + 2 * n].updateUpperBound(s_j - vars[i + offSet].getLB(), this);
                 if(filtPrun1 || filtPrun2) {
-                    if(!pruneList.contains(i)) {
-                        pruneList.add(i);
-                    }
+                    addToPruneList(i);
                     hasFiltered = true;
                 }
             }
             if (s_j < e_i) {
                 if(vars[i + offSet].updateLowerBound(e_j, this)) {
-                    if(!pruneList.contains(i)) {
-                        pruneList.add(i);
-                    }
+                    addToPruneList(i);
                     hasFiltered = true;
                 }
                 boolean filtPrun1 = vars[j + offSet].updateUpperBound(s_i - vars[j + 2 * n + offSet].getLB(), this);
                 boolean filtPrun2 = vars[j + offSet + 2 * n].updateUpperBound(s_i - vars[j + offSet].getLB(), this);
                 if(filtPrun1 || filtPrun2) {
-                    if(!pruneList.contains(j)) {
-                        pruneList.add(j);
-                    }
+                    addToPruneList(j);
                     hasFiltered = true;
                 }
             }
@@ -270,4 +385,34 @@ public class PropDiffN extends Propagator<IntVar> {
         return sb.toString();
     }
 
+    /**
+     * Active boxes sharing the same range in the second dimension
+     */
+    private static final class Boxes implements Interval {
+        private final int start;
+        private final int end;
+        private final TIntArrayList boxes = new TIntArrayList();
+
+        private Boxes(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int start() {
+            return start;
+        }
+
+        @Override
+        public int end() {
+            return end;
+        }
+
+        private void remove(int box, IntervalTree<Boxes> tree) {
+            boxes.remove(box);
+            if (boxes.isEmpty()) {
+                tree.delete(this);
+            }
+        }
+    }
 }
@@ -24,6 +24,7 @@ public class AllDifferent extends Constraint {
     public static final String AC= "AC";
     public static final String AC_REGIN= "AC_REGIN";
     public static final String AC_ZHANG = "AC_ZHANG";
+    public static final String AC_BITSET = "AC_BITSET";
     public static final String BC= "BC";
     public static final String FC= "FC";
     public static final String NEQS= "NEQS";
@@ -55,6 +56,8 @@ public class AllDifferent extends Constraint {
             case AC:
             case AC_ZHANG:
                 return new Propagator[]{new PropAllDiffInst(VARS), new PropAllDiffAC(VARS, true)};
+            case AC_BITSET:
+                return new Propagator[]{new PropAllDiffInst(VARS), new PropAllDiffACBitset(VARS)};
             case DEFAULT:
             default: {
                 // adds a Probabilistic AC (only if at least some variables have an enumerated domain)
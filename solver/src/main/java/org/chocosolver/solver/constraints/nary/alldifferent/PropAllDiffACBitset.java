@@ -0,0 +1,76 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.alldifferent;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.nary.alldifferent.algo.AlgoAllDiffACBitset;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+
+/**
+ * Propagator for AllDifferent AC constraint for integer variables
+ * <p/>
+ * Uses Regin algorithm on bitsets.
+ * The matching is kept from one call to another and only domains modified since the last call are read again.
+ * Best suited to permutation-like problems, where the union of the domains is dense.
+ * <p/>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class PropAllDiffACBitset extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final AlgoAllDiffACBitset filter;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * AllDifferent constraint for integer variables
+     *
+     * @param variables array of integer variables
+     */
+    public PropAllDiffACBitset(IntVar[] variables) {
+        super(variables, PropagatorPriority.QUADRATIC, true);
+        this.filter = new AlgoAllDiffACBitset(variables, this);
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            filter.markAllDirty();
+        }
+        filter.propagate();
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        filter.markDirty(idxVarInProp);
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    @Override
+    public ESat isEntailed() {
+        return ESat.TRUE; // redundant propagator (used with PropAllDiffInst)
+    }
+
+}
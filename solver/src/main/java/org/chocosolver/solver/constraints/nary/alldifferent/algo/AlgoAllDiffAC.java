@@ -17,6 +17,7 @@ import org.chocosolver.util.graphOperations.connectivity.StrongConnectivityFinde
 import org.chocosolver.util.objects.graphs.DirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
 
 import java.util.BitSet;
 
@@ -51,6 +52,8 @@ public class AlgoAllDiffAC {
     int[] fifo;
     protected IntVar[] vars;
     ICause aCause;
+    // values to remove from a variable, removed all at once
+    final IntIterableBitSet vrms;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -85,6 +88,7 @@ public class AlgoAllDiffAC {
         father = new int[n2];
         in = new BitSet(n2);
         SCCfinder = new StrongConnectivityFinder(digraph);
+        vrms = new IntIterableBitSet();
     }
 
     protected void makeDigraph(){
@@ -204,6 +208,8 @@ public class AlgoAllDiffAC {
     boolean filterVar(int i) throws ContradictionException {
         boolean filter =false;
         IntVar v = vars[i];
+        vrms.clear();
+        vrms.setOffset(v.getLB());
         int ub = v.getUB();
         for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
             int j = map.get(k);
@@ -211,11 +217,12 @@ public class AlgoAllDiffAC {
                 if (matching[i] == j) {
                     filter |= v.instantiateTo(k, aCause);
                 } else {
-                    filter |= v.removeValue(k, aCause);
+                    vrms.add(k);
                     digraph.removeEdge(i, j);
                 }
             }
         }
+        filter |= v.removeValues(vrms, aCause);
         return filter;
     }
 
@@ -0,0 +1,439 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.alldifferent.algo;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Algorithm of Alldifferent with AC, based on bitsets
+ * <p/>
+ * Domains are stored as rows of 64-bit words, over the union of the domains.
+ * This union is expected to be dense, like in permutation problems.
+ * <p/>
+ * The maximum matching is kept from one call to another and is only repaired:
+ * the rows of the modified variables are refreshed and only the variables which lost their value are matched again.
+ * Strongly connected components are computed with Tarjan's algorithm,
+ * successors of a node are found with word-level operations.
+ * <p/>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class AlgoAllDiffACBitset {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final IntVar[] vars;
+    private final ICause aCause;
+    private final int n;
+    // smallest value of the union of the domains
+    private final int offset;
+    // number of words of a row
+    private final int nw;
+    // domains of the variables, one row per variable, one bit per value (wrt offset)
+    private final long[][] rows;
+    // a row is up to date if its trailed stamp is equal to the stamp given when it was built
+    private final IStateInt[] stamps;
+    private final int[] built;
+    private int stamp;
+    // variables modified since the last call
+    private final BitSet dirty;
+    // the matching: value of each variable and variable of each value, or -1
+    private final int[] mate;
+    private final int[] owner;
+    // for augmenting matching (BFS)
+    private final long[] visited;
+    private final int[] fifo;
+    private final int[] father;
+    // for SCC (Tarjan), the sink, indexed by n, is connected to free values
+    private final int sink;
+    private final long[] matched;
+    private final long[] unvisited;
+    private final long[] onStack;
+    private boolean sinkOnStack;
+    private final boolean[] freeEdge;
+    private final int[] index;
+    private final int[] low;
+    private final int[] pos;
+    private final int[] call;
+    private final int[] stack;
+    private final int[] members;
+    private final int[] sccStart;
+    private int nbSCC;
+    private int counter;
+    private int top;
+    private final long[] mask;
+    // values to remove from a variable, removed all at once
+    private final IntIterableBitSet vrms;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    public AlgoAllDiffACBitset(IntVar[] variables, ICause cause) {
+        this.vars = variables;
+        this.aCause = cause;
+        this.n = vars.length;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (IntVar v : vars) {
+            min = Math.min(min, v.getLB());
+            max = Math.max(max, v.getUB());
+        }
+        this.offset = min;
+        int m = max - min + 1;
+        this.nw = (m + 63) >>> 6;
+        this.rows = new long[n][nw];
+        IEnvironment env = vars[0].getModel().getEnvironment();
+        this.stamps = new IStateInt[n];
+        this.built = new int[n];
+        for (int i = 0; i < n; i++) {
+            stamps[i] = env.makeInt(-1);
+        }
+        this.dirty = new BitSet(n);
+        this.dirty.set(0, n);
+        this.mate = new int[n];
+        Arrays.fill(mate, -1);
+        this.owner = new int[m];
+        Arrays.fill(owner, -1);
+        this.visited = new long[nw];
+        this.fifo = new int[n];
+        this.father = new int[m];
+        this.sink = n;
+        this.matched = new long[nw];
+        this.unvisited = new long[nw];
+        this.onStack = new long[nw];
+        this.freeEdge = new boolean[n];
+        this.index = new int[n + 1];
+        this.low = new int[n + 1];
+        this.pos = new int[n + 1];
+        this.call = new int[n + 1];
+        this.stack = new int[n + 1];
+        this.members = new int[n + 1];
+        this.sccStart = new int[n + 2];
+        this.mask = new long[nw];
+        this.vrms = new IntIterableBitSet();
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    /**
+     * Declare that the domain of the <i>i</i>-th variable has changed since the last call
+     *
+     * @param i index of a variable
+     */
+    public void markDirty(int i) {
+        dirty.set(i);
+    }
+
+    /**
+     * Declare that all domains have to be read again on the next call
+     */
+    public void markAllDirty() {
+        dirty.set(0, n);
+    }
+
+    public boolean propagate() throws ContradictionException {
+        repairMatching();
+        buildSCC();
+        return filter();
+    }
+
+    //***********************************************************************************
+    // MATCHING
+    //***********************************************************************************
+
+    private void repairMatching() throws ContradictionException {
+        for (int i = 0; i < n; i++) {
+            if (dirty.get(i) || stamps[i].get() != built[i]) {
+                refresh(i);
+            }
+        }
+        dirty.clear();
+        for (int i = 0; i < n; i++) {
+            if (mate[i] == -1) {
+                tryToMatch(i);
+            }
+        }
+    }
+
+    private void refresh(int i) {
+        long[] row = rows[i];
+        Arrays.fill(row, 0L);
+        IntVar v = vars[i];
+        if (v.hasEnumeratedDomain()) {
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                int u = k - offset;
+                row[u >>> 6] |= 1L << u;
+            }
+        } else {
+            int from = v.getLB() - offset;
+            int to = v.getUB() - offset;
+            int wf = from >>> 6;
+            int wt = to >>> 6;
+            if (wf == wt) {
+                row[wf] = (-1L << from) & (-1L >>> (63 - (to & 63)));
+            } else {
+                row[wf] = -1L << from;
+                Arrays.fill(row, wf + 1, wt, -1L);
+                row[wt] = -1L >>> (63 - (to & 63));
+            }
+        }
+        int u = mate[i];
+        if (u != -1 && (row[u >>> 6] & 1L << u) == 0) {
+            owner[u] = -1;
+            mate[i] = -1;
+        }
+        touch(i);
+    }
+
+    private void touch(int i) {
+        built[i] = ++stamp;
+        stamps[i].set(stamp);
+    }
+
+    private void tryToMatch(int root) throws ContradictionException {
+        Arrays.fill(visited, 0L);
+        int indexFirst = 0, indexLast = 0;
+        fifo[indexLast++] = root;
+        while (indexFirst != indexLast) {
+            int x = fifo[indexFirst++];
+            long[] row = rows[x];
+            for (int w = 0; w < nw; w++) {
+                long bits = row[w] & ~visited[w];
+                if (bits != 0) {
+                    visited[w] |= bits;
+                    do {
+                        int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        father[u] = x;
+                        if (owner[u] == -1) {
+                            augment(u);
+                            return;
+                        }
+                        fifo[indexLast++] = owner[u];
+                    } while (bits != 0);
+                }
+            }
+        }
+        vars[root].getModel().getSolver().throwsException(aCause, null, null);
+    }
+
+    private void augment(int u) {
+        while (u != -1) {
+            int x = father[u];
+            int prev = mate[x];
+            mate[x] = u;
+            owner[u] = x;
+            u = prev;
+        }
+    }
+
+    //***********************************************************************************
+    // SCC
+    //***********************************************************************************
+
+    private void buildSCC() {
+        Arrays.fill(matched, 0L);
+        for (int i = 0; i < n; i++) {
+            matched[mate[i] >>> 6] |= 1L << mate[i];
+        }
+        boolean useSink = false;
+        for (int i = 0; i < n; i++) {
+            long[] row = rows[i];
+            boolean free = false;
+            for (int w = 0; w < nw && !free; w++) {
+                free = (row[w] & ~matched[w]) != 0;
+            }
+            freeEdge[i] = free;
+            useSink |= free;
+        }
+        System.arraycopy(matched, 0, unvisited, 0, nw);
+        Arrays.fill(onStack, 0L);
+        sinkOnStack = false;
+        Arrays.fill(index, -1);
+        Arrays.fill(pos, 0);
+        nbSCC = 0;
+        sccStart[0] = 0;
+        counter = 0;
+        top = 0;
+        if (useSink) {
+            // the sink reaches all variables
+            tarjan(sink);
+        } else {
+            for (int i = 0; i < n; i++) {
+                if (index[i] == -1) {
+                    tarjan(i);
+                }
+            }
+        }
+    }
+
+    private void tarjan(int root) {
+        int depth = 0;
+        visit(root);
+        call[depth++] = root;
+        while (depth > 0) {
+            int x = call[depth - 1];
+            int y = nextUnvisited(x);
+            if (y != -1) {
+                visit(y);
+                call[depth++] = y;
+            } else {
+                low[x] = Math.min(low[x], minOnStack(x));
+                if (low[x] == index[x]) {
+                    int s = sccStart[nbSCC];
+                    int z;
+                    do {
+                        z = stack[--top];
+                        if (z == sink) {
+                            sinkOnStack = false;
+                        } else {
+                            onStack[mate[z] >>> 6] &= ~(1L << mate[z]);
+                            members[s++] = z;
+                        }
+                    } while (z != x);
+                    sccStart[++nbSCC] = s;
+                }
+                depth--;
+                if (depth > 0) {
+                    int p = call[depth - 1];
+                    low[p] = Math.min(low[p], low[x]);
+                }
+            }
+        }
+    }
+
+    private void visit(int x) {
+        index[x] = low[x] = counter++;
+        stack[top++] = x;
+        if (x == sink) {
+            sinkOnStack = true;
+        } else {
+            int u = mate[x];
+            unvisited[u >>> 6] &= ~(1L << u);
+            onStack[u >>> 6] |= 1L << u;
+        }
+    }
+
+    private int nextUnvisited(int x) {
+        if (x == sink) {
+            for (int w = pos[x]; w < nw; w++) {
+                long bits = unvisited[w];
+                if (bits != 0) {
+                    pos[x] = w;
+                    return owner[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                }
+            }
+            pos[x] = nw;
+            return -1;
+        }
+        long[] row = rows[x];
+        for (int w = pos[x]; w < nw; w++) {
+            long bits = row[w] & unvisited[w];
+            if (bits != 0) {
+                pos[x] = w;
+                return owner[(w << 6) + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        pos[x] = nw;
+        if (freeEdge[x] && index[sink] == -1) {
+            return sink;
+        }
+        return -1;
+    }
+
+    private int minOnStack(int x) {
+        int min = Integer.MAX_VALUE;
+        long[] row = x == sink ? matched : rows[x];
+        for (int w = 0; w < nw; w++) {
+            long bits = row[w] & onStack[w];
+            while (bits != 0) {
+                int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                min = Math.min(min, index[owner[u]]);
+            }
+        }
+        if (x != sink && freeEdge[x] && sinkOnStack) {
+            min = Math.min(min, index[sink]);
+        }
+        return min;
+    }
+
+    //***********************************************************************************
+    // PRUNING
+    //***********************************************************************************
+
+    private boolean filter() throws ContradictionException {
+        boolean filter = false;
+        for (int c = 0; c < nbSCC; c++) {
+            int from = sccStart[c];
+            int to = sccStart[c + 1];
+            for (int k = from; k < to; k++) {
+                int u = mate[members[k]];
+                mask[u >>> 6] |= 1L << u;
+            }
+            for (int k = from; k < to; k++) {
+                filter |= filterVar(members[k]);
+            }
+            for (int k = from; k < to; k++) {
+                int u = mate[members[k]];
+                mask[u >>> 6] &= ~(1L << u);
+            }
+        }
+        return filter;
+    }
+
+    private boolean filterVar(int x) throws ContradictionException {
+        // edges to free values are always supported, edges to values matched out of the SCC are not
+        long[] row = rows[x];
+        IntVar v = vars[x];
+        boolean found = false;
+        for (int w = 0; w < nw; w++) {
+            long bits = row[w] & matched[w] & ~mask[w];
+            if (bits != 0) {
+                if (!found) {
+                    found = true;
+                    vrms.clear();
+                    vrms.setOffset(v.getLB());
+                }
+                row[w] &= ~bits;
+                do {
+                    vrms.add((w << 6) + Long.numberOfTrailingZeros(bits) + offset);
+                    bits &= bits - 1;
+                } while (bits != 0);
+            }
+        }
+        if (found) {
+            // the row is stamped first, so that it is refreshed on backtrack, even on failure
+            touch(x);
+            boolean filter = v.removeValues(vrms, aCause);
+            if (!v.hasEnumeratedDomain()) {
+                // holes are ignored by bounded domains
+                refresh(x);
+            }
+            return filter;
+        }
+        return false;
+    }
+}
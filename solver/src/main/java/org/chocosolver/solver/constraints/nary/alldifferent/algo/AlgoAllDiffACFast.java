@@ -101,25 +101,28 @@ public class AlgoAllDiffACFast extends AlgoAllDiffAC{
         boolean filter =false;
         IntVar v = vars[i];
         if (v.getDomainSize() > 1) {
+            vrms.clear();
+            vrms.setOffset(v.getLB());
             int ub = v.getUB();
             for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
                 int j = map.get(k);
                 if (!distinction.get(j)) {
                     if (distinction.get(i)) { // Remove type 1 redundant edges between Γ(A) and Dc-A.
-                        filter |= v.removeValue(k, aCause);
+                        vrms.add(k);
                         digraph.removeEdge(i, j);
                     } else { // Remove type 2 redundant edges between Xc-Γ(A) and Dc-A.
                         if (nodeSCC[i] != nodeSCC[j]) {
                             if (matching[i] == j) {
                                 filter |= v.instantiateTo(k, aCause);
                             } else {
-                                filter |= v.removeValue(k, aCause);
+                                vrms.add(k);
                                 digraph.removeEdge(i, j);
                             }
                         }
                     }
                 }
             }
+            filter |= v.removeValues(vrms, aCause);
         }
         return filter;
     }
@@ -11,7 +11,6 @@ package org.chocosolver.solver.constraints.nary.automata.FA;
 
 import dk.brics.automaton.*;
 import gnu.trove.iterator.TIntIterator;
-import gnu.trove.map.hash.TIntIntHashMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import gnu.trove.set.hash.TIntHashSet;
 import org.chocosolver.solver.exception.SolverException;
@@ -40,24 +39,15 @@ public class FiniteAutomaton implements IAutomaton {
     private ArrayList<State> states;
     private TIntHashSet alphabet;
     private int nbStates;
-    private final HashSet<State> nexts = new HashSet<>();
     private int min = Character.MIN_VALUE;
     private int max = Character.MAX_VALUE;
 
-    private final static TIntIntHashMap charFromIntMap = new TIntIntHashMap(16, .5f, -1, -1);
-    private final static TIntIntHashMap intFromCharMap = new TIntIntHashMap(16, .5f, -1, -1);
-
-    static {
-        int delta = 0;
-        for (int i = Character.MIN_VALUE; i <= Character.MAX_VALUE; i++) {
-            while ((char) (i + delta) == '"' || (char) (i + delta) == '{' || (char) (i + delta) == '}' || (char) (i + delta) == '<' ||
-                    (char) (i + delta) == '>' || (char) (i + delta) == '[' || (char) (i + delta) == ']' ||
-                    (char) (i + delta) == '(' || (char) (i + delta) == ')') delta++;
-            charFromIntMap.put(i, i + delta);
-            intFromCharMap.put(i + delta, i);
-        }
-
-    }
+    /**
+     * Characters reserved by the regular expression syntax, in increasing order.
+     * They are skipped when mapping integers to characters.
+     * The mapping is computed, not stored, so that it can be used concurrently.
+     */
+    private final static char[] RESERVED = {'"', '(', ')', '<', '>', '[', ']', '{', '}'};
 
     //***********************************************************************************
    	// CONSTRUCTORS
@@ -117,13 +107,27 @@ public class FiniteAutomaton implements IAutomaton {
    	//***********************************************************************************
 
     public static int getIntFromChar(char c) {
-        return intFromCharMap.get(c);
+        int i = c;
+        for (char r : RESERVED) {
+            if (r == c) {
+                return -1;
+            }
+            if (r < c) {
+                i--;
+            }
+        }
+        return i;
     }
 
     public static char getCharFromInt(int i) {
-        int c = charFromIntMap.get(i);
-        if (c > -1) {
-            return (char) charFromIntMap.get(i);
+        if (i >= Character.MIN_VALUE && i <= Character.MAX_VALUE) {
+            int c = i;
+            for (char r : RESERVED) {
+                if (c >= r) {
+                    c++;
+                }
+            }
+            return (char) c;
         } else {
             throw new SolverException("Unknown value \"" + i + "\". Note that only integers in [" +
                     (int) Character.MIN_VALUE + "," + (int) (Character.MAX_VALUE) + "] are allowed by FiniteAutomaton.");
@@ -298,10 +302,11 @@ public class FiniteAutomaton implements IAutomaton {
 //            LOGGER.warn("Unable perform delta lookup, state not in automaton : " + e);
         }
         State s = this.states.get(source);
-        nexts.clear();
-        s.step(getCharFromInt(symbol), nexts);
-        for (State to : nexts) {
-            states.add(stateToIndex.get(to));
+        char c = getCharFromInt(symbol);
+        for (Transition t : s.getTransitions()) {
+            if (t.getMin() <= c && c <= t.getMax()) {
+                states.add(stateToIndex.get(t.getDest()));
+            }
         }
     }
 
@@ -0,0 +1,375 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.automata.structure.regular;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable layered graph obtained by unfolding an automaton over the domains of a sequence of variables.
+ * <p>
+ * Nodes and arcs are stored in primitive arrays, adjacencies and supports in CSR format.
+ * Since it is never modified, a layered graph is shared by all the regular constraints
+ * built from the same automaton over the same domains, even across models (e.g., in a portfolio).
+ * Only the supports, maintained by {@link StoredDirectedMultiGraph}, are specific to a model.
+ * </p>
+ * <p>
+ * Equality of automata is checked on a compiled version restricted to the values of the domains:
+ * the transitions are stored as CSR arrays over an integer alphabet,
+ * which makes the unfolding independent of the representation of the automaton.
+ * </p>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public final class LayeredGraph {
+
+    /**
+     * Layered graphs already built, shared among threads.
+     * An entry lives as long as its graph is referenced,
+     * that is, as long as a {@link StoredDirectedMultiGraph} is built on it.
+     */
+    private static final Map<Signature, WeakReference<LayeredGraph>> CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Signature of this graph, referenced to keep the entry in {@link #CACHE}
+     */
+    @SuppressWarnings({"FieldCanBeLocal", "unused"})
+    private final Signature signature;
+    /**
+     * For each variable, index of its first value in supports
+     */
+    final int[] starts;
+    /**
+     * For each variable, its lower bound
+     */
+    final int[] offsets;
+    /**
+     * For each node, its layer
+     */
+    final int[] layers;
+    /**
+     * For each node, its state in the automaton, wrt the numbering of the signature
+     */
+    final int[] states;
+    /**
+     * For each arc, its value
+     */
+    final int[] values;
+    /**
+     * For each arc, its origin
+     */
+    final int[] origs;
+    /**
+     * For each arc, its destination
+     */
+    final int[] dests;
+    /**
+     * Outgoing arcs of node <i>n</i> are in <i>outArcs[outStart[n], outStart[n+1])</i>
+     */
+    final int[] outStart;
+    final int[] outArcs;
+    /**
+     * Incoming arcs of node <i>n</i> are in <i>inArcs[inStart[n], inStart[n+1])</i>
+     */
+    final int[] inStart;
+    final int[] inArcs;
+    /**
+     * Arcs supporting the pair <i>p</i> are in <i>supArcs[supStart[p], supStart[p+1])</i>
+     */
+    final int[] supStart;
+    final int[] supArcs;
+
+    /**
+     * Get the layered graph of <i>auto</i> over the current domains of <i>vars</i>.
+     * The graph is built on first call, then shared.
+     *
+     * @param auto an automaton
+     * @param vars a sequence of variables
+     * @return the layered graph, without any arc that does not lead to an accepting state
+     */
+    public static LayeredGraph of(IAutomaton auto, IntVar[] vars) {
+        Signature sig = new Signature(auto, vars);
+        LayeredGraph graph = get(sig);
+        if (graph == null) {
+            // built outside of the lock, the first one registered wins
+            graph = new LayeredGraph(sig);
+            synchronized (CACHE) {
+                LayeredGraph other = get(sig);
+                if (other == null) {
+                    CACHE.put(sig, new WeakReference<>(graph));
+                } else {
+                    graph = other;
+                }
+            }
+        }
+        return graph;
+    }
+
+    private static LayeredGraph get(Signature sig) {
+        WeakReference<LayeredGraph> ref = CACHE.get(sig);
+        return ref == null ? null : ref.get();
+    }
+
+    private LayeredGraph(Signature sig) {
+        this.signature = sig;
+        int n = sig.domStart.length - 1;
+        int nbStates = sig.nbStates;
+        this.starts = new int[n];
+        this.offsets = new int[n];
+        int totalSizes = 0;
+        for (int i = 0; i < n; i++) {
+            offsets[i] = sig.domVals[sig.domStart[i]];
+            starts[i] = totalSizes;
+            totalSizes += sig.domVals[sig.domStart[i + 1] - 1] - offsets[i] + 1;
+        }
+
+        //forward pass, construct all paths described by the automaton for word of length n.
+        BitSet[] layer = new BitSet[n + 1];
+        for (int i = 0; i <= n; i++) {
+            layer[i] = new BitSet(nbStates);
+        }
+        TIntArrayList[] tmpQ = new TIntArrayList[totalSizes];
+        if (sig.initial >= 0) {
+            layer[0].set(sig.initial);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int d = sig.domStart[i]; d < sig.domStart[i + 1]; d++) {
+                int j = sig.domVals[d];
+                int a = Arrays.binarySearch(sig.alphabet, j);
+                for (int k = layer[i].nextSetBit(0); k >= 0; k = layer[i].nextSetBit(k + 1)) {
+                    int t = k * sig.alphabet.length + a;
+                    if (sig.trStart[t] < sig.trStart[t + 1]) {
+                        for (int e = sig.trStart[t]; e < sig.trStart[t + 1]; e++) {
+                            layer[i + 1].set(sig.trDest[e]);
+                        }
+                        int idx = starts[i] + j - offsets[i];
+                        if (tmpQ[idx] == null) {
+                            tmpQ[idx] = new TIntArrayList();
+                        }
+                        tmpQ[idx].add(k);
+                    }
+                }
+            }
+        }
+        //removing reachable non accepting states
+        layer[n].and(sig.finals);
+
+        //backward pass, removing arcs that does not lead to an accepting state
+        TIntArrayList nLayers = new TIntArrayList();
+        TIntArrayList nStates = new TIntArrayList();
+        TIntArrayList aValues = new TIntArrayList();
+        TIntArrayList aOrigs = new TIntArrayList();
+        TIntArrayList aDests = new TIntArrayList();
+        int[] in = new int[nbStates * (n + 1)];
+        Arrays.fill(in, -1);
+        BitSet mark = new BitSet(nbStates);
+        for (int i = n - 1; i >= 0; i--) {
+            mark.clear();
+            for (int d = sig.domStart[i]; d < sig.domStart[i + 1]; d++) {
+                int j = sig.domVals[d];
+                int a = Arrays.binarySearch(sig.alphabet, j);
+                TIntArrayList l = tmpQ[starts[i] + j - offsets[i]];
+                if (l != null) {
+                    for (int q = 0; q < l.size(); q++) {
+                        int k = l.getQuick(q);
+                        int t = k * sig.alphabet.length + a;
+                        for (int e = sig.trStart[t]; e < sig.trStart[t + 1]; e++) {
+                            int qn = sig.trDest[e];
+                            if (layer[i + 1].get(qn)) {
+                                int o = node(in, i, k, nbStates, nLayers, nStates);
+                                int de = node(in, i + 1, qn, nbStates, nLayers, nStates);
+                                aValues.add(j);
+                                aOrigs.add(o);
+                                aDests.add(de);
+                                mark.set(k);
+                            }
+                        }
+                    }
+                }
+            }
+            // If no more arcs go out of a given state in the layer, then we remove the state from that layer
+            layer[i].and(mark);
+        }
+        this.layers = nLayers.toArray();
+        this.states = nStates.toArray();
+        this.values = aValues.toArray();
+        this.origs = aOrigs.toArray();
+        this.dests = aDests.toArray();
+
+        int nbNodes = layers.length;
+        int[] sups = new int[values.length];
+        for (int arc = 0; arc < values.length; arc++) {
+            int layerOfArc = layers[origs[arc]];
+            sups[arc] = starts[layerOfArc] + values[arc] - offsets[layerOfArc];
+        }
+        this.outStart = new int[nbNodes + 1];
+        this.outArcs = csr(origs, outStart);
+        this.inStart = new int[nbNodes + 1];
+        this.inArcs = csr(dests, inStart);
+        this.supStart = new int[totalSizes + 1];
+        this.supArcs = csr(sups, supStart);
+    }
+
+    private static int node(int[] in, int layer, int state, int nbStates, TIntArrayList nLayers, TIntArrayList nStates) {
+        int idx = layer * nbStates + state;
+        if (in[idx] == -1) {
+            in[idx] = nLayers.size();
+            nLayers.add(layer);
+            nStates.add(state);
+        }
+        return in[idx];
+    }
+
+    /**
+     * Group arcs by key.
+     *
+     * @param keys  for each arc, its key
+     * @param start filled with the CSR starting positions, its length is the number of keys plus one
+     * @return arcs sorted by key
+     */
+    private static int[] csr(int[] keys, int[] start) {
+        for (int key : keys) {
+            start[key + 1]++;
+        }
+        for (int i = 1; i < start.length; i++) {
+            start[i] += start[i - 1];
+        }
+        int[] pos = Arrays.copyOf(start, start.length - 1);
+        int[] arcs = new int[keys.length];
+        for (int arc = 0; arc < keys.length; arc++) {
+            arcs[pos[keys[arc]]++] = arc;
+        }
+        return arcs;
+    }
+
+    /**
+     * Automaton, restricted to the values of the domains, and domains, in primitive arrays.
+     * Two signatures are equal if they lead to the same layered graph.
+     */
+    private static final class Signature {
+
+        private final int nbStates;
+        private final int initial;
+        private final BitSet finals;
+        /**
+         * Sorted values appearing in at least one domain
+         */
+        private final int[] alphabet;
+        /**
+         * Destinations of state <i>k</i> with the <i>a</i>-th symbol are in
+         * <i>trDest[trStart[k * |alphabet| + a], trStart[k * |alphabet| + a + 1])</i>
+         */
+        private final int[] trStart;
+        private final int[] trDest;
+        /**
+         * Values of the <i>i</i>-th domain are in <i>domVals[domStart[i], domStart[i+1])</i>
+         */
+        private final int[] domStart;
+        private final int[] domVals;
+        private final int hash;
+
+        Signature(IAutomaton auto, IntVar[] vars) {
+            this.domStart = new int[vars.length + 1];
+            TIntArrayList vals = new TIntArrayList();
+            TIntHashSet symbols = new TIntHashSet();
+            for (int i = 0; i < vars.length; i++) {
+                int ub = vars[i].getUB();
+                for (int j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
+                    vals.add(j);
+                    symbols.add(j);
+                }
+                domStart[i + 1] = vals.size();
+            }
+            this.domVals = vals.toArray();
+            this.alphabet = symbols.toArray();
+            Arrays.sort(alphabet);
+            // States reachable from the initial one are renumbered in breadth-first order, symbols taken in increasing order,
+            // so that two automata which only differ by the numbering of their states get the same signature
+            int[] canon = new int[auto.getNbStates()];
+            Arrays.fill(canon, -1);
+            TIntArrayList order = new TIntArrayList();
+            if (auto.getInitialState() >= 0) {
+                canon[auto.getInitialState()] = 0;
+                order.add(auto.getInitialState());
+            }
+            TIntArrayList starts = new TIntArrayList();
+            TIntArrayList dests = new TIntArrayList();
+            TIntHashSet nexts = new TIntHashSet();
+            starts.add(0);
+            for (int h = 0; h < order.size(); h++) {
+                int k = order.getQuick(h);
+                for (int a = 0; a < alphabet.length; a++) {
+                    nexts.clear();
+                    auto.delta(k, alphabet[a], nexts);
+                    int[] ds = nexts.toArray();
+                    Arrays.sort(ds);
+                    for (int d = 0; d < ds.length; d++) {
+                        if (canon[ds[d]] == -1) {
+                            canon[ds[d]] = order.size();
+                            order.add(ds[d]);
+                        }
+                        ds[d] = canon[ds[d]];
+                    }
+                    Arrays.sort(ds);
+                    dests.add(ds);
+                    starts.add(dests.size());
+                }
+            }
+            this.nbStates = order.size();
+            this.initial = nbStates > 0 ? 0 : -1;
+            this.finals = new BitSet(nbStates);
+            for (int k = 0; k < nbStates; k++) {
+                if (auto.isFinal(order.getQuick(k))) {
+                    finals.set(k);
+                }
+            }
+            this.trStart = starts.toArray();
+            this.trDest = dests.toArray();
+            int h = 31 * nbStates + initial;
+            h = 31 * h + finals.hashCode();
+            h = 31 * h + Arrays.hashCode(trStart);
+            h = 31 * h + Arrays.hashCode(trDest);
+            h = 31 * h + Arrays.hashCode(domStart);
+            h = 31 * h + Arrays.hashCode(domVals);
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Signature)) return false;
+            Signature that = (Signature) o;
+            return hash == that.hash
+                    && nbStates == that.nbStates
+                    && initial == that.initial
+                    && finals.equals(that.finals)
+                    && Arrays.equals(domStart, that.domStart)
+                    && Arrays.equals(domVals, that.domVals)
+                    && Arrays.equals(trStart, that.trStart)
+                    && Arrays.equals(trDest, that.trDest);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
 import org.chocosolver.util.objects.StoredIndexedBipartiteSetWithOffset;
 import org.jgrapht.graph.DirectedMultigraph;
 
+import java.util.Arrays;
 import java.util.Set;
 
 /**
@@ -53,11 +54,18 @@ public class StoredDirectedMultiGraph {
 
 	private final Nodes GNodes;
 	private final Arcs GArcs;
+	/**
+	 * The shared layered graph this is built on, if any.
+	 * Referenced to keep it in the cache as long as this graph is used.
+	 */
+	@SuppressWarnings({"FieldCanBeLocal", "unused"})
+	private final LayeredGraph layered;
 
 	public StoredDirectedMultiGraph(IEnvironment environment, DirectedMultigraph<Node, Arc> graph,
 									int[] starts, int[] offsets, int supportLength) {
 		this.starts = starts;
 		this.offsets = offsets;
+		this.layered = null;
 
 		this.GNodes = new Nodes();
 		this.GArcs = new Arcs();
@@ -122,6 +130,42 @@ public class StoredDirectedMultiGraph {
 		}
 	}
 
+	/**
+	 * Build the supports of a shared layered graph, only them are backtrackable.
+	 *
+	 * @param environment backtracking environment
+	 * @param graph       an immutable layered graph
+	 */
+	public StoredDirectedMultiGraph(IEnvironment environment, LayeredGraph graph) {
+		this.layered = graph;
+		this.starts = graph.starts;
+		this.offsets = graph.offsets;
+
+		this.GNodes = new Nodes();
+		this.GArcs = new Arcs();
+
+		GArcs.values = graph.values;
+		GArcs.dests = graph.dests;
+		GArcs.origs = graph.origs;
+		GNodes.layers = graph.layers;
+		GNodes.states = graph.states;
+
+		this.supports = stored(environment, graph.supStart, graph.supArcs);
+		GNodes.outArcs = stored(environment, graph.outStart, graph.outArcs);
+		GNodes.inArcs = stored(environment, graph.inStart, graph.inArcs);
+	}
+
+	private static StoredIndexedBipartiteSetWithOffset[] stored(IEnvironment environment, int[] start, int[] arcs) {
+		StoredIndexedBipartiteSetWithOffset[] sets = new StoredIndexedBipartiteSetWithOffset[start.length - 1];
+		for (int i = 0; i < sets.length; i++) {
+			if (start[i] < start[i + 1]) {
+				// the set reorders its values, hence the copy
+				sets[i] = new StoredIndexedBipartiteSetWithOffset(environment, Arrays.copyOfRange(arcs, start[i], start[i + 1]));
+			}
+		}
+		return sets;
+	}
+
 	//***********************************************************************************
 	// EXTERNAL METHODS
 	//***********************************************************************************
@@ -18,7 +18,7 @@ package org.chocosolver.solver.constraints.nary.circuit;
 
 import gnu.trove.list.array.TIntArrayList;
 import org.chocosolver.memory.IEnvironment;
-import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.structure.TrailedIntCells;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
@@ -42,9 +42,7 @@ public class PropNoSubtour extends Propagator<IntVar> {
 
     private final int n;
     private final int offset; // lower bound
-    private final IStateInt[] origin;
-    private final IStateInt[] end;
-    private final IStateInt[] size;
+    private final Chains chains;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -60,15 +58,7 @@ public class PropNoSubtour extends Propagator<IntVar> {
     public PropNoSubtour(IntVar[] variables, int offset) {
         super(variables, PropagatorPriority.UNARY, true);
         n = vars.length;
-        origin = new IStateInt[n];
-        end = new IStateInt[n];
-        size = new IStateInt[n];
-        IEnvironment environment = model.getEnvironment();
-        for (int i = 0; i < n; i++) {
-            origin[i] = environment.makeInt(i);
-            end[i] = environment.makeInt(i);
-            size[i] = environment.makeInt(1);
-        }
+        chains = new Chains(model.getEnvironment(), n);
         this.offset = offset;
     }
 
@@ -107,32 +97,33 @@ public class PropNoSubtour extends Propagator<IntVar> {
         if (isPassive()) {
             return;
         }
-        int last = end[val].get(); // last in [0,n-1]
-        int start = origin[var].get(); // start in [0,n-1]
-        if (origin[val].get() != val) {
+        int[] origin = chains.origin;
+        int[] end = chains.end;
+        int[] size = chains.size;
+        int last = end[val]; // last in [0,n-1]
+        int start = origin[var]; // start in [0,n-1]
+        if (origin[val] != val) {
             fails(); // TODO: could be more precise, for explanation purpose
         }
-        if (end[var].get() != var) {
+        if (end[var] != var) {
             fails(); // TODO: could be more precise, for explanation purpose
         }
         if (val == start) {
-            if (size[start].get() != n) {
+            if (size[start] != n) {
                 fails(); // TODO: could be more precise, for explanation purpose
             }
         } else {
-            size[start].add(size[val].get());
-            if (size[start].get() == n) {
+            chains.merge(start, val, last);
+            if (size[start] == n) {
                 vars[last].instantiateTo(start + offset, this);
                 setPassive();
             }
             boolean isInst = false;
-            if (size[start].get() < n) {
+            if (size[start] < n) {
                 if (vars[last].removeValue(start + offset, this)) {
                     isInst = vars[last].isInstantiated();
                 }
             }
-            origin[last].set(start);
-            end[start].set(last);
             if (isInst) {
                 varInstantiated(last, vars[last].getValue() - offset);
             }
@@ -174,4 +165,44 @@ public class PropNoSubtour extends Propagator<IntVar> {
         return "PropNoSubTour(" + Arrays.toString(vars) + ")";
     }
 
+    /**
+     * Chains of nodes built so far, stored in backtrackable cells:
+     * all the cells modified in a world are saved at once.
+     */
+    private static class Chains extends TrailedIntCells {
+
+        private static final int ORIGIN = 0;
+        private static final int END = 1;
+        private static final int SIZE = 2;
+
+        private final int[] origin;
+        private final int[] end;
+        private final int[] size;
+
+        Chains(IEnvironment environment, int n) {
+            this(environment, new int[n], new int[n], new int[n]);
+        }
+
+        private Chains(IEnvironment environment, int[] origin, int[] end, int[] size) {
+            super(environment, origin, end, size);
+            this.origin = origin;
+            this.end = end;
+            this.size = size;
+            for (int i = 0; i < origin.length; i++) {
+                origin[i] = i;
+                end[i] = i;
+                size[i] = 1;
+            }
+        }
+
+        /**
+         * Append the chain starting at <i>val</i> and ending at <i>last</i> to the chain starting at <i>start</i>
+         */
+        void merge(int start, int val, int last) {
+            write(SIZE, start, size[start] + size[val]);
+            write(ORIGIN, last, start);
+            write(END, start, last);
+        }
+    }
+
 }
@@ -10,7 +10,9 @@
 package org.chocosolver.solver.constraints.nary.clauses;
 
 import gnu.trove.map.hash.TIntObjectHashMap;
+import org.chocosolver.sat.MiniSat;
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.nary.sat.PropSat;
 import org.chocosolver.solver.learn.XParameters;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
@@ -109,10 +111,7 @@ public class ClauseBuilder {
     public void buildNogood(Model model) {
         if ((status & ALWAYSTRUE) == 0) {
             if ((status & UNKNOWN) != 0) { // at least one clause is unknown
-                if (XParameters.ELIMINATE_VIEWS) eliminateViews();
-                vars.removeIf(var -> (sets.get(var.getId()).isEmpty()));
-                IntVar[] _vars = vars.toArray(new IntVar[0]);
-                Arrays.sort(_vars); // to avoid undeterministic behavior
+                IntVar[] _vars = prepare();
                 switch (vars.size()) {
                     case 0:
                         model.falseConstraint().post();
@@ -140,6 +139,88 @@ public class ClauseBuilder {
         this.sets.clear();
     }
 
+    /**
+     * Build the nogood in memory and add it to the SAT solver of <i>model</i>, in lazy clause generation mode.
+     * Each signed literal is encoded with a literal of the form [x &le; v], [x = v] (or their negation)
+     * or [x &isin; S], selected wrt the initial domain of the variable.
+     * The clause is then propagated by the watched literal scheme of the SAT solver.
+     */
+    public void buildLazyClause(Model model) {
+        if ((status & ALWAYSTRUE) == 0) {
+            if ((status & UNKNOWN) != 0) { // at least one clause is unknown
+                IntVar[] _vars = prepare();
+                switch (vars.size()) {
+                    case 0:
+                        model.falseConstraint().post();
+                        break;
+                    case 1:
+                        model.member(_vars[0], sets.get(_vars[0].getId())).post();
+                        break;
+                    default:
+                        PropSat sat = model.getMinisat().getPropSat();
+                        int[] lits = new int[_vars.length];
+                        for (int i = 0; i < _vars.length; i++) {
+                            lits[i] = encode(sat, _vars[i], sets.get(_vars[i].getId()));
+                        }
+                        sat.addLazyClause(lits);
+                        break;
+                }
+            } else {
+                // always false
+                model.falseConstraint().post();
+                throw new UnsupportedOperationException();
+            }
+        }//  else post nothing
+
+        this.status = FALSE;
+        this.vars.clear();
+        this.sets.clear();
+    }
+
+    /**
+     * Eliminate views and empty sets, then return the variables of the nogood, sorted.
+     */
+    private IntVar[] prepare() {
+        if (XParameters.ELIMINATE_VIEWS) eliminateViews();
+        vars.removeIf(var -> (sets.get(var.getId()).isEmpty()));
+        IntVar[] _vars = vars.toArray(new IntVar[0]);
+        Arrays.sort(_vars); // to avoid undeterministic behavior
+        return _vars;
+    }
+
+    /**
+     * Encode the signed literal (<i>var</i> &isin; <i>set</i>) with a single SAT literal, to be unit propagated.
+     */
+    private int encode(PropSat sat, IntVar var, IntIterableRangeSet set) {
+        if (var.isBool()) {
+            // 'set' is either {0} or {1}, otherwise the nogood is always true
+            return MiniSat.makeLiteral(sat.makeBool((BoolVar) var), set.contains(1));
+        }
+        IntIterableRangeSet init = initialDomains.get(var.getId());
+        set.retainAll(init);
+        int min = init.min();
+        int max = init.max();
+        if (set.getNbRanges() == 1) {
+            int a = set.min();
+            int b = set.max();
+            if (a == b) {
+                return MiniSat.makeLiteral(sat.makeIntEq(var, a), true);
+            } else if (a == min) {
+                return MiniSat.makeLiteral(sat.makeIntLe(var, b), true);
+            } else if (b == max) {
+                return MiniSat.makeLiteral(sat.makeIntLe(var, a - 1), false);
+            }
+        } else if (set.size() == init.size() - 1) {
+            // all values but one
+            int v = init.nextValue(min - 1);
+            while (set.contains(v)) {
+                v = init.nextValue(v);
+            }
+            return MiniSat.makeLiteral(sat.makeIntEq(var, v), false);
+        }
+        return MiniSat.makeLiteral(sat.makeIntIn(var, set), true);
+    }
+
     private void eliminateViews() {
         Stack<IntVar> keys = vars
                 .stream()
@@ -202,6 +202,15 @@ public class ClauseStore extends Propagator<IntVar> {
         }
     }
 
+    /**
+     * Indicate that the clause learnt from the last conflict is not stored here
+     * (in lazy clause generation, it is handed to the SAT solver),
+     * so that the last signed clause added is not checked as the asserting one.
+     */
+    public void ignoreLast() {
+        last = null;
+    }
+
     /**
      * Try to delete signed clauses from this nogood store.
      */
@@ -887,6 +896,11 @@ public class ClauseStore extends Propagator<IntVar> {
             return u ? UNDEFINED : FALSE;
         }
 
+        @Override
+        public int getCauseKind() {
+            return CLAUSE;
+        }
+
         public void explain(int p, ExplanationForSignedClause explanation) {
             IntVar pivot = explanation.readVar(p);
             IntIterableRangeSet set;
@@ -366,6 +366,11 @@ public class PropSignedClause extends Propagator<IntVar> {
         return u ? UNDEFINED : FALSE;
     }
 
+    @Override
+    public int getCauseKind() {
+        return CLAUSE;
+    }
+
     public void explain(int p, ExplanationForSignedClause explanation) {
         IntVar pivot = explanation.readVar(p);
         IntIterableRangeSet set;
@@ -14,6 +14,7 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.ConstraintsName;
 import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 
@@ -28,10 +29,64 @@ import java.util.List;
  */
 public class GlobalCardinality extends Constraint {
 
+	/**
+	 * Basic filtering, no particular consistency but fast
+	 */
+	public static final String FAST = "FAST";
+	/**
+	 * Bound consistency on the variables, in addition to the basic filtering
+	 */
+	public static final String BC = "BC";
+	/**
+	 * Arc consistency on the variables, in addition to the basic filtering
+	 */
+	public static final String AC = "AC";
+	/**
+	 * AC when all variables have enumerated domains of at most {@link #AC_MAX_DOMAIN_SIZE} values, BC otherwise
+	 */
+	public static final String DEFAULT = "DEFAULT";
+	/**
+	 * Largest domain size for which {@link #DEFAULT} selects AC
+	 */
+	public static final int AC_MAX_DOMAIN_SIZE = 256;
+
     public GlobalCardinality(IntVar[] vars, int[] values, IntVar[] cards) {
-    	super(ConstraintsName.GCC, createProp(vars, values, cards));
+    	this(vars, values, cards, FAST);
     }
 
+	/**
+	 * @param vars        variables
+	 * @param values      constrained values
+	 * @param cards       cardinality variables of the constrained values
+	 * @param consistency one of {@link #FAST}, {@link #BC}, {@link #AC} or {@link #DEFAULT}
+	 * @throws SolverException if the consistency is unknown
+	 */
+	public GlobalCardinality(IntVar[] vars, int[] values, IntVar[] cards, String consistency) {
+		super(ConstraintsName.GCC, createProps(vars, values, cards, consistency));
+	}
+
+	private static Propagator[] createProps(IntVar[] vars, int[] values, IntVar[] cards, String consistency) {
+		Propagator fast = createProp(vars, values, cards);
+		switch (consistency) {
+			case FAST:
+				return new Propagator[]{fast};
+			case BC:
+				return new Propagator[]{fast, new PropGCC(vars, values, cards, false)};
+			case AC:
+				return new Propagator[]{fast, new PropGCC(vars, values, cards, true)};
+			case DEFAULT: {
+				boolean small = true;
+				for (int i = 0; i < vars.length && small; i++) {
+					small = vars[i].hasEnumeratedDomain() && vars[i].getDomainSize() <= AC_MAX_DOMAIN_SIZE;
+				}
+				return createProps(vars, values, cards, small ? AC : BC);
+			}
+			default:
+				throw new SolverException("Unknown consistency for GCC: " + consistency
+						+ ", expected one of " + FAST + ", " + BC + ", " + AC + " or " + DEFAULT);
+		}
+	}
+
 	private static Propagator createProp(IntVar[] vars, int[] values, IntVar[] cards) {
 		assert values.length == cards.length;
 		TIntIntHashMap map = new TIntIntHashMap();
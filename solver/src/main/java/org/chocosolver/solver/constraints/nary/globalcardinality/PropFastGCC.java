@@ -160,43 +160,30 @@ public class PropFastGCC extends Propagator<IntVar> {
         return again;
     }
 
+    /**
+     * @return <i>true</i> if <i>value</i> is constrained and cannot be assigned to <i>vars[var]</i> anymore
+     */
+    private boolean isUnsupported(int var, int value) {
+        int index = map.containsKey(value) ? map.get(value) : -1;
+        return index != -1 && !(possibles[index].contains(var) || mandatories[index].contains(var));
+    }
+
     private boolean filterBounds() throws ContradictionException {
         boolean useful = false;
         for (int i = 0; i < boundVar.size(); i++) {
             int var = boundVar.get(i);
             if (!vars[var].isInstantiated()) {
                 int lb = vars[var].getLB();
-                int index = -1;
-                if (map.containsKey(lb)) {
-                    index = map.get(lb);
-                }
-                boolean b = index != -1 && !(possibles[index].contains(var) || mandatories[index].contains(var));
-                while (b) {
-                    useful = true;
-                    vars[var].removeValue(lb, this);
-                    lb = vars[var].getLB();
-                    index = -1;
-                    if (map.containsKey(lb)) {
-                        index = map.get(lb);
-                    }
-                    b = index != -1 && !(possibles[index].contains(var) || mandatories[index].contains(var));
-                }
                 int ub = vars[var].getUB();
-                index = -1;
-                if (map.containsKey(ub)) {
-                    index = map.get(ub);
+                // the domain is bounded: compute the new bounds first, then update them once
+                while (lb <= ub && isUnsupported(var, lb)) {
+                    lb++;
                 }
-                b = index != -1 && !(possibles[index].contains(var) || mandatories[index].contains(var));
-                while (b) {
-                    useful = true;
-                    vars[var].removeValue(ub, this);
-                    ub = vars[var].getUB();
-                    index = -1;
-                    if (map.containsKey(ub)) {
-                        index = map.get(ub);
-                    }
-                    b = index != -1 && !(possibles[index].contains(var) || mandatories[index].contains(var));
+                useful |= vars[var].updateLowerBound(lb, this);
+                while (ub > lb && isUnsupported(var, ub)) {
+                    ub--;
                 }
+                useful |= vars[var].updateUpperBound(ub, this);
             } else {
                 int val = vars[var].getValue();
                 if (map.containsKey(val)) {
@@ -0,0 +1,87 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.globalcardinality;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.nary.globalcardinality.algo.AlgoGCC;
+import org.chocosolver.solver.constraints.nary.globalcardinality.algo.AlgoGCCAC;
+import org.chocosolver.solver.constraints.nary.globalcardinality.algo.AlgoGCCBC;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+/**
+ * Flow-based propagator for Global Cardinality Constraint (GCC) for integer variables,
+ * ensuring either arc consistency or bound consistency on the variables,
+ * given the bounds of the cardinality variables.
+ * <p/>
+ * With arc consistency, the flow network is repaired from one call to the other,
+ * with bound consistency it is rebuilt since value nodes depend on the bounds of the variables.
+ * Fine-grained events are not exploited:
+ * whatever the modified variables, the whole filtering runs once per propagation.
+ * Cardinality variables are not filtered: this propagator is meant to be used with {@link PropFastGCC}.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class PropGCC extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n;
+    private final boolean ac;
+    private final AlgoGCC filter;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * @param vars   array of integer variables
+     * @param values constrained values
+     * @param cards  cardinality variables of the constrained values
+     * @param ac     set to <i>true</i> to ensure arc consistency, to <i>false</i> to ensure bound consistency
+     */
+    public PropGCC(IntVar[] vars, int[] values, IntVar[] cards, boolean ac) {
+        super(ArrayUtils.append(vars, cards), PropagatorPriority.QUADRATIC, false);
+        this.n = vars.length;
+        this.ac = ac;
+        this.filter = ac ?
+                new AlgoGCCAC(vars, values, cards, this) :
+                new AlgoGCCBC(vars, values, cards, this);
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx < n && ac) {
+            return IntEventType.all();
+        }
+        return IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        filter.propagate();
+    }
+
+    @Override
+    public ESat isEntailed() {
+        return ESat.TRUE; // redundant propagator (used with PropFastGCC)
+    }
+}
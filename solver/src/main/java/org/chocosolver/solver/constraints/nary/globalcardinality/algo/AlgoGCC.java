@@ -0,0 +1,436 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.globalcardinality.algo;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.graphOperations.connectivity.StrongConnectivityFinder;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+
+import java.util.BitSet;
+
+/**
+ * Flow-based filtering of the Global Cardinality Constraint, as described in:
+ * <br/>
+ * "Generalized Arc Consistency for Global Cardinality Constraint",
+ * J-C. Régin, AAAI-96.
+ * <p>
+ * Variables are linked to value nodes, each value node is linked to the sink with a lower and an upper bound
+ * on the number of variables it takes.
+ * When value nodes do not depend on the domains, the graph and its flow are kept from one call to the other:
+ * only the edges of the values removed since the previous call are deleted, the flow on these edges
+ * is cancelled and repaired with augmenting paths from the variables and value nodes it affects.
+ * After a backtrack, or when value nodes change, the graph is rebuilt from the current domains
+ * and the previous flow is restored wherever the domains allow it.
+ * Then an edge between a variable and a value node has a support iff it is in the flow
+ * or both ends belong to the same strongly connected component of the residual graph.
+ * </p>
+ * Sub-classes define what a value node is.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public abstract class AlgoGCC {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    protected final IntVar[] vars;
+    protected final int n;
+    protected final ICause aCause;
+    /**
+     * Variables are nodes [0, n[, value nodes are nodes [n, n + m[ and the sink is node n + m.
+     * There is an edge from a variable to a value node when it is not in the flow, in the other way otherwise
+     */
+    protected final DirectedGraph digraph;
+    private final StrongConnectivityFinder SCCfinder;
+    protected int[] nodeSCC;
+    /**
+     * Current number of value nodes
+     */
+    protected int m;
+    /**
+     * Lower bound, upper bound and current flow of each value node (indexed from 0)
+     */
+    protected final int[] low;
+    protected final int[] up;
+    private final int[] flow;
+    /**
+     * Value node of each variable in the flow, or -1
+     */
+    protected final int[] mate;
+    /**
+     * A value of the value node of each variable in the previous flow, to restore it
+     */
+    private final int[] mateValue;
+    private final boolean[] hasMate;
+    /**
+     * Set to <i>true</i> when the graph can be repaired instead of being rebuilt
+     */
+    private final boolean incremental;
+    /**
+     * Domain size of each variable at the end of the previous flow computation
+     */
+    private final int[] sizes;
+    /**
+     * Trailed copy of {@link #timestamp}: both differ when the previous flow computation
+     * has been undone by a backtrack or has failed
+     */
+    private final IStateInt stamp;
+    private int timestamp;
+    // for augmenting paths (BFS)
+    private final int[] father;
+    private final int[] fifo;
+    private final BitSet in;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * @param vars          variables
+     * @param maxValueNodes maximum number of value nodes
+     * @param incremental   set to <i>true</i> if value nodes do not depend on the domains,
+     *                      so that the graph can be repaired between two calls
+     * @param cause         the propagator
+     */
+    protected AlgoGCC(IntVar[] vars, int maxValueNodes, boolean incremental, ICause cause) {
+        this.vars = vars;
+        this.n = vars.length;
+        this.aCause = cause;
+        int nbNodes = n + maxValueNodes + 1;
+        this.digraph = new DirectedGraph(nbNodes, SetType.BITSET, false);
+        this.SCCfinder = new StrongConnectivityFinder(digraph);
+        this.low = new int[maxValueNodes];
+        this.up = new int[maxValueNodes];
+        this.flow = new int[maxValueNodes];
+        this.mate = new int[n];
+        this.mateValue = new int[n];
+        this.hasMate = new boolean[n];
+        this.father = new int[nbNodes];
+        this.fifo = new int[nbNodes];
+        this.in = new BitSet(nbNodes);
+        this.incremental = incremental && n > 0;
+        this.sizes = new int[n];
+        this.stamp = this.incremental ? vars[0].getModel().getEnvironment().makeInt(-1) : null;
+    }
+
+    //***********************************************************************************
+    // ABSTRACT METHODS
+    //***********************************************************************************
+
+    /**
+     * Define the value nodes: set {@link #m}, {@link #low} and {@link #up}.
+     *
+     * @throws ContradictionException if a value cannot be taken as many times as required
+     */
+    protected abstract void makeValueNodes() throws ContradictionException;
+
+    /**
+     * Link the <i>i</i>-th variable to its value nodes, with {@link #link(int, int, int)}.
+     *
+     * @param i index of a variable
+     * @param k value node to put in the flow for the variable, if possible, or -1
+     */
+    protected abstract void makeEdges(int i, int k);
+
+    /**
+     * @param value a value
+     * @return the value node (from 0) that represents <i>value</i> for the <i>i</i>-th variable, or -1 if none.
+     * When the graph is incremental, the edge between the <i>i</i>-th variable and the value node <i>k</i>
+     * is kept as long as <code>valueNodeOf(i, valueOf(k)) == k</code>.
+     */
+    protected abstract int valueNodeOf(int i, int value);
+
+    /**
+     * @param k a value node (from 0)
+     * @return a value represented by <i>k</i>
+     */
+    protected abstract int valueOf(int k);
+
+    /**
+     * Remove from each variable the values whose edges have no support.
+     *
+     * @return <i>true</i> if a variable has been modified
+     * @throws ContradictionException if a domain becomes empty
+     */
+    protected abstract boolean filter() throws ContradictionException;
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    /**
+     * Compute a feasible flow, the strongly connected components of its residual graph,
+     * then filter the variables.
+     *
+     * @return <i>true</i> if a variable has been modified
+     * @throws ContradictionException if there is no feasible flow
+     */
+    public boolean propagate() throws ContradictionException {
+        findFeasibleFlow();
+        buildSCC();
+        return filter();
+    }
+
+    /**
+     * @param i index of a variable
+     * @param k index of a value node (from 0)
+     * @return <i>true</i> if the edge between the <i>i</i>-th variable and the value node <i>k</i> has a support
+     */
+    protected final boolean isSupported(int i, int k) {
+        return mate[i] == k || nodeSCC[i] == nodeSCC[n + k];
+    }
+
+    /**
+     * Add an edge between the <i>i</i>-th variable and the value node <i>k</i>,
+     * and put it in the flow if <i>k</i> is <i>mate</i> and it can take a variable more.
+     */
+    protected final void link(int i, int k, int mate) {
+        if (k == mate && flow[k] < up[k]) {
+            digraph.addEdge(n + k, i);
+            this.mate[i] = k;
+            flow[k]++;
+        } else {
+            digraph.addEdge(i, n + k);
+        }
+    }
+
+    private void findFeasibleFlow() throws ContradictionException {
+        if (incremental && stamp.get() == timestamp) {
+            repairGraph();
+        } else {
+            buildGraph();
+        }
+        // until the flow is feasible again, a failure must lead to rebuild the graph
+        timestamp++;
+        // first, each value node takes at least as many variables as required
+        for (int k = 0; k < m; k++) {
+            while (flow[k] < low[k]) {
+                if (!recruit(k)) {
+                    vars[0].getModel().getSolver().throwsException(aCause, null, null);
+                }
+            }
+        }
+        // then, each variable takes a value
+        for (int i = 0; i < n; i++) {
+            if (mate[i] == -1 && !assign(i)) {
+                vars[0].getModel().getSolver().throwsException(aCause, null, null);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            hasMate[i] = true;
+            mateValue[i] = valueOf(mate[i]);
+            sizes[i] = vars[i].getDomainSize();
+        }
+        if (incremental) {
+            stamp.set(timestamp);
+        }
+    }
+
+    /**
+     * Build the graph from scratch, putting back in the flow the values of the previous one.
+     */
+    private void buildGraph() throws ContradictionException {
+        for (int i = n + m; i >= 0; i--) {
+            digraph.removeNode(i);
+        }
+        makeValueNodes();
+        for (int k = 0; k < m; k++) {
+            flow[k] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            mate[i] = -1;
+            makeEdges(i, hasMate[i] ? valueNodeOf(i, mateValue[i]) : -1);
+        }
+    }
+
+    /**
+     * Update the graph of the previous call, domains being only reduced since then:
+     * delete the edges of the removed values, cancel the flow on them
+     * and on the value nodes which take more variables than allowed.
+     */
+    private void repairGraph() throws ContradictionException {
+        int sink = n + m;
+        for (int k = 0; k < m; k++) {
+            digraph.removeEdge(n + k, sink);
+            digraph.removeEdge(sink, n + k);
+        }
+        makeValueNodes();
+        for (int i = 0; i < n; i++) {
+            if (vars[i].getDomainSize() < sizes[i]) {
+                int last = 0;
+                ISetIterator succs = digraph.getSuccessorsOf(i).iterator();
+                while (succs.hasNext()) {
+                    int u = succs.nextInt();
+                    if (valueNodeOf(i, valueOf(u - n)) != u - n) {
+                        fifo[last++] = u;
+                    }
+                }
+                while (last > 0) {
+                    digraph.removeEdge(i, fifo[--last]);
+                }
+                int k = mate[i];
+                if (valueNodeOf(i, valueOf(k)) != k) {
+                    digraph.removeEdge(n + k, i);
+                    mate[i] = -1;
+                    flow[k]--;
+                }
+            }
+        }
+        for (int k = 0; k < m; k++) {
+            if (flow[k] > up[k]) {
+                int last = 0;
+                ISetIterator succs = digraph.getSuccessorsOf(n + k).iterator();
+                while (last < flow[k] - up[k] && succs.hasNext()) {
+                    fifo[last++] = succs.nextInt();
+                }
+                while (last > 0) {
+                    int i = fifo[--last];
+                    digraph.removeEdge(n + k, i);
+                    digraph.addEdge(i, n + k);
+                    mate[i] = -1;
+                    flow[k]--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Move variable <i>i</i> to the value node <i>k</i> in the flow.
+     */
+    private void rematch(int i, int k) {
+        int old = mate[i];
+        if (old >= 0) {
+            digraph.removeEdge(n + old, i);
+            digraph.addEdge(i, n + old);
+            flow[old]--;
+        }
+        digraph.removeEdge(i, n + k);
+        digraph.addEdge(n + k, i);
+        mate[i] = k;
+        flow[k]++;
+    }
+
+    /**
+     * Increase the flow of value node <i>k</i> without breaking the lower bounds of the other value nodes:
+     * search backward for a free variable or a value node that takes more variables than required.
+     */
+    private boolean recruit(int k) {
+        in.clear();
+        int first = 0, last = 0;
+        fifo[last++] = n + k;
+        in.set(n + k);
+        int end = -1;
+        while (first < last && end < 0) {
+            int u = fifo[first++];
+            ISetIterator preds = digraph.getPredecessorsOf(u).iterator();
+            while (preds.hasNext() && end < 0) {
+                int y = preds.nextInt();
+                if (y < n && !in.get(y)) {
+                    in.set(y);
+                    father[y] = u;
+                    int b = mate[y];
+                    if (b < 0) {
+                        end = y;
+                    } else if (!in.get(n + b)) {
+                        in.set(n + b);
+                        father[n + b] = y;
+                        if (flow[b] > low[b]) {
+                            end = y;
+                        } else {
+                            fifo[last++] = n + b;
+                        }
+                    }
+                }
+            }
+        }
+        if (end < 0) {
+            return false;
+        }
+        int y = end;
+        while (true) {
+            int u = father[y];
+            rematch(y, u - n);
+            if (u == n + k) {
+                return true;
+            }
+            y = father[u];
+        }
+    }
+
+    /**
+     * Put the free variable <i>x</i> in the flow:
+     * search forward for a value node that can take a variable more.
+     */
+    private boolean assign(int x) {
+        in.clear();
+        int first = 0, last = 0;
+        fifo[last++] = x;
+        in.set(x);
+        int end = -1;
+        while (first < last && end < 0) {
+            int y = fifo[first++];
+            ISetIterator succs = digraph.getSuccessorsOf(y).iterator();
+            while (succs.hasNext() && end < 0) {
+                int u = succs.nextInt();
+                if (!in.get(u)) {
+                    in.set(u);
+                    father[u] = y;
+                    if (flow[u - n] < up[u - n]) {
+                        end = u;
+                    } else {
+                        ISetIterator others = digraph.getSuccessorsOf(u).iterator();
+                        while (others.hasNext()) {
+                            int z = others.nextInt();
+                            if (!in.get(z)) {
+                                in.set(z);
+                                father[z] = u;
+                                fifo[last++] = z;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (end < 0) {
+            return false;
+        }
+        int u = end;
+        while (true) {
+            int y = father[u];
+            int old = mate[y];
+            rematch(y, u - n);
+            if (y == x) {
+                return true;
+            }
+            u = n + old;
+        }
+    }
+
+    private void buildSCC() {
+        int sink = n + m;
+        for (int k = 0; k < m; k++) {
+            if (flow[k] < up[k]) {
+                digraph.addEdge(n + k, sink);
+            }
+            if (flow[k] > low[k]) {
+                digraph.addEdge(sink, n + k);
+            }
+        }
+        SCCfinder.findAllSCC();
+        nodeSCC = SCCfinder.getNodesSCC();
+    }
+}
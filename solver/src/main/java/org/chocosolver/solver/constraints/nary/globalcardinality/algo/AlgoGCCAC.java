@@ -0,0 +1,156 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.globalcardinality.algo;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
+
+import java.util.Arrays;
+
+/**
+ * Arc consistency of the Global Cardinality Constraint: there is one value node per value.
+ * Value nodes do not depend on the domains, so the graph is repaired between two calls:
+ * only the edges of the removed values are deleted and only the variables they unmatched are augmented again.
+ * Finding the strongly connected components and filtering still run in O(n.m),
+ * where m is the sum of the domain sizes.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class AlgoGCCAC extends AlgoGCC {
+
+    private final IntVar[] cards;
+    /**
+     * Value of each value node
+     */
+    private final int[] nodeValues;
+    /**
+     * Value node of each value
+     */
+    private final TIntIntHashMap map;
+    /**
+     * Index in <i>cards</i> of the cardinality variable of each value node, or -1
+     */
+    private final int[] cardOf;
+    // values to remove from a variable, removed all at once
+    private final IntIterableBitSet vrms;
+
+    /**
+     * @param vars   variables
+     * @param values constrained values
+     * @param cards  cardinality variables of the constrained values
+     * @param cause  the propagator
+     */
+    public AlgoGCCAC(IntVar[] vars, int[] values, IntVar[] cards, ICause cause) {
+        this(vars, values, cards, valueMap(vars, values), cause);
+    }
+
+    private AlgoGCCAC(IntVar[] vars, int[] values, IntVar[] cards, TIntIntHashMap map, ICause cause) {
+        super(vars, map.size(), true, cause);
+        this.cards = cards;
+        this.map = map;
+        this.nodeValues = new int[map.size()];
+        map.forEachEntry((v, k) -> {
+            nodeValues[k] = v;
+            return true;
+        });
+        this.cardOf = new int[map.size()];
+        Arrays.fill(cardOf, -1);
+        for (int c = 0; c < values.length; c++) {
+            cardOf[map.get(values[c])] = c;
+        }
+        this.m = map.size();
+        this.vrms = new IntIterableBitSet();
+    }
+
+    private static TIntIntHashMap valueMap(IntVar[] vars, int[] values) {
+        TIntIntHashMap map = new TIntIntHashMap();
+        for (IntVar v : vars) {
+            int ub = v.getUB();
+            for (int j = v.getLB(); j <= ub; j = v.nextValue(j)) {
+                if (!map.containsKey(j)) {
+                    map.put(j, map.size());
+                }
+            }
+        }
+        for (int v : values) {
+            if (!map.containsKey(v)) {
+                map.put(v, map.size());
+            }
+        }
+        return map;
+    }
+
+    @Override
+    protected void makeValueNodes() {
+        for (int k = 0; k < m; k++) {
+            int c = cardOf[k];
+            if (c >= 0) {
+                low[k] = cards[c].getLB();
+                up[k] = Math.min(cards[c].getUB(), n);
+            } else {
+                low[k] = 0;
+                up[k] = n;
+            }
+        }
+    }
+
+    @Override
+    protected void makeEdges(int i, int k) {
+        IntVar v = vars[i];
+        int ub = v.getUB();
+        for (int j = v.getLB(); j <= ub; j = v.nextValue(j)) {
+            link(i, map.get(j), k);
+        }
+    }
+
+    @Override
+    protected int valueNodeOf(int i, int value) {
+        return vars[i].contains(value) ? map.get(value) : -1;
+    }
+
+    @Override
+    protected int valueOf(int k) {
+        return nodeValues[k];
+    }
+
+    @Override
+    protected boolean filter() throws ContradictionException {
+        boolean filter = false;
+        for (int i = 0; i < n; i++) {
+            IntVar v = vars[i];
+            if (v.hasEnumeratedDomain()) {
+                vrms.clear();
+                vrms.setOffset(v.getLB());
+                int ub = v.getUB();
+                for (int j = v.getLB(); j <= ub; j = v.nextValue(j)) {
+                    if (!isSupported(i, map.get(j))) {
+                        vrms.add(j);
+                    }
+                }
+                filter |= v.removeValues(vrms, aCause);
+            } else {
+                int lb = v.getLB();
+                int ub = v.getUB();
+                while (!isSupported(i, map.get(lb))) {
+                    lb++;
+                }
+                while (!isSupported(i, map.get(ub))) {
+                    ub--;
+                }
+                filter |= v.updateBounds(lb, ub, aCause);
+            }
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.globalcardinality.algo;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+
+/**
+ * Bound consistency of the Global Cardinality Constraint, that is, the bounds of each variable
+ * have a support when the domains are relaxed to intervals.
+ * <p>
+ * Once domains are intervals, values between two consecutive bounds of variables
+ * are taken by exactly the same variables, so they are grouped into a single value node whose lower
+ * (resp. upper) bound is the sum of the lower (resp. upper) bounds of its values.
+ * Bounds of variables and their successors are points of the partition, so that the bounds of a variable
+ * are value nodes on their own.
+ * There are thus at most 4.n value nodes whatever the size of the domains,
+ * and the filtering is repeated until no bound is modified.
+ * </p>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class AlgoGCCBC extends AlgoGCC {
+
+    private final IntVar[] cards;
+    /**
+     * Constrained values, in increasing order, and the index of their cardinality variable
+     */
+    private final int[] sortedValues;
+    private final int[] sortedCards;
+    /**
+     * Sums of the lower and upper bounds of the cardinalities of the first constrained values
+     */
+    private final long[] sumLow;
+    private final long[] sumUp;
+    /**
+     * Points of the partition: the k-th value node is [points[k], points[k+1][
+     */
+    private final int[] points;
+
+    /**
+     * @param vars   variables
+     * @param values constrained values
+     * @param cards  cardinality variables of the constrained values
+     * @param cause  the propagator
+     */
+    public AlgoGCCBC(IntVar[] vars, int[] values, IntVar[] cards, ICause cause) {
+        super(vars, 4 * vars.length, false, cause);
+        this.cards = cards;
+        int k = values.length;
+        long[] pairs = new long[k];
+        for (int c = 0; c < k; c++) {
+            pairs[c] = ((long) values[c] << 32) | c;
+        }
+        Arrays.sort(pairs);
+        this.sortedValues = new int[k];
+        this.sortedCards = new int[k];
+        for (int c = 0; c < k; c++) {
+            sortedValues[c] = (int) (pairs[c] >> 32);
+            sortedCards[c] = (int) pairs[c];
+        }
+        this.sumLow = new long[k + 1];
+        this.sumUp = new long[k + 1];
+        this.points = new int[4 * vars.length + 1];
+    }
+
+    @Override
+    public boolean propagate() throws ContradictionException {
+        boolean filter = false;
+        while (super.propagate()) {
+            filter = true;
+        }
+        return filter;
+    }
+
+    @Override
+    protected void makeValueNodes() throws ContradictionException {
+        int p = 0;
+        for (int i = 0; i < n; i++) {
+            int lb = vars[i].getLB();
+            int ub = vars[i].getUB();
+            points[p++] = lb;
+            points[p++] = lb + 1;
+            points[p++] = ub;
+            points[p++] = ub + 1;
+        }
+        Arrays.sort(points, 0, p);
+        int q = 0;
+        for (int j = 0; j < p; j++) {
+            if (q == 0 || points[q - 1] != points[j]) {
+                points[q++] = points[j];
+            }
+        }
+        m = q - 1;
+        for (int c = 0; c < sortedValues.length; c++) {
+            IntVar card = cards[sortedCards[c]];
+            int v = sortedValues[c];
+            if (card.getLB() > 0 && (v < points[0] || v >= points[m])) {
+                // no variable can take this value
+                vars[0].getModel().getSolver().throwsException(aCause, null, null);
+            }
+            sumLow[c + 1] = sumLow[c] + card.getLB();
+            sumUp[c + 1] = sumUp[c] + Math.min(card.getUB(), n);
+        }
+        int c1 = lowerBound(points[0]);
+        for (int k = 0; k < m; k++) {
+            int c2 = lowerBound(points[k + 1]);
+            long unconstrained = (long) points[k + 1] - points[k] - (c2 - c1);
+            low[k] = (int) Math.min(sumLow[c2] - sumLow[c1], n + 1);
+            up[k] = (int) Math.min(sumUp[c2] - sumUp[c1] + unconstrained * n, n);
+            c1 = c2;
+        }
+    }
+
+    /**
+     * @return the index of the first constrained value not smaller than <i>value</i>
+     */
+    private int lowerBound(int value) {
+        int i = Arrays.binarySearch(sortedValues, value);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * @return the value node that contains <i>value</i>
+     */
+    private int nodeOf(int value) {
+        int k = Arrays.binarySearch(points, 0, m + 1, value);
+        return k >= 0 ? k : -k - 2;
+    }
+
+    @Override
+    protected void makeEdges(int i, int k) {
+        int last = nodeOf(vars[i].getUB());
+        for (int j = nodeOf(vars[i].getLB()); j <= last; j++) {
+            link(i, j, k);
+        }
+    }
+
+    @Override
+    protected int valueNodeOf(int i, int value) {
+        return vars[i].getLB() <= value && value <= vars[i].getUB() ? nodeOf(value) : -1;
+    }
+
+    @Override
+    protected int valueOf(int k) {
+        return points[k];
+    }
+
+    @Override
+    protected boolean filter() throws ContradictionException {
+        boolean filter = false;
+        for (int i = 0; i < n; i++) {
+            IntVar v = vars[i];
+            int first = nodeOf(v.getLB());
+            int last = nodeOf(v.getUB());
+            while (!isSupported(i, first)) {
+                first++;
+            }
+            while (!isSupported(i, last)) {
+                last--;
+            }
+            filter |= v.updateBounds(points[first], points[last + 1] - 1, aCause);
+        }
+        return filter;
+    }
+}
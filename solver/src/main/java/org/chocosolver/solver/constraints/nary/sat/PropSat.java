@@ -17,11 +17,15 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.learn.ExplanationForSignedClause;
+import org.chocosolver.solver.learn.Implications;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSetUtils;
 
 import java.util.ArrayList;
 
@@ -49,6 +53,17 @@ public class PropSat extends Propagator<Variable> {
      */
     private boolean initialized = false;
 
+    /**
+     * Indicates if the next call to {@link #propagate(int)} has to synchronize all variables,
+     * or if it can be restricted to lazy clauses
+     */
+    private boolean fullPropagation = true;
+    /**
+     * Set to <i>true</i> once a lazy clause is added; before that, all variables are synchronized
+     * on each call to {@link #propagate(int)}
+     */
+    private boolean lazyClauses = false;
+
 
     /**
      * Create a (unique) propagator for clauses recording and propagation.
@@ -71,11 +86,17 @@ public class PropSat extends Propagator<Variable> {
     public void propagate(int evtmask) throws ContradictionException {
         initialize();
         if (!sat_.ok_) fails();
-        sat_.cancelUntil(0);
-        sat_.storeEarlyDeductions();
-        sat_.applyEarlyDeductions(this);
-        for (int i = 0; i < vars.length; ++i) {
-            doBound(i);
+        if (fullPropagation || !lazyClauses) {
+            sat_.cancelUntil(0);
+            sat_.storeEarlyDeductions();
+            sat_.applyEarlyDeductions(this);
+            for (int i = 0; i < vars.length; ++i) {
+                doBound(i);
+            }
+            fullPropagation = false;
+        }
+        if (sat_.hasPendingClauses() && !sat_.settle(this)) {
+            fails();
         }
     }
 
@@ -160,6 +181,20 @@ public class PropSat extends Propagator<Variable> {
                 this::lazyAddVar);
     }
 
+    /**
+     * Creates, or returns if already existing, the SAT variable corresponding
+     * to the relationship {@code var} &isin; {@code set}.
+     *
+     * @param var an integer variable
+     * @param set a set of values, copied
+     * @return its SAT twin
+     */
+    public int makeIntIn(IntVar var, IntIterableRangeSet set) {
+        return sat_.bind(var,
+                new Literalizer.IntInLit(var, set),
+                this::lazyAddVar);
+    }
+
     /**
      * Creates, or returns if already existing, the SAT variable corresponding
      * to the relationship {@code val} &isin; {@code var}.
@@ -192,6 +227,7 @@ public class PropSat extends Propagator<Variable> {
 
     public void afterAddingClauses() {
         sat_.storeEarlyDeductions();
+        fullPropagation = true;
     }
 
     /**
@@ -203,6 +239,7 @@ public class PropSat extends Propagator<Variable> {
     public boolean addClause(TIntList lits) {
         boolean result = sat_.addClause(lits);
         sat_.storeEarlyDeductions();
+        fullPropagation = true;
         return result;
     }
 
@@ -213,10 +250,102 @@ public class PropSat extends Propagator<Variable> {
      */
     public void addLearnt(int... lits) {
         sat_.learnClause(lits);
+        fullPropagation = true;
         forcePropagationOnBacktrack(); // issue#327
         // early deductions of learnt clause may lead to incorrect behavior on backtrack
         // since early deduction is not backtrackable.
 
     }
 
+    /**
+     * Add a clause learnt from a conflict, in lazy clause generation mode.
+     * The clause is expected to be unit once the search has backjumped:
+     * it is attached and propagated on the next call to {@link #propagate(int)},
+     * which only considers the variables of such clauses.
+     *
+     * @param lits clause, with at least two literals
+     */
+    public void addLazyClause(int... lits) {
+        sat_.learnLazyClause(lits);
+        lazyClauses = true;
+        forcePropagationOnBacktrack();
+    }
+
+    /**
+     * Explain the modifications made by the SAT solver from the clauses that implied them,
+     * as in lazy clause generation mode, instead of relying on the default explanation.
+     * This is expected to be called before resolution.
+     */
+    public void setExplainable() {
+        sat_.setExplainable();
+    }
+
+    /**
+     * Explain a modification made by the SAT solver from the clause that implied it.
+     * Falls back to {@link Propagator#defaultExplain(Propagator, int, ExplanationForSignedClause)}
+     * when no such clause can be found, or when {@link #setExplainable()} has not been called.
+     */
+    @Override
+    public void explain(int p, ExplanationForSignedClause explanation) {
+        IntVar pivot = explanation.readVar(p);
+        Implications ig = explanation.getImplicationGraph();
+        IntIterableRangeSet dom = explanation.readDom(p);
+        IntIterableRangeSet prev = ig.getDomainAt(ig.getPredecessorOf(p));
+        IntIterableRangeSet set = explanation.empty();
+        IntIterableRangeSet tmp = explanation.empty();
+        // first look for the literal that exactly explains the event, then for one which entails it
+        int[] clause = sat_.explain(pivot, (ltz, sign) -> {
+            set.clear();
+            ltz.toSet(sign, set);
+            IntIterableSetUtils.intersection(tmp, prev, set);
+            return tmp.size() == dom.size() && (tmp.isEmpty() || IntIterableSetUtils.includedIn(tmp, dom));
+        });
+        if (clause == null) {
+            clause = sat_.explain(pivot, (ltz, sign) -> {
+                set.clear();
+                ltz.toSet(sign, set);
+                return (dom.isEmpty() || IntIterableSetUtils.includedIn(dom, set))
+                        && !IntIterableSetUtils.includedIn(prev, set);
+            });
+        }
+        explanation.returnSet(set);
+        explanation.returnSet(tmp);
+        if (clause == null || !onIntVars(clause)) {
+            defaultExplain(this, p, explanation);
+            return;
+        }
+        for (int i = 0; i < clause.length; i++) {
+            if (clause[i] == -1) continue;
+            IntVar v = (IntVar) sat_.literalizer(MiniSat.var(clause[i])).cvar();
+            IntIterableRangeSet lit = explanation.empty();
+            // merge all literals of 'v'
+            for (int j = i; j < clause.length; j++) {
+                if (clause[j] != -1) {
+                    Literalizer ltz = sat_.literalizer(MiniSat.var(clause[j]));
+                    if (ltz.cvar() == v) {
+                        ltz.toSet(MiniSat.sgn(clause[j]), lit);
+                        clause[j] = -1;
+                    }
+                }
+            }
+            if (v == pivot) {
+                v.intersectLit(lit, explanation);
+            } else {
+                if (explanation.getFront().getValueOrDefault(v, -1) == -1) {
+                    ig.findPredecessor(explanation.getFront(), v, p);
+                }
+                v.unionLit(lit, explanation);
+            }
+        }
+    }
+
+    private boolean onIntVars(int[] clause) {
+        for (int i = 0; i < clause.length; i++) {
+            if (!(sat_.literalizer(MiniSat.var(clause[i])).cvar() instanceof IntVar)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
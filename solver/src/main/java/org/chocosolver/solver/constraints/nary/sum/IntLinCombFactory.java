@@ -301,6 +301,9 @@ public class IntLinCombFactory {
 
                     }
                 }
+                if (OPERATOR != Operator.NQ && model.getSettings().enableIncrementalityOnSum(tmpV.length)) {
+                    return new SumConstraint(new PropSumIncr(tmpV, b, OPERATOR, RESULT));
+                }
                 return new SumConstraint( new PropSum(tmpV, b, OPERATOR, RESULT));
         }
     }
@@ -357,6 +360,9 @@ public class IntLinCombFactory {
             OPERATOR = Operator.LE;
             RESULT--;
         }
+        if (OPERATOR != Operator.NQ && s.getSettings().enableIncrementalityOnSum(tmpV.length)) {
+            return new SumConstraint(new PropScalarIncr(tmpV, tmpC, b, OPERATOR, RESULT));
+        }
         return new SumConstraint(new PropScalar(tmpV, tmpC, b, OPERATOR, RESULT));
     }
 
@@ -34,7 +34,7 @@ public class PropScalar extends PropSum {
     /**
      * The coefficients
      */
-    private final int[] c;
+    protected final int[] c;
 
     /**
      * Create a scalar product: SUM(x_i*c_i) o b
@@ -46,7 +46,11 @@ public class PropScalar extends PropSum {
      * @param b bound to respect.
      */
     public PropScalar(IntVar[] variables, int[] coeffs, int pos, Operator o, int b) {
-        super(variables, pos, o, b);
+        this(variables, coeffs, pos, o, b, false);
+    }
+
+    PropScalar(IntVar[] variables, int[] coeffs, int pos, Operator o, int b, boolean reactOnFineEvent) {
+        super(variables, pos, o, b, computePriority(variables.length), reactOnFineEvent);
         this.c = coeffs;
     }
 
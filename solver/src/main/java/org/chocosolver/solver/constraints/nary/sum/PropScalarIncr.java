@@ -0,0 +1,80 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.sum;
+
+import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+
+/**
+ * A propagator for SUM(x_i*c_i) o b, maintained incrementally.
+ * <br/>
+ * Sums of lower and upper bounds are updated on each bound event,
+ * the filtering algorithm is only called when the slack does not ensure a fix point anymore.
+ * Operator NE is not supported.
+ * <p>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class PropScalarIncr extends PropScalar {
+
+    /**
+     * Sums of bounds maintained incrementally.
+     * Main reason this version exists.
+     */
+    private final StoredBounds bounds;
+
+    /**
+     * Create a scalar product: SUM(x_i*c_i) o b, maintained incrementally.
+     * Variables and coefficients are excepted to be ordered wrt to coefficients: first positive ones then negative ones.
+     *
+     * @param variables list of integer variables
+     * @param coeffs    list of coefficients
+     * @param pos       position of the last positive coefficient
+     * @param o         operator among EQ, LE and GE
+     * @param b         bound to respect
+     */
+    public PropScalarIncr(IntVar[] variables, int[] coeffs, int pos, Operator o, int b) {
+        super(variables, coeffs, pos, o, b, true);
+        assert o != Operator.NQ;
+        this.bounds = new StoredBounds(model.getEnvironment(), vars, c);
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            bounds.reset();
+        }
+        if (bounds.filterBig(o, b, this)) {
+            filter();
+            bounds.reset();
+        } else if (bounds.isEntailed(o, b)) {
+            setPassive();
+        }
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        bounds.update(idxVarInProp);
+        if (bounds.mayFilter(o, b)) {
+            forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+        }
+    }
+
+    @Override
+    protected PropSum opposite() {
+        if (o == Operator.EQ) {
+            return new PropScalar(vars, c, pos, Operator.NQ, b);
+        }
+        return new PropScalarIncr(vars, c, pos, nop(o), b + nb(o));
+    }
+}
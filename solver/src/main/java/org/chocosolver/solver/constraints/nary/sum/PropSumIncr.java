@@ -0,0 +1,85 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.sum;
+
+import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+
+import java.util.Arrays;
+
+/**
+ * A propagator for SUM(x_i) o b, maintained incrementally.
+ * <br/>
+ * Sums of lower and upper bounds are updated on each bound event,
+ * the filtering algorithm is only called when the slack does not ensure a fix point anymore.
+ * Operator NE is not supported.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class PropSumIncr extends PropSum {
+
+    /**
+     * Sums of bounds maintained incrementally.
+     * Main reason this version exists.
+     */
+    private final StoredBounds bounds;
+
+    /**
+     * Creates a sum propagator: SUM(x_i) o b, maintained incrementally.
+     * Coefficients are induced by <code>pos</code>:
+     * those before <code>pos</code> (included) are equal to 1,
+     * the other ones are equal to -1.
+     *
+     * @param variables list of integer variables
+     * @param pos       position of the last positive coefficient
+     * @param o         operator among EQ, LE and GE
+     * @param b         bound to respect
+     */
+    public PropSumIncr(IntVar[] variables, int pos, Operator o, int b) {
+        super(variables, pos, o, b, computePriority(variables.length), true);
+        assert o != Operator.NQ;
+        int[] c = new int[l];
+        Arrays.fill(c, 0, pos, 1);
+        Arrays.fill(c, pos, l, -1);
+        this.bounds = new StoredBounds(model.getEnvironment(), vars, c);
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            bounds.reset();
+        }
+        if (bounds.filterBig(o, b, this)) {
+            filter();
+            bounds.reset();
+        } else if (bounds.isEntailed(o, b)) {
+            setPassive();
+        }
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        bounds.update(idxVarInProp);
+        if (bounds.mayFilter(o, b)) {
+            forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+        }
+    }
+
+    @Override
+    protected PropSum opposite() {
+        if (o == Operator.EQ) {
+            return new PropSum(vars, pos, Operator.NQ, b);
+        }
+        return new PropSumIncr(vars, pos, nop(o), b + nb(o));
+    }
+}
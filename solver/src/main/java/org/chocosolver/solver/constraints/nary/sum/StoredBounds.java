@@ -0,0 +1,228 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.sum;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateIntVector;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * Trailed bounds of a linear combination SUM(x_i*c_i), maintained from bound deltas.
+ * <p>
+ * The contribution of each term to the lower and upper sums is stored,
+ * so that a bound event on a variable updates both sums in constant time.
+ * The term with the largest variability (typically, the resulting variable of a long sum)
+ * is singled out and filtered in constant time too.
+ * The maximal variability of the other terms is only refreshed on a full scan:
+ * since domains only shrink, the stored value remains a valid upper bound in between.
+ * </p>
+ *
+ * @author agent
+ * @since 4.10.9
+ * @see PropSumIncr
+ * @see PropScalarIncr
+ */
+final class StoredBounds {
+
+    /**
+     * The variables
+     */
+    private final IntVar[] vars;
+    /**
+     * The coefficients, positive ones first
+     */
+    private final int[] c;
+    /**
+     * Contribution of each term to the sum of lower bounds
+     */
+    private final IStateIntVector los;
+    /**
+     * Contribution of each term to the sum of upper bounds
+     */
+    private final IStateIntVector ups;
+    /**
+     * Sum of lower bounds
+     */
+    private final IStateInt sumLB;
+    /**
+     * Sum of upper bounds
+     */
+    private final IStateInt sumUB;
+    /**
+     * Index of the term with the largest variability, on last full scan
+     */
+    private final IStateInt big;
+    /**
+     * Upper bound of the maximal variability of the terms, except <i>big</i>
+     */
+    private final IStateInt maxI;
+
+    StoredBounds(IEnvironment environment, IntVar[] vars, int[] c) {
+        this.vars = vars;
+        this.c = c;
+        this.los = environment.makeIntVector(vars.length, 0);
+        this.ups = environment.makeIntVector(vars.length, 0);
+        this.sumLB = environment.makeInt();
+        this.sumUB = environment.makeInt();
+        this.big = environment.makeInt();
+        this.maxI = environment.makeInt();
+    }
+
+    /**
+     * Recompute the contributions of all terms, in O(n).
+     */
+    void reset() {
+        int slb = 0, sub = 0, b = 0, bI = -1, mI = 0;
+        for (int i = 0; i < vars.length; i++) {
+            int lo = lo(i);
+            int up = up(i);
+            los.quickSet(i, lo);
+            ups.quickSet(i, up);
+            slb += lo;
+            sub += up;
+            if (bI < up - lo) {
+                if (mI < bI) mI = bI;
+                bI = up - lo;
+                b = i;
+            } else if (mI < up - lo) {
+                mI = up - lo;
+            }
+        }
+        sumLB.set(slb);
+        sumUB.set(sub);
+        big.set(b);
+        maxI.set(mI);
+    }
+
+    /**
+     * Update the sums wrt the current bounds of the <i>i</i>-th variable, in O(1).
+     *
+     * @param i index of a modified variable
+     */
+    void update(int i) {
+        int lo = lo(i);
+        int olo = los.quickGet(i);
+        if (lo != olo) {
+            los.quickSet(i, lo);
+            sumLB.add(lo - olo);
+        }
+        int up = up(i);
+        int oup = ups.quickGet(i);
+        if (up != oup) {
+            ups.quickSet(i, up);
+            sumUB.add(up - oup);
+        }
+    }
+
+    /**
+     * Indicate whether the filtering algorithm of <i>SUM(x_i*c_i) o b</i> may do something:
+     * filter a variable, fail or detect entailment.
+     * When this method returns <i>false</i>, the current state is a fix point.
+     *
+     * @param o an operator among EQ, LE and GE
+     * @param b bound to respect
+     * @return <i>true</i> if the filtering algorithm should be called
+     */
+    boolean mayFilter(Operator o, int b) {
+        int F = b - sumLB.get();
+        int E = sumUB.get() - b;
+        int i = big.get();
+        int bI = ups.quickGet(i) - los.quickGet(i);
+        switch (o) {
+            case LE:
+                return needsFullScan(o, F, E) || bI > F || E <= 0;
+            case GE:
+                return needsFullScan(o, F, E) || bI > E || F <= 0;
+            default:
+                return needsFullScan(o, F, E) || bI > F || bI > E || (F == 0 && E == 0);
+        }
+    }
+
+    /**
+     * Filter the term with the largest variability, until a fix point is reached,
+     * or until the other terms have to be filtered too.
+     *
+     * @param o     an operator among EQ, LE and GE
+     * @param b     bound to respect
+     * @param cause the propagator
+     * @return <i>true</i> if a full scan is needed to reach a fix point,
+     * <i>false</i> if the current state is a fix point
+     * @throws ContradictionException if a domain becomes empty
+     */
+    boolean filterBig(Operator o, int b, ICause cause) throws ContradictionException {
+        int i = big.get();
+        boolean change;
+        do {
+            int F = b - sumLB.get();
+            int E = sumUB.get() - b;
+            if (needsFullScan(o, F, E)) {
+                return true;
+            }
+            int lo = los.quickGet(i);
+            int up = ups.quickGet(i);
+            change = false;
+            if (o != Operator.GE && up - lo > F) {
+                change = c[i] > 0 ?
+                        vars[i].updateUpperBound(Math.floorDiv(F + lo, c[i]), cause) :
+                        vars[i].updateLowerBound(-Math.floorDiv(-F - lo, c[i]), cause);
+            } else if (o != Operator.LE && up - lo > E) {
+                change = c[i] > 0 ?
+                        vars[i].updateLowerBound(-Math.floorDiv(E - up, c[i]), cause) :
+                        vars[i].updateUpperBound(Math.floorDiv(up - E, c[i]), cause);
+            }
+            if (change) {
+                update(i);
+            }
+        } while (change);
+        return false;
+    }
+
+    /**
+     * @param o an operator among EQ, LE and GE
+     * @param b bound to respect
+     * @return <i>true</i> if the constraint is satisfied whatever the values of the variables are
+     */
+    boolean isEntailed(Operator o, int b) {
+        int F = b - sumLB.get();
+        int E = sumUB.get() - b;
+        switch (o) {
+            case LE:
+                return E <= 0;
+            case GE:
+                return F <= 0;
+            default:
+                return F <= 0 && E <= 0;
+        }
+    }
+
+    private boolean needsFullScan(Operator o, int F, int E) {
+        int mI = maxI.get();
+        switch (o) {
+            case LE:
+                return F < 0 || mI > F;
+            case GE:
+                return E < 0 || mI > E;
+            default:
+                return F < 0 || E < 0 || mI > F || mI > E;
+        }
+    }
+
+    private int lo(int i) {
+        return c[i] > 0 ? vars[i].getLB() * c[i] : vars[i].getUB() * c[i];
+    }
+
+    private int up(int i) {
+        return c[i] > 0 ? vars[i].getUB() * c[i] : vars[i].getLB() * c[i];
+    }
+}
@@ -80,6 +80,32 @@ public interface CArExpression extends RealInterval {
      */
     void init();
 
+    /**
+     * A default empty array
+     */
+    CArExpression[] NO_CHILD = new CArExpression[0];
+
+    /**
+     * @return the operator of this expression, or <i>null</i> if this is a leaf (a variable or a constant)
+     */
+    default Operator getOp() {
+        return null;
+    }
+
+    /**
+     * @return the number of children of this expression
+     */
+    default int getNoChild() {
+        return 0;
+    }
+
+    /**
+     * @return the children of this expression, or an empty array if this is a leaf
+     */
+    default CArExpression[] getExpressionChild() {
+        return NO_CHILD;
+    }
+
     /**
      * List of available operator for arithmetic expression
      */
@@ -70,6 +70,21 @@ public class UnCArExpression implements CArExpression {
         return model;
     }
 
+    @Override
+    public Operator getOp() {
+        return op;
+    }
+
+    @Override
+    public int getNoChild() {
+        return 1;
+    }
+
+    @Override
+    public CArExpression[] getExpressionChild() {
+        return new CArExpression[]{e};
+    }
+
     @Override
     public RealVar realVar(double p) {
         if (me == null) {
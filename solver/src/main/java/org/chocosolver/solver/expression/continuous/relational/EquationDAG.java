@@ -0,0 +1,470 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.expression.continuous.relational;
+
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.expression.continuous.arithmetic.CArExpression;
+import org.chocosolver.util.tools.RealUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * The continuous arithmetic expressions of a model, flattened into a DAG.
+ * <p>
+ * Each node is identified by an index, children always come before their parents.
+ * Structurally identical sub-expressions are stored once and shared among all the {@link PropEquation}s of a model.
+ * The bounds of a node are stored in primitive arrays.
+ * They are not backtrackable since they are recomputed, bottom-up, each time a propagator is executed.
+ * </p>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+final class EquationDAG {
+
+    /**
+     * Name of the model hook storing the DAG
+     */
+    private static final String HK_EQUATION_DAG = "HK_EQUATION_DAG";
+    /**
+     * Code of a leaf: a variable or a constant
+     */
+    private static final int LEAF = -1;
+    /**
+     * Code of a missing child
+     */
+    private static final int NONE = -1;
+    /**
+     * Operators, indexed by ordinal
+     */
+    private static final CArExpression.Operator[] OPERATORS = CArExpression.Operator.values();
+
+    /**
+     * Number of nodes
+     */
+    private int size;
+    /**
+     * Operator of each node, as ordinal of {@link CArExpression.Operator}, or {@link #LEAF}
+     */
+    private int[] op;
+    /**
+     * First child of each node
+     */
+    private int[] left;
+    /**
+     * Second child of each node, if any
+     */
+    private int[] right;
+    /**
+     * Expression of each leaf
+     */
+    private CArExpression[] leaves;
+    /**
+     * Current lower bound of each node
+     */
+    private double[] lo;
+    /**
+     * Current upper bound of each node
+     */
+    private double[] hi;
+    /**
+     * Leaf indices, wrt to the expression
+     */
+    private final TObjectIntHashMap<CArExpression> leafIdx;
+    /**
+     * Node indices, wrt to the operator and the children
+     */
+    private final TLongIntHashMap nodeIdx;
+    /**
+     * Bounds computed by {@link RealUtils}
+     */
+    private final double[] res = new double[2];
+
+    private EquationDAG() {
+        int n = 16;
+        op = new int[n];
+        left = new int[n];
+        right = new int[n];
+        leaves = new CArExpression[n];
+        lo = new double[n];
+        hi = new double[n];
+        leafIdx = new TObjectIntHashMap<>(16, .5f, NONE);
+        nodeIdx = new TLongIntHashMap(16, .5f, -1L, NONE);
+    }
+
+    /**
+     * Get the DAG of a model, create it if needed.
+     *
+     * @param model a model
+     * @return the DAG of the continuous expressions of the model
+     */
+    static EquationDAG of(Model model) {
+        EquationDAG dag = (EquationDAG) model.getHook(HK_EQUATION_DAG);
+        if (dag == null) {
+            dag = new EquationDAG();
+            model.addHook(HK_EQUATION_DAG, dag);
+        }
+        return dag;
+    }
+
+    /**
+     * Add an expression to the DAG, sharing common sub-expressions.
+     *
+     * @param exp an expression
+     * @return the indices of the nodes of <i>exp</i>, in increasing order, the last one being the root of <i>exp</i>
+     * @throws UnsupportedOperationException if <i>exp</i> contains an operator which is not supported
+     */
+    int[] add(CArExpression exp) {
+        List<CArExpression> subExps = new ArrayList<>();
+        exp.subExps(subExps);
+        IdentityHashMap<CArExpression, Integer> indices = new IdentityHashMap<>();
+        for (CArExpression e : subExps) {
+            if (!indices.containsKey(e)) {
+                indices.put(e, intern(e, indices));
+            }
+        }
+        int[] nodes = indices.values().stream().mapToInt(i -> i).distinct().sorted().toArray();
+        assert nodes[nodes.length - 1] == indices.get(exp);
+        return nodes;
+    }
+
+    private int intern(CArExpression e, IdentityHashMap<CArExpression, Integer> indices) {
+        CArExpression.Operator o = e.getOp();
+        if (o == null) {
+            int idx = leafIdx.get(e);
+            if (idx == NONE) {
+                idx = newNode(LEAF, NONE, NONE);
+                leaves[idx] = e;
+                leafIdx.put(e, idx);
+            }
+            return idx;
+        }
+        checkSupport(o);
+        CArExpression[] children = e.getExpressionChild();
+        int l = indices.get(children[0]);
+        int r = children.length > 1 ? indices.get(children[1]) : NONE;
+        long key = ((long) o.ordinal() << 56) | ((long) l << 28) | (r + 1);
+        int idx = nodeIdx.get(key);
+        if (idx == NONE) {
+            idx = newNode(o.ordinal(), l, r);
+            nodeIdx.put(key, idx);
+        }
+        return idx;
+    }
+
+    private int newNode(int o, int l, int r) {
+        if (size == op.length) {
+            int n = size * 3 / 2 + 1;
+            op = Arrays.copyOf(op, n);
+            left = Arrays.copyOf(left, n);
+            right = Arrays.copyOf(right, n);
+            leaves = Arrays.copyOf(leaves, n);
+            lo = Arrays.copyOf(lo, n);
+            hi = Arrays.copyOf(hi, n);
+        }
+        op[size] = o;
+        left[size] = l;
+        right[size] = r;
+        return size++;
+    }
+
+    private static void checkSupport(CArExpression.Operator o) {
+        switch (o) {
+            case ADD:
+            case SUB:
+            case MUL:
+            case DIV:
+            case MIN:
+            case MAX:
+            case NEG:
+            case ABS:
+            case SQR:
+            case SQRT:
+            case CUB:
+            case CBRT:
+            case COS:
+            case SIN:
+                break;
+            default:
+                throw new UnsupportedOperationException("Equation does not support " + o.name() + ". Consider using Ibex instead.");
+        }
+    }
+
+    /**
+     * @param n index of a node
+     * @return <i>true</i> if the node is a leaf
+     */
+    boolean isLeaf(int n) {
+        return op[n] == LEAF;
+    }
+
+    /**
+     * @param leaf a variable or a constant
+     * @return index of the leaf in this DAG, or -1 if it does not appear in any expression
+     */
+    int indexOf(CArExpression leaf) {
+        return leafIdx.get(leaf);
+    }
+
+    /**
+     * @param n index of a node
+     * @return index of the first child of the node, or -1 if the node is a leaf
+     */
+    int left(int n) {
+        return left[n];
+    }
+
+    /**
+     * @param n index of a node
+     * @return index of the second child of the node, or -1 if the node has less than two children
+     */
+    int right(int n) {
+        return right[n];
+    }
+
+    /**
+     * @param n index of a node
+     * @return current lower bound of the node
+     */
+    double getLB(int n) {
+        return lo[n];
+    }
+
+    /**
+     * @param n index of a node
+     * @return current upper bound of the node
+     */
+    double getUB(int n) {
+        return hi[n];
+    }
+
+    /**
+     * Set the bounds of a node, without any check.
+     * This is useful to evaluate the nodes wrt to a part of the domain of a variable.
+     *
+     * @param n index of a node
+     * @param l lower bound
+     * @param u upper bound
+     */
+    void set(int n, double l, double u) {
+        lo[n] = l;
+        hi[n] = u;
+    }
+
+    /**
+     * Compute the bounds of nodes from the bounds of their children, in order.
+     *
+     * @param nodes indices of nodes, children first
+     * @return <i>false</i> if a node has an empty domain
+     */
+    boolean tighten(int[] nodes) {
+        for (int n : nodes) {
+            tighten(n);
+            if (lo[n] > hi[n]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Project the bounds of nodes onto their children, in reverse order.
+     *
+     * @param nodes indices of nodes, children first
+     * @param cause the propagator
+     * @throws ContradictionException if a node has an empty domain
+     */
+    void project(int[] nodes, Propagator<?> cause) throws ContradictionException {
+        for (int i = nodes.length - 1; i >= 0; i--) {
+            if (op[nodes[i]] != LEAF) {
+                project(nodes[i], cause);
+            }
+        }
+    }
+
+    private void tighten(int n) {
+        int o = op[n];
+        if (o == LEAF) {
+            lo[n] = leaves[n].getLB();
+            hi[n] = leaves[n].getUB();
+            return;
+        }
+        int a = left[n];
+        int b = right[n];
+        switch (OPERATORS[o]) {
+            case ADD:
+                RealUtils.add(lo[a], hi[a], lo[b], hi[b], res);
+                break;
+            case SUB:
+                RealUtils.sub(lo[a], hi[a], lo[b], hi[b], res);
+                break;
+            case MUL:
+                RealUtils.mul(lo[a], hi[a], lo[b], hi[b], res);
+                break;
+            case DIV:
+                RealUtils.odiv(lo[a], hi[a], lo[b], hi[b], res);
+                break;
+            case MIN:
+                res[0] = Math.min(lo[a], lo[b]);
+                res[1] = Math.min(hi[a], hi[b]);
+                break;
+            case MAX:
+                res[0] = Math.max(lo[a], lo[b]);
+                res[1] = Math.max(hi[a], hi[b]);
+                break;
+            case COS:
+                RealUtils.cos(lo[a], hi[a], res);
+                break;
+            case SIN:
+                RealUtils.sin(lo[a], hi[a], res);
+                break;
+            case NEG:
+                res[0] = -hi[a];
+                res[1] = -lo[a];
+                break;
+            case SQR:
+                RealUtils.iPower(lo[a], hi[a], 2, res);
+                break;
+            case SQRT:
+                RealUtils.iRoot(lo[a], hi[a], 2, res);
+                break;
+            case CUB:
+                RealUtils.iPower(lo[a], hi[a], 3, res);
+                break;
+            case CBRT:
+                RealUtils.iRoot(lo[a], hi[a], 3, res);
+                break;
+            case ABS:
+                if (hi[a] < 0.) {
+                    res[0] = -hi[a];
+                    res[1] = -lo[a];
+                } else if (lo[a] < 0.) {
+                    res[0] = 0.;
+                    res[1] = Math.max(-lo[a], hi[a]);
+                } else {
+                    res[0] = lo[a];
+                    res[1] = hi[a];
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException();
+        }
+        lo[n] = res[0];
+        hi[n] = res[1];
+    }
+
+    private void project(int n, Propagator<?> cause) throws ContradictionException {
+        int a = left[n];
+        int b = right[n];
+        switch (OPERATORS[op[n]]) {
+            case ADD:
+                intersect(a, RealUtils.sub(lo[n], hi[n], lo[b], hi[b], res), cause);
+                intersect(b, RealUtils.sub(lo[n], hi[n], lo[a], hi[a], res), cause);
+                break;
+            case SUB:
+                intersect(a, RealUtils.add(lo[n], hi[n], lo[b], hi[b], res), cause);
+                intersect(b, RealUtils.sub(lo[a], hi[a], lo[n], hi[n], res), cause);
+                break;
+            case MUL:
+                intersect(a, RealUtils.odiv_wrt(lo[n], hi[n], lo[b], hi[b], lo[a], hi[a], res), cause);
+                intersect(b, RealUtils.odiv_wrt(lo[n], hi[n], lo[a], hi[a], lo[b], hi[b], res), cause);
+                break;
+            case DIV:
+                intersect(a, RealUtils.mul(lo[n], hi[n], lo[b], hi[b], res), cause);
+                intersect(b, RealUtils.odiv_wrt(lo[a], hi[a], lo[n], hi[n], lo[b], hi[b], res), cause);
+                break;
+            case MIN:
+                intersect(a, lo[n], RealUtils.nextFloat(hi[a]), cause);
+                intersect(b, lo[n], RealUtils.nextFloat(hi[b]), cause);
+                if (lo[b] > hi[n]) {
+                    intersect(a, RealUtils.prevFloat(lo[a]), hi[n], cause);
+                }
+                if (lo[a] > hi[n]) {
+                    intersect(b, RealUtils.prevFloat(lo[b]), hi[n], cause);
+                }
+                break;
+            case MAX:
+                intersect(a, RealUtils.prevFloat(lo[a]), hi[n], cause);
+                intersect(b, RealUtils.prevFloat(lo[b]), hi[n], cause);
+                if (hi[b] < lo[n]) {
+                    intersect(a, lo[n], RealUtils.nextFloat(hi[a]), cause);
+                }
+                if (hi[a] < lo[n]) {
+                    intersect(b, lo[n], RealUtils.nextFloat(hi[b]), cause);
+                }
+                break;
+            case COS:
+                intersect(a, RealUtils.acos_wrt(lo[n], hi[n], lo[a], hi[a], res), cause);
+                break;
+            case SIN:
+                intersect(a, RealUtils.asin_wrt(lo[n], hi[n], lo[a], hi[a], res), cause);
+                break;
+            case NEG:
+                intersect(a, -hi[n], -lo[n], cause);
+                break;
+            case SQR:
+                intersect(a, RealUtils.iRoot(lo[n], hi[n], 2, lo[a], hi[a], res), cause);
+                break;
+            case SQRT:
+                intersect(a, RealUtils.iPower(lo[n], hi[n], 2, res), cause);
+                break;
+            case CUB:
+                intersect(a, RealUtils.iRoot(lo[n], hi[n], 3, lo[a], hi[a], res), cause);
+                break;
+            case CBRT:
+                intersect(a, RealUtils.iPower(lo[n], hi[n], 3, res), cause);
+                break;
+            case ABS:
+                intersect(a, -hi[n], hi[n], cause);
+                break;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    private void intersect(int n, double[] bounds, Propagator<?> cause) throws ContradictionException {
+        intersect(n, bounds[0], bounds[1], cause);
+    }
+
+    /**
+     * Intersect the bounds of a node with <i>[l, u]</i>.
+     * When the node is a leaf, the intersection is forwarded to the expression of the leaf (e.g., a variable).
+     *
+     * @param n     index of a node
+     * @param l     lower bound
+     * @param u     upper bound
+     * @param cause the propagator
+     * @throws ContradictionException if the node has an empty domain
+     */
+    void intersect(int n, double l, double u, Propagator<?> cause) throws ContradictionException {
+        if (op[n] == LEAF) {
+            leaves[n].intersect(l, u, cause);
+            lo[n] = leaves[n].getLB();
+            hi[n] = leaves[n].getUB();
+        } else {
+            if (l > lo[n]) {
+                lo[n] = l;
+            }
+            if (u < hi[n]) {
+                hi[n] = u;
+            }
+            if (lo[n] > hi[n]) {
+                cause.fails();
+            }
+        }
+    }
+}
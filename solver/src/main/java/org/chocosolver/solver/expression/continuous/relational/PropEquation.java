@@ -25,6 +25,9 @@ import java.util.List;
 /**
  * A basic constraint using HC4 algorithm for filtering values with respect to a mathematical equation.
  * <br/>
+ * The expression is flattened into the {@link EquationDAG} of the model,
+ * where common sub-expressions are shared with the other equations.
+ * Filtering only relies on primitive bounds, and does not allocate.
  *
  * @author Charles Prud'homme
  * @since 23/01/2020
@@ -33,14 +36,62 @@ public class PropEquation extends Propagator<RealVar> {
 
     protected RealIntervalConstant cste;
     protected CArExpression exp;
-    protected CArExpression[] subExps;
+    /**
+     * The DAG storing the nodes of the expression
+     */
+    private final EquationDAG dag;
+    /**
+     * Indices of the nodes of the expression, children first
+     */
+    private final int[] nodes;
+    /**
+     * Index of the root of the expression
+     */
+    private final int root;
 
     protected int nbBoxedVars = 0;
     protected RealVar[] boxedVars;
+    /**
+     * Index of the leaf of each boxed variable
+     */
+    private final int[] boxedLeaves;
+    /**
+     * For each boxed variable, indices of the nodes depending on it
+     */
+    private final int[][] nodesWX;
+    /**
+     * For each boxed variable, indices of the nodes not depending on it
+     */
+    private final int[][] nodesWOX;
+    protected int boxConsistencyDepth = 6;
+    /**
+     * Intervals left to explore in {@link #bc(RealVar, int, int[], int[])}, and their depth,
+     * sized from {@link #boxConsistencyDepth} on use, since it may be changed by subclasses
+     */
+    private double[] unexploredLB = new double[0];
+    private double[] unexploredUB = new double[0];
+    private int[] depths = new int[0];
+    /**
+     * Sub-expressions of the expression, children first.
+     *
+     * @deprecated filtering relies on the nodes of the {@link EquationDAG}, kept for subclasses only
+     */
+    @Deprecated
+    protected CArExpression[] subExps;
+    /**
+     * For each boxed variable, sub-expressions depending on it.
+     *
+     * @deprecated filtering relies on the nodes of the {@link EquationDAG}, kept for subclasses only
+     */
+    @Deprecated
     protected CArExpression[][] subExpsWX;
+    /**
+     * For each boxed variable, sub-expressions not depending on it.
+     *
+     * @deprecated filtering relies on the nodes of the {@link EquationDAG}, kept for subclasses only
+     */
+    @Deprecated
     protected CArExpression[][] subExpsWOX;
-    protected int boxConsistencyDepth = 6;
-    RealInterval[] unexplored = new RealInterval[this.boxConsistencyDepth * 2];
 
     public PropEquation(RealVar[] vars, CArExpression e1, CReExpression.Operator op) {
         super(vars, PropagatorPriority.LINEAR, false);
@@ -62,32 +113,63 @@ public class PropEquation extends Propagator<RealVar> {
                 cste = new RealIntervalConstant(0., 0.);
                 break;
         }
+        dag = EquationDAG.of(model);
+        nodes = dag.add(exp);
+        root = nodes[nodes.length - 1];
         boxedVars = new RealVar[vars.length];
+        boxedLeaves = new int[vars.length];
+        nodesWX = new int[vars.length][];
+        nodesWOX = new int[vars.length][];
         subExpsWX = new CArExpression[vars.length][];
         subExpsWOX = new CArExpression[vars.length][];
-
-        for (int i = 0; i < vars.length; i++) {
-            RealVar var = vars[i];
-            this.addBoxedVar(var);
-        }
-
         exp.init();
-        // Collect the subexpressions
         List<CArExpression> collectedSubExp = new ArrayList<>();
         exp.subExps(collectedSubExp);
         //noinspection ConstantForZeroLengthArrayAllocation
         subExps = collectedSubExp.toArray(new CArExpression[0]);
+
+        for (int i = 0; i < vars.length; i++) {
+            RealVar var = vars[i];
+            this.addBoxedVar(var);
+        }
     }
 
     public void addBoxedVar(RealVar var) {
-        List<CArExpression> wx = new ArrayList<>();
-        List<CArExpression> wox = new ArrayList<>();
-        this.exp.isolate(var, wx, wox);
+        int x = dag.indexOf(var);
+        // Isolate the nodes depending on 'var', a node always comes after its children
+        boolean[] dependsOnX = new boolean[root + 1];
+        int nwx = 0;
+        for (int n : nodes) {
+            if (dag.isLeaf(n)) {
+                dependsOnX[n] = n == x;
+            } else {
+                dependsOnX[n] = dependsOnX[dag.left(n)] || (dag.right(n) > -1 && dependsOnX[dag.right(n)]);
+                if (dependsOnX[n]) {
+                    nwx++;
+                }
+            }
+        }
+        int[] wx = new int[nwx];
+        int[] wox = new int[nodes.length - nwx - (x > -1 ? 1 : 0)];
+        int iwx = 0, iwox = 0;
+        for (int n : nodes) {
+            if (!dependsOnX[n]) {
+                wox[iwox++] = n;
+            } else if (n != x) {
+                wx[iwx++] = n;
+            }
+        }
         boxedVars[nbBoxedVars] = var;
+        boxedLeaves[nbBoxedVars] = x;
+        nodesWX[nbBoxedVars] = wx;
+        nodesWOX[nbBoxedVars] = wox;
+        List<CArExpression> cwx = new ArrayList<>();
+        List<CArExpression> cwox = new ArrayList<>();
+        this.exp.isolate(var, cwx, cwox);
         //noinspection ConstantForZeroLengthArrayAllocation
-        subExpsWX[nbBoxedVars] = wx.toArray(new CArExpression[0]);
+        subExpsWX[nbBoxedVars] = cwx.toArray(new CArExpression[0]);
         //noinspection ConstantForZeroLengthArrayAllocation
-        subExpsWOX[nbBoxedVars] = wox.toArray(new CArExpression[0]);
+        subExpsWOX[nbBoxedVars] = cwox.toArray(new CArExpression[0]);
         nbBoxedVars++;
     }
 
@@ -95,18 +177,22 @@ public class PropEquation extends Propagator<RealVar> {
     @Override
     public void propagate(int evtmask) throws ContradictionException {
         // Hull consitency: HC4
-        this.tighten(subExps);
+        if (!dag.tighten(nodes)) {
+            this.fails();
+        }
         this.proj();
         // Box consistency
         for (int i = 0; i < nbBoxedVars; i++) {
-            bc(boxedVars[i], subExpsWX[i], subExpsWOX[i]);
+            if (boxedLeaves[i] > -1) {
+                bc(boxedVars[i], boxedLeaves[i], nodesWX[i], nodesWOX[i]);
+            }
         }
     }
 
     @Override
     public ESat isEntailed() {
         if(isCompletelyInstantiated()){
-            return ESat.eval(not_inconsistent(subExps));
+            return ESat.eval(dag.tighten(nodes) && intersectsCste());
         }
         return ESat.UNDEFINED;
     }
@@ -116,6 +202,116 @@ public class PropEquation extends Propagator<RealVar> {
         return exp.toString()+" = "+cste.toString();
     }
 
+    private boolean intersectsCste() {
+        return dag.getLB(root) <= this.cste.getUB() && dag.getUB(root) >= this.cste.getLB();
+    }
+
+    private boolean not_inconsistent(int x, double lb, double ub, int[] wx) {
+        dag.set(x, lb, ub);
+        return dag.tighten(wx) && intersectsCste();
+    }
+
+    protected void bc(RealVar var, int x, int[] wx, int[] wox) throws ContradictionException {
+        if (depths.length < this.boxConsistencyDepth * 2) {
+            unexploredLB = new double[this.boxConsistencyDepth * 2];
+            unexploredUB = new double[this.boxConsistencyDepth * 2];
+            depths = new int[this.boxConsistencyDepth * 2];
+        }
+        int depth = 0;
+        int idx = 0;
+        boolean fin = false;
+
+        double leftB = 0, rightB = 0;
+        double lb = var.getLB(), ub = var.getUB();
+
+        if (!dag.tighten(wox)) {
+            this.fails();
+        }
+
+        // Left bound !
+        while (!fin) {
+            if (not_inconsistent(x, lb, ub, wx)) {
+                if (this.boxConsistencyDepth <= depth) {
+                    leftB = lb;
+                    rightB = ub; // Valeur provisoire
+                    fin = true;
+                } else {
+                    double mid = RealUtils.middle(lb, ub);
+                    depth++;
+                    unexploredLB[idx] = mid;
+                    unexploredUB[idx] = ub;
+                    depths[idx] = depth;
+                    idx++;
+                    ub = mid;
+                }
+            } else if (idx != 0) {
+                idx--;
+                lb = unexploredLB[idx];
+                ub = unexploredUB[idx];
+                depth = depths[idx];
+            } else {
+                this.fails();
+            }
+        }
+
+        // Reversing not explored intervals (in order to avoid to check already checked parts of the search space.
+        for (int i = 0, j = idx - 1; i < j; i++, j--) {
+            double tl = unexploredLB[i];
+            unexploredLB[i] = unexploredLB[j];
+            unexploredLB[j] = tl;
+            double tu = unexploredUB[i];
+            unexploredUB[i] = unexploredUB[j];
+            unexploredUB[j] = tu;
+            int td = depths[i];
+            depths[i] = depths[j];
+            depths[j] = td;
+        }
+
+        // Right bound if needed
+        if (idx != 0) {
+            idx--;
+            lb = unexploredLB[idx];
+            ub = unexploredUB[idx];
+            depth = depths[idx];
+            fin = false;
+
+            while (!fin) {
+                if (not_inconsistent(x, lb, ub, wx)) {
+                    if (this.boxConsistencyDepth <= depth) {
+                        rightB = ub;
+                        fin = true;
+                    } else {
+                        double mid = RealUtils.middle(lb, ub);
+                        depth++;
+                        unexploredLB[idx] = lb;
+                        unexploredUB[idx] = mid;
+                        depths[idx] = depth;
+                        idx++;
+                        lb = mid;
+                    }
+                } else if (idx != 0) {
+                    idx--;
+                    lb = unexploredLB[idx];
+                    ub = unexploredUB[idx];
+                    depth = depths[idx];
+                } else {
+                    fin = true;
+                }
+            }
+        }
+
+        // Propagation
+        dag.intersect(x, leftB, rightB, this);
+    }
+
+    /**
+     * Compute the bounds of sub-expressions from the bounds of their children, in order.
+     *
+     * @param exps sub-expressions, children first
+     * @throws ContradictionException if a sub-expression has an empty domain
+     * @deprecated filtering relies on the nodes of the {@link EquationDAG}
+     */
+    @Deprecated
     public void tighten(CArExpression[] exps) throws ContradictionException {
         for (CArExpression exp : exps) {
             exp.tighten();
@@ -125,19 +321,27 @@ public class PropEquation extends Propagator<RealVar> {
     }
 
     private boolean not_inconsistent(CArExpression[] wx) {
-        boolean contradiction = false;
         try {
             tighten(wx);
         } catch (ContradictionException e) {
-            contradiction = true;
-        }
-        if (contradiction)
             return false;
-        else
-            return (this.exp.getLB() <= this.cste.getUB() && this.exp.getUB() >= this.cste.getLB());
+        }
+        return this.exp.getLB() <= this.cste.getUB() && this.exp.getUB() >= this.cste.getLB();
     }
 
+    /**
+     * Box consistency of <i>var</i>, evaluated on sub-expressions.
+     *
+     * @param var a boxed variable
+     * @param wx  sub-expressions depending on <i>var</i>
+     * @param wox sub-expressions not depending on <i>var</i>
+     * @throws ContradictionException if <i>var</i> has no consistent value
+     * @deprecated filtering relies on the nodes of the {@link EquationDAG},
+     * see {@link #bc(RealVar, int, int[], int[])}
+     */
+    @Deprecated
     protected void bc(RealVar var, CArExpression[] wx, CArExpression[] wox) throws ContradictionException {
+        RealInterval[] unexplored = new RealInterval[this.boxConsistencyDepth * 2];
         int[] depths = new int[this.boxConsistencyDepth * 2];
         int depth = 0;
         int idx = 0;
@@ -174,19 +378,15 @@ public class PropEquation extends Propagator<RealVar> {
         }
 
         // Reversing not explored intervals (in order to avoid to check already checked parts of the search space.
-
-        RealInterval[] tmp1 = new RealInterval[this.boxConsistencyDepth * 2];
-        int[] tmp2 = new int[this.boxConsistencyDepth * 2];
-
-        for (int i = 0; i < idx; i++) {
-            int j = idx - i - 1;
-            tmp1[i] = unexplored[j];
-            tmp2[i] = depths[j];
+        for (int i = 0, j = idx - 1; i < j; i++, j--) {
+            RealInterval ti = unexplored[i];
+            unexplored[i] = unexplored[j];
+            unexplored[j] = ti;
+            int td = depths[i];
+            depths[i] = depths[j];
+            depths[j] = td;
         }
 
-        unexplored = tmp1;
-        depths = tmp2;
-
         // Right bound if needed
         if (idx != 0) {
             var.silentlyAssign(unexplored[--idx]);
@@ -220,15 +420,10 @@ public class PropEquation extends Propagator<RealVar> {
         // Propagation
         var.silentlyAssign(oldValue[0], oldValue[1]);
         var.intersect(leftB, rightB, this);
-
     }
 
     public void proj() throws ContradictionException {
-        subExps[subExps.length - 1].intersect(cste, this);
-        int i = subExps.length - 1;
-        while (i > 0) {
-            subExps[i].project(this);
-            i--;
-        }
+        dag.intersect(root, cste.getLB(), cste.getUB(), this);
+        dag.project(nodes, this);
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.learn;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.nary.clauses.ClauseBuilder;
+import org.chocosolver.solver.constraints.nary.clauses.ClauseStore;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.List;
+
+/**
+ * An implementation of {@link IExplanation} dedicated to lazy clause generation.
+ * <p>
+ * Conflicts are analysed as in {@link ExplanationForSignedClause},
+ * but the learnt signed clause is encoded with literals of the SAT solver
+ * (see {@link ClauseBuilder#buildLazyClause(Model)}) instead of being stored in a {@link ClauseStore}.
+ * Learnt clauses are thus propagated by the watched literal scheme of the SAT solver,
+ * and the modifications they imply are explained by the clauses themselves.
+ * </p>
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class ExplanationForLazyClause extends ExplanationForSignedClause {
+
+    public ExplanationForLazyClause(Implications ig) {
+        super(ig);
+    }
+
+    @Override
+    public void extractConstraint(Model mModel, ClauseStore ngstore) {
+        ClauseBuilder ngb = mModel.getClauseBuilder();
+        List<IntVar> literals = getLiteralVars();
+        for (int i = 0; i < literals.size(); i++) {
+            IntVar var = literals.get(i);
+            ngb.put(var, var.getLit().export());
+        }
+        ngb.buildLazyClause(mModel);
+        ngstore.ignoreLast();
+    }
+}
@@ -14,7 +14,6 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.nary.clauses.ClauseBuilder;
 import org.chocosolver.solver.constraints.nary.clauses.ClauseStore;
-import org.chocosolver.solver.constraints.nary.clauses.PropSignedClause;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
@@ -27,7 +26,10 @@ import org.chocosolver.util.PoolManager;
 import org.chocosolver.util.objects.ValueSortedMap;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 
 /**
  * An implementation of {@link IExplanation} dedicated to learn signed clauses
@@ -46,9 +48,17 @@ public class ExplanationForSignedClause extends IExplanation {
      */
     private final ValueSortedMap<IntVar> front;
     /**
-     * Literals that explains the conflict
+     * Variables of the literals that explains the conflict, stored in a sparse set
      */
-    private final HashSet<IntVar> literals;
+    private IntVar[] literals;
+    /**
+     * Number of literals
+     */
+    private int nbLiterals;
+    /**
+     * Position of a variable in {@link #literals}, indexed by variable id
+     */
+    private int[] position;
     /**
      * The decision to refute (ie, point to jump to wrt the current decision path).
      *
@@ -66,7 +76,8 @@ public class ExplanationForSignedClause extends IExplanation {
 
     public ExplanationForSignedClause(Implications ig) {
         front = new ValueSortedMap<>();
-        literals = new HashSet<>();
+        literals = new IntVar[16];
+        position = new int[16];
         manager = new PoolManager<>();
         mIG = ig;
     }
@@ -77,15 +88,20 @@ public class ExplanationForSignedClause extends IExplanation {
     @Override
     public void extractConstraint(Model mModel, ClauseStore ngstore) {
         ClauseBuilder ngb = mModel.getClauseBuilder();
-        literals.forEach(v -> ngb.put(v, v.getLit().export())); // TODO : improve
+        for (int i = 0; i < nbLiterals; i++) {
+            ngb.put(literals[i], literals[i].getLit().export()); // TODO : improve
+        }
         ngb.buildNogood(mModel);
     }
 
     @Override
     public void recycle() {
         front.clear();
-        literals.forEach(IntVar::flushLit);
-        literals.clear();
+        for (int i = 0; i < nbLiterals; i++) {
+            literals[i].flushLit();
+            literals[i] = null;
+        }
+        nbLiterals = 0;
         assertLevel = Integer.MAX_VALUE;
     }
 
@@ -158,7 +174,8 @@ public class ExplanationForSignedClause extends IExplanation {
         mIG.collectNodesFromConflict(cex, front);
         // deal with global conflict
         if (cex.v == null) {
-            if (Propagator.class.isAssignableFrom(cex.c.getClass())) {
+            int kind = cex.c.getCauseKind();
+            if (kind == ICause.PROPAGATOR || kind == ICause.CLAUSE) {
                 if (XParameters.PROOF) {
                     System.out.printf("\nCstr: %s\n", cex.c);
                     System.out.print("Pivot: none\n");
@@ -183,7 +200,7 @@ public class ExplanationForSignedClause extends IExplanation {
             explain(mIG.getCauseAt(current), current);
             if (XParameters.PROOF) {
                 System.out.print("Expl: {");
-                literals.stream()
+                getLiteralVars()
                         //.sorted(Comparator.comparingInt(Identity::getId))
                         .forEach(v -> System.out.printf("%s ∈ %s,", v, v.getLit()));
                 System.out.print("}\n-----");
@@ -194,12 +211,8 @@ public class ExplanationForSignedClause extends IExplanation {
     }
 
     private void explain(ICause cause, int p) {
-        if (p == -1 ||
-                XParameters.DEFAULT_X
-                        && Propagator.class.isAssignableFrom(cause.getClass())
-                        && !PropSignedClause.class.isAssignableFrom(cause.getClass())
-                        && !ClauseStore.SignedClause.class.isAssignableFrom(cause.getClass())
-        ) {
+        // signed clauses always come with their own explanation
+        if (p == -1 || XParameters.DEFAULT_X && cause.getCauseKind() == ICause.PROPAGATOR) {
             Propagator<IntVar> propagator = (Propagator<IntVar>) cause;
             Propagator.defaultExplain(propagator, p, this);
         } else {
@@ -210,7 +223,8 @@ public class ExplanationForSignedClause extends IExplanation {
     }
 
     private void checkReification(ICause cause, int p) {
-        if (Propagator.class.isAssignableFrom(cause.getClass())) {
+        int kind = cause.getCauseKind();
+        if (kind == ICause.PROPAGATOR || kind == ICause.CLAUSE) {
             Propagator<IntVar> propagator = (Propagator<IntVar>) cause;
             if (propagator.isReified()) {
                 BoolVar b = propagator.reifiedWith();
@@ -231,7 +245,7 @@ public class ExplanationForSignedClause extends IExplanation {
         while (!front.isEmpty() && (l = front.getLastValue()) != k) {
             // remove variable in 'front' but not in literals
             // achieved lazily by only evaluating the right-most one
-            if (!literals.contains(mIG.getIntVarAt(l))) {
+            if (!contains(mIG.getIntVarAt(l))) {
                 front.pollLastValue();
             } else {
                 IntVar var = mIG.getIntVarAt(l);
@@ -269,35 +283,13 @@ public class ExplanationForSignedClause extends IExplanation {
                     .getDecisionPath()
                     .getDecision(0)
                     .getPosition();
-        } else
-            /*// check UIP
-              // WARNING: the following code does not work. It cannot be applied stricto-senso from SAT
-              // Since a variable may have been modified more than once in a decision level, unlike SAT
-            {
-            int prev = front.getLowerValue(max);
-            int dl = mIG.getDecisionLevelAt(max);
-            if (prev == -1 || mIG.getDecisionLevelAt(prev) != dl) {
-                // find backtrack point
-                while (max > 0 && !IntDecision.class.isAssignableFrom(mIG.getCauseAt(max).getClass())) {
-                    max--;
-                }
-                //assert mIG.getDecisionLevelAt(max) != dl;
-                assert IntDecision.class.isAssignableFrom(mIG.getCauseAt(max).getClass());
-                if (PROOF)
-                    System.out.printf("\nbacktrack to %s\n-----", mIG.getCauseAt(max));
-                if (ASSERT_NO_LEFT_BRANCH && !((IntDecision) mIG.getCauseAt(max)).hasNext()) {
-                    throw new SolverException("Weak explanation found. Try to backjump to :" + mIG.getCauseAt(max) + "\n" + literals);
-                }
-                assertLevel = ((IntDecision) mIG.getCauseAt(max)).getPosition();
-            }
-            /*/if (IntDecision.class.isAssignableFrom(mIG.getCauseAt(max).getClass())) {
+        } else if (mIG.getCauseAt(max).getCauseKind() == ICause.DECISION) {
             if (XParameters.PROOF)
                 System.out.printf("\nbacktrack to %s\n-----", mIG.getCauseAt(max));
             if (XParameters.ASSERT_NO_LEFT_BRANCH && !((IntDecision) mIG.getCauseAt(max)).hasNext()) {
-                throw new SolverException("Weak explanation found. Try to backjump to :" + mIG.getCauseAt(max) + "\n" + literals);
+                throw new SolverException("Weak explanation found. Try to backjump to :" + mIG.getCauseAt(max) + "\n" + getLiteralVars());
             }
             assertLevel = ((IntDecision) mIG.getCauseAt(max)).getPosition();
-            //*/
         }
         return assertLevel != Integer.MAX_VALUE;
     }
@@ -326,7 +318,13 @@ public class ExplanationForSignedClause extends IExplanation {
      * @param var a variable
      */
     public void removeLit(IntVar var) {
-        literals.remove(var);
+        if (contains(var)) {
+            int i = position[var.getId()];
+            IntVar last = literals[--nbLiterals];
+            literals[i] = last;
+            position[last.getId()] = i;
+            literals[nbLiterals] = null;
+        }
         front.remove(var);
     }
 
@@ -336,7 +334,17 @@ public class ExplanationForSignedClause extends IExplanation {
      * @param var a variable
      */
     public void addLit(IntVar var) {
-        literals.add(var);
+        if (!contains(var)) {
+            int id = var.getId();
+            if (id >= position.length) {
+                position = Arrays.copyOf(position, Math.max(id + 1, position.length + (position.length >> 1)));
+            }
+            if (nbLiterals == literals.length) {
+                literals = Arrays.copyOf(literals, nbLiterals + (nbLiterals >> 1));
+            }
+            position[id] = nbLiterals;
+            literals[nbLiterals++] = var;
+        }
     }
 
     /**
@@ -345,14 +353,16 @@ public class ExplanationForSignedClause extends IExplanation {
      * @param var a variable
      */
     public boolean contains(IntVar var) {
-        return literals.contains(var);
+        int id = var.getId();
+        int i;
+        return id < position.length && (i = position[id]) < nbLiterals && literals[i] == var;
     }
 
     /**
      * @return the number of literals in this explanation
      */
     public int getCardinality() {
-        return literals.size();
+        return nbLiterals;
     }
 
     /**
@@ -500,15 +510,28 @@ public class ExplanationForSignedClause extends IExplanation {
         return mIG.getDomainAt(front.getValue(var));
     }
 
+    /**
+     * @return a read-only view of the variables of the literals in this explanation
+     */
+    public List<IntVar> getLiteralVars() {
+        return Collections.unmodifiableList(Arrays.asList(literals).subList(0, nbLiterals));
+    }
+
+    /**
+     * @return a copy of the variables of the literals in this explanation
+     * @deprecated literals are no longer stored in a set, modifying the returned one does not
+     * modify this explanation. Use {@link #getLiteralVars()} instead.
+     */
+    @Deprecated
     public HashSet<IntVar> getLiterals() {
-        return literals;
+        return new HashSet<>(getLiteralVars());
     }
 
     @Override
     public String toString() {
         StringBuilder st = new StringBuilder();
         st.append('{');
-        literals.stream()
+        getLiteralVars()
                 //.sorted(Comparator.comparingInt(Identity::getId))
                 .forEach(v -> st.append(v.getName()).append('\u2208').append(v.getLit()).append(','));
         st.append('}');
@@ -20,8 +20,7 @@ import org.chocosolver.util.objects.ValueSortedMap;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSetUtils;
 
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Arrays;
 
 /**
  * This implication graph is lazily built.
@@ -40,6 +39,10 @@ import java.util.HashMap;
  *         <li>n is a pointer to the next entry on v in the stack (if any)</li>
  *     </ul>
  * <p>
+ *     The stack is made of parallel arrays, indexed by the position of the entry,
+ *     and the root entry of each variable is indexed by the variable's id.
+ *     The root entry of a variable points to the last entry on that variable.
+ * <p>
  *     Note that, under some conditions, two entries can be merged into a single one.
  *
  * Project: choco-solver.
@@ -49,82 +52,50 @@ import java.util.HashMap;
 public class LazyImplications extends Implications {
 
     /**
-     * An entry < v, D, c, m, p, n> where :
-     *     <ul>
-     *         <li>v is the variable modified,</li>
-     *         <li>D is its current domain,</li>
-     *         <li>c is the cause (most of the time, a propagator),</li>
-     *         <li>m is the mask event that triggers the modification,</li>
-     *         <li>i is the index of this entry in the stack</li>
-     *         <li>p is a pointer to the previous entry on v in the stack</li>
-     *     </ul>
+     * Modified variable, per entry
+     */
+    private IntVar[] vars;
+    /**
+     * Domain after modification, per entry
+     */
+    private IntIterableRangeSet[] doms;
+    /**
+     * Who causes the modification, per entry
+     */
+    private ICause[] causes;
+    /**
+     * Mask of the event, per entry
+     */
+    private int[] masks;
+    /**
+     * Value removed, new lower bound, new upper bound or singleton value, per entry
+     */
+    private int[] values;
+    /**
+     * Index of direct predecessor (same variable), per entry.
+     * For a root entry, index of the last entry on the variable.
      *
-     *     Invar:  (p < n) xor ("root entry")
+     *     Invar:  (p < i) xor ("root entry")
      */
-    static class Entry implements Comparator<Entry> {
-        // modified variable
-        IntVar v;
-        // domain after modification
-        IntIterableRangeSet d;
-        // who causes the modification
-        ICause c;
-        // mask of the event
-        int m;
-        int e;
-        // index of this in the stack
-        int i;
-        // index of direct predecessor (same variable)
-        int p;
-        // decision level
-        int dl;
-
-        @Override
-        public String toString() {
-            return String.format("<%s, %s, %s, %s, %d, %d, %d>", v.getName(), d, c, m, i, p, dl);
-        }
-
-        Entry() {
-            d = new IntIterableRangeSet();
-        }
-
-        public void set(IntVar v, ICause c, int m, int e, int i, int p, int dl) {
-            this.v = v;
-            this.c = c;
-            this.m = m;
-            this.e = e;
-            this.i = i;
-            this.p = p;
-            this.dl = dl;
-        }
-
-        public IntIterableRangeSet getD() {
-            return d;
-        }
-
-        void setPrev(int p) {
-            this.p = p;
-        }
-
-        @Override
-        public int compare(Entry o1, Entry o2) {
-            return o1.i - o2.i;
-        }
-    }
-
+    private int[] prevs;
+    /**
+     * Decision level, per entry
+     */
+    private int[] dls;
     /**
-     * Ordered list of entries.
+     * Index of the root entry, per variable id, or -1
      */
-    Entry[] entries;
+    private int[] roots;
     /**
-     * Pointer, per variable, to the root entry {@link #entries}
+     * Number of root entries, they are stored first
      */
-    final HashMap<IntVar, Entry> rootEntries;
+    private int nbRoots;
     /**
      * Number of entries stored -- backtrackable
      */
     private final IStateInt size;
     /**
-     * Number of active entries in {@link #entries}
+     * Number of active entries
      */
     private int nbEntries;
     /**
@@ -140,8 +111,15 @@ public class LazyImplications extends Implications {
         nbEntries = 0;
         size = model.getEnvironment().makeInt(0);
         size._set(0, 0); // to force history manually -- required when created during the search
-        entries = new Entry[16];
-        rootEntries = new HashMap<>(16, .5f);
+        vars = new IntVar[16];
+        doms = new IntIterableRangeSet[16];
+        causes = new ICause[16];
+        masks = new int[16];
+        values = new int[16];
+        prevs = new int[16];
+        dls = new int[16];
+        roots = new int[16];
+        Arrays.fill(roots, -1);
         init(model);
     }
 
@@ -150,32 +128,69 @@ public class LazyImplications extends Implications {
         IntVar[] ivars = model.retrieveIntVars(true);
         for (IntVar var : ivars) {
             ensureCapacity();
-            Entry root = entries[nbEntries] = new Entry();
-            root.set(var, Cause.Null, IntEventType.VOID.getMask(), 0, nbEntries, nbEntries,1);
-            root.getD().copyFrom(var);
-            root.d.lock();
-            var.createLit(root.d);
-            rootEntries.put(var, root);
+            int id = var.getId();
+            if (id >= roots.length) {
+                int old = roots.length;
+                roots = Arrays.copyOf(roots, Math.max(id + 1, old + (old >> 1)));
+                Arrays.fill(roots, old, roots.length, -1);
+            }
+            set(nbEntries, var, Cause.Null, IntEventType.VOID.getMask(), 0, nbEntries, 1);
+            IntIterableRangeSet d = doms[nbEntries] = new IntIterableRangeSet();
+            d.copyFrom(var);
+            d.lock();
+            var.createLit(d);
+            roots[id] = nbEntries;
             nbEntries++;
         }
+        nbRoots = nbEntries;
         size.set(nbEntries);
     }
 
     @Override
     public void reset(){
-        synchronize(rootEntries.size());
+        synchronize(nbRoots);
+    }
+
+    /**
+     * @param var a variable
+     * @return index of the root entry of <i>var</i>
+     */
+    private int rootOf(IntVar var) {
+        int id = var.getId();
+        int r;
+        if (id >= roots.length || (r = roots[id]) == -1) {
+            throw new Error("Unknown variable. This happens when a constraint is added after the call to `solver.setLearningClause();`");
+        }
+        return r;
+    }
+
+    /**
+     * @param var a variable
+     * @return index of the last entry on <i>var</i>
+     */
+    int lastEntryOf(IntVar var) {
+        return prevs[rootOf(var)];
+    }
+
+    private void set(int i, IntVar v, ICause c, int m, int e, int p, int dl) {
+        vars[i] = v;
+        causes[i] = c;
+        masks[i] = m;
+        values[i] = e;
+        prevs[i] = p;
+        dls[i] = dl;
     }
 
     /**
      * @return <i>true</i> if links between nodes in this graph are correct
      */
     private boolean checkIntegrity() {
-        for (Entry r : rootEntries.values()) {
+        for (int r = 0; r < nbRoots; r++) {
             int dec = nbEntries;
-            Entry prev = entries[r.p];
-            if(prev.i > dec) return false;
+            int prev = prevs[r];
+            if(prev > dec) return false;
             while (dec > 0 && prev != r) {
-                prev = entries[prev.p];
+                prev = prevs[prev];
                 dec--;
             }
             if (dec == 0) return false;
@@ -189,11 +204,10 @@ public class LazyImplications extends Implications {
      */
     private void synchronize(int upto) {
         for (int p = upto; p < nbEntries; p++) {
-            Entry e = entries[p];
-            e.getD().unlock();
-            Entry root = rootEntries.get(e.v);
-            if (root.p >= upto) {
-                root.setPrev(e.p);
+            doms[p].unlock();
+            int root = roots[vars[p].getId()];
+            if (prevs[root] >= upto) {
+                prevs[root] = prevs[p];
             }
         }
         nbEntries = upto;
@@ -207,20 +221,24 @@ public class LazyImplications extends Implications {
 
     @Override
     public void undoLastEvent() {
-        Entry toUndo = entries[--nbEntries];
-        rootEntries.get(toUndo.v).p = toUndo.p;
+        int toUndo = --nbEntries;
+        prevs[roots[vars[toUndo].getId()]] = prevs[toUndo];
     }
 
     /**
      * Make sure that a new entry can be added into this graph
      */
     private void ensureCapacity() {
-        if (nbEntries >= entries.length) {
-            int oldCapacity = entries.length;
+        if (nbEntries >= vars.length) {
+            int oldCapacity = vars.length;
             int newCapacity = oldCapacity + (oldCapacity >> 1);
-            Entry[] entBigger = new Entry[newCapacity];
-            System.arraycopy(entries, 0, entBigger, 0, oldCapacity);
-            entries = entBigger;
+            vars = Arrays.copyOf(vars, newCapacity);
+            doms = Arrays.copyOf(doms, newCapacity);
+            causes = Arrays.copyOf(causes, newCapacity);
+            masks = Arrays.copyOf(masks, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+            prevs = Arrays.copyOf(prevs, newCapacity);
+            dls = Arrays.copyOf(dls, newCapacity);
         }
     }
 
@@ -245,13 +263,13 @@ public class LazyImplications extends Implications {
      * @return <i>true</i> if two entries can be merged into a single one.
      */
     @SuppressWarnings("ConstantConditions")
-    private boolean mergeConditions(Entry prev, ICause cause) {
+    private boolean mergeConditions(int prev, ICause cause) {
         switch (XParameters.MERGE_CONDITIONS){
             default:
             case 0:
                 return false;
             case 1:
-                return nbEntries - 1 == prev.i && cause == prev.c;
+                return nbEntries - 1 == prev && cause == causes[prev];
         }
     }
 
@@ -262,11 +280,11 @@ public class LazyImplications extends Implications {
      * @param one value removed, new lower bound, new upper bound or singleton value, wrt to <i>evt</i>
      * @param nentry entry to merge with
      */
-    private void mergeEntry(IntEventType evt, int one, Entry nentry){
-        nentry.m |= evt.getMask();
-        nentry.getD().unlock();
-        mergeDomain(nentry.getD(), evt, one);
-        nentry.getD().lock();
+    private void mergeEntry(IntEventType evt, int one, int nentry){
+        masks[nentry] |= evt.getMask();
+        doms[nentry].unlock();
+        mergeDomain(doms[nentry], evt, one);
+        doms[nentry].lock();
     }
 
     /**
@@ -334,26 +352,27 @@ public class LazyImplications extends Implications {
      * @param prev its predecessor
      */
     private void addEntry(IntVar var, ICause cause, IntEventType evt, int one,
-                          Entry root, Entry prev){
+                          int root, int prev){
         ensureCapacity();
         // create entry
-        Entry nentry = entries[nbEntries];
-        if (nentry == null) {
-            nentry = entries[nbEntries] = new Entry();
+        int nentry = nbEntries;
+        IntIterableRangeSet d = doms[nentry];
+        if (d == null) {
+            d = doms[nentry] = new IntIterableRangeSet();
         } else {
-            nentry.getD().clear();
+            d.clear();
         }
-        int dl = entries[nbEntries-1].dl;
+        int dl = dls[nentry - 1];
         if(tagDl){
             tagDl = false;
             dl++;
         }
-        nentry.set(var, cause, evt.getMask(), one, nbEntries, prev.i, dl);
+        set(nentry, var, cause, evt.getMask(), one, prev, dl);
         // make a (weak) copy of prev domain and update it wrt to current event
-        createDomain(nentry.getD(), prev.d, evt, one);
-        nentry.getD().lock();
+        createDomain(d, doms[prev], evt, one);
+        d.lock();
         // connect everything
-        root.setPrev(nbEntries);
+        prevs[root] = nentry;
 
         size.add(1);
         nbEntries++;
@@ -369,14 +388,9 @@ public class LazyImplications extends Implications {
         if (nbEntries != size_) {
             synchronize(size_);
         }
-        Entry root = rootEntries.get(var);
-        if (root == null) {
-            throw new Error("Unknown variable. This happens when a constraint is added after the call to `solver.setLearningClause();`");
-        }
-        int pidx = root.p;
-        Entry prev = entries[pidx];
-        assert prev != null;
-        assert prev.v == var;
+        int root = rootOf(var);
+        int prev = prevs[root];
+        assert vars[prev] == var;
         if(mergeConditions(prev, cause)){
             mergeEntry(evt, one, prev);
         }else{
@@ -394,24 +408,24 @@ public class LazyImplications extends Implications {
      */
     int rightmostNode(int limit, IntVar var) {
         if(var.isBool()){
-            Entry root = rootEntries.get(var);
-            int ri = root.i;
+            int ri = rootOf(var);
             assert ri < limit :"impossible right-most search";
+            int p = prevs[ri];
             // consider the case where the variable failed
-            if(root.p >= limit){
-                root = entries[root.p];
+            if(p >= limit){
+                p = prevs[p];
             }
-            return root.p < limit ? root.p : ri;
+            return p < limit ? p : ri;
         }else {
             // two ways of looking for the node
             // 1. reverse-iteration over all nodes, starting from 'limit-1'
             int pos = limit - 1;
             // 2. reverse-iteration over nodes of var, starting from 'root.p'
             // (presumably far away from limit)
-            int prev = rootEntries.get(var).p;
-            while (pos > 0 && entries[pos].v != var && prev > limit) {
+            int prev = prevs[rootOf(var)];
+            while (pos > 0 && vars[pos] != var && prev > limit) {
                 pos--;
-                prev = entries[prev].p;
+                prev = prevs[prev];
             }
             return prev > limit ? pos: prev;
         }
@@ -425,24 +439,19 @@ public class LazyImplications extends Implications {
     @Override
     public void collectNodesFromConflict(ContradictionException cft, ValueSortedMap<IntVar> front) {
         if (cft.v != null) {
-            Entry root = rootEntries.get(cft.v);
-            assert entries[root.p].c == cft.c;
-            front.put((IntVar) cft.v, root.p);
+            int p = lastEntryOf((IntVar) cft.v);
+            assert causes[p] == cft.c;
+            front.put((IntVar) cft.v, p);
         } else {
-            cft.c.forEachIntVar(v -> {
-                Entry root = rootEntries.get(v);
-                front.put(root.v, root.p);
-            });
+            cft.c.forEachIntVar(v -> front.put(v, lastEntryOf(v)));
         }
     }
 
     @Override
     public void predecessorsOf(int p, ValueSortedMap<IntVar> front) {
-        Entry entry = entries[p];
-        ICause cause = entry.c;
         // add the predecessor of 'p'
-        front.put(entry.v, entry.p);
-        cause.forEachIntVar(v -> findPredecessor(front, v, p));
+        front.put(vars[p], prevs[p]);
+        causes[p].forEachIntVar(v -> findPredecessor(front, v, p));
     }
 
     /**
@@ -460,7 +469,7 @@ public class LazyImplications extends Implications {
         int cpos = front.getValueOrDefault(vi, Integer.MAX_VALUE);
         if(cpos < Integer.MAX_VALUE) {
             while (cpos > p) {
-                cpos = entries[cpos].p;
+                cpos = prevs[cpos];
             }
             front.replace(vi, cpos);
         }else {
@@ -470,48 +479,48 @@ public class LazyImplications extends Implications {
 
     @Override
     public ICause getCauseAt(int idx) {
-        return entries[idx].c;
+        return causes[idx];
     }
 
     @Override
     public int getEventMaskAt(int idx) {
-        return entries[idx].m;
+        return masks[idx];
     }
 
     @Override
     public IntVar getIntVarAt(int idx) {
-        return entries[idx].v;
+        return vars[idx];
     }
 
     @Override
     public int getValueAt(int idx) {
         assert XParameters.MERGE_CONDITIONS == 0;
-        return entries[idx].e;
+        return values[idx];
     }
 
     @Override
     public int getDecisionLevelAt(int idx) {
-        return entries[idx].dl;
+        return dls[idx];
     }
 
     @Override
     public IntIterableRangeSet getDomainAt(int idx) {
-        return entries[idx].d;
+        return doms[idx];
     }
 
     @Override
     public int getPredecessorOf(int idx) {
-        return entries[idx].p;
+        return prevs[idx];
     }
 
     @Override
     public IntIterableRangeSet getRootDomain(IntVar var) {
-        return rootEntries.get(var).d;
+        return doms[rootOf(var)];
     }
 
     @Override
     public void copyComplementSet(IntVar var, IntIterableRangeSet set, IntIterableRangeSet dest) {
-        dest.copyFrom(rootEntries.get(var).d);
+        dest.copyFrom(doms[rootOf(var)]);
         dest.removeAll(set);
     }
 }
@@ -0,0 +1,554 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.measure.IMeasures;
+import org.chocosolver.solver.search.measure.Measures;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
+import org.chocosolver.solver.search.strategy.selectors.variables.FirstFail;
+import org.chocosolver.solver.search.strategy.selectors.variables.InputOrder;
+import org.chocosolver.solver.search.strategy.selectors.variables.VariableEvaluator;
+import org.chocosolver.solver.search.strategy.selectors.variables.VariableSelector;
+import org.chocosolver.solver.search.strategy.selectors.variables.VariableSelectorWithTies;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.search.strategy.strategy.IntStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.view.IView;
+import org.chocosolver.util.tools.VariableUtils;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An AND/OR search over the integer variables of a model, that splits the problem into
+ * independent subproblems as soon as the constraint network falls apart.
+ * <p>
+ * Every <i>period</i> decisions, the uninstantiated variables are grouped by connected component,
+ * two variables being connected when they share an active propagator (or a propagator over views of them).
+ * The components are then explored one after the other, instead of branching over their union:
+ * <ul>
+ *     <li>the number of solutions of the node is the product of the number of solutions of each component,</li>
+ *     <li>the node has a solution as soon as each component has one,
+ *     and a component without solution is never explored again for another solution of the previous ones.</li>
+ * </ul>
+ * Hence, the effort is additive in the components, whereas it is multiplicative with
+ * a depth-first search.
+ * <p>
+ * The search does not run the search loop of the {@link Solver}, since a {@link org.chocosolver.solver.search.loop.move.Move}
+ * explores one branch at a time and can't combine the results of the components.
+ * It shares the rest of the resolution setting with the solver though:
+ * <ul>
+ *     <li>when the strategy of the solver is an {@link IntStrategy}, its value selector and decision operator build
+ *     binary decisions; otherwise, variables are assigned to their lower bound first,</li>
+ *     <li>variable selectors keep states bound to the array they are created with, so the one of the strategy
+ *     is not applied as is to the variables of a component: its evaluation is minimized when it is
+ *     a {@link VariableEvaluator}, the order of the scope is followed with {@link InputOrder},
+ *     and the variable with the smallest domain is selected otherwise (e.g., with dom/wdeg),</li>
+ *     <li>the stop criteria of the solver are checked before each decision and, when one is met,
+ *     the search ends without any answer (see {@link #isStopped()}),</li>
+ *     <li>nodes and failures are counted in the measures of the solver while the search runs,
+ *     so that limits apply, and the measures are restored afterwards.</li>
+ * </ul>
+ * Search monitors are not notified, hence heuristics learning from failures behave as static ones.
+ * The solver must not have started a resolution (call {@link Solver#reset()} otherwise) and
+ * is left in the same state: stop criteria, monitors, strategy and measures are kept.
+ * Only models whose variables are all integer (or boolean) ones are supported.
+ * Optimisation is out of the scope of this search, as well as the parallel exploration of the components.
+ * <pre>
+ *     {@code
+ *     BigInteger count = new ComponentSearch(model, 1).countSolutions();
+ *     }
+ * </pre>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class ComponentSearch {
+
+    private final Model model;
+    private final Solver solver;
+    private final IEnvironment environment;
+    /**
+     * The decision variables, that is, the integer variables which are not views
+     */
+    private final IntVar[] vars;
+    /**
+     * Number of decisions between two computations of the components
+     */
+    private final int period;
+    /**
+     * Position of a variable in the subproblem whose components are computed, by identifier
+     */
+    private final int[] positions;
+    /**
+     * The strategy the decisions are computed with, during a search
+     */
+    private IntStrategy strategy;
+    /**
+     * Selects the variable to branch on among the ones of a component, during a search
+     */
+    private VariableSelector<IntVar> selector;
+    private long nodes;
+    private long fails;
+    private long decompositions;
+    private boolean stopped;
+
+    /**
+     * Create an AND/OR search over the integer variables of <i>model</i>.
+     *
+     * @param model  the model to solve
+     * @param period the components are computed every <i>period</i> decisions, starting from the root node
+     * @throws SolverException if the model declares variables that are not integer ones
+     */
+    public ComponentSearch(Model model, int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("The period must be positive");
+        }
+        this.model = model;
+        this.solver = model.getSolver();
+        this.environment = model.getEnvironment();
+        this.period = period;
+        List<IntVar> decisionVars = new ArrayList<>();
+        int maxId = 0;
+        for (Variable var : model.getVars()) {
+            if (!(var instanceof IntVar)) {
+                throw new SolverException("Only integer variables are supported, but " + var + " is declared");
+            }
+            if (!VariableUtils.isView(var) && !VariableUtils.isConstant(var)) {
+                decisionVars.add((IntVar) var);
+                maxId = Math.max(maxId, var.getId());
+            }
+        }
+        this.vars = decisionVars.toArray(new IntVar[0]);
+        this.positions = new int[maxId + 1];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Count the solutions of the model.
+     *
+     * @return the number of solutions, or <i>null</i> if a stop criterion is met before the end of the search
+     * @throws SolverException if the solver is solving
+     */
+    public BigInteger countSolutions() {
+        Snapshot snapshot = start();
+        try {
+            BigInteger count = propagate() ? count(vars, 0) : BigInteger.ZERO;
+            return stopped ? null : count;
+        } finally {
+            end(snapshot);
+        }
+    }
+
+    /**
+     * Find a solution of the model.
+     *
+     * @return a solution, or <i>null</i> if the model has none or if a stop criterion is met before one is found
+     * @throws SolverException if the solver is solving
+     */
+    public Solution findSolution() {
+        Snapshot snapshot = start();
+        try {
+            return propagate() && solve(vars, 0) ? new Solution(model).record() : null;
+        } finally {
+            end(snapshot);
+        }
+    }
+
+    /**
+     * @return the number of nodes opened by the last search
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of failures met by the last search
+     */
+    public long getFailCount() {
+        return fails;
+    }
+
+    /**
+     * @return the number of nodes, in the last search, where the problem has been split into several components
+     */
+    public long getDecompositionCount() {
+        return decompositions;
+    }
+
+    /**
+     * @return <i>true</i> if the last search has been stopped by a stop criterion of the solver
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * What has to be restored once a search is over
+     */
+    private static final class Snapshot {
+        final int world;
+        final boolean engineInitialized;
+        final IMeasures measures;
+
+        Snapshot(int world, boolean engineInitialized, IMeasures measures) {
+            this.world = world;
+            this.engineInitialized = engineInitialized;
+            this.measures = measures;
+        }
+    }
+
+    private Snapshot start() {
+        if (solver.isSolving()) {
+            throw new SolverException("A search by components can't be executed during solving, " +
+                    "the solver has to be reset first");
+        }
+        nodes = fails = decompositions = 0;
+        stopped = false;
+        Snapshot snapshot = new Snapshot(environment.getWorldIndex(), solver.getEngine().isInitialized(),
+                new Measures(solver.getMeasures()));
+        AbstractStrategy<?> declared = solver.getSearch();
+        strategy = declared instanceof IntStrategy ?
+                (IntStrategy) declared :
+                new IntStrategy(vars, new FirstFail(model), new IntDomainMin());
+        selector = scoped(strategy);
+        solver.getMeasures().startStopwatch();
+        environment.worldPush();
+        return snapshot;
+    }
+
+    private void end(Snapshot snapshot) {
+        environment.worldPopUntil(snapshot.world);
+        strategy = null;
+        selector = null;
+        if (!snapshot.engineInitialized) {
+            // the propagators are back to their initial state, they must be activated on the next resolution
+            solver.getEngine().reset();
+        }
+        solver.getMeasures().stopStopwatch();
+        solver.getMeasures().restore(snapshot.measures);
+    }
+
+    /**
+     * @return a selector equivalent to the one of <i>strategy</i>, that can be applied to any array of variables
+     */
+    @SuppressWarnings("unchecked")
+    private VariableSelector<IntVar> scoped(IntStrategy strategy) {
+        VariableSelector<IntVar> declared = strategy.getVariableSelector();
+        if (declared instanceof VariableSelectorWithTies) {
+            // stateless
+            return declared;
+        }
+        if (declared instanceof VariableEvaluator) {
+            return minimize((VariableEvaluator<IntVar>) declared);
+        }
+        if (declared instanceof InputOrder) {
+            int[] ranks = new int[positions.length];
+            Arrays.fill(ranks, Integer.MAX_VALUE);
+            IntVar[] scope = strategy.getVariables();
+            for (int i = scope.length - 1; i >= 0; i--) {
+                if (scope[i].getId() < ranks.length) {
+                    ranks[scope[i].getId()] = i;
+                }
+            }
+            return minimize(var -> ranks[var.getId()]);
+        }
+        return minimize(IntVar::getDomainSize);
+    }
+
+    /**
+     * @return a selector of the first variable which minimizes <i>evaluator</i>
+     */
+    private static VariableSelector<IntVar> minimize(VariableEvaluator<IntVar> evaluator) {
+        return free -> {
+            IntVar best = null;
+            double min = Double.POSITIVE_INFINITY;
+            for (IntVar var : free) {
+                double value = evaluator.evaluate(var);
+                if (best == null || value < min) {
+                    best = var;
+                    min = value;
+                }
+            }
+            return best;
+        };
+    }
+
+    /**
+     * Run the initial propagation.
+     *
+     * @return <i>false</i> if a failure occurs
+     */
+    private boolean propagate() {
+        try {
+            solver.propagate();
+            return true;
+        } catch (ContradictionException e) {
+            solver.getEngine().flush();
+            fail();
+            return false;
+        }
+    }
+
+    /**
+     * @param subproblem variables of a subproblem, whose propagation is at fix point
+     * @param depth      number of decisions applied so far
+     * @return the number of solutions of the subproblem
+     */
+    private BigInteger count(IntVar[] subproblem, int depth) {
+        IntVar[] free = uninstantiated(subproblem);
+        if (free.length == 0) {
+            return BigInteger.ONE;
+        }
+        List<IntVar[]> components = decompose(free, depth);
+        if (components.size() > 1) {
+            BigInteger product = BigInteger.ONE;
+            for (IntVar[] component : components) {
+                product = product.multiply(branchAndCount(component, depth));
+                if (product.signum() == 0 || stopped) {
+                    break;
+                }
+            }
+            return product;
+        }
+        return branchAndCount(free, depth);
+    }
+
+    private BigInteger branchAndCount(IntVar[] free, int depth) {
+        Decision<IntVar> decision = decide(free);
+        BigInteger sum = BigInteger.ZERO;
+        while (decision.hasNext() && !isStopCriterionMet()) {
+            environment.worldPush();
+            if (apply(decision)) {
+                sum = sum.add(count(free, depth + 1));
+            }
+            environment.worldPop();
+        }
+        decision.free();
+        return sum;
+    }
+
+    /**
+     * Find a solution of a subproblem, the variables are left instantiated on success.
+     *
+     * @param subproblem variables of a subproblem, whose propagation is at fix point
+     * @param depth      number of decisions applied so far
+     * @return <i>true</i> if a solution is found
+     */
+    private boolean solve(IntVar[] subproblem, int depth) {
+        IntVar[] free = uninstantiated(subproblem);
+        if (free.length == 0) {
+            return true;
+        }
+        List<IntVar[]> components = decompose(free, depth);
+        if (components.size() > 1) {
+            // the solutions found for the first components are kept whatever happens to the next ones
+            for (IntVar[] component : components) {
+                if (!branchAndSolve(component, depth)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return branchAndSolve(free, depth);
+    }
+
+    private boolean branchAndSolve(IntVar[] free, int depth) {
+        Decision<IntVar> decision = decide(free);
+        boolean found = false;
+        while (!found && decision.hasNext() && !isStopCriterionMet()) {
+            int world = environment.getWorldIndex();
+            environment.worldPush();
+            if (apply(decision) && solve(free, depth + 1)) {
+                found = true;
+            } else {
+                environment.worldPopUntil(world);
+            }
+        }
+        decision.free();
+        return found;
+    }
+
+    /**
+     * @param free uninstantiated variables of a subproblem, at least one
+     * @return the decision to branch on in the subproblem
+     */
+    private Decision<IntVar> decide(IntVar[] free) {
+        return strategy.computeDecision(selector.getVariable(free));
+    }
+
+    /**
+     * Apply the next branch of <i>decision</i> and propagate.
+     *
+     * @return <i>false</i> if a failure occurs
+     */
+    private boolean apply(Decision<IntVar> decision) {
+        nodes++;
+        solver.getMeasures().incNodeCount();
+        decision.buildNext();
+        try {
+            decision.apply();
+            solver.propagate();
+            return true;
+        } catch (ContradictionException e) {
+            solver.getEngine().flush();
+            fail();
+            return false;
+        }
+    }
+
+    private void fail() {
+        fails++;
+        solver.getMeasures().incFailCount();
+    }
+
+    /**
+     * @return <i>true</i> if a stop criterion of the solver is met, the search is then stopped
+     */
+    private boolean isStopCriterionMet() {
+        if (!stopped && solver.isStopCriterionMet()) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private static IntVar[] uninstantiated(IntVar[] subproblem) {
+        int n = 0;
+        for (IntVar var : subproblem) {
+            if (!var.isInstantiated()) {
+                n++;
+            }
+        }
+        if (n == subproblem.length) {
+            return subproblem;
+        }
+        IntVar[] free = new IntVar[n];
+        n = 0;
+        for (IntVar var : subproblem) {
+            if (!var.isInstantiated()) {
+                free[n++] = var;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Group the variables of a subproblem by connected component, when required at that depth.
+     *
+     * @param free  uninstantiated variables of a subproblem
+     * @param depth number of decisions applied so far
+     * @return the components, in the order of their first variable, or the subproblem itself
+     */
+    private List<IntVar[]> decompose(IntVar[] free, int depth) {
+        if (free.length == 1 || depth % period != 0) {
+            return Collections.singletonList(free);
+        }
+        int n = free.length;
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            positions[free[i].getId()] = i;
+        }
+        Set<Propagator<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (IntVar var : free) {
+            linkPropagators(parent, visited, var);
+        }
+        int[] indices = new int[n];
+        int[] counts = new int[n];
+        int nbComponents = 0;
+        for (int i = 0; i < n; i++) {
+            int root = find(parent, i);
+            if (counts[root]++ == 0) {
+                indices[root] = nbComponents++;
+            }
+        }
+        for (IntVar var : free) {
+            positions[var.getId()] = -1;
+        }
+        if (nbComponents == 1) {
+            return Collections.singletonList(free);
+        }
+        decompositions++;
+        IntVar[][] components = new IntVar[nbComponents][];
+        int[] sizes = new int[nbComponents];
+        for (int i = 0; i < n; i++) {
+            int root = find(parent, i);
+            int c = indices[root];
+            if (components[c] == null) {
+                components[c] = new IntVar[counts[root]];
+            }
+            components[c][sizes[c]++] = free[i];
+        }
+        return Arrays.asList(components);
+    }
+
+    /**
+     * Merge the variables connected by the active propagators of <i>var</i>, or of views over it.
+     */
+    private void linkPropagators(int[] parent, Set<Propagator<?>> visited, Variable var) {
+        for (int p = 0; p < var.getNbProps(); p++) {
+            Propagator<?> propagator = var.getPropagator(p);
+            if (propagator.isActive() && visited.add(propagator)) {
+                int root = -1;
+                for (int i = 0; i < propagator.getNbVars(); i++) {
+                    root = link(parent, root, propagator.getVar(i));
+                }
+            }
+        }
+        for (int v = 0; v < var.getNbViews(); v++) {
+            linkPropagators(parent, visited, (Variable) var.getView(v));
+        }
+    }
+
+    /**
+     * Merge the component of <i>var</i>, or of the variables it is a view of, into the one rooted by <i>root</i>.
+     *
+     * @return the root of the merged component, or -1 if it is still undefined
+     */
+    private int link(int[] parent, int root, Variable var) {
+        if (VariableUtils.isView(var)) {
+            for (Variable v : ((IView<?>) var).getVariables()) {
+                root = link(parent, root, v);
+            }
+            return root;
+        }
+        if (var.isInstantiated() || var.getId() >= positions.length || positions[var.getId()] < 0) {
+            return root;
+        }
+        int r = find(parent, positions[var.getId()]);
+        if (root >= 0 && r != root) {
+            parent[r] = root;
+            return root;
+        }
+        return r;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
@@ -222,6 +222,30 @@ public interface IResolutionHelper extends ISelf<Solver> {
         return StreamSupport.stream(it, false);
     }
 
+    /**
+     * Publish the solutions of the problem to a subscriber that requests them as it consumes them.
+     * The search runs on its own thread, and is paused as long as no more solution is requested,
+     * so that a slow subscriber does not cause found solutions to pile up.
+     * Solutions are delivered one at a time and are never recycled.
+     * The search thread is a daemon one, it blocks while no solution is requested:
+     * a subscriber that stops requesting solutions must cancel its subscription to release the solver.
+     * <p>
+     * Basically, this method runs the following instructions:
+     * <p>
+     * <pre>
+     * {@code
+     *     return new SolutionPublisher(ref(), 1, 0, SolutionPublisher.DAEMON_THREADS, stop);
+     * }
+     * </pre>
+     *
+     * @param stop optional criterion to stop the search before finding all solutions
+     * @return a publisher of the solutions, the search starts on subscription
+     * @see SolutionPublisher
+     */
+    default SolutionPublisher publishSolutions(Criterion... stop) {
+        return new SolutionPublisher(ref(), 1, 0, SolutionPublisher.DAEMON_THREADS, stop);
+    }
+
     /**
      * Attempt to find the solution that optimizes the mono-objective problem defined by a unique objective variable and
      * an optimization criteria.
@@ -0,0 +1,336 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search;
+
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.util.criteria.Criterion;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A publisher of the solutions of a solver, that runs the search on its own thread
+ * and pauses it as long as its subscriber does not request more solutions.
+ * <p>
+ * It follows the contract of the reactive streams (i.e., {@code java.util.concurrent.Flow}):
+ * the subscriber is given a {@link Subscription} on subscribing,
+ * through which it requests solutions and receives them, in batches, by {@link Subscriber#onNext(List)}.
+ * The search is paused whenever the number of solutions delivered equals the number of solutions requested.
+ * A batch is delivered when it is full, when the requested solutions are all found or when the search ends.
+ * Signals are sent from the search thread, which is created by the given thread factory
+ * (which may create virtual threads, when available), such as {@link #DAEMON_THREADS}.
+ * </p>
+ * <p>
+ * The search thread blocks:
+ * <ul>
+ *     <li>during each call to {@link Subscriber#onNext(List)}, which should thus return quickly,</li>
+ *     <li>while no more solution is requested,</li>
+ *     <li>while all recycled solutions are in use.</li>
+ * </ul>
+ * A subscriber that stops requesting solutions without cancelling its subscription
+ * leaves the search thread waiting forever, and the solver busy: it must not be used from another thread
+ * until {@link Subscriber#onComplete()} or {@link Subscriber#onError(Throwable)} is signaled,
+ * or {@link Subscription#cancel()} is called.
+ * With a thread factory that creates non-daemon threads, such a thread also prevents the JVM from exiting.
+ * </p>
+ * <p>
+ * Solutions can be recycled: when the pool size is positive, at most that many {@link Solution} objects are created,
+ * and the subscriber gives them back with {@link Subscription#release(Solution)} once consumed.
+ * The search also waits for a solution to be released when they are all in use.
+ * </p>
+ * <p>
+ * A solver can only be published once, to a single subscriber.
+ * </p>
+ * <pre>
+ *     {@code
+ *     new SolutionPublisher(model.getSolver(), 16, 0, SolutionPublisher.DAEMON_THREADS).subscribe(new Subscriber() {...});
+ *     }
+ * </pre>
+ *
+ * @author agent
+ * @see IResolutionHelper#publishSolutions(Criterion...)
+ * @since 4.10.9
+ */
+public class SolutionPublisher {
+
+    /**
+     * Receiver of the solutions published.
+     */
+    public interface Subscriber {
+
+        /**
+         * Called first, before any other signal.
+         *
+         * @param subscription the subscription through which solutions are requested
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Receive the next solutions, no more than the number requested so far.
+         *
+         * @param solutions a non-empty batch of solutions, in the order they were found
+         */
+        void onNext(List<Solution> solutions);
+
+        /**
+         * Called when the search fails, no signal follows.
+         *
+         * @param throwable the cause of the failure
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called once the search is over (all solutions found or a stop criterion met), no signal follows.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Link between a publisher and its subscriber.
+     */
+    public interface Subscription {
+
+        /**
+         * Request <i>n</i> more solutions.
+         * A non-positive value cancels the subscription and an {@link IllegalArgumentException} is signaled.
+         *
+         * @param n number of solutions to add to the current demand
+         */
+        void request(long n);
+
+        /**
+         * Stop the search, no more solution will be delivered.
+         */
+        void cancel();
+
+        /**
+         * Give back a solution received, so that it is recorded again.
+         * Only relevant when solutions are recycled.
+         *
+         * @param solution a solution received and no longer in use
+         */
+        void release(Solution solution);
+    }
+
+    /**
+     * Creates daemon threads, which do not prevent the JVM from exiting when a subscriber stalls.
+     */
+    public static final ThreadFactory DAEMON_THREADS = r -> {
+        Thread t = new Thread(r, "solution-publisher");
+        t.setDaemon(true);
+        return t;
+    };
+
+    private final Solver solver;
+    private final Criterion[] stop;
+    /**
+     * Maximum number of solutions delivered at once
+     */
+    private final int batchSize;
+    /**
+     * Maximum number of solutions to create, or 0 for no recycling
+     */
+    private final int poolSize;
+    private final ThreadFactory threadFactory;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Create a publisher of the solutions of <i>solver</i>.
+     *
+     * @param solver        the solver to run
+     * @param batchSize     maximum number of solutions to deliver at once
+     * @param poolSize      maximum number of solutions to create, which must be at least <i>batchSize</i>,
+     *                      or 0 to create a new solution each time
+     * @param threadFactory creates the thread that runs the search
+     * @param stop          optional criterion to stop the search before finding all solutions
+     */
+    public SolutionPublisher(Solver solver, int batchSize, int poolSize, ThreadFactory threadFactory, Criterion... stop) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        if (poolSize != 0 && poolSize < batchSize) {
+            throw new IllegalArgumentException("The pool must be able to hold a batch");
+        }
+        this.solver = solver;
+        this.batchSize = batchSize;
+        this.poolSize = poolSize;
+        this.threadFactory = threadFactory;
+        this.stop = stop;
+    }
+
+    /**
+     * Start the search, on a new thread, for <i>subscriber</i>.
+     * Any other subscriber is signaled an {@link IllegalStateException}.
+     *
+     * @param subscriber the receiver of the solutions
+     */
+    public void subscribe(Subscriber subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+
+                @Override
+                public void release(Solution solution) {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The solver is already published"));
+            return;
+        }
+        Task task = new Task(subscriber);
+        subscriber.onSubscribe(task);
+        threadFactory.newThread(task).start();
+    }
+
+    private final class Task implements Subscription, Criterion, Runnable {
+
+        private final Subscriber subscriber;
+        /**
+         * Number of solutions requested and not found yet
+         */
+        private long demand;
+        private volatile boolean cancelled;
+        private IllegalArgumentException error;
+        /**
+         * Solutions released, ready to be recorded again
+         */
+        private final ArrayDeque<Solution> pool = new ArrayDeque<>();
+        private int created;
+
+        Task(Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public synchronized void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("The number of solutions requested must be positive");
+                cancelled = true;
+            } else {
+                demand += n;
+                if (demand < 0) {
+                    demand = Long.MAX_VALUE;
+                }
+            }
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void cancel() {
+            cancelled = true;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void release(Solution solution) {
+            if (poolSize > 0 && pool.size() + 1 <= created) {
+                pool.push(solution);
+                notifyAll();
+            }
+        }
+
+        @Override
+        public boolean isMet() {
+            return cancelled;
+        }
+
+        @Override
+        public void run() {
+            solver.addStopCriterion(this);
+            solver.addStopCriterion(stop);
+            try {
+                List<Solution> batch = new ArrayList<>(batchSize);
+                while (awaitDemand() && solver.solve()) {
+                    Solution solution = take();
+                    if (solution == null) {
+                        break;
+                    }
+                    batch.add(solution.record());
+                    boolean satisfied = consume();
+                    if (batch.size() == batchSize || satisfied) {
+                        subscriber.onNext(Collections.unmodifiableList(batch));
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!cancelled) {
+                    if (!batch.isEmpty()) {
+                        subscriber.onNext(Collections.unmodifiableList(batch));
+                    }
+                    subscriber.onComplete();
+                } else if (error != null) {
+                    subscriber.onError(error);
+                }
+            } catch (Throwable t) {
+                cancelled = true;
+                subscriber.onError(t);
+            } finally {
+                solver.removeStopCriterion(this);
+                solver.removeStopCriterion(stop);
+            }
+        }
+
+        /**
+         * Wait until a solution is requested.
+         *
+         * @return <i>false</i> if the subscription is cancelled
+         */
+        private synchronized boolean awaitDemand() throws InterruptedException {
+            while (demand == 0 && !cancelled) {
+                wait();
+            }
+            return !cancelled;
+        }
+
+        /**
+         * Consume one solution of the demand.
+         *
+         * @return <i>true</i> if no more solution is requested
+         */
+        private synchronized boolean consume() {
+            if (demand < Long.MAX_VALUE) {
+                demand--;
+            }
+            return demand == 0;
+        }
+
+        /**
+         * @return a solution to record, waiting for one to be released if they are all in use,
+         * or <i>null</i> if the subscription is cancelled meanwhile
+         */
+        private synchronized Solution take() throws InterruptedException {
+            if (poolSize == 0) {
+                return new Solution(solver.getModel());
+            }
+            while (pool.isEmpty() && created == poolSize && !cancelled) {
+                wait();
+            }
+            if (cancelled) {
+                return null;
+            }
+            if (pool.isEmpty()) {
+                created++;
+                return new Solution(solver.getModel());
+            }
+            return pool.pop();
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.chocosolver.solver.ISelf;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.learn.AbstractEventObserver;
 import org.chocosolver.solver.learn.EventRecorder;
+import org.chocosolver.solver.learn.ExplanationForLazyClause;
 import org.chocosolver.solver.learn.ExplanationForSignedClause;
 
 /**
@@ -52,4 +53,29 @@ public interface ILearnFactory extends ISelf<Solver> {
         learner.setExplanation(new ExplanationForSignedClause(evtObs.getGI().get()));
         ref().setLearner(learner);
     }
+
+    /**
+     * Creates a learning object based on Lazy Clause Generation (LCG) strategy.
+     * Conflicts are analysed as with {@link #setLearningSignedClauses()}, but learnt clauses are
+     * encoded with literals of the form [x &le; v], [x = v] and [x &isin; [a,b]],
+     * created on demand, and added to the SAT solver of the model.
+     * The watched literal scheme of the SAT solver then propagates them, and the clauses
+     * explain themselves the modifications they imply.
+     * Some settings related to explanation can be define thanks to {@link Settings}:
+     * <ul>
+     *     <il>{@link Settings#setMaxLearntClauseCardinality(int)}</il>
+     * </ul>
+     */
+    default void setLazyClauseGeneration() {
+        AbstractEventObserver evtObs = ref().getEventObserver();
+        if (evtObs == AbstractEventObserver.SILENT_OBSERVER) {
+            evtObs = new EventRecorder(ref());
+        }
+        // mandatory to propagate lazy clauses and to explain what they imply
+        ref().getModel().getMinisat().getPropSat().setExplainable();
+        LearnSignedClauses<ExplanationForLazyClause> learner = new LearnSignedClauses<>(ref());
+        assert evtObs.getGI().isPresent();
+        learner.setExplanation(new ExplanationForLazyClause(evtObs.getGI().get()));
+        ref().setLearner(learner);
+    }
 }
@@ -76,6 +76,25 @@ public interface IMoveFactory extends ISelf<Solver> {
         ref().setMove(new MoveBinaryHBFS(ref().getModel(), ref().getSearch(), a, b, N));
     }
 
+    /**
+     * Creates a move object based on:
+     * Hybrid Best-First Search[1] algorithms with binary decisions,
+     * that stores at most <i>maxOpens</i> open nodes.
+     * Beyond that, the open nodes with the worst bounds are forgotten,
+     * which makes the search incomplete.
+     * <p>
+     * [1]:D. Allouche, S. de Givry, G. Katsirelos, T. Schiex, M. Zytnicki,
+     * Anytime Hybrid Best-First Search with Tree Decomposition for Weighted CSP, CP-2015.
+     *
+     * @param a               lower bound to limit the rate of redundantly propagated decisions
+     * @param b               upper bound to limit the rate of redundantly propagated decisions.
+     * @param N               backtrack limit for each DFS try, should be large enough to limit redundancy
+     * @param maxOpens        maximum number of open nodes to store
+     */
+    default void setHBFS(double a, double b, long N, int maxOpens) {
+        ref().setMove(new MoveBinaryHBFS(ref().getModel(), ref().getSearch(), a, b, N, maxOpens));
+    }
+
     /**
      * Creates a Move object that encapsulates the current move within a restart move.
      * Every time the <code>restartCriterion</code> is met, a restart is done, the new restart limit is updated
@@ -141,6 +160,44 @@ public interface IMoveFactory extends ISelf<Solver> {
         ref().setRestarts(restartStrategyLimit, new GeometricalCutoffStrategy(base, geometricalFactor), restartLimit);
     }
 
+    /**
+     * Creates a Move object that encapsulates the current move within a restart move
+     * that restarts depending on the quality of the last conflicts, as Glucose does.
+     * The quality of a conflict is the cardinality of the learnt clause when signed clauses are learnt,
+     * the depth of the failure otherwise.
+     * Restarts are done when the last 50 conflicts are, on average, worse than all conflicts by a factor 0.8,
+     * and are blocked when the number of instantiated variables is 1.4 times greater than
+     * its average over the last 5000 conflicts.
+     * <p>
+     * Since the restarts are not postponed as the search goes on, nogoods are recorded from restarts
+     * to keep the search complete.
+     *
+     * @see MoveAdaptiveRestart
+     */
+    default void setAdaptiveRestarts() {
+        ref().setAdaptiveRestarts(50, 5000, .8, 1.4, Integer.MAX_VALUE);
+        ref().setNoGoodRecordingFromRestarts();
+    }
+
+    /**
+     * Creates a Move object that encapsulates the current move within a restart move
+     * that restarts depending on the quality of the last conflicts, as Glucose does.
+     * Unlike cutoff sequences, restarts do not get rarer as the search goes on,
+     * so this should be combined with learning or nogood recording from restarts for the search to remain complete.
+     *
+     * @param fast         number of last conflicts whose quality is compared to the average one
+     * @param slow         number of last conflicts over which the number of instantiated variables is averaged
+     * @param K            a restart is done when the average quality of the last conflicts times <i>K</i>
+     *                     is greater than the average quality of all conflicts
+     * @param R            a restart is blocked when the number of instantiated variables is greater than
+     *                     <i>R</i> times its average
+     * @param restartLimit number of allowed restarts
+     * @see MoveAdaptiveRestart
+     */
+    default void setAdaptiveRestarts(int fast, int slow, double K, double R, int restartLimit) {
+        ref().setMove(new MoveAdaptiveRestart(ref().getMove(), fast, slow, K, R, restartLimit));
+    }
+
     /**
      * Creates a Move object that encapsulates the current move within a restart move.
      * Every time a solution is found, a restart is done.
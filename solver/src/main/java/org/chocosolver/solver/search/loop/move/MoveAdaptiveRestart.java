@@ -0,0 +1,293 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.move;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.loop.learn.Learn;
+import org.chocosolver.solver.search.loop.learn.LearnSignedClauses;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This {@link Move} implementation restarts the search depending on the quality of the last conflicts,
+ * instead of following a cutoff sequence fixed in advance.
+ * It is based on the dynamic restarts of Glucose[1]:
+ * <ul>
+ *     <li>a restart is done as soon as the average quality of the last <i>fast</i> conflicts
+ *     is worse than the average quality of all conflicts by a factor <i>K</i>,</li>
+ *     <li>a restart is blocked when the number of instantiated variables is greater than
+ *     <i>R</i> times its average over the last <i>slow</i> conflicts,
+ *     since the search may be close to a solution.</li>
+ * </ul>
+ * Counting the instantiated variables takes a scan of the variables of the search strategy,
+ * so it is only sampled, once every 16 conflicts,
+ * and only from the conflicts whose samples can be involved in a blocking.
+ * The quality of a conflict is the cardinality of the learnt clause when signed clauses are learnt
+ * (see {@link org.chocosolver.solver.search.loop.learn.ILearnFactory#setLearningSignedClauses()}),
+ * the depth of the failure in the search tree otherwise.
+ * The lower, the better.
+ * It is not self-content and needs a underlying {@link Move} to delegate common movements when no restart is needed.
+ * <p>
+ * [1]: G. Audemard, L. Simon, Refining Restarts Strategies for SAT and UNSAT, CP-2012.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class MoveAdaptiveRestart implements Move {
+
+    /**
+     * Number of conflicts before restarts can be blocked
+     */
+    private static final int BLOCKING_LOWER_BOUND = 10000;
+
+    /**
+     * Number of conflicts between two samples of the number of instantiated variables
+     */
+    private static final int SAMPLING = 16;
+
+    /**
+     * the default {@link Move} to execute when no restart has to be done
+     */
+    private Move move;
+    /**
+     * Quality of the last conflicts
+     */
+    private final Window fast;
+    /**
+     * Number of instantiated variables sampled on the last conflicts
+     */
+    private final Window trail;
+    /**
+     * Number of last conflicts over which the number of instantiated variables is averaged
+     */
+    private final int slow;
+    /**
+     * Factor for the average quality of the last conflicts
+     */
+    private final double K;
+    /**
+     * Factor for the average number of instantiated variables
+     */
+    private final double R;
+    /**
+     * restrict the total number of restart
+     */
+    private final int restartLimit;
+    /**
+     * Count the number of restarts
+     */
+    private int restarts;
+    /**
+     * Number of conflicts so far
+     */
+    private long conflicts;
+    /**
+     * Sum of the quality of the conflicts so far
+     */
+    private long sumQuality;
+    /**
+     * Number of solutions found so far
+     */
+    private long solutions;
+    /**
+     * Set to <i>true</i> when a restart is to be done on the next extension
+     */
+    private boolean restart;
+
+    /**
+     * @param move         the default {@link Move} to execute when no restart has to be done
+     * @param fast         number of last conflicts whose quality is compared to the average one
+     * @param slow         number of last conflicts over which the number of instantiated variables is averaged
+     * @param K            a restart is done when the average quality of the last conflicts times <i>K</i>
+     *                     is greater than the average quality of all conflicts
+     * @param R            a restart is blocked when the number of instantiated variables is greater than
+     *                     <i>R</i> times its average
+     * @param restartLimit restrict the total number of restart
+     * @throws IllegalArgumentException if <i>fast</i> or <i>slow</i> is not positive,
+     *                                  or if <i>K</i> or <i>R</i> is not a positive number
+     */
+    public MoveAdaptiveRestart(Move move, int fast, int slow, double K, double R, int restartLimit) {
+        if (fast < 1 || slow < 1) {
+            throw new IllegalArgumentException("The numbers of conflicts to consider must be positive");
+        }
+        if (!(K > 0) || !(R > 0)) {
+            throw new IllegalArgumentException("The factors K and R must be positive");
+        }
+        this.move = move;
+        this.fast = new Window(fast);
+        this.trail = new Window(Math.max(1, slow / SAMPLING));
+        this.slow = slow;
+        this.K = K;
+        this.R = R;
+        this.restartLimit = restartLimit;
+    }
+
+    @Override
+    public boolean init() {
+        restarts = 0;
+        restart = false;
+        conflicts = 0;
+        sumQuality = 0;
+        solutions = 0;
+        fast.clear();
+        trail.clear();
+        return move.init();
+    }
+
+    @Override
+    public boolean extend(Solver solver) {
+        if (restart) {
+            // the conflict has been repaired, and what was learnt from it propagated
+            restart = false;
+            restarts++;
+            solver.restart();
+            return true;
+        }
+        return move.extend(solver);
+    }
+
+    @Override
+    public boolean repair(Solver solver) {
+        if (solutions < solver.getSolutionCount()) {
+            solutions = solver.getSolutionCount();
+        } else if (onConflict(solver) && restarts < restartLimit) {
+            restart = true;
+        }
+        return move.repair(solver);
+    }
+
+    /**
+     * Update the averages on a conflict.
+     *
+     * @param solver reference to the solver
+     * @return <i>true</i> if a restart should be done
+     */
+    private boolean onConflict(Solver solver) {
+        conflicts++;
+        if (conflicts % SAMPLING == 0 && conflicts > BLOCKING_LOWER_BOUND - slow) {
+            int t = instantiated(solver);
+            trail.push(t);
+            if (conflicts > BLOCKING_LOWER_BOUND && fast.isFull() && t > R * trail.average()) {
+                fast.clear();
+            }
+        }
+        int q = quality(solver);
+        fast.push(q);
+        sumQuality += q;
+        if (fast.isFull() && fast.average() * K > sumQuality / (double) conflicts) {
+            fast.clear();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param solver reference to the solver
+     * @return the quality of the current conflict, the lower the better
+     */
+    protected int quality(Solver solver) {
+        Learn learner = solver.getLearner();
+        if (learner instanceof LearnSignedClauses
+                && ((LearnSignedClauses<?>) learner).getExplanation() != null) {
+            return ((LearnSignedClauses<?>) learner).getExplanation().getCardinality();
+        }
+        return solver.getDecisionPath().size();
+    }
+
+    /**
+     * @param solver reference to the solver
+     * @return the number of variables of the search strategy that are instantiated
+     */
+    private int instantiated(Solver solver) {
+        int n = 0;
+        for (Variable v : solver.getSearch().getVariables()) {
+            if (v.isInstantiated()) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public void setTopDecisionPosition(int position) {
+        this.move.setTopDecisionPosition(position);
+    }
+
+    @Override
+    public <V extends Variable> AbstractStrategy<V> getStrategy() {
+        return move.getStrategy();
+    }
+
+    @Override
+    public <V extends Variable> void setStrategy(AbstractStrategy<V> aStrategy) {
+        move.setStrategy(aStrategy);
+    }
+
+    @Override
+    public void removeStrategy() {
+        move.removeStrategy();
+    }
+
+    @Override
+    public List<Move> getChildMoves() {
+        return Collections.singletonList(move);
+    }
+
+    @Override
+    public void setChildMoves(List<Move> someMoves) {
+        if (someMoves.size() == 1) {
+            this.move = someMoves.get(0);
+        } else {
+            throw new UnsupportedOperationException("Only one child move can be attached to it.");
+        }
+    }
+
+    /**
+     * The last values pushed, up to a given number, and their sum.
+     */
+    private static final class Window {
+        private final int[] values;
+        private int size;
+        private int next;
+        private long sum;
+
+        Window(int capacity) {
+            this.values = new int[capacity];
+        }
+
+        void push(int value) {
+            if (size == values.length) {
+                sum -= values[next];
+            } else {
+                size++;
+            }
+            values[next] = value;
+            sum += value;
+            next = (next + 1) % values.length;
+        }
+
+        boolean isFull() {
+            return size == values.length;
+        }
+
+        double average() {
+            return sum / (double) size;
+        }
+
+        void clear() {
+            size = 0;
+            next = 0;
+            sum = 0;
+        }
+    }
+}
@@ -9,21 +9,26 @@
  */
 package org.chocosolver.solver.search.loop.move;
 
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.ResolutionPolicy;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.objective.IObjectiveManager;
 import org.chocosolver.solver.search.limits.BacktrackCounter;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
 import org.chocosolver.solver.variables.IntVar;
-import org.chocosolver.util.tools.ArrayUtils;
+import org.chocosolver.util.objects.IntHeap;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * A move dedicated to run an Hybrid Best-First Search[1] (HBFS) with binary decisions.
@@ -84,9 +89,31 @@ public class MoveBinaryHBFS extends MoveBinaryDFS {
     private boolean isMinimization;
 
     /**
-     * list of open right branches.
+     * Open right branches, ordered from the best one to the worst one.
+     * An open right branch is a node of {@link #trie}, the one of its last decision.
      */
-    private final PriorityQueue<Open> opens;
+    private final IntHeap opens;
+
+    /**
+     * Open right branches, ordered from the worst one to the best one, to evict them.
+     * <i>null</i> when the number of open right branches is not limited.
+     */
+    private final IntHeap worsts;
+
+    /**
+     * Maximum number of open right branches to store.
+     */
+    private final int maxOpens;
+
+    /**
+     * Decision paths of the open right branches.
+     */
+    private final Trie trie;
+
+    /**
+     * Node of {@link #trie} of the current open right branch, or -1.
+     */
+    private int copenNode = -1;
 
     /**
      * Current open right branch.
@@ -117,10 +144,27 @@ public class MoveBinaryHBFS extends MoveBinaryDFS {
      * @param N maximum number of backtracks to not exceed when updating node recomputation parameters.
      */
     public MoveBinaryHBFS(Model model, AbstractStrategy strategy, double a, double b, long N) {
+        this(model, strategy, a, b, N, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a move dedicated to run an Hybrid Best-First Search[1] (HBFS) with binary decisions.
+     * @param model a model
+     * @param strategy the search strategy to use
+     * @param a lower bound to limit the rate of redundantly propagated decisions.
+     * @param b upper bound to limit the rate of redundantly propagated decisions.
+     * @param N maximum number of backtracks to not exceed when updating node recomputation parameters.
+     * @param maxOpens maximum number of open right branches to store,
+     *                 the ones with the worst bounds are forgotten beyond that.
+     */
+    public MoveBinaryHBFS(Model model, AbstractStrategy strategy, double a, double b, long N, int maxOpens) {
         super(strategy);
         this.mModel = model;
         this.dfslimit = new BacktrackCounter(model, N);
-        this.opens = new PriorityQueue<>();
+        this.trie = new Trie();
+        this.opens = new IntHeap(this::isBetter);
+        this.worsts = maxOpens < Integer.MAX_VALUE ? new IntHeap((o1, o2) -> isBetter(o2, o1)) : null;
+        this.maxOpens = maxOpens;
         this.copen = new Decision[0];
         this.current = 0;
         this.Z = 1;
@@ -190,14 +234,23 @@ public class MoveBinaryHBFS extends MoveBinaryDFS {
             extractOB(solver, i);
         }
         // finally, get the best ORB to keep up the search
-        Open next = opens.poll();
-        while (next != null && !isValid(next.currentBound())) {
-            next = opens.poll();
+        int next = -1;
+        while (next < 0 && !opens.isEmpty()) {
+            int o = opens.removeMin();
+            if (worsts != null) {
+                worsts.remove(o);
+            }
+            if (isValid(trie.bound[o])) {
+                next = o;
+            } else {
+                trie.release(o);
+            }
         }
-        if (next != null) {
-            copen = next.toArray();
-            // the decision in 0 is the last taken, then the array us reversed
-            ArrayUtils.reverse(copen);
+        if (next >= 0) {
+            copen = trie.toDecisions(next, solver.getDecisionPath());
+            // the node of the current ORB is kept until the next one is selected
+            trie.release(copenNode);
+            copenNode = next;
             current = 0;
             nodesRecompute = solver.getNodeCount() + copen.length;
         } else{
@@ -246,18 +299,57 @@ public class MoveBinaryHBFS extends MoveBinaryDFS {
         solver.getEnvironment().worldPop();
         DecisionPath dp = solver.getDecisionPath();
         int bound;
+        // the decisions are first encoded from the bottom to the top, since they are freed on the way up
+        trie.clearPath();
         Decision decision = dp.getLastDecision();
         while (decision.getPosition() != stopAt) {
             bound = isMinimization ?
                     objectiveManager.getObjective().getLB() :
                     objectiveManager.getObjective().getUB();
-            if (decision.hasNext() && isValid(bound)) {
-                opens.add(new Open(decision, dp, bound, isMinimization));
-            }
+            trie.pushPath(decision, decision.hasNext() && isValid(bound), bound);
             dp.synchronize();
             decision = dp.getLastDecision();
             solver.getEnvironment().worldPop();
         }
+        // then the decisions above, still in the decision path
+        for (int j = i - 1; j >= 0; j--) {
+            trie.pushPath(_unkopen.get(j), false, 0);
+        }
+        int added = trie.insertPath(copenNode);
+        // from the bottom to the top, like they were met
+        for (int k = added - 1; k >= 0; k--) {
+            int o = trie.inserted.getQuick(k);
+            opens.insert(o);
+            if (worsts != null) {
+                worsts.insert(o);
+            }
+        }
+        // forget the worst ORBs if there are too many
+        while (opens.size() > maxOpens) {
+            int o = worsts.removeMin();
+            opens.remove(o);
+            trie.release(o);
+        }
+    }
+
+    /**
+     * Order open right branches: the best bound first, then the deepest one.
+     * @param o1 an open right branch
+     * @param o2 another open right branch
+     * @return <tt>true</tt> if <i>o1</i> is to be explored before <i>o2</i>
+     */
+    private boolean isBetter(int o1, int o2) {
+        int c = isMinimization ?
+                Integer.compare(trie.bound[o1], trie.bound[o2]) :
+                Integer.compare(trie.bound[o2], trie.bound[o1]);
+        return c < 0 || (c == 0 && trie.depth[o1] > trie.depth[o2]);
+    }
+
+    /**
+     * @return the number of open right branches currently stored
+     */
+    public int getNbOpens() {
+        return opens.size();
     }
 
     /**
@@ -272,81 +364,222 @@ public class MoveBinaryHBFS extends MoveBinaryDFS {
     }
 
     /**
-     * A class to represent an open right branch, from which the search can be kept up.
+     * Decision paths of the open right branches, stored as a trie: each node is a decision that points to its parent,
+     * so that open right branches share their common decisions.
+     * Nodes are stored in parallel arrays and are recycled once no open right branch refers to them.
      */
-    private class Open implements Comparable<Open> {
-
+    private final class Trie {
+        /**
+         * Parent of each node, -1 for the top decisions. Next free node for free nodes.
+         */
+        int[] parent = new int[16];
+        /**
+         * Decision of each node: index of its variable in {@link #vars}, value, index of its operator
+         * in {@link #operators} and number of branches to build before applying it.
+         * Decisions that are not integer ones are duplicated in {@link #generic} instead, and their variable is -1.
+         */
+        int[] var = new int[16];
+        int[] value = new int[16];
+        byte[] operator = new byte[16];
+        byte[] branch = new byte[16];
+        Decision<?>[] generic = new Decision<?>[16];
         /**
-         * List of open decisions
+         * Number of decisions from the top to each node
          */
-        private final List<Decision> path;
+        int[] depth = new int[16];
         /**
-         * store the current lower bound of the decision path for minimization
+         * Current bound of each open right branch
          */
-        private final int currentBound;
+        int[] bound = new int[16];
         /**
-         * 1 for minimization, -1 for maximization
+         * Number of children of each node, plus one when it is an open right branch or the current one
          */
-        private final byte minimization;
+        int[] refs = new int[16];
+        /**
+         * Number of nodes ever used
+         */
+        int size;
+        /**
+         * First free node, or -1
+         */
+        int free = -1;
+        final List<IntVar> vars = new ArrayList<>();
+        final TIntIntHashMap varIndices = new TIntIntHashMap(16, .5f, -1, -1);
+        final List<DecisionOperator<IntVar>> operators = new ArrayList<>();
+        /**
+         * Path being inserted, from the bottom to the top
+         */
+        final TIntArrayList pvar = new TIntArrayList();
+        final TIntArrayList pvalue = new TIntArrayList();
+        final TIntArrayList poperator = new TIntArrayList();
+        final TIntArrayList pbranch = new TIntArrayList();
+        final List<Decision<?>> pgeneric = new ArrayList<>();
+        final TIntArrayList pbound = new TIntArrayList();
+        final BitSet popen = new BitSet();
+        /**
+         * Open right branches created by the last call to {@link #insertPath(int)}
+         */
+        final TIntArrayList inserted = new TIntArrayList();
+        private final TIntArrayList chain = new TIntArrayList();
+
+        void clearPath() {
+            pvar.resetQuick();
+            pvalue.resetQuick();
+            poperator.resetQuick();
+            pbranch.resetQuick();
+            pgeneric.clear();
+            pbound.resetQuick();
+            popen.clear();
+        }
 
         /**
-         * Create an open right branch for HBFS
-         *
-         * @param decision      an open decision in <i>decisionPath</i>
-         * @param decisionPath  the current decision path
-         * @param currentBound current lower (resp. upper) bound of the objective value for mimimization (resp. maximization)
-         * @param minimization set to <tt>true</tt> for minimization
+         * Add a decision on top of the path being inserted.
          */
-        public Open(Decision decision, DecisionPath decisionPath, int currentBound, boolean minimization) {
-            this.path = new ArrayList<>();
-            while (decision.getPosition() != topDecisionPosition) {
-                Decision d = decision.duplicate();
-                while (decision.triesLeft() != d.triesLeft() - 1) {
-                    d.buildNext();
+        void pushPath(Decision<?> decision, boolean open, int bound) {
+            if (open) {
+                popen.set(pvar.size());
+            }
+            if (decision instanceof IntDecision) {
+                IntDecision d = (IntDecision) decision;
+                IntVar v = d.getDecisionVariable();
+                int vi = varIndices.get(v.getId());
+                if (vi < 0) {
+                    vi = vars.size();
+                    vars.add(v);
+                    varIndices.put(v.getId(), vi);
                 }
-                path.add(d);
-                decision = decisionPath.getDecision(decision.getPosition() -1);
+                int oi = operators.indexOf(d.getDecOp());
+                if (oi < 0) {
+                    oi = operators.size();
+                    operators.add(d.getDecOp());
+                }
+                pvar.add(vi);
+                pvalue.add(d.getDecisionValue());
+                poperator.add(oi);
+                pgeneric.add(null);
+            } else {
+                // the decision is freed on the way up, a copy is kept
+                pvar.add(-1);
+                pvalue.add(0);
+                poperator.add(0);
+                pgeneric.add(decision.duplicate());
             }
-            this.currentBound = currentBound;
-            this.minimization = (byte) (minimization ? 1 : -1);
+            // the branch to build, when replayed, is the one currently applied
+            pbranch.add(1 - decision.triesLeft());
+            pbound.add(bound);
         }
 
         /**
-         * Return the current decision path that can be extended
-         * @return an array of decisions
+         * Insert the path, sharing the decisions of the path to <i>node</i>, then store its open right branches
+         * in {@link #inserted}.
+         * @param node a node, or -1
+         * @return the number of open right branches inserted
          */
-        public Decision[] toArray() {
-            return path.toArray(new Decision[0]);
+        int insertPath(int node) {
+            inserted.resetQuick();
+            int n = pvar.size();
+            int bottom = popen.nextSetBit(0);
+            if (bottom < 0) {
+                return 0;
+            }
+            // the decisions to node, from the top
+            chain.resetQuick();
+            for (int x = node; x >= 0; x = parent[x]) {
+                chain.add(x);
+            }
+            chain.reverse();
+            // share the common decisions, if any
+            int p = -1;
+            int j = n - 1;
+            int k = 0;
+            while (j > bottom && k < chain.size() && isEqual(chain.getQuick(k), j)) {
+                p = chain.getQuick(k++);
+                j--;
+            }
+            for (; j >= bottom; j--) {
+                int x = allocate();
+                parent[x] = p;
+                var[x] = pvar.getQuick(j);
+                value[x] = pvalue.getQuick(j);
+                operator[x] = (byte) poperator.getQuick(j);
+                branch[x] = (byte) pbranch.getQuick(j);
+                generic[x] = pgeneric.get(j);
+                depth[x] = p < 0 ? 1 : depth[p] + 1;
+                refs[x] = 0;
+                if (p >= 0) {
+                    refs[p]++;
+                }
+                if (popen.get(j)) {
+                    bound[x] = pbound.getQuick(j);
+                    refs[x]++;
+                    inserted.add(x);
+                }
+                p = x;
+            }
+            return inserted.size();
         }
 
-        /**
-         * Return the current bound of this open right branch
-         * @return the current bound of this
-         */
-        public int currentBound() {
-            return currentBound;
+        private boolean isEqual(int x, int j) {
+            if (generic[x] != null || pgeneric.get(j) != null) {
+                return generic[x] != null && pgeneric.get(j) != null
+                        && generic[x].isEquivalentTo(pgeneric.get(j)) && branch[x] == pbranch.getQuick(j);
+            }
+            return var[x] == pvar.getQuick(j) && value[x] == pvalue.getQuick(j)
+                    && operator[x] == poperator.getQuick(j) && branch[x] == pbranch.getQuick(j);
         }
 
-        @Override
-        public int compareTo(Open o) {
-            // the minimum lower bound
-            int clb = minimization * (currentBound - o.currentBound);
-            if (clb == 0) {
-                // the maximum depth
-                return (o.path.size() - path.size());
+        private int allocate() {
+            int x;
+            if (free >= 0) {
+                x = free;
+                free = parent[x];
             } else {
-                return clb;
+                x = size++;
+                if (x == parent.length) {
+                    int c = x * 3 / 2 + 1;
+                    parent = Arrays.copyOf(parent, c);
+                    var = Arrays.copyOf(var, c);
+                    value = Arrays.copyOf(value, c);
+                    operator = Arrays.copyOf(operator, c);
+                    branch = Arrays.copyOf(branch, c);
+                    generic = Arrays.copyOf(generic, c);
+                    depth = Arrays.copyOf(depth, c);
+                    bound = Arrays.copyOf(bound, c);
+                    refs = Arrays.copyOf(refs, c);
+                }
             }
+            return x;
         }
 
-        @Override
-        public String toString() {
-            StringBuilder st = new StringBuilder();
-            st.append('[').append(currentBound).append(']');
-            for(int i = path.size() - 1;i > -1 ; i--){
-                st.append(path.get(i)).append(',');
+        /**
+         * Remove a reference to <i>node</i>, then free it and its ancestors that are not referred anymore.
+         * @param node a node, or -1
+         */
+        void release(int node) {
+            while (node >= 0 && --refs[node] == 0) {
+                int p = parent[node];
+                generic[node] = null;
+                parent[node] = free;
+                free = node;
+                node = p;
+            }
+        }
+
+        /**
+         * @return the decisions from the top to <i>node</i>, ready to be replayed
+         */
+        Decision[] toDecisions(int node, DecisionPath path) {
+            Decision[] decisions = new Decision[depth[node]];
+            for (int x = node; x >= 0; x = parent[x]) {
+                Decision<?> d = generic[x] != null ?
+                        generic[x].duplicate() :
+                        path.makeIntDecision(vars.get(var[x]), operators.get(operator[x]), value[x]);
+                for (int b = 0; b < branch[x]; b++) {
+                    d.buildNext();
+                }
+                decisions[depth[x] - 1] = d;
             }
-            return st.toString();
+            return decisions;
         }
     }
 }
@@ -134,11 +134,14 @@ public class Measures implements IMeasures, Cloneable {
         objectiveOptimal = measures.isObjectiveOptimal();
         solutionCount = measures.getSolutionCount();
         timeCount = measures.getTimeCountInNanoSeconds();
+        timeToBestSolution = measures.getTimeToBestSolutionInNanoSeconds();
         readingTimeCount = measures.getReadingTimeCountInNanoSeconds();
         nodeCount = measures.getNodeCount();
         backtrackCount = measures.getBackTrackCount();
         restartCount = measures.getRestartCount();
         failCount = measures.getFailCount();
+        fixpointCount = measures.getFixpointCount();
+        backjumpCount = measures.getBackjumpCount();
         depth = measures.getCurrentDepth();
         maxDepth = measures.getMaxDepth();
     }
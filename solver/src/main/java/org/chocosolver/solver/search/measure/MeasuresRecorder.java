@@ -119,6 +119,28 @@ public final class MeasuresRecorder extends Measures {
         maxDepth = 0;
     }
 
+    /**
+     * Set the search state and the counters back to the ones of <i>measures</i>,
+     * typically a copy made before running an auxiliary search.
+     * The stopwatch is not affected.
+     *
+     * @param measures measures to restore
+     */
+    public void restore(IMeasures measures) {
+        state = measures.getSearchState();
+        objectiveOptimal = measures.isObjectiveOptimal();
+        solutionCount = measures.getSolutionCount();
+        timeToBestSolution = measures.getTimeToBestSolutionInNanoSeconds();
+        nodeCount = measures.getNodeCount();
+        backtrackCount = measures.getBackTrackCount();
+        failCount = measures.getFailCount();
+        restartCount = measures.getRestartCount();
+        fixpointCount = measures.getFixpointCount();
+        backjumpCount = measures.getBackjumpCount();
+        depth = measures.getCurrentDepth();
+        maxDepth = measures.getMaxDepth();
+    }
+
     //****************************************************************************************************************//
     //**************************************** INCREMENTERS **********************************************************//
     //****************************************************************************************************************//
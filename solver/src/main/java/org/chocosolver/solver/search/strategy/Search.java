@@ -18,6 +18,7 @@ import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.objective.ObjectiveStrategy;
 import org.chocosolver.solver.objective.OptimizationPolicy;
 import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
+import org.chocosolver.solver.search.loop.move.MoveAdaptiveRestart;
 import org.chocosolver.solver.search.restart.MonotonicRestartStrategy;
 import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
 import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
@@ -1288,6 +1289,22 @@ public class Search {
                 );
                 solver.setNoGoodRecordingFromRestarts();
             }
+        },
+        /**
+         * To use an adaptive restart strategy, based on the quality of the last conflicts.
+         * <p>{@code cutoff} is the number of last conflicts considered,
+         * {@code factor} the ratio to the average quality of all conflicts that triggers a restart
+         * and {@code offset} the maximum number of restarts.
+         * A non-positive {@code cutoff} or {@code factor} falls back to the default of Glucose, that is, 50 and 0.8.
+         *
+         * @see MoveAdaptiveRestart
+         */
+        ADAPTIVE {
+            @Override
+            public void declare(Solver solver, int cutoff, double factor, int offset) {
+                solver.setAdaptiveRestarts(cutoff > 0 ? cutoff : 50, 5000, factor > 0 ? factor : .8, 1.4, offset);
+                solver.setNoGoodRecordingFromRestarts();
+            }
         };
 
         public abstract void declare(Solver solver, int cutoff, double factor, int offset);
@@ -216,4 +216,9 @@ public class IntDecision extends Decision<IntVar> {
         // nothing to do
     }
 
+    @Override
+    public int getCauseKind() {
+        return DECISION;
+    }
+
 }
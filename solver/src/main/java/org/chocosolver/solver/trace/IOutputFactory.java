@@ -343,6 +343,19 @@ public interface IOutputFactory extends ISelf<Solver> {
         return new GephiGenerator(gexfFilename, this.ref());
     }
 
+    /**
+     * Record the search tree into a compact binary trace (<i>traceFilename</i>),
+     * to be converted offline with {@link SearchTraceConverter}.
+     * This is much cheaper than producing a Graphviz or a GEXF file during the resolution.
+     *
+     * @param traceFilename trace filename
+     * @return a {@link Closeable} object to be closed at the end of resolution
+     * @throws org.chocosolver.solver.exception.SolverException if the trace file cannot be created
+     */
+    default Closeable outputSearchTreeToTrace(String traceFilename) {
+        return new SearchTraceRecorder(traceFilename, this.ref());
+    }
+
     /**
      * Plug <a href="https://github.com/cp-profiler/cp-profiler">cp-profiler</a> instance to this.
      *
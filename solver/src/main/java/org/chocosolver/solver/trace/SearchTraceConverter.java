@@ -0,0 +1,211 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.trace;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.SolverException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.chocosolver.solver.trace.SearchTraceRecorder.*;
+
+/**
+ * Offline conversion of a trace recorded by {@link SearchTraceRecorder}.
+ * <p>
+ * The records are replayed, in order, on a {@link SearchViz} which is not attached to any resolution:
+ * a {@link GraphvizGenerator}, a {@link GephiGenerator} or a {@link CPProfiler}.
+ * Labels of the nodes are rebuilt from the decisions stored in the trace.
+ * </p>
+ * <pre>
+ * java org.chocosolver.solver.trace.SearchTraceConverter trace.bin tree.gv
+ * java org.chocosolver.solver.trace.SearchTraceConverter trace.bin tree.gexf
+ * java org.chocosolver.solver.trace.SearchTraceConverter trace.bin cpprofiler
+ * </pre>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class SearchTraceConverter {
+
+    /**
+     * Name of the model
+     */
+    private final String name;
+    /**
+     * Names of the variables, wrt their id
+     */
+    private final TIntObjectHashMap<String> names;
+    /**
+     * Records of the trace
+     */
+    private final ByteBuffer records;
+
+    /**
+     * Open a trace recorded by {@link SearchTraceRecorder}.
+     *
+     * @param traceFile name of the trace file
+     * @throws IOException if the file cannot be read
+     */
+    public SearchTraceConverter(String traceFile) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(traceFile), READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new SolverException(traceFile + " is not a search trace");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new SolverException("Unsupported version of search trace: " + version);
+        }
+        this.name = getString(buffer);
+        int n = buffer.getInt();
+        this.names = new TIntObjectHashMap<>(n);
+        for (int i = 0; i < n; i++) {
+            int id = buffer.getInt();
+            names.put(id, getString(buffer));
+        }
+        this.records = buffer.slice();
+    }
+
+    /**
+     * @return the number of records in the trace
+     */
+    public int getNbRecords() {
+        return records.limit() / RECORD;
+    }
+
+    /**
+     * Replay the trace on <i>viz</i>, then close it.
+     *
+     * @param viz a search tree visualizer
+     * @throws IOException if <i>viz</i> cannot be closed
+     */
+    public void replay(SearchViz viz) throws IOException {
+        ByteBuffer buffer = records.duplicate();
+        while (buffer.remaining() >= RECORD) {
+            byte type = buffer.get();
+            byte op = buffer.get();
+            buffer.getShort();
+            int alt = buffer.getInt();
+            int nc = buffer.getInt();
+            int pid = buffer.getInt();
+            int kid = buffer.getInt();
+            int rid = buffer.getInt();
+            buffer.getInt(); // depth
+            int var = buffer.getInt();
+            int value = buffer.getInt();
+            buffer.getLong(); // time
+            switch (type) {
+                case NODE:
+                    viz.sendNode(nc, pid, alt, kid, rid, label(op, alt, var, value), "");
+                    break;
+                case SOLUTION:
+                    viz.sendSolution(nc, pid, alt, kid, rid, label(op, alt, var, value), "");
+                    break;
+                case FAILURE:
+                    viz.sendFailure(nc, pid, alt, kid, rid, label(op, alt, var, value), "");
+                    break;
+                case RESTART:
+                    viz.sendRestart(rid);
+                    break;
+                default:
+                    throw new SolverException("Unknown record type: " + type);
+            }
+        }
+        viz.close();
+    }
+
+    /**
+     * Convert the trace into a DOT file, to be vizualized with <a href="https://graphviz.org">Graphviz</a>.
+     *
+     * @param gvFile dot filename
+     * @throws IOException if the output cannot be written
+     */
+    public void toGraphviz(String gvFile) throws IOException {
+        replay(new GraphvizGenerator(gvFile, new Model(name).getSolver()));
+    }
+
+    /**
+     * Convert the trace into a GEXF file, to be vizualized with <a href="https://gephi.org">Gephi</a>.
+     *
+     * @param gexfFile gexf filename
+     * @throws IOException if the output cannot be written
+     */
+    public void toGephi(String gexfFile) throws IOException {
+        replay(new GephiGenerator(gexfFile, new Model(name).getSolver()));
+    }
+
+    /**
+     * Send the trace to <a href="https://github.com/cp-profiler/cp-profiler">cp-profiler</a>,
+     * which must be started before.
+     *
+     * @throws IOException if the connection cannot be closed
+     */
+    public void toCPProfiler() throws IOException {
+        replay(new CPProfiler(new Model(name).getSolver(), false));
+    }
+
+    private String label(byte op, int alt, int var, int value) {
+        if (op == OP_NONE) {
+            return "ROOT";
+        }
+        String v = names.containsKey(var) ? names.get(var) : "X_" + var;
+        // the right branch refutes the decision
+        boolean refuted = alt > 0;
+        switch (op) {
+            case OP_EQ:
+                return v + (refuted ? " != " : " = ") + value;
+            case OP_NEQ:
+                return v + (refuted ? " = " : " != ") + value;
+            case OP_SPLIT:
+                return v + (refuted ? " > " : " <= ") + value;
+            case OP_REVERSE_SPLIT:
+                return v + (refuted ? " < " : " >= ") + value;
+            default:
+                return v;
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Convert a trace from the command line.
+     *
+     * @param args the trace file, then either a '.gv' file, a '.gexf' file or 'cpprofiler'
+     * @throws IOException if the conversion fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: SearchTraceConverter <trace> <file.gv | file.gexf | cpprofiler>");
+            return;
+        }
+        SearchTraceConverter converter = new SearchTraceConverter(args[0]);
+        if (args[1].endsWith(".gv") || args[1].endsWith(".dot")) {
+            converter.toGraphviz(args[1]);
+        } else if (args[1].endsWith(".gexf")) {
+            converter.toGephi(args[1]);
+        } else if (args[1].equals("cpprofiler")) {
+            converter.toCPProfiler();
+        } else {
+            System.err.println("Unknown output format: " + args[1]);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.trace;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Records the search tree in a compact binary trace, to be analysed offline.
+ * <p>
+ * Nodes are numbered exactly as with {@link CPProfiler}, {@link GraphvizGenerator} and {@link GephiGenerator},
+ * but no string is built during the search:
+ * each node is stored as a fixed-width record appended to a memory-mapped file.
+ * The trace can then be converted with {@link SearchTraceConverter}.
+ * </p>
+ * <p>
+ * The trace starts with a header:
+ * <pre>
+ *     int    magic number ({@link #MAGIC})
+ *     int    version
+ *     UTF    name of the model
+ *     int    number of variables, followed for each of them by:
+ *            int id, UTF name
+ * </pre>
+ * then comes a sequence of records of {@link #RECORD} bytes:
+ * <pre>
+ *     byte   type ({@link #NODE}, {@link #SOLUTION}, {@link #FAILURE} or {@link #RESTART})
+ *     byte   operator of the decision leading to the node ({@link #OP_NONE}, {@link #OP_EQ}, ...)
+ *     short  unused
+ *     int    alternative, that is the rank of the node among its siblings (-1 for the root)
+ *     int    node id
+ *     int    parent id (-1 for the root)
+ *     int    number of children
+ *     int    restart id
+ *     int    depth, that is the size of the decision path
+ *     int    id of the variable of the decision leading to the node (-1 if none)
+ *     int    value of the decision leading to the node
+ *     long   time elapsed since the previous record, in nanoseconds
+ * </pre>
+ * All values are big-endian.
+ * </p>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class SearchTraceRecorder extends SearchViz {
+
+    /**
+     * Magic number starting a trace
+     */
+    public static final int MAGIC = 0x43545243;
+    /**
+     * Version of the trace format
+     */
+    public static final int VERSION = 2;
+    /**
+     * Size of a record, in bytes
+     */
+    public static final int RECORD = 44;
+
+    public static final byte NODE = 0;
+    public static final byte SOLUTION = 1;
+    public static final byte FAILURE = 2;
+    public static final byte RESTART = 3;
+
+    public static final byte OP_NONE = 0;
+    public static final byte OP_EQ = 1;
+    public static final byte OP_NEQ = 2;
+    public static final byte OP_SPLIT = 3;
+    public static final byte OP_REVERSE_SPLIT = 4;
+    public static final byte OP_OTHER = 5;
+
+    /**
+     * Size of a memory-mapped region
+     */
+    private static final int CHUNK = 1 << 22;
+
+    private FileChannel channel;
+    /**
+     * Current memory-mapped region
+     */
+    private MappedByteBuffer buffer;
+    /**
+     * Position of {@link #buffer} in the file
+     */
+    private long offset;
+    /**
+     * Timestamp of the last record
+     */
+    private long time;
+    /**
+     * Variable, operator and value of the decision leading to the next node sent
+     */
+    private int var;
+    private byte op;
+    private int value;
+
+    /**
+     * Record the search tree explored by <i>aSolver</i> into <i>traceFile</i>.
+     * The file is overwritten if it exists.
+     *
+     * @param traceFile name of the trace file
+     * @param aSolver   solver to observe resolution
+     * @throws SolverException if the trace file cannot be created
+     */
+    public SearchTraceRecorder(String traceFile, Solver aSolver) {
+        super(aSolver, false);
+        try {
+            channel = FileChannel.open(Paths.get(traceFile), CREATE, TRUNCATE_EXISTING, READ, WRITE);
+            offset = 0;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, offset, CHUNK);
+            writeHeader();
+        } catch (IOException e) {
+            mSolver.unplugMonitor(this);
+            connected = false;
+            disconnect();
+            throw new SolverException("Unable to create the trace file " + traceFile + ": " + e.getMessage());
+        }
+        time = System.nanoTime();
+    }
+
+    @Override
+    protected boolean connect(String label) {
+        return true;
+    }
+
+    @Override
+    protected void disconnect() {
+        if (channel != null) {
+            try {
+                if (buffer != null) {
+                    long size = offset + buffer.position();
+                    // the region is written back before the file is shrunk, and never accessed again
+                    buffer.force();
+                    buffer = null;
+                    channel.truncate(size);
+                }
+                channel.close();
+            } catch (IOException e) {
+                mSolver.log().red().println("Unable to close the trace file: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    @Override
+    protected String label(Decision<?> dec) {
+        if (dec == null || dec.getDecisionVariable() == null) {
+            var = -1;
+            op = OP_NONE;
+            value = 0;
+        } else {
+            Variable v = dec.getDecisionVariable();
+            var = v.getId();
+            if (dec instanceof IntDecision) {
+                op = opCode(((IntDecision) dec).getDecOp());
+                value = ((IntDecision) dec).getDecisionValue();
+            } else {
+                op = OP_OTHER;
+                value = 0;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected String solutionInfo() {
+        return null;
+    }
+
+    @Override
+    protected String failureInfo(ContradictionException cex) {
+        return null;
+    }
+
+    @Override
+    protected void sendNode(int nc, int pid, int alt, int kid, int rid, String label, String info) {
+        record(NODE, nc, pid, alt, kid, rid);
+    }
+
+    @Override
+    protected void sendSolution(int nc, int pid, int alt, int kid, int rid, String label, String info) {
+        record(SOLUTION, nc, pid, alt, kid, rid);
+    }
+
+    @Override
+    protected void sendFailure(int nc, int pid, int alt, int kid, int rid, String label, String info) {
+        record(FAILURE, nc, pid, alt, kid, rid);
+    }
+
+    @Override
+    protected void sendRestart(int rid) {
+        var = -1;
+        op = OP_NONE;
+        value = 0;
+        record(RESTART, 0, -1, -1, 0, rid);
+    }
+
+    private void record(byte type, int nc, int pid, int alt, int kid, int rid) {
+        if (!connected) {
+            return;
+        }
+        try {
+            ensure(RECORD);
+        } catch (IOException e) {
+            mSolver.log().red().println("Unable to write the trace file, no more information will be recorded: " + e.getMessage());
+            connected = false;
+            return;
+        }
+        long now = System.nanoTime();
+        buffer.put(type);
+        buffer.put(op);
+        buffer.putShort((short) 0);
+        buffer.putInt(alt);
+        buffer.putInt(nc);
+        buffer.putInt(pid);
+        buffer.putInt(kid);
+        buffer.putInt(rid);
+        buffer.putInt(mSolver.getDecisionPath().size());
+        buffer.putInt(var);
+        buffer.putInt(value);
+        buffer.putLong(now - time);
+        time = now;
+    }
+
+    private void writeHeader() throws IOException {
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        putString(mSolver.getModel().getName());
+        Variable[] vars = mSolver.getModel().getVars();
+        ensure(4);
+        buffer.putInt(vars.length);
+        for (Variable v : vars) {
+            ensure(4);
+            buffer.putInt(v.getId());
+            putString(v.getName());
+        }
+    }
+
+    private void putString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(bytes.length, Short.MAX_VALUE);
+        ensure(2 + len);
+        buffer.putShort((short) len);
+        buffer.put(bytes, 0, len);
+    }
+
+    /**
+     * Map the next region of the file when the current one cannot store <i>n</i> more bytes.
+     * The previous region is written back by the operating system, not during search.
+     */
+    private void ensure(int n) throws IOException {
+        if (buffer.remaining() < n) {
+            long next = offset + buffer.position();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, next, CHUNK);
+            offset = next;
+        }
+    }
+
+    private static byte opCode(DecisionOperator<IntVar> operator) {
+        if (operator == DecisionOperatorFactory.makeIntEq()) {
+            return OP_EQ;
+        } else if (operator == DecisionOperatorFactory.makeIntNeq()) {
+            return OP_NEQ;
+        } else if (operator == DecisionOperatorFactory.makeIntSplit()) {
+            return OP_SPLIT;
+        } else if (operator == DecisionOperatorFactory.makeIntReverseSplit()) {
+            return OP_REVERSE_SPLIT;
+        }
+        return OP_OTHER;
+    }
+}
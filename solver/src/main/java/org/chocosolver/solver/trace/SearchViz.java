@@ -173,7 +173,7 @@ public abstract class SearchViz implements IMonitorDownBranch, IMonitorUpBranch,
             int last = dp.size() - 1;
             if (last > 0) {
                 String pdec;
-                pdec = pretty(dp.getDecision(last - 1));
+                pdec = label(dp.getDecision(last - 1));
                 Decision dec = dp.getLastDecision();
                 int ari = dec.getArity();
                 sendNode(nc, pid_stack.peek(), alt_stack.pop(), ari, rid, pdec,
@@ -203,14 +203,14 @@ public abstract class SearchViz implements IMonitorDownBranch, IMonitorUpBranch,
 
     @Override
     public final void onSolution() {
-        String dec = pretty(mSolver.getDecisionPath().getLastDecision());
-        sendSolution(nc, pid_stack.peek(), alt_stack.pop(), 0, rid, dec, solutionMessage.print());
+        String dec = label(mSolver.getDecisionPath().getLastDecision());
+        sendSolution(nc, pid_stack.peek(), alt_stack.pop(), 0, rid, dec, solutionInfo());
     }
 
     @Override
     public final void onContradiction(ContradictionException cex) {
-        String dec = pretty(mSolver.getDecisionPath().getLastDecision());
-        sendFailure(nc, pid_stack.peek(), alt_stack.pop(), 0, rid, dec, cex.toString());
+        String dec = label(mSolver.getDecisionPath().getLastDecision());
+        sendFailure(nc, pid_stack.peek(), alt_stack.pop(), 0, rid, dec, failureInfo(cex));
     }
 
     @Override
@@ -224,7 +224,33 @@ public abstract class SearchViz implements IMonitorDownBranch, IMonitorUpBranch,
         nc = 0;
     }
 
-    private static String pretty(Decision dec) {
+    /**
+     * Build the label of a node, called right before the node is sent.
+     * Override it to avoid building a string on each node.
+     *
+     * @param dec the decision leading to the node, <i>null</i> for the root node
+     * @return the label of the node
+     */
+    protected String label(Decision<?> dec) {
+        return pretty(dec);
+    }
+
+    /**
+     * @return the 'info' field of a solution node
+     */
+    protected String solutionInfo() {
+        return solutionMessage.print();
+    }
+
+    /**
+     * @param cex the contradiction
+     * @return the 'info' field of a failure node
+     */
+    protected String failureInfo(ContradictionException cex) {
+        return cex.toString();
+    }
+
+    private static String pretty(Decision<?> dec) {
         if (dec == null) {
             return "ROOT";
         } else {
@@ -252,7 +252,9 @@ public interface IVariableFactory extends ISelf<Model> {
 
     /**
      * Create an integer variable of initial domain <i>values</i>
-     * Uses an enumerated domain that supports holes
+     * Uses an enumerated domain that supports holes.
+     * When the span of <i>values</i> exceeds {@link org.chocosolver.solver.Settings#getMaxDomSizeForEnumerated()}
+     * and <i>values</i> are made of a few ranges, the domain is stored as a list of ranges.
      * @param name name of the variable
      * @param values initial domain
      * @return an IntVar of domain <i>values</i>
@@ -266,7 +268,10 @@ public interface IVariableFactory extends ISelf<Model> {
             return boolVar(name);
         } else {
             int gap = values[values.length - 1] - values[0];
-            if (gap > 30 && gap / values.length > 5) {
+            if (gap >= ref().getSettings().getMaxDomSizeForEnumerated()
+                    && 2 * ArrayUtils.nbRanges(values) < values.length) {
+                return new RangeSetIntVarImpl(name, values, ref());
+            } else if (gap > 30 && gap / values.length > 5) {
                 return new BitsetArrayIntVarImpl(name, values, ref());
             } else {
                 return new BitsetIntVarImpl(name, values, ref());
@@ -0,0 +1,877 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.variables.impl;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.learn.AbstractEventObserver;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.delta.IIntervalDelta;
+import org.chocosolver.solver.variables.delta.IntervalDelta;
+import org.chocosolver.solver.variables.delta.NoDelta;
+import org.chocosolver.solver.variables.delta.monitor.IntervalDeltaMonitor;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.impl.scheduler.IntEvtScheduler;
+import org.chocosolver.solver.variables.impl.siglit.SignedLiteral;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.iterators.EvtScheduler;
+import org.chocosolver.util.iterators.IntVarValueIterator;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSet;
+
+import java.util.Iterator;
+
+/**
+ * <br/>IntVar implementation for huge domains made of a few ranges, e.g. [0,10] &cup; [10^6,10^6+10] &cup; {10^9}.
+ * <p>
+ * The domain is stored as a sorted list of disjoint ranges, laid out as in {@link IntIterableRangeSet}:
+ * the range <i>r</i> is [{@code ELEMENTS[2r]}, {@code ELEMENTS[2r+1]}].
+ * Each bound is backtrackable, and so are the positions of the first and the last ranges of the current domain,
+ * so that updating a bound or looking for a value costs O(log <i>r</i>), <i>r</i> being the number of ranges.
+ * Only splitting or deleting an inner range requires to shift the ranges which follow.
+ * Removed values are stored as ranges in the delta.
+ * </p>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public final class RangeSetIntVarImpl extends AbstractVariable implements IntVar {
+
+    /**
+     * Set to <tt>true</tt> if this variable reacts is associated with at least one propagator which reacts
+     * on value removal
+     */
+    private boolean reactOnRemoval = false;
+    /**
+     * Bounds of the ranges, the lower bound of a range followed by its upper bound
+     */
+    private IStateInt[] ELEMENTS;
+    /**
+     * Position of the first range of the current domain
+     */
+    private final IStateInt FIRST;
+    /**
+     * Position of the last range of the current domain
+     */
+    private final IStateInt LAST;
+    /**
+     * Current size of domain
+     */
+    private final IStateInt SIZE;
+    /**
+     * To iterate over removed values
+     */
+    private IIntervalDelta delta = NoDelta.singleton;
+    /**
+     * To iterate over values in the domain
+     */
+    private DisposableValueIterator _viterator;
+    /**
+     * To iterate over ranges
+     */
+    private DisposableRangeIterator _riterator;
+    /**
+     * Value iterator allowing for(int i:this) loops
+     */
+    private IntVarValueIterator _javaIterator;
+    /**
+     * Signed Literal
+     */
+    private SignedLiteral.Set literal;
+
+    //////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates an {@link IntVar} whose initial domain is <i>domain</i>.
+     *
+     * @param name   name of the variable
+     * @param domain initial domain, not empty
+     * @param model  the model to declare this variable in
+     */
+    public RangeSetIntVarImpl(String name, IntIterableRangeSet domain, Model model) {
+        super(name, model);
+        assert domain.size() > 0;
+        IEnvironment env = this.model.getEnvironment();
+        int n = domain.getNbRanges();
+        this.ELEMENTS = new IStateInt[2 * n];
+        for (int r = 0; r < n; r++) {
+            ELEMENTS[2 * r] = env.makeInt(domain.minOfRange(r));
+            ELEMENTS[2 * r + 1] = env.makeInt(domain.maxOfRange(r));
+        }
+        this.FIRST = env.makeInt(0);
+        this.LAST = env.makeInt(n - 1);
+        this.SIZE = env.makeInt(domain.size());
+    }
+
+    /**
+     * Creates an {@link IntVar} based on an array of ordered values.
+     *
+     * @param name         name of the variable
+     * @param sortedValues domain values, sorted and without duplicates
+     * @param model        the model to declare this variable in
+     */
+    public RangeSetIntVarImpl(String name, int[] sortedValues, Model model) {
+        this(name, new IntIterableRangeSet(sortedValues), model);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private int lb(int r) {
+        return ELEMENTS[r << 1].get();
+    }
+
+    private int ub(int r) {
+        return ELEMENTS[(r << 1) + 1].get();
+    }
+
+    private void lb(int r, int v) {
+        ELEMENTS[r << 1].set(v);
+    }
+
+    private void ub(int r, int v) {
+        ELEMENTS[(r << 1) + 1].set(v);
+    }
+
+    /**
+     * @return the position of the last range whose lower bound is less than or equal to <i>v</i>,
+     * or the position before the first range if none
+     */
+    private int rangeOf(int v) {
+        int lo = FIRST.get();
+        int hi = LAST.get();
+        int r = lo - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lb(mid) <= v) {
+                r = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Insert the range [a,b] right before the range at position <i>p</i>.
+     * The ranges before <i>p</i> are shifted to the left when it is cheaper and possible,
+     * otherwise the ranges from <i>p</i> are shifted to the right.
+     *
+     * @return the position of the new range
+     */
+    private int insertRange(int p, int a, int b) {
+        int f = FIRST.get();
+        int l = LAST.get();
+        if (f > 0 && p - f <= l - p) {
+            for (int r = f; r < p; r++) {
+                lb(r - 1, lb(r));
+                ub(r - 1, ub(r));
+            }
+            FIRST.set(f - 1);
+            p--;
+        } else {
+            ensureCapacity(l + 2);
+            for (int r = l; r >= p; r--) {
+                lb(r + 1, lb(r));
+                ub(r + 1, ub(r));
+            }
+            LAST.set(l + 1);
+        }
+        lb(p, a);
+        ub(p, b);
+        return p;
+    }
+
+    /**
+     * Delete the ranges from position <i>p</i> to position <i>q</i>, both included.
+     */
+    private void deleteRanges(int p, int q) {
+        int f = FIRST.get();
+        int l = LAST.get();
+        if (p == f) {
+            FIRST.set(q + 1);
+        } else if (q == l) {
+            LAST.set(p - 1);
+        } else {
+            int k = q - p + 1;
+            for (int r = q + 1; r <= l; r++) {
+                lb(r - k, lb(r));
+                ub(r - k, ub(r));
+            }
+            LAST.set(l - k);
+        }
+    }
+
+    private void ensureCapacity(int nbRanges) {
+        if (ELEMENTS.length < 2 * nbRanges) {
+            IEnvironment env = this.model.getEnvironment();
+            IStateInt[] tmp = ELEMENTS;
+            ELEMENTS = new IStateInt[Math.max(2 * nbRanges, tmp.length * 3 / 2 & ~1)];
+            System.arraycopy(tmp, 0, ELEMENTS, 0, tmp.length);
+            for (int i = tmp.length; i < ELEMENTS.length; i++) {
+                ELEMENTS[i] = env.makeInt(0);
+            }
+        }
+    }
+
+    /**
+     * Remove the values in [from,to] from the domain.
+     * Removed values are stored in the delta by ranges and, if <i>observe</i> is set,
+     * they are reported one by one to the event observer.
+     *
+     * @return the number of values removed
+     * @throws ContradictionException if the domain becomes empty
+     */
+    private int removeBetween(int from, int to, ICause cause, boolean observe) throws ContradictionException {
+        int p = rangeOf(from);
+        if (p < FIRST.get() || ub(p) < from) {
+            p++;
+        }
+        int q = rangeOf(to);
+        if (p > q) {
+            return 0;
+        }
+        int count = 0;
+        for (int r = p; r <= q; r++) {
+            count += Math.min(ub(r), to) - Math.max(lb(r), from) + 1;
+        }
+        if (observe) {
+            AbstractEventObserver observer = model.getSolver().getEventObserver();
+            if (observer != AbstractEventObserver.SILENT_OBSERVER) {
+                for (int r = p; r <= q; r++) {
+                    for (int v = Math.max(lb(r), from), m = Math.min(ub(r), to); v <= m; v++) {
+                        observer.removeValue(this, v, cause);
+                    }
+                }
+            }
+        }
+        if (count == SIZE.get()) {
+            this.contradiction(cause, MSG_REMOVE);
+        }
+        if (reactOnRemoval) {
+            for (int r = p; r <= q; r++) {
+                delta.add(Math.max(lb(r), from), Math.min(ub(r), to), cause);
+            }
+        }
+        int a = lb(p);
+        int b = ub(q);
+        if (p == q && a < from && to < b) {
+            // split the range
+            int s = insertRange(p + 1, to + 1, b);
+            ub(s - 1, from - 1);
+        } else {
+            int w = p;
+            if (a < from) {
+                ub(w++, from - 1);
+            }
+            if (to < b) {
+                lb(w, to + 1);
+                ub(w++, b);
+            }
+            if (w <= q) {
+                deleteRanges(w, q);
+            }
+        }
+        SIZE.add(-count);
+        return count;
+    }
+
+    private void notifyOnRemovals(int olb, int oub, ICause cause) throws ContradictionException {
+        IntEventType e;
+        if (isInstantiated()) {
+            e = IntEventType.INSTANTIATE;
+        } else if (olb != getLB()) {
+            e = oub != getUB() ? IntEventType.BOUND : IntEventType.INCLOW;
+        } else if (oub != getUB()) {
+            e = IntEventType.DECUPP;
+        } else {
+            e = IntEventType.REMOVE;
+        }
+        this.notifyPropagators(e, cause);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Removes {@code value}from the domain of {@code this}. The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If {@code value} is out of the domain, nothing is done and the return value is {@code false},</li>
+     * <li>if removing {@code value} leads to a dead-end (domain wipe-out),
+     * a {@code ContradictionException} is thrown,</li>
+     * <li>otherwise, if removing {@code value} from the domain can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is {@code true}</li>
+     * </ul>
+     *
+     * @param value value to remove from the domain (int)
+     * @param cause removal releaser
+     * @return true if the value has been removed, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean removeValue(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (!contains(value)) {
+            return false;
+        }
+        int olb = getLB();
+        int oub = getUB();
+        removeBetween(value, value, cause, true);
+        notifyOnRemovals(olb, oub, cause);
+        return true;
+    }
+
+    @Override
+    public boolean removeValues(IntIterableSet values, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int olb = getLB();
+        int oub = getUB();
+        boolean hasRemoved = false;
+        int v = values.nextValue(olb - 1);
+        while (v <= oub) {
+            int w = Math.min(values.nextValueOut(v) - 1, oub);
+            hasRemoved |= removeBetween(v, w, cause, true) > 0;
+            v = w < oub ? values.nextValue(w) : Integer.MAX_VALUE;
+        }
+        if (hasRemoved) {
+            notifyOnRemovals(olb, oub, cause);
+        }
+        return hasRemoved;
+    }
+
+    @Override
+    public boolean removeAllValuesBut(IntIterableSet values, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int olb = getLB();
+        int oub = getUB();
+        boolean hasRemoved = false;
+        int v = olb;
+        while (v <= oub) {
+            if (values.contains(v)) {
+                // skip the values to keep
+                int w = values.nextValueOut(v);
+                v = w > oub ? Integer.MAX_VALUE : nextValue(w - 1);
+            } else {
+                int w = values.nextValue(v);
+                w = w > oub ? oub : w - 1;
+                hasRemoved |= removeBetween(v, w, cause, true) > 0;
+                v = w < oub ? nextValue(w) : Integer.MAX_VALUE;
+            }
+        }
+        if (hasRemoved) {
+            notifyOnRemovals(olb, oub, cause);
+        }
+        return hasRemoved;
+    }
+
+    @Override
+    public boolean removeInterval(int from, int to, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (from <= getLB()) {
+            return updateLowerBound(to + 1, cause);
+        } else if (getUB() <= to) {
+            return updateUpperBound(from - 1, cause);
+        } else if (removeBetween(from, to, cause, true) > 0) {
+            this.notifyPropagators(IntEventType.REMOVE, cause);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Instantiates the domain of {@code this} to {@code value}. The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If the domain of {@code this} is already instantiated to {@code value},
+     * nothing is done and the return value is {@code false},</li>
+     * <li>If the domain of {@code this} is already instantiated to another value,
+     * then a {@code ContradictionException} is thrown,</li>
+     * <li>Otherwise, the domain of {@code this} is restricted to {@code value} and the observers are notified
+     * and the return value is {@code true}.</li>
+     * </ul>
+     *
+     * @param value instantiation value (int)
+     * @param cause instantiation releaser
+     * @return true if the instantiation is done, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (!contains(value)) {
+            model.getSolver().getEventObserver().instantiateTo(this, value, cause, getLB(), getUB());
+            this.contradiction(cause, MSG_INST);
+        } else if (!isInstantiated()) {
+            model.getSolver().getEventObserver().instantiateTo(this, value, cause, getLB(), getUB());
+            int p = rangeOf(value);
+            if (reactOnRemoval) {
+                for (int r = FIRST.get(), l = LAST.get(); r <= l; r++) {
+                    int a = lb(r);
+                    int b = ub(r);
+                    if (r == p) {
+                        if (a < value) delta.add(a, value - 1, cause);
+                        if (value < b) delta.add(value + 1, b, cause);
+                    } else {
+                        delta.add(a, b, cause);
+                    }
+                }
+            }
+            lb(p, value);
+            ub(p, value);
+            FIRST.set(p);
+            LAST.set(p);
+            SIZE.set(1);
+            this.notifyPropagators(IntEventType.INSTANTIATE, cause);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates the lower bound of the domain of {@code this} to {@code value}.
+     * The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If {@code value} is smaller than the lower bound of the domain, nothing is done and the return value is {@code false},</li>
+     * <li>if updating the lower bound to {@code value} leads to a dead-end (domain wipe-out),
+     * a {@code ContradictionException} is thrown,</li>
+     * <li>otherwise, if updating the lower bound to {@code value} can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is {@code true}</li>
+     * </ul>
+     *
+     * @param value new lower bound (included)
+     * @param cause updating releaser
+     * @return true if the lower bound has been updated, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int old = getLB();
+        if (old < value) {
+            model.getSolver().getEventObserver().updateLowerBound(this, value, old, cause);
+            if (getUB() < value) {
+                this.contradiction(cause, MSG_LOW);
+            } else {
+                removeBetween(old, value - 1, cause, false);
+                this.notifyPropagators(isInstantiated() ? IntEventType.INSTANTIATE : IntEventType.INCLOW, cause);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Updates the upper bound of the domain of {@code this} to {@code value}.
+     * The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If {@code value} is greater than the upper bound of the domain, nothing is done and the return value is {@code false},</li>
+     * <li>if updating the upper bound to {@code value} leads to a dead-end (domain wipe-out),
+     * a {@code ContradictionException} is thrown,</li>
+     * <li>otherwise, if updating the upper bound to {@code value} can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is {@code true}</li>
+     * </ul>
+     *
+     * @param value new upper bound (included)
+     * @param cause update releaser
+     * @return true if the upper bound has been updated, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int old = getUB();
+        if (old > value) {
+            model.getSolver().getEventObserver().updateUpperBound(this, value, old, cause);
+            if (getLB() > value) {
+                this.contradiction(cause, MSG_UPP);
+            } else {
+                removeBetween(value + 1, old, cause, false);
+                this.notifyPropagators(isInstantiated() ? IntEventType.INSTANTIATE : IntEventType.DECUPP, cause);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean updateBounds(int lb, int ub, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int olb = getLB();
+        int oub = getUB();
+        boolean update = false;
+        if (olb < lb || ub < oub) {
+            IntEventType e = null;
+            if (oub < lb) {
+                model.getSolver().getEventObserver().updateLowerBound(this, lb, olb, cause);
+                this.contradiction(cause, MSG_LOW);
+            } else if (olb < lb) {
+                model.getSolver().getEventObserver().updateLowerBound(this, lb, olb, cause);
+                e = IntEventType.INCLOW;
+                removeBetween(olb, lb - 1, cause, false);
+                olb = getLB();
+            }
+            if (olb > ub) {
+                model.getSolver().getEventObserver().updateUpperBound(this, ub, oub, cause);
+                this.contradiction(cause, MSG_UPP);
+            } else if (oub > ub) {
+                model.getSolver().getEventObserver().updateUpperBound(this, ub, oub, cause);
+                e = e == null ? IntEventType.DECUPP : IntEventType.BOUND;
+                removeBetween(ub + 1, oub, cause, false);
+            }
+            if (isInstantiated()) {
+                e = IntEventType.INSTANTIATE;
+            }
+            this.notifyPropagators(e, cause);
+            update = true;
+        }
+        return update;
+    }
+
+    @Override
+    public boolean isInstantiated() {
+        return SIZE.get() == 1;
+    }
+
+    @Override
+    public boolean isInstantiatedTo(int value) {
+        return isInstantiated() && getLB() == value;
+    }
+
+    @Override
+    public boolean contains(int aValue) {
+        if (aValue < getLB() || aValue > getUB()) {
+            return false;
+        }
+        return aValue <= ub(rangeOf(aValue));
+    }
+
+    /**
+     * Retrieves the current value of the variable if instantiated, otherwier the lower bound.
+     *
+     * @return the current value (or lower bound if not yet instantiated).
+     */
+    @Override
+    public int getValue() {
+        assert isInstantiated() : name + " not instantiated";
+        return getLB();
+    }
+
+    /**
+     * Retrieves the lower bound of the variable
+     *
+     * @return the lower bound
+     */
+    @Override
+    public int getLB() {
+        return lb(FIRST.get());
+    }
+
+    /**
+     * Retrieves the upper bound of the variable
+     *
+     * @return the upper bound
+     */
+    @Override
+    public int getUB() {
+        return ub(LAST.get());
+    }
+
+    @Override
+    public int getDomainSize() {
+        return SIZE.get();
+    }
+
+    @Override
+    public int getRange() {
+        return getUB() - getLB() + 1;
+    }
+
+    /**
+     * @return the number of ranges of the current domain
+     */
+    public int getNbRanges() {
+        return LAST.get() - FIRST.get() + 1;
+    }
+
+    @Override
+    public int nextValue(int aValue) {
+        int lb = getLB();
+        if (aValue < lb) {
+            return lb;
+        } else if (aValue >= getUB()) {
+            return Integer.MAX_VALUE;
+        }
+        int r = rangeOf(aValue);
+        return aValue < ub(r) ? aValue + 1 : lb(r + 1);
+    }
+
+    @Override
+    public int nextValueOut(int aValue) {
+        if (getLB() - 1 <= aValue && aValue <= getUB()) {
+            int r = rangeOf(aValue + 1);
+            if (r >= FIRST.get() && aValue + 1 <= ub(r)) {
+                return ub(r) + 1;
+            }
+        }
+        return aValue + 1;
+    }
+
+    @Override
+    public int previousValue(int aValue) {
+        int ub = getUB();
+        if (aValue > ub) {
+            return ub;
+        } else if (aValue <= getLB()) {
+            return Integer.MIN_VALUE;
+        }
+        return Math.min(aValue - 1, ub(rangeOf(aValue - 1)));
+    }
+
+    @Override
+    public int previousValueOut(int aValue) {
+        if (getLB() <= aValue && aValue <= getUB() + 1) {
+            int r = rangeOf(aValue - 1);
+            if (r >= FIRST.get() && aValue - 1 <= ub(r)) {
+                return lb(r) - 1;
+            }
+        }
+        return aValue - 1;
+    }
+
+    @Override
+    public boolean hasEnumeratedDomain() {
+        return true;
+    }
+
+    @Override
+    public IIntervalDelta getDelta() {
+        return delta;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder(20);
+        s.append(name).append(" = ");
+        if (SIZE.get() == 1) {
+            s.append(this.getLB());
+        } else {
+            s.append('{');
+            int nb = 5;
+            for (int r = FIRST.get(), l = LAST.get(); r <= l && nb > 0; r++, nb--) {
+                if (r > FIRST.get()) {
+                    s.append(',');
+                }
+                if (lb(r) == ub(r)) {
+                    s.append(lb(r));
+                } else {
+                    s.append('[').append(lb(r)).append(',').append(ub(r)).append(']');
+                }
+            }
+            if (nb == 0 && getNbRanges() > 5) {
+                s.append(",...,").append(this.getUB());
+            }
+            s.append('}');
+        }
+        return s.toString();
+    }
+
+    ////////////////////////////////////////////////////////////////
+    ///// methode liees au fait qu'une variable est observable /////
+    ////////////////////////////////////////////////////////////////
+
+    @Override
+    public void createDelta() {
+        if (!reactOnRemoval) {
+            delta = new IntervalDelta(model.getEnvironment());
+            reactOnRemoval = true;
+        }
+    }
+
+    @Override
+    public IIntDeltaMonitor monitorDelta(ICause propagator) {
+        createDelta();
+        return new IntervalDeltaMonitor(delta, propagator);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int getTypeAndKind() {
+        return VAR | INT;
+    }
+
+    @Override
+    protected EvtScheduler createScheduler() {
+        return new IntEvtScheduler();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public DisposableValueIterator getValueIterator(boolean bottomUp) {
+        if (_viterator == null || _viterator.isNotReusable()) {
+            _viterator = new DisposableValueIterator() {
+
+                /**
+                 * Current range
+                 */
+                int r;
+                /**
+                 * Current value
+                 */
+                int value;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    r = FIRST.get();
+                    value = lb(r);
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    r = LAST.get();
+                    value = ub(r);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return r <= LAST.get();
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return r >= FIRST.get();
+                }
+
+                @Override
+                public int next() {
+                    int old = value;
+                    if (value < ub(r)) {
+                        value++;
+                    } else if (++r <= LAST.get()) {
+                        value = lb(r);
+                    }
+                    return old;
+                }
+
+                @Override
+                public int previous() {
+                    int old = value;
+                    if (value > lb(r)) {
+                        value--;
+                    } else if (--r >= FIRST.get()) {
+                        value = ub(r);
+                    }
+                    return old;
+                }
+            };
+        }
+        if (bottomUp) {
+            _viterator.bottomUpInit();
+        } else {
+            _viterator.topDownInit();
+        }
+        return _viterator;
+    }
+
+    @Override
+    public DisposableRangeIterator getRangeIterator(boolean bottomUp) {
+        if (_riterator == null || _riterator.isNotReusable()) {
+            _riterator = new DisposableRangeIterator() {
+
+                /**
+                 * Current range
+                 */
+                int r;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    r = FIRST.get();
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    r = LAST.get();
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return r <= LAST.get();
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return r >= FIRST.get();
+                }
+
+                @Override
+                public void next() {
+                    r++;
+                }
+
+                @Override
+                public void previous() {
+                    r--;
+                }
+
+                @Override
+                public int min() {
+                    return lb(r);
+                }
+
+                @Override
+                public int max() {
+                    return ub(r);
+                }
+            };
+        }
+        if (bottomUp) {
+            _riterator.bottomUpInit();
+        } else {
+            _riterator.topDownInit();
+        }
+        return _riterator;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        if (_javaIterator == null) {
+            _javaIterator = new IntVarValueIterator(this);
+        }
+        _javaIterator.reset();
+        return _javaIterator;
+    }
+
+    @Override
+    public void createLit(IntIterableRangeSet rootDomain) {
+        if (this.literal != null) {
+            throw new IllegalStateException("createLit(Implications) called twice");
+        }
+        this.literal = new SignedLiteral.Set(rootDomain);
+    }
+
+    @Override
+    public SignedLiteral getLit() {
+        if (this.literal == null) {
+            throw new NullPointerException("getLit() called on null, a call to createLit(Implications) is required");
+        }
+        return this.literal;
+    }
+}
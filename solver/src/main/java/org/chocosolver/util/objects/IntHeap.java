@@ -147,6 +147,24 @@ public class IntHeap {
         return x;
     }
 
+    /**
+     * Remove an element from this heap.
+     *
+     * @param n element to remove
+     */
+    public void remove(int n) {
+        assert (contains(n));
+        int i = indices.get(n);
+        int last = heap.get(heap.size() - 1);
+        heap.removeAt(heap.size() - 1);
+        indices.set(n, -1);
+        if (last != n) {
+            heap.set(i, last);
+            indices.set(last, i);
+            percolateUp(i);
+            percolateDown(indices.get(last));
+        }
+    }
 
     /**
      * Empty this and add elements from {@code elements}.
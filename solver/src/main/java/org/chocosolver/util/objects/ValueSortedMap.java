@@ -9,16 +9,20 @@
  */
 package org.chocosolver.util.objects;
 
-import gnu.trove.map.hash.TObjectIntHashMap;
+import org.chocosolver.solver.Identity;
 
-import java.util.Iterator;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.TreeMap;
 import java.util.function.Predicate;
 
 /**
  * A map which ensures key uniqueness and order over values.
+ * <p>
+ * Entries are stored in a binary max-heap over values, in two parallel arrays,
+ * and the position of each key in the heap is indexed by the key's id.
+ * So, the largest value is read in constant time,
+ * and it is removed, inserted or updated in logarithmic time, without boxing any value.
+ * </p>
  *
  * @param <E> key's type
  * @author Charles Prud'homme
@@ -26,20 +30,28 @@ import java.util.function.Predicate;
  * choco-solver.
  * @since 30/01/2017.
  */
-public class ValueSortedMap<E> {
+public class ValueSortedMap<E extends Identity> {
 
     /**
      * Default value for no entry
      */
     private static final int NO_ENTRY = -1;
     /**
-     * Set : values -> E
+     * Map : key's id -> position in the heap, or {@link #NO_ENTRY}
      */
-    TObjectIntHashMap<E> map;
+    private int[] pos;
     /**
-     * Ordered set : values -> E
+     * Keys of the heap
      */
-    TreeMap<Integer, E> rmap;
+    private E[] keys;
+    /**
+     * Values of the heap, the largest one is at position 0
+     */
+    private int[] values;
+    /**
+     * Number of entries in the heap
+     */
+    private int size;
 
     /**
      * Create a doubly-linked set E <-> value, where value is a int.
@@ -47,17 +59,24 @@ public class ValueSortedMap<E> {
      * Value can be retrieved through key and key can be retrieved through value.
      * In addition, values are sorted.
      */
+    @SuppressWarnings("unchecked")
     public ValueSortedMap() {
-        this.map = new TObjectIntHashMap<>(16, .5f, NO_ENTRY);
-        this.rmap = new TreeMap<>();
+        this.pos = new int[16];
+        Arrays.fill(pos, NO_ENTRY);
+        this.keys = (E[]) new Identity[16];
+        this.values = new int[16];
+        this.size = 0;
     }
 
     /**
      * Remove all entries from this map.
      */
     public void clear() {
-        map.clear();
-        rmap.clear();
+        for (int i = 0; i < size; i++) {
+            pos[keys[i].getId()] = NO_ENTRY;
+            keys[i] = null;
+        }
+        size = 0;
     }
 
     /**
@@ -67,11 +86,25 @@ public class ValueSortedMap<E> {
      * @param v the value
      */
     public void put(E k, int v) {
-        if(map.containsKey(k)){
-            replace(k, v);
-        }else {
-            map.put(k, v);
-            rmap.put(v, k);
+        int id = k.getId();
+        if (id >= pos.length) {
+            int old = pos.length;
+            pos = Arrays.copyOf(pos, Math.max(id + 1, old + (old >> 1)));
+            Arrays.fill(pos, old, pos.length, NO_ENTRY);
+        }
+        int i = pos[id];
+        if (i != NO_ENTRY) {
+            update(i, v);
+        } else {
+            if (size == keys.length) {
+                int nsize = size + (size >> 1) + 1;
+                keys = Arrays.copyOf(keys, nsize);
+                values = Arrays.copyOf(values, nsize);
+            }
+            keys[size] = k;
+            values[size] = v;
+            pos[id] = size;
+            siftUp(size++);
         }
     }
 
@@ -81,16 +114,10 @@ public class ValueSortedMap<E> {
      * @param v the value
      */
     public void replace(E k, int v) {
-        int cValue = map.get(k);
-        assert cValue != NO_ENTRY;
-        int amount = v - cValue;
-        if(amount != 0) {
-            map.adjustValue(k, amount);
-            rmap.remove(cValue);
-            rmap.put(v, k);
-        }
-        assert rmap.get(map.get(k)) == k;
-        assert map.get(rmap.get(v)) == v;
+        int i = indexOf(k);
+        assert i != NO_ENTRY;
+        update(i, v);
+        assert values[indexOf(k)] == v;
     }
 
     /**
@@ -98,7 +125,8 @@ public class ValueSortedMap<E> {
      * @return value attached to the key <i>k</i>, or {@link #NO_ENTRY} otherwise.
      */
     public int getValue(E k) {
-        return map.get(k);
+        int i = indexOf(k);
+        return i == NO_ENTRY ? NO_ENTRY : values[i];
     }
 
     /**
@@ -107,11 +135,8 @@ public class ValueSortedMap<E> {
      * @return value attached to the key <i>k</i>, or <i>defaultValue</i> otherwise.
      */
     public int getValueOrDefault(E k, int defaultValue) {
-        int value = map.get(k);
-        if (value == NO_ENTRY) {
-            return defaultValue;
-        }
-        return value;
+        int i = indexOf(k);
+        return i == NO_ENTRY ? defaultValue : values[i];
     }
 
     /**
@@ -119,18 +144,21 @@ public class ValueSortedMap<E> {
      * @return the largest value stored in this
      */
     public int getLastValue() {
-//        return rmap.lastValue();
-        return rmap.lastKey();
+        assert size > 0;
+        return values[0];
     }
 
     /**
      * return the lowest value stored in this
      * @return the lowest value stored in this
+     * @implNote runs in linear time
      */
     public int getLowerValue(int value){
-        Integer low = rmap.lowerKey(value);
-        if(low == null){
-            low = -1;
+        int low = -1;
+        for (int i = 0; i < size; i++) {
+            if (values[i] < value && values[i] > low) {
+                low = values[i];
+            }
         }
         return low;
     }
@@ -139,9 +167,10 @@ public class ValueSortedMap<E> {
      * @return  the largest value stored in this
      */
     public int pollLastValue() {
-        Map.Entry<Integer, E> last = rmap.pollLastEntry();
-        map.remove(last.getValue());
-        return last.getKey();
+        assert size > 0;
+        int v = values[0];
+        removeAt(0);
+        return v;
     }
 
     /**
@@ -149,7 +178,10 @@ public class ValueSortedMap<E> {
      * @param k a key
      */
     public void remove(E k){
-        rmap.remove(map.remove(k));
+        int i = indexOf(k);
+        if (i != NO_ENTRY) {
+            removeAt(i);
+        }
     }
 
     /**
@@ -158,25 +190,109 @@ public class ValueSortedMap<E> {
      */
     public boolean removeIf(Predicate<? super E> filter) {
         Objects.requireNonNull(filter);
-        boolean removed = false;
-        final Iterator<E> each = map.keySet().iterator();
-        while (each.hasNext()) {
-            E e = each.next();
-            if (filter.test(e)) {
-                int value = map.get(e);
-                each.remove();
-                rmap.remove(value);
-                removed = true;
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (filter.test(keys[i])) {
+                pos[keys[i].getId()] = NO_ENTRY;
+            } else {
+                keys[n] = keys[i];
+                values[n++] = values[i];
             }
         }
-        return removed;
+        if (n == size) {
+            return false;
+        }
+        Arrays.fill(keys, n, size, null);
+        size = n;
+        // restore the heap property
+        for (int i = 0; i < size; i++) {
+            pos[keys[i].getId()] = i;
+        }
+        for (int i = (size >> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        return true;
     }
 
     /**
      * @return <i>true</i> if this is empty
      */
     public boolean isEmpty() {
-        return map.isEmpty();
+        return size == 0;
+    }
+
+    private int indexOf(E k) {
+        int id = k.getId();
+        return id < pos.length ? pos[id] : NO_ENTRY;
+    }
+
+    private void update(int i, int v) {
+        int old = values[i];
+        values[i] = v;
+        if (v > old) {
+            siftUp(i);
+        } else if (v < old) {
+            siftDown(i);
+        }
+    }
+
+    private void removeAt(int i) {
+        pos[keys[i].getId()] = NO_ENTRY;
+        size--;
+        if (i < size) {
+            int old = values[i];
+            move(size, i);
+            keys[size] = null;
+            if (values[i] > old) {
+                siftUp(i);
+            } else {
+                siftDown(i);
+            }
+        } else {
+            keys[size] = null;
+        }
+    }
+
+    private void siftUp(int i) {
+        E k = keys[i];
+        int v = values[i];
+        while (i > 0) {
+            int p = (i - 1) >> 1;
+            if (values[p] >= v) {
+                break;
+            }
+            move(p, i);
+            i = p;
+        }
+        keys[i] = k;
+        values[i] = v;
+        pos[k.getId()] = i;
+    }
+
+    private void siftDown(int i) {
+        E k = keys[i];
+        int v = values[i];
+        int half = size >> 1;
+        while (i < half) {
+            int c = (i << 1) + 1;
+            if (c + 1 < size && values[c + 1] > values[c]) {
+                c++;
+            }
+            if (v >= values[c]) {
+                break;
+            }
+            move(c, i);
+            i = c;
+        }
+        keys[i] = k;
+        values[i] = v;
+        pos[k.getId()] = i;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+        pos[keys[to].getId()] = to;
     }
 
 }
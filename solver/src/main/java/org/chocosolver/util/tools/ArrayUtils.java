@@ -737,6 +737,22 @@ public enum ArrayUtils {
         }
     }
 
+    /**
+     * Counts the number of ranges of consecutive values in a sorted array without duplicates
+     *
+     * @param sortedValues sorted array of distinct values
+     * @return the number of ranges in <i>sortedValues</i>
+     */
+    public static int nbRanges(int[] sortedValues) {
+        int n = sortedValues.length > 0 ? 1 : 0;
+        for (int i = 1; i < sortedValues.length; i++) {
+            if (sortedValues[i - 1] + 1 < sortedValues[i]) {
+                n++;
+            }
+        }
+        return n;
+    }
+
     /**
      * Sorts the input array if it is not already sorted,
      * and removes multiple occurrences of the same value
@@ -65,7 +65,22 @@ public class RealUtils {
      * @return an interval that represents the result of the addition 'x + y'
      */
     public static RealInterval add(RealInterval x, RealInterval y) {
-        return new RealIntervalConstant(prevFloat(x.getLB() + y.getLB()), nextFloat(x.getUB() + y.getUB()));
+        double[] r = add(x.getLB(), x.getUB(), y.getLB(), y.getUB(), new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #add(RealInterval, RealInterval)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param xl lower bound of 'x'
+     * @param xu upper bound of 'x'
+     * @param yl lower bound of 'y'
+     * @param yu upper bound of 'y'
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] add(double xl, double xu, double yl, double yu, double[] out) {
+        return set(out, prevFloat(xl + yl), nextFloat(xu + yu));
     }
 
     /**
@@ -76,7 +91,22 @@ public class RealUtils {
      * @return an interval that represents the result of the difference : 'x - y'
      */
     public static RealInterval sub(RealInterval x, RealInterval y) {
-        return new RealIntervalConstant(prevFloat(x.getLB() - y.getUB()), nextFloat(x.getUB() - y.getLB()));
+        double[] r = sub(x.getLB(), x.getUB(), y.getLB(), y.getUB(), new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #sub(RealInterval, RealInterval)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param xl lower bound of 'x'
+     * @param xu upper bound of 'x'
+     * @param yl lower bound of 'y'
+     * @param yu upper bound of 'y'
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] sub(double xl, double xu, double yl, double yu, double[] out) {
+        return set(out, prevFloat(xl - yu), nextFloat(xu - yl));
     }
 
     /**
@@ -87,51 +117,66 @@ public class RealUtils {
      * @return an interval that represents the result of the multiplication : 'x * y'
      */
     public static RealInterval mul(RealInterval x, RealInterval y) {
+        double[] r = mul(x.getLB(), x.getUB(), y.getLB(), y.getUB(), new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #mul(RealInterval, RealInterval)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param xl lower bound of 'x'
+     * @param xu upper bound of 'x'
+     * @param yl lower bound of 'y'
+     * @param yu upper bound of 'y'
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] mul(double xl, double xu, double yl, double yu, double[] out) {
         double i, s;
 
-        if ((x.getLB() == 0.0 && x.getUB() == 0.0) || (y.getLB() == 0.0 && y.getUB() == 0.0)) {
+        if ((xl == 0.0 && xu == 0.0) || (yl == 0.0 && yu == 0.0)) {
             i = NEG_ZER0; // Ca peut etre utile pour rejoindre des intervalles : si on veut aller de -5 a 0,
             s = 0.0;
             // ca sera 0-.
         } else {
-            if (x.getLB() >= 0.0) {
-                if (y.getLB() >= 0.0) {
-                    i = Math.max(ZERO, prevFloat(x.getLB() * y.getLB())); // Si x et y positifs, on ne veut pas etre n?gatif !
-                    s = nextFloat(x.getUB() * y.getUB());
-                } else if (y.getUB() <= 0.0) {
-                    i = prevFloat(x.getUB() * y.getLB());
-                    s = Math.min(ZERO, nextFloat(x.getLB() * y.getUB()));
+            if (xl >= 0.0) {
+                if (yl >= 0.0) {
+                    i = Math.max(ZERO, prevFloat(xl * yl)); // Si x et y positifs, on ne veut pas etre n?gatif !
+                    s = nextFloat(xu * yu);
+                } else if (yu <= 0.0) {
+                    i = prevFloat(xu * yl);
+                    s = Math.min(ZERO, nextFloat(xl * yu));
                 } else {
-                    i = prevFloat(x.getUB() * y.getLB());
-                    s = nextFloat(x.getUB() * y.getUB());
+                    i = prevFloat(xu * yl);
+                    s = nextFloat(xu * yu);
                 }
-            } else if (x.getUB() <= 0.0) {
-                if (y.getLB() >= 0.0) {
-                    i = prevFloat(x.getLB() * y.getUB());
-                    s = Math.min(ZERO, nextFloat(x.getUB() * y.getLB()));
-                } else if (y.getUB() <= 0.0) {
-                    i = Math.max(ZERO, prevFloat(x.getUB() * y.getUB()));
-                    s = nextFloat(x.getLB() * y.getLB());
+            } else if (xu <= 0.0) {
+                if (yl >= 0.0) {
+                    i = prevFloat(xl * yu);
+                    s = Math.min(ZERO, nextFloat(xu * yl));
+                } else if (yu <= 0.0) {
+                    i = Math.max(ZERO, prevFloat(xu * yu));
+                    s = nextFloat(xl * yl);
                 } else {
-                    i = prevFloat(x.getLB() * y.getUB());
-                    s = nextFloat(x.getLB() * y.getLB());
+                    i = prevFloat(xl * yu);
+                    s = nextFloat(xl * yl);
                 }
             } else {
-                if (y.getLB() >= 0.0) {
-                    i = prevFloat(x.getLB() * y.getUB());
-                    s = nextFloat(x.getUB() * y.getUB());
-                } else if (y.getUB() <= 0.0) {
-                    i = prevFloat(x.getUB() * y.getLB());
-                    s = nextFloat(x.getLB() * y.getLB());
+                if (yl >= 0.0) {
+                    i = prevFloat(xl * yu);
+                    s = nextFloat(xu * yu);
+                } else if (yu <= 0.0) {
+                    i = prevFloat(xu * yl);
+                    s = nextFloat(xl * yl);
                 } else {
-                    i = Math.min(prevFloat(x.getLB() * y.getUB()),
-                            prevFloat(x.getUB() * y.getLB()));
-                    s = Math.max(nextFloat(x.getLB() * y.getLB()),
-                            nextFloat(x.getUB() * y.getUB()));
+                    i = Math.min(prevFloat(xl * yu),
+                            prevFloat(xu * yl));
+                    s = Math.max(nextFloat(xl * yl),
+                            nextFloat(xu * yu));
                 }
             }
         }
-        return new RealIntervalConstant(i, s);
+        return set(out, i, s);
     }
 
     /**
@@ -142,42 +187,55 @@ public class RealUtils {
      * @return an interval that represents the result of the division : 'x / y'.
      */
     public static RealInterval odiv(RealInterval x, RealInterval y) {
-        if (y.getLB() >= 0.0 && y.getUB() <= 0.0) {
+        double[] r = odiv(x.getLB(), x.getUB(), y.getLB(), y.getUB(), new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #odiv(RealInterval, RealInterval)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param xl lower bound of 'x'
+     * @param xu upper bound of 'x'
+     * @param yl lower bound of 'y'
+     * @param yu upper bound of 'y'
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] odiv(double xl, double xu, double yl, double yu, double[] out) {
+        if (yl >= 0.0 && yu <= 0.0) {
             throw new ArithmeticException("the divisor is 0");
         } else {
-            double yl = y.getLB();
-            double yh = y.getUB();
             double i, s;
             i = Double.NEGATIVE_INFINITY;
             s = Double.POSITIVE_INFINITY;
-            if (yh == 0.0) yh = NEG_ZER0;
+            if (yu == 0.0) yu = NEG_ZER0;
 
-            if (x.getLB() >= 0.0) {
+            if (xl >= 0.0) {
                 if (yl >= 0.0) {
-                    i = Math.max(ZERO, prevFloat(x.getLB() / yh));
-                    s = nextFloat(x.getUB() / yl);
-                } else if (yh <= 0.0) { // yh <= 0
-                    i = prevFloat(x.getUB() / yh);
-                    s = Math.min(ZERO, nextFloat(x.getLB() / yl));
+                    i = Math.max(ZERO, prevFloat(xl / yu));
+                    s = nextFloat(xu / yl);
+                } else if (yu <= 0.0) { // yu <= 0
+                    i = prevFloat(xu / yu);
+                    s = Math.min(ZERO, nextFloat(xl / yl));
                 } // else skip : 0 in y
-            } else if (x.getUB() <= 0.0) {
+            } else if (xu <= 0.0) {
                 if (yl >= 0.0) {
-                    i = prevFloat(x.getLB() / yl);
-                    s = Math.min(ZERO, nextFloat(x.getUB() / yh));
-                } else if (yh <= 0.0) { // yh <= 0
-                    i = Math.max(ZERO, prevFloat(x.getUB() / yl));
-                    s = nextFloat(x.getLB() / yh);
+                    i = prevFloat(xl / yl);
+                    s = Math.min(ZERO, nextFloat(xu / yu));
+                } else if (yu <= 0.0) { // yu <= 0
+                    i = Math.max(ZERO, prevFloat(xu / yl));
+                    s = nextFloat(xl / yu);
                 } // else skip : 0 in y
             } else {
                 if (yl >= 0.0) {
-                    i = prevFloat(x.getLB() / yl);
-                    s = nextFloat(x.getUB() / yl);
-                } else if (yh <= 0.0) { // yh <= 0
-                    i = prevFloat(x.getUB() / yh);
-                    s = nextFloat(x.getLB() / yh);
+                    i = prevFloat(xl / yl);
+                    s = nextFloat(xu / yl);
+                } else if (yu <= 0.0) { // yu <= 0
+                    i = prevFloat(xu / yu);
+                    s = nextFloat(xl / yu);
                 } // else skip : 0 in y
             }
-            return new RealIntervalConstant(i, s);
+            return set(out, i, s);
         }
     }
 
@@ -190,26 +248,43 @@ public class RealUtils {
      * @return an interval that represents the result of the division : 'x / y'.
      */
     public static RealInterval odiv_wrt(RealInterval x, RealInterval y, RealInterval res) {
-        if (y.getLB() > 0.0 || y.getUB() < 0.0) {  // y != 0
-            return odiv(x, y);
+        double[] r = odiv_wrt(x.getLB(), x.getUB(), y.getLB(), y.getUB(), res.getLB(), res.getUB(), new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #odiv_wrt(RealInterval, RealInterval, RealInterval)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param xl lower bound of 'x'
+     * @param xu upper bound of 'x'
+     * @param yl lower bound of 'y'
+     * @param yu upper bound of 'y'
+     * @param rl lower bound of 'res'
+     * @param ru upper bound of 'res'
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] odiv_wrt(double xl, double xu, double yl, double yu, double rl, double ru, double[] out) {
+        if (yl > 0.0 || yu < 0.0) {  // y != 0
+            return odiv(xl, xu, yl, yu, out);
         } else {
-            double resl = res.getLB();
-            double resh = res.getUB();
+            double resl = rl;
+            double resh = ru;
 
-            if (x.getLB() >= 0.0) {
-                double tmp_neg = nextFloat(x.getLB() / y.getLB()); // la plus grande valeur negative
-                double tmp_pos = prevFloat(x.getLB() / y.getUB()); // la plus petite valeur positive
+            if (xl >= 0.0) {
+                double tmp_neg = nextFloat(xl / yl); // la plus grande valeur negative
+                double tmp_pos = prevFloat(xl / yu); // la plus petite valeur positive
 
                 if ((resl > tmp_neg || resl == 0.0) && resl < tmp_pos) resl = tmp_pos;
                 if ((resh < tmp_pos || resh == 0.0) && resh > tmp_neg) resh = tmp_neg;
-            } else if (x.getUB() <= 0.0) {
-                double tmp_neg = nextFloat(x.getUB() / y.getUB());
-                double tmp_pos = nextFloat(x.getUB() / y.getLB());
+            } else if (xu <= 0.0) {
+                double tmp_neg = nextFloat(xu / yu);
+                double tmp_pos = nextFloat(xu / yl);
 
                 if ((resl > tmp_neg || resl == 0.0) && resl < tmp_pos) resl = tmp_pos;
                 if ((resh < tmp_pos || resh == 0.0) && resh > tmp_neg) resh = tmp_neg;
             }
-            return new RealIntervalConstant(resl, resh);
+            return set(out, resl, resh);
         }
     }
 
@@ -219,15 +294,7 @@ public class RealUtils {
      * @return the first half of 'i'
      */
     public static RealInterval firstHalf(RealInterval i) {
-        double inf = i.getLB();
-        if (inf == Double.NEGATIVE_INFINITY) {
-            inf = -Double.MAX_VALUE;
-        }
-        double sup = i.getUB();
-        if (sup == Double.POSITIVE_INFINITY) {
-            sup = Double.MAX_VALUE;
-        }
-        return new RealIntervalConstant(i.getLB(), inf + sup / 2.0 - inf / 2.0);
+        return new RealIntervalConstant(i.getLB(), middle(i.getLB(), i.getUB()));
     }
 
     /**
@@ -236,15 +303,30 @@ public class RealUtils {
      * @return the second half of 'i'
      */
     public static RealInterval secondHalf(RealInterval i) {
-        double inf = i.getLB();
-        if (inf == Double.NEGATIVE_INFINITY) {
-            inf = -Double.MAX_VALUE;
+        return new RealIntervalConstant(middle(i.getLB(), i.getUB()), i.getUB());
+    }
+
+    /**
+     * Given an interval '[a,b]' returns a + (b-a)/2, where infinite bounds are replaced by finite ones.
+     * This is the splitting point of {@link #firstHalf(RealInterval)} and {@link #secondHalf(RealInterval)}.
+     * @param lb lower bound of the interval
+     * @param ub upper bound of the interval
+     * @return the middle of '[lb, ub]'
+     */
+    public static double middle(double lb, double ub) {
+        if (lb == Double.NEGATIVE_INFINITY) {
+            lb = -Double.MAX_VALUE;
         }
-        double sup = i.getUB();
-        if (sup == Double.POSITIVE_INFINITY) {
-            sup = Double.MAX_VALUE;
+        if (ub == Double.POSITIVE_INFINITY) {
+            ub = Double.MAX_VALUE;
         }
-        return new RealIntervalConstant(inf + sup / 2.0 - inf / 2.0, i.getUB());
+        return lb + ub / 2.0 - lb / 2.0;
+    }
+
+    private static double[] set(double[] out, double lb, double ub) {
+        out[0] = lb;
+        out[1] = ub;
+        return out;
     }
 
     private static double iPower_lo(double x, int p) {   // TODO : to check !
@@ -260,84 +342,84 @@ public class RealUtils {
         return nextFloat(Math.exp(nextFloat(p * nextFloat(Math.log(x)))));
     }
 
-    private static RealInterval evenIPower(RealInterval i, int p) {
+    private static double[] evenIPower(double il, double iu, int p, double[] out) {
         double inf, sup;
-        if (i.getLB() >= 0.0) {
-            if (i.getLB() == Double.POSITIVE_INFINITY) {
+        if (il >= 0.0) {
+            if (il == Double.POSITIVE_INFINITY) {
                 inf = Double.POSITIVE_INFINITY;
                 sup = Double.POSITIVE_INFINITY;
             } else {
-                inf = iPower_lo(i.getLB(), p);
-                if (i.getUB() == Double.POSITIVE_INFINITY) {
+                inf = iPower_lo(il, p);
+                if (iu == Double.POSITIVE_INFINITY) {
                     sup = Double.POSITIVE_INFINITY;
                 } else {
-                    sup = iPower_up(i.getUB(), p);
+                    sup = iPower_up(iu, p);
                 }
             }
-        } else if (i.getUB() <= 0.0) {
-            if (i.getUB() == Double.NEGATIVE_INFINITY) {
+        } else if (iu <= 0.0) {
+            if (iu == Double.NEGATIVE_INFINITY) {
                 inf = Double.POSITIVE_INFINITY;
                 sup = Double.POSITIVE_INFINITY;
             } else {
-                inf = iPower_lo(-i.getUB(), p);
-                if (i.getLB() == Double.NEGATIVE_INFINITY) {
+                inf = iPower_lo(-iu, p);
+                if (il == Double.NEGATIVE_INFINITY) {
                     sup = Double.POSITIVE_INFINITY;
                 } else {
-                    sup = iPower_up(-i.getLB(), p);
+                    sup = iPower_up(-il, p);
                 }
             }
         } else {
             inf = 0;
-            if (i.getLB() == Double.NEGATIVE_INFINITY ||
-                    i.getUB() == Double.POSITIVE_INFINITY) {
+            if (il == Double.NEGATIVE_INFINITY ||
+                    iu == Double.POSITIVE_INFINITY) {
                 sup = Double.POSITIVE_INFINITY;
             } else {
-                sup = Math.max(iPower_up(-i.getLB(), p),
-                        iPower_up(i.getUB(), p));
+                sup = Math.max(iPower_up(-il, p),
+                        iPower_up(iu, p));
             }
         }
-        return new RealIntervalConstant(inf, sup);
+        return set(out, inf, sup);
     }
 
-    private static RealInterval oddIPower(RealInterval i, int p) {
+    private static double[] oddIPower(double il, double iu, int p, double[] out) {
         double inf, sup;
-        if (i.getLB() >= 0.0) {
-            if (i.getLB() == Double.POSITIVE_INFINITY) {
+        if (il >= 0.0) {
+            if (il == Double.POSITIVE_INFINITY) {
                 inf = Double.POSITIVE_INFINITY;
                 sup = Double.POSITIVE_INFINITY;
             } else {
-                inf = iPower_lo(i.getLB(), p);
-                if (i.getUB() == Double.POSITIVE_INFINITY) {
+                inf = iPower_lo(il, p);
+                if (iu == Double.POSITIVE_INFINITY) {
                     sup = Double.POSITIVE_INFINITY;
                 } else {
-                    sup = iPower_up(i.getUB(), p);
+                    sup = iPower_up(iu, p);
                 }
             }
-        } else if (i.getUB() <= 0.0) {
-            if (i.getUB() == Double.NEGATIVE_INFINITY) {
+        } else if (iu <= 0.0) {
+            if (iu == Double.NEGATIVE_INFINITY) {
                 inf = Double.NEGATIVE_INFINITY;
                 sup = Double.NEGATIVE_INFINITY;
             } else {
-                sup = -iPower_lo(-i.getUB(), p);
-                if (i.getLB() == Double.NEGATIVE_INFINITY) {
+                sup = -iPower_lo(-iu, p);
+                if (il == Double.NEGATIVE_INFINITY) {
                     inf = Double.NEGATIVE_INFINITY;
                 } else {
-                    inf = -iPower_up(-i.getLB(), p);
+                    inf = -iPower_up(-il, p);
                 }
             }
         } else {
-            if (i.getLB() == Double.NEGATIVE_INFINITY) {
+            if (il == Double.NEGATIVE_INFINITY) {
                 inf = Double.NEGATIVE_INFINITY;
             } else {
-                inf = -iPower_up(-i.getLB(), p);
+                inf = -iPower_up(-il, p);
             }
-            if (i.getUB() == Double.POSITIVE_INFINITY) {
+            if (iu == Double.POSITIVE_INFINITY) {
                 sup = Double.POSITIVE_INFINITY;
             } else {
-                sup = iPower_up(i.getUB(), p);
+                sup = iPower_up(iu, p);
             }
         }
-        return new RealIntervalConstant(inf, sup);
+        return set(out, inf, sup);
     }
 
     /**
@@ -348,13 +430,27 @@ public class RealUtils {
      * @return an interval that represents the result of : 'i^p'.
      */
     public static RealInterval iPower(RealInterval i, int p) {
+        double[] r = iPower(i.getLB(), i.getUB(), p, new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #iPower(RealInterval, int)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param il lower bound of 'i'
+     * @param iu upper bound of 'i'
+     * @param p an integer
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] iPower(double il, double iu, int p, double[] out) {
         if (p <= 1) {
             throw new UnsupportedOperationException();
         }
         if (p % 2 == 0) { // pair
-            return evenIPower(i, p);
+            return evenIPower(il, iu, p, out);
         } else { // impair
-            return oddIPower(i, p);
+            return oddIPower(il, iu, p, out);
         }
     }
 
@@ -388,47 +484,47 @@ public class RealUtils {
             return nextFloat(Math.exp(nextFloat(d_hi * nextFloat(Math.log(x)))));
     }
 
-    private static RealInterval evenIRoot(RealInterval i, int p) {
-        if (i.getUB() < 0) {
+    private static double[] evenIRoot(double il, double iu, int p, double[] out) {
+        if (iu < 0) {
             System.err.println("Erreur !!");
         }
-        double inf = i.getLB() < 0. ? 0. : iRoot_lo(i.getLB(), p);
-        double sup = iRoot_up(i.getUB(), p);
-        return new RealIntervalConstant(inf, sup);
+        double inf = il < 0. ? 0. : iRoot_lo(il, p);
+        double sup = iRoot_up(iu, p);
+        return set(out, inf, sup);
     }
 
-    private static RealInterval evenIRoot(RealInterval i, int p, RealInterval res) {
-            if (i.getUB() < 0) {
-                System.err.println("Erreur !!");
-            }
-            double inf, sup;
-            if (i.getLB() < 0)
-                inf = 0;
-            else
-                inf = iRoot_lo(i.getLB(), p);
-            sup = iRoot_up(i.getUB(), p);
-
-            if (res.getUB() < inf)
-                return new RealIntervalConstant(-sup, -inf);
-            else if (res.getLB() > sup)
-                return new RealIntervalConstant(inf, sup);
-            else
-                return new RealIntervalConstant(-sup, sup);
-        }
-
-    private static RealInterval oddIRoot(RealInterval i, int p) {
+    private static double[] evenIRoot(double il, double iu, int p, double rl, double ru, double[] out) {
+        if (iu < 0) {
+            System.err.println("Erreur !!");
+        }
+        double inf, sup;
+        if (il < 0)
+            inf = 0;
+        else
+            inf = iRoot_lo(il, p);
+        sup = iRoot_up(iu, p);
+
+        if (ru < inf)
+            return set(out, -sup, -inf);
+        else if (rl > sup)
+            return set(out, inf, sup);
+        else
+            return set(out, -sup, sup);
+    }
+
+    private static double[] oddIRoot(double il, double iu, int p, double[] out) {
         double inf, sup;
-        if (i.getLB() >= 0) {
-            inf = iRoot_lo(i.getLB(), p);
+        if (il >= 0) {
+            inf = iRoot_lo(il, p);
         } else {
-            inf = -iRoot_up(-i.getLB(), p);
+            inf = -iRoot_up(-il, p);
         }
-        if (i.getUB() >= 0) {
-            sup = iRoot_up(i.getUB(), p);
+        if (iu >= 0) {
+            sup = iRoot_up(iu, p);
         } else {
-            sup = -iRoot_lo(-i.getUB(), p);
+            sup = -iRoot_lo(-iu, p);
         }
-        return new RealIntervalConstant(inf, sup);
+        return set(out, inf, sup);
     }
 
     /**
@@ -439,13 +535,27 @@ public class RealUtils {
      * @return an interval that represents the result of : 'i^(1/p)'.
      */
     public static RealInterval iRoot(RealInterval i, int p) {
+        double[] r = iRoot(i.getLB(), i.getUB(), p, new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #iRoot(RealInterval, int)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param il lower bound of 'i'
+     * @param iu upper bound of 'i'
+     * @param p an integer
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] iRoot(double il, double iu, int p, double[] out) {
         if (p <= 1) {
             throw new UnsupportedOperationException();
         }
         if (p % 2 == 0) {
-            return evenIRoot(i, p);
+            return evenIRoot(il, iu, p, out);
         } else {
-            return oddIRoot(i, p);
+            return oddIRoot(il, iu, p, out);
         }
     }
 
@@ -460,31 +570,47 @@ public class RealUtils {
      * @return an interval that represents the result of : 'i^(1/p)'.
      */
     public static RealInterval iRoot(RealInterval i, int p, RealInterval res) {
+        double[] r = iRoot(i.getLB(), i.getUB(), p, res.getLB(), res.getUB(), new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #iRoot(RealInterval, int, RealInterval)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param il lower bound of 'i'
+     * @param iu upper bound of 'i'
+     * @param p an integer
+     * @param rl lower bound of 'res'
+     * @param ru upper bound of 'res'
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] iRoot(double il, double iu, int p, double rl, double ru, double[] out) {
         if (p <= 1) {
             throw new UnsupportedOperationException();
         }
         if (p % 2 == 0) {
-            return evenIRoot(i, p, res);
+            return evenIRoot(il, iu, p, rl, ru, out);
         } else {
-            return oddIRoot(i, p);
+            return oddIRoot(il, iu, p, out);
         }
     }
 
-    private static RealInterval sinRange(int a, int b) {
+    private static double[] sinRange(int a, int b, double[] out) {
         switch (4 * a + b) {
             case 1:
-                return new RealIntervalConstant(1.0, 1.0);
+                return set(out, 1.0, 1.0);
             case 2:
             case 13:
-                return new RealIntervalConstant(0.0, 1.0);
+                return set(out, 0.0, 1.0);
             case 6:
             case 12:
-                return new RealIntervalConstant(0.0, 0.0);
+                return set(out, 0.0, 0.0);
             case 7:
             case 8:
-                return new RealIntervalConstant(-1.0, 0.0);
+                return set(out, -1.0, 0.0);
             case 11:
-                return new RealIntervalConstant(-1.0, -1.0);
+                return set(out, -1.0, -1.0);
             default:
                 throw new UnsupportedOperationException();
         }
@@ -496,36 +622,49 @@ public class RealUtils {
      * @return the result of 'cos(i)'
      */
     public static RealInterval cos(RealInterval i) {
-        if (i.getUB() - i.getLB() > prevFloat(1.5 * prevFloat(Math.PI))) {
-            return new RealIntervalConstant(-1.0, 1.0);
+        double[] r = cos(i.getLB(), i.getUB(), new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #cos(RealInterval)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param il lower bound of 'i'
+     * @param iu upper bound of 'i'
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] cos(double il, double iu, double[] out) {
+        if (iu - il > prevFloat(1.5 * prevFloat(Math.PI))) {
+            return set(out, -1.0, 1.0);
         }
         int nlo, nup;
-        if (i.getLB() >= 0) {
-            nlo = (int) Math.floor(prevFloat(prevFloat(i.getLB() * 2.0) / nextFloat(Math.PI)));
+        if (il >= 0) {
+            nlo = (int) Math.floor(prevFloat(prevFloat(il * 2.0) / nextFloat(Math.PI)));
         } else {
-            nlo = (int) Math.floor(prevFloat(prevFloat(i.getLB() * 2.0) / prevFloat(Math.PI)));
+            nlo = (int) Math.floor(prevFloat(prevFloat(il * 2.0) / prevFloat(Math.PI)));
         }
-        if (i.getUB() >= 0) {
-            nup = (int) Math.floor(nextFloat(nextFloat(i.getUB() * 2.0) / prevFloat(Math.PI)));
+        if (iu >= 0) {
+            nup = (int) Math.floor(nextFloat(nextFloat(iu * 2.0) / prevFloat(Math.PI)));
         } else {
-            nup = (int) Math.floor(nextFloat(nextFloat(i.getUB() * 2.0) / nextFloat(Math.PI)));
+            nup = (int) Math.floor(nextFloat(nextFloat(iu * 2.0) / nextFloat(Math.PI)));
         }
         if ((((nup - nlo) % 4) + 4) % 4 == 3) {
-            return new RealIntervalConstant(-1.0, 1.0);
+            return set(out, -1.0, 1.0);
         }
-        double clo = Math.min(prevFloat(Math.cos(i.getLB())), prevFloat(Math.cos(i.getUB())));
-        double cup = Math.max(nextFloat(Math.cos(i.getLB())), nextFloat(Math.cos(i.getUB())));
+        double clo = Math.min(prevFloat(Math.cos(il)), prevFloat(Math.cos(iu)));
+        double cup = Math.max(nextFloat(Math.cos(il)), nextFloat(Math.cos(iu)));
         if ((((nup - nlo) % 4) + 4) % 4 == 0) {
-            return new RealIntervalConstant(clo, cup);
+            return set(out, clo, cup);
         }
-        RealInterval mask = sinRange((((nlo + 1) % 4) + 4) % 4, (((nup + 1) % 4) + 4) % 4);
-        if (mask.getLB() < clo) {
-            clo = mask.getLB();
+        double[] mask = sinRange((((nlo + 1) % 4) + 4) % 4, (((nup + 1) % 4) + 4) % 4, out);
+        if (mask[0] < clo) {
+            clo = mask[0];
         }
-        if (mask.getUB() > cup) {
-            cup = mask.getUB();
+        if (mask[1] > cup) {
+            cup = mask[1];
         }
-        return new RealIntervalConstant(clo, cup);
+        return set(out, clo, cup);
     }
 
     /**
@@ -534,37 +673,50 @@ public class RealUtils {
      * @return the result of 'sin(i)'
      */
     public static RealInterval sin(RealInterval i) {
-        if (i.getUB() - i.getLB() > prevFloat(1.5 * prevFloat(Math.PI))) {
-            return new RealIntervalConstant(-1.0, 1.0);
+        double[] r = sin(i.getLB(), i.getUB(), new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #sin(RealInterval)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param il lower bound of 'i'
+     * @param iu upper bound of 'i'
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] sin(double il, double iu, double[] out) {
+        if (iu - il > prevFloat(1.5 * prevFloat(Math.PI))) {
+            return set(out, -1.0, 1.0);
         }
         int nlo, nup;
-        if (i.getLB() >= 0) {
-            nlo = (int) Math.floor(prevFloat(prevFloat(i.getLB() * 2.0) / nextFloat(Math.PI)));
+        if (il >= 0) {
+            nlo = (int) Math.floor(prevFloat(prevFloat(il * 2.0) / nextFloat(Math.PI)));
         } else {
-            nlo = (int) Math.floor(prevFloat(prevFloat(i.getLB() * 2.0) / prevFloat(Math.PI)));
+            nlo = (int) Math.floor(prevFloat(prevFloat(il * 2.0) / prevFloat(Math.PI)));
         }
-        if (i.getUB() >= 0) {
-            nup = (int) Math.floor(nextFloat(nextFloat(i.getUB() * 2.0) / prevFloat(Math.PI)));
+        if (iu >= 0) {
+            nup = (int) Math.floor(nextFloat(nextFloat(iu * 2.0) / prevFloat(Math.PI)));
         } else {
-            nup = (int) Math.floor(nextFloat(nextFloat(i.getUB() * 2.0) / nextFloat(Math.PI)));
+            nup = (int) Math.floor(nextFloat(nextFloat(iu * 2.0) / nextFloat(Math.PI)));
         }
         if ((((nup - nlo) % 4) + 4) % 4 == 3) {
-            return new RealIntervalConstant(-1.0, 1.0);
+            return set(out, -1.0, 1.0);
         }
-        double clo = Math.min(prevFloat(Math.sin(i.getLB())), prevFloat(Math.sin(i.getUB())));
-        double cup = Math.max(nextFloat(Math.sin(i.getLB())), nextFloat(Math.sin(i.getUB())));
+        double clo = Math.min(prevFloat(Math.sin(il)), prevFloat(Math.sin(iu)));
+        double cup = Math.max(nextFloat(Math.sin(il)), nextFloat(Math.sin(iu)));
 
         if ((((nup - nlo) % 4) + 4) % 4 == 0) {
-            return new RealIntervalConstant(clo, cup);
+            return set(out, clo, cup);
         }
-        RealInterval mask = sinRange(((nlo % 4) + 4) % 4, ((nup % 4) + 4) % 4);
-        if (mask.getLB() < clo) {
-            clo = mask.getLB();
+        double[] mask = sinRange(((nlo % 4) + 4) % 4, ((nup % 4) + 4) % 4, out);
+        if (mask[0] < clo) {
+            clo = mask[0];
         }
-        if (mask.getUB() > cup) {
-            cup = mask.getUB();
+        if (mask[1] > cup) {
+            cup = mask[1];
         }
-        return new RealIntervalConstant(clo, cup);
+        return set(out, clo, cup);
     }
 
     /**
@@ -576,12 +728,27 @@ public class RealUtils {
      * @return an interval that represents the result of the division : 'asin(i)'.
      */
     public static RealInterval asin_wrt(RealInterval i, RealInterval res) {
+        double[] r = asin_wrt(i.getLB(), i.getUB(), res.getLB(), res.getUB(), new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #asin_wrt(RealInterval, RealInterval)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param il lower bound of 'i'
+     * @param iu upper bound of 'i'
+     * @param rl lower bound of 'res'
+     * @param ru upper bound of 'res'
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] asin_wrt(double il, double iu, double rl, double ru, double[] out) {
         double retSup = Double.POSITIVE_INFINITY, retInf = Double.NEGATIVE_INFINITY;
-        double asinl = prevFloat(Math.asin(i.getLB()));
-        double asinu = nextFloat(Math.asin(i.getUB()));
+        double asinl = prevFloat(Math.asin(il));
+        double asinu = nextFloat(Math.asin(iu));
 
         // Lower bound
-        int modSup = (int) Math.floor((res.getLB() + nextFloat(Math.PI)) / prevFloat(2 * Math.PI));
+        int modSup = (int) Math.floor((rl + nextFloat(Math.PI)) / prevFloat(2 * Math.PI));
         double decSup, decInf;
 
         if (modSup < 0) {
@@ -595,26 +762,26 @@ public class RealUtils {
             decInf = 0.0;
         }
 
-        if (i.getLB() > -1.0) {
-            if ((res.getLB() > nextFloat(nextFloat(-Math.PI) - asinl + decSup)) &&
-                    (res.getLB() < prevFloat(asinl + decInf))) {
+        if (il > -1.0) {
+            if ((rl > nextFloat(nextFloat(-Math.PI) - asinl + decSup)) &&
+                    (rl < prevFloat(asinl + decInf))) {
                 retInf = prevFloat(asinl + decInf);
             }
-            if ((res.getLB() > nextFloat(nextFloat(Math.PI) - asinl + decSup)) &&
-                    (res.getLB() < prevFloat(asinl + 2 * prevFloat(Math.PI) + decInf))) {
+            if ((rl > nextFloat(nextFloat(Math.PI) - asinl + decSup)) &&
+                    (rl < prevFloat(asinl + 2 * prevFloat(Math.PI) + decInf))) {
                 retInf = prevFloat(asinl + 2 * prevFloat(Math.PI) + decInf);
             }
         }
 
-        if (i.getUB() < 1.0) {
-            if ((res.getLB() > asinu + decSup) &&
-                    (res.getLB() < prevFloat(prevFloat(Math.PI) - asinu) + decInf)) {
+        if (iu < 1.0) {
+            if ((rl > asinu + decSup) &&
+                    (rl < prevFloat(prevFloat(Math.PI) - asinu) + decInf)) {
                 retInf = prevFloat(prevFloat(Math.PI) - asinu) + decInf;
             }
         }
 
         // Upper bound
-        modSup = (int) Math.floor((res.getUB() + nextFloat(Math.PI)) / prevFloat(2 * Math.PI));
+        modSup = (int) Math.floor((ru + nextFloat(Math.PI)) / prevFloat(2 * Math.PI));
 
         if (modSup < 0) {
             decSup = nextFloat(2 * modSup * prevFloat(Math.PI));
@@ -627,25 +794,25 @@ public class RealUtils {
             decInf = 0.0;
         }
 
-        if (i.getLB() > -1.0) {
-            if ((res.getUB() > nextFloat(nextFloat(-Math.PI) - asinl + decSup)) &&
-                    (res.getUB() < prevFloat(asinl + decInf))) {
+        if (il > -1.0) {
+            if ((ru > nextFloat(nextFloat(-Math.PI) - asinl + decSup)) &&
+                    (ru < prevFloat(asinl + decInf))) {
                 retSup = nextFloat(nextFloat(-Math.PI) - asinl + decSup);
             }
-            if ((res.getUB() > nextFloat(nextFloat(Math.PI) - asinl + decSup)) &&
-                    (res.getUB() < prevFloat(asinl + 2 * prevFloat(Math.PI) + decInf))) {
+            if ((ru > nextFloat(nextFloat(Math.PI) - asinl + decSup)) &&
+                    (ru < prevFloat(asinl + 2 * prevFloat(Math.PI) + decInf))) {
                 retSup = nextFloat(nextFloat(Math.PI) - asinl + decSup);
             }
         }
 
-        if (i.getUB() < 1.0) {
-            if ((res.getUB() > asinu + decSup) &&
-                    (res.getUB() < prevFloat(prevFloat(Math.PI) - asinu) + decInf)) {
+        if (iu < 1.0) {
+            if ((ru > asinu + decSup) &&
+                    (ru < prevFloat(prevFloat(Math.PI) - asinu) + decInf)) {
                 retSup = asinu + decSup;
             }
         }
 
-        return new RealIntervalConstant(retInf, retSup);
+        return set(out, retInf, retSup);
     }
 
     /**
@@ -657,12 +824,27 @@ public class RealUtils {
      * @return an interval that represents the result of the division : 'acos(i)'.
      */
     public static RealInterval acos_wrt(RealInterval i, RealInterval res) {
+        double[] r = acos_wrt(i.getLB(), i.getUB(), res.getLB(), res.getUB(), new double[2]);
+        return new RealIntervalConstant(r[0], r[1]);
+    }
+
+    /**
+     * Same as {@link #acos_wrt(RealInterval, RealInterval)}, without allocation:
+     * the lower bound is stored in {@code out[0]} and the upper bound in {@code out[1]}.
+     * @param il lower bound of 'i'
+     * @param iu upper bound of 'i'
+     * @param rl lower bound of 'res'
+     * @param ru upper bound of 'res'
+     * @param out array of size 2 storing the resulting interval
+     * @return {@code out}
+     */
+    public static double[] acos_wrt(double il, double iu, double rl, double ru, double[] out) {
         double retSup = Double.POSITIVE_INFINITY, retInf = Double.NEGATIVE_INFINITY;
-        double acosl = prevFloat(Math.acos(i.getUB()));
-        double acosu = nextFloat(Math.acos(i.getLB()));
+        double acosl = prevFloat(Math.acos(iu));
+        double acosu = nextFloat(Math.acos(il));
 
         // Lower bound
-        int modSup = (int) Math.floor(res.getLB() / prevFloat(2 * Math.PI));
+        int modSup = (int) Math.floor(rl / prevFloat(2 * Math.PI));
         double decSup, decInf;
 
         if (modSup < 0) {
@@ -676,26 +858,26 @@ public class RealUtils {
             decInf = 0.0;
         }
 
-        if (i.getUB() < 1.0) {
-            if ((res.getLB() > nextFloat(decSup - acosl)) &&
-                    (res.getLB() < prevFloat(decInf + acosl))) {
+        if (iu < 1.0) {
+            if ((rl > nextFloat(decSup - acosl)) &&
+                    (rl < prevFloat(decInf + acosl))) {
                 retInf = prevFloat(decInf + acosl);
             }
-            if ((res.getLB() > nextFloat(2 * nextFloat(Math.PI) - acosl + decSup)) &&
-                    (res.getLB() < prevFloat(2 * prevFloat(Math.PI) + acosl + decInf))) {
+            if ((rl > nextFloat(2 * nextFloat(Math.PI) - acosl + decSup)) &&
+                    (rl < prevFloat(2 * prevFloat(Math.PI) + acosl + decInf))) {
                 retInf = prevFloat(2 * prevFloat(Math.PI) + acosl + decInf);
             }
         }
 
-        if (i.getLB() > -1.0) {
-            if ((res.getLB() > nextFloat(acosu + decSup)) &&
-                    (res.getLB() < prevFloat(2 * prevFloat(Math.PI) - acosu + decInf))) {
+        if (il > -1.0) {
+            if ((rl > nextFloat(acosu + decSup)) &&
+                    (rl < prevFloat(2 * prevFloat(Math.PI) - acosu + decInf))) {
                 retInf = prevFloat(2 * prevFloat(Math.PI) - acosu + decInf);
             }
         }
 
         // Upper bound
-        modSup = (int) Math.floor(res.getUB() / prevFloat(2 * Math.PI));
+        modSup = (int) Math.floor(ru / prevFloat(2 * Math.PI));
 
         if (modSup < 0) {
             decSup = nextFloat(2 * modSup * prevFloat(Math.PI));
@@ -708,25 +890,25 @@ public class RealUtils {
             decInf = 0.0;
         }
 
-        if (i.getUB() < 1.0) {
-            if ((res.getUB() > nextFloat(decSup - acosl)) &&
-                    (res.getUB() < prevFloat(decInf + acosl))) {
+        if (iu < 1.0) {
+            if ((ru > nextFloat(decSup - acosl)) &&
+                    (ru < prevFloat(decInf + acosl))) {
                 retSup = nextFloat(decSup - acosl);
             }
-            if ((res.getUB() > nextFloat(2 * nextFloat(Math.PI) - acosl + decSup)) &&
-                    (res.getUB() < prevFloat(2 * prevFloat(Math.PI) + acosl + decInf))) {
+            if ((ru > nextFloat(2 * nextFloat(Math.PI) - acosl + decSup)) &&
+                    (ru < prevFloat(2 * prevFloat(Math.PI) + acosl + decInf))) {
                 retSup = nextFloat(2 * nextFloat(Math.PI) - acosl + decSup);
             }
         }
 
-        if (i.getLB() > -1.0) {
-            if ((res.getUB() > nextFloat(acosu + decSup)) &&
-                    (res.getUB() < prevFloat(2 * prevFloat(Math.PI) - acosu + decInf))) {
+        if (il > -1.0) {
+            if ((ru > nextFloat(acosu + decSup)) &&
+                    (ru < prevFloat(2 * prevFloat(Math.PI) - acosu + decInf))) {
                 retSup = nextFloat(acosu + decSup);
             }
         }
 
-        return new RealIntervalConstant(retInf, retSup);
+        return set(out, retInf, retSup);
     }
 
 }
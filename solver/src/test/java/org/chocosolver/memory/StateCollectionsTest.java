@@ -0,0 +1,300 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.structure.S64BlockBitSet;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class StateCollectionsTest {
+
+    @DataProvider(name = "env")
+    public Object[][] getEnvs() {
+        return new EnvironmentTrailing[][]{
+                {new EnvironmentBuilder().fromFlat().build()},
+                {new EnvironmentBuilder().fromChunk().build()}
+        };
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "env")
+    public void testSparseSet(IEnvironment env) {
+        Random rnd = new Random(0);
+        IStateSparseSet set = env.makeSparseSet(-5, 20);
+        Deque<TreeSet<Integer>> saved = new ArrayDeque<>();
+        TreeSet<Integer> ref = new TreeSet<>();
+        for (int v = -5; v < 15; v++) {
+            ref.add(v);
+        }
+        for (int it = 0; it < 5000; it++) {
+            int v = rnd.nextInt(24) - 7;
+            switch (rnd.nextInt(6)) {
+                case 0:
+                    env.worldPush();
+                    saved.push(new TreeSet<>(ref));
+                    break;
+                case 1:
+                    if (!saved.isEmpty()) {
+                        env.worldPop();
+                        ref = saved.pop();
+                    }
+                    break;
+                case 2:
+                    if (rnd.nextInt(10) == 0) {
+                        Assert.assertEquals(set.removeAllBut(v), ref.size() > (ref.contains(v) ? 1 : 0));
+                        boolean in = ref.contains(v);
+                        ref.clear();
+                        if (in) {
+                            ref.add(v);
+                        }
+                    }
+                    break;
+                default:
+                    Assert.assertEquals(set.remove(v), ref.remove(v));
+                    break;
+            }
+            Assert.assertEquals(set.size(), ref.size());
+            TreeSet<Integer> content = new TreeSet<>();
+            for (int i = 0; i < set.size(); i++) {
+                content.add(set.get(i));
+            }
+            Assert.assertEquals(content, ref);
+            Assert.assertEquals(set.contains(v), ref.contains(v));
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "env")
+    public void testIntHeap(IEnvironment env) {
+        Random rnd = new Random(0);
+        for (boolean min : new boolean[]{true, false}) {
+            IStateIntHeap heap = env.makeIntHeap(30, min);
+            Deque<Map<Integer, Integer>> saved = new ArrayDeque<>();
+            Map<Integer, Integer> ref = new HashMap<>();
+            for (int it = 0; it < 5000; it++) {
+                int e = rnd.nextInt(30);
+                switch (rnd.nextInt(6)) {
+                    case 0:
+                        env.worldPush();
+                        saved.push(new HashMap<>(ref));
+                        break;
+                    case 1:
+                        if (!saved.isEmpty()) {
+                            env.worldPop();
+                            ref = saved.pop();
+                        }
+                        break;
+                    case 2:
+                        Assert.assertEquals(heap.remove(e), ref.remove(e) != null);
+                        break;
+                    case 3:
+                        if (!ref.isEmpty()) {
+                            int best = min ? ref.values().stream().min(Integer::compare).get() : ref.values().stream().max(Integer::compare).get();
+                            Assert.assertEquals(ref.remove(heap.poll()).intValue(), best);
+                        }
+                        break;
+                    default:
+                        int k = rnd.nextInt(100);
+                        heap.add(e, k);
+                        ref.put(e, k);
+                        break;
+                }
+                Assert.assertEquals(heap.size(), ref.size());
+                Assert.assertEquals(heap.contains(e), ref.containsKey(e));
+                if (!ref.isEmpty()) {
+                    int top = heap.peek();
+                    Assert.assertEquals(heap.getKey(top), ref.get(top).intValue());
+                    int best = min ? ref.values().stream().min(Integer::compare).get() : ref.values().stream().max(Integer::compare).get();
+                    Assert.assertEquals(ref.get(top).intValue(), best);
+                } else {
+                    Assert.assertEquals(heap.peek(), -1);
+                }
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "env")
+    public void testIntIntMap(IEnvironment env) {
+        Random rnd = new Random(0);
+        IStateIntIntMap map = env.makeIntIntMap(40, -1);
+        Deque<Map<Integer, Integer>> saved = new ArrayDeque<>();
+        Map<Integer, Integer> ref = new HashMap<>();
+        for (int it = 0; it < 10000; it++) {
+            int k = rnd.nextInt(200) - 100;
+            switch (rnd.nextInt(5)) {
+                case 0:
+                    env.worldPush();
+                    saved.push(new HashMap<>(ref));
+                    break;
+                case 1:
+                    if (!saved.isEmpty()) {
+                        env.worldPop();
+                        ref = saved.pop();
+                    }
+                    break;
+                case 2:
+                    Assert.assertEquals(map.remove(k), ref.containsKey(k) ? ref.remove(k) : -1);
+                    break;
+                default:
+                    if (ref.size() < 40 || ref.containsKey(k)) {
+                        int v = rnd.nextInt(1000);
+                        Assert.assertEquals(map.put(k, v), ref.containsKey(k) ? ref.put(k, v) : -1);
+                        ref.put(k, v);
+                    }
+                    break;
+            }
+            Assert.assertEquals(map.size(), ref.size());
+            for (int j = -100; j < 100; j++) {
+                Assert.assertEquals(map.get(j), ref.getOrDefault(j, -1).intValue());
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "env")
+    public void testUnionFind(IEnvironment env) {
+        Random rnd = new Random(0);
+        int n = 25;
+        IStateUnionFind uf = env.makeUnionFind(n);
+        Deque<int[]> saved = new ArrayDeque<>();
+        int[] ref = new int[n];
+        for (int i = 0; i < n; i++) {
+            ref[i] = i;
+        }
+        for (int it = 0; it < 3000; it++) {
+            switch (rnd.nextInt(4)) {
+                case 0:
+                    env.worldPush();
+                    saved.push(ref.clone());
+                    break;
+                case 1:
+                    if (!saved.isEmpty()) {
+                        env.worldPop();
+                        ref = saved.pop();
+                    }
+                    break;
+                default:
+                    int a = rnd.nextInt(n);
+                    int b = rnd.nextInt(n);
+                    Assert.assertEquals(uf.union(a, b), ref[a] != ref[b]);
+                    int ra = ref[a];
+                    int rb = ref[b];
+                    for (int i = 0; i < n; i++) {
+                        if (ref[i] == rb) {
+                            ref[i] = ra;
+                        }
+                    }
+                    break;
+            }
+            TreeSet<Integer> labels = new TreeSet<>();
+            for (int i = 0; i < n; i++) {
+                labels.add(ref[i]);
+                int s = 0;
+                for (int j = 0; j < n; j++) {
+                    Assert.assertEquals(uf.sameSet(i, j), ref[i] == ref[j]);
+                    if (ref[i] == ref[j]) {
+                        s++;
+                    }
+                }
+                Assert.assertEquals(uf.sizeOf(i), s);
+            }
+            Assert.assertEquals(uf.getNbSets(), labels.size());
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "env")
+    public void testBlockBitSet(IEnvironment env) {
+        for (double threshold : new double[]{0., .3, 1.}) {
+            Random rnd = new Random(0);
+            IStateBitSet set = new S64BlockBitSet(env, 300, threshold);
+            Deque<BitSet> saved = new ArrayDeque<>();
+            BitSet ref = new BitSet();
+            for (int it = 0; it < 5000; it++) {
+                // a few indices beyond the initial size make the bit set grow
+                int i = rnd.nextInt(rnd.nextInt(50) == 0 ? 600 : 300);
+                int j = i + rnd.nextInt(200);
+                switch (rnd.nextInt(8)) {
+                    case 0:
+                        env.worldPush();
+                        saved.push((BitSet) ref.clone());
+                        break;
+                    case 1:
+                        if (!saved.isEmpty()) {
+                            env.worldPop();
+                            ref = saved.pop();
+                        }
+                        break;
+                    case 2:
+                        set.set(i, j);
+                        ref.set(i, j);
+                        break;
+                    case 3:
+                        set.clear(i, j);
+                        ref.clear(i, j);
+                        break;
+                    case 4:
+                        set.clear(i);
+                        ref.clear(i);
+                        break;
+                    default:
+                        set.set(i);
+                        ref.set(i);
+                        break;
+                }
+                Assert.assertEquals(set.cardinality(), ref.cardinality());
+                Assert.assertEquals(set.isEmpty(), ref.isEmpty());
+                Assert.assertEquals(set.get(i), ref.get(i));
+                Assert.assertEquals(set.nextSetBit(i), ref.nextSetBit(i));
+                Assert.assertEquals(set.prevSetBit(j), ref.previousSetBit(j));
+                Assert.assertEquals(set.nextClearBit(i), ref.nextClearBit(i));
+                Assert.assertEquals(set.prevClearBit(j), ref.previousClearBit(j));
+            }
+            while (!saved.isEmpty()) {
+                env.worldPop();
+                saved.pop();
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBlockTrailing() {
+        long[] nbSolutions = new long[2];
+        for (int k = 0; k < 2; k++) {
+            EnvironmentBuilder builder = new EnvironmentBuilder().fromFlat();
+            if (k == 1) {
+                builder.setBlockTrailing(.5);
+            }
+            Model model = new Model(builder.build(), "block");
+            IntVar[] xs = model.intVarArray("x", 5, 0, 100, false);
+            model.allDifferent(xs).post();
+            model.arithm(xs[0], "+", xs[1], "=", 100).post();
+            model.sum(xs, "=", 120).post();
+            nbSolutions[k] = model.getSolver().findAllSolutions().size();
+        }
+        Assert.assertEquals(nbSolutions[1], nbSolutions[0]);
+        Assert.assertTrue(nbSolutions[0] > 0);
+    }
+}
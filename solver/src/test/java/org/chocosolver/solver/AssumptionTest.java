@@ -0,0 +1,263 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class AssumptionTest {
+
+    private static IntVar[] queens(Model model, int n) {
+        IntVar[] q = model.intVarArray("Q", n, 0, n - 1);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                model.arithm(q[i], "!=", q[j]).post();
+                model.arithm(q[i], "!=", q[j], "+", j - i).post();
+                model.arithm(q[i], "!=", q[j], "-", j - i).post();
+            }
+        }
+        return q;
+    }
+
+    private static IntDecision eq(Solver solver, IntVar var, int value) {
+        return solver.getDecisionPath().makeIntDecision(var, DecisionOperatorFactory.makeIntEq(), value);
+    }
+
+    private static IntDecision neq(Solver solver, IntVar var, int value) {
+        return solver.getDecisionPath().makeIntDecision(var, DecisionOperatorFactory.makeIntNeq(), value);
+    }
+
+    /**
+     * @return <i>true</i> if a solution of the queens problem exists with the given values
+     */
+    private static boolean reference(int n, int[] vars, int[] values, boolean[] equal) {
+        Model model = new Model();
+        IntVar[] q = queens(model, n);
+        for (int i = 0; i < vars.length; i++) {
+            model.arithm(q[vars[i]], equal[i] ? "=" : "!=", values[i]).post();
+        }
+        return model.getSolver().solve();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testQueries() {
+        int n = 8;
+        Model model = new Model();
+        IntVar[] q = queens(model, n);
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch(q));
+        Random random = new Random(0);
+        for (int t = 0; t < 200; t++) {
+            int k = 1 + random.nextInt(3);
+            int[] vars = new int[k];
+            int[] values = new int[k];
+            boolean[] equal = new boolean[k];
+            IntDecision[] assumptions = new IntDecision[k];
+            for (int i = 0; i < k; i++) {
+                vars[i] = random.nextInt(n);
+                values[i] = random.nextInt(n);
+                equal[i] = random.nextInt(3) > 0;
+                assumptions[i] = equal[i] ?
+                        eq(solver, q[vars[i]], values[i]) :
+                        neq(solver, q[vars[i]], values[i]);
+            }
+            boolean expected = reference(n, vars, values, equal);
+            ESat result = solver.solveUnder(assumptions);
+            Assert.assertEquals(result, ESat.eval(expected), "query " + t);
+            if (expected) {
+                Assert.assertEquals(solver.isSatisfied(), ESat.TRUE);
+                for (int i = 0; i < k; i++) {
+                    Assert.assertEquals(q[vars[i]].getValue() == values[i], equal[i]);
+                }
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRootPropagatedOnce() {
+        Model model = new Model();
+        IntVar[] q = queens(model, 6);
+        // counts the initial propagations of a constraint on a variable out of the search
+        int[] initial = new int[1];
+        new Constraint("COUNT", new Propagator<IntVar>(model.intVar("z", 0, 1)) {
+            @Override
+            public void propagate(int evtmask) {
+                initial[0]++;
+            }
+
+            @Override
+            public ESat isEntailed() {
+                return ESat.TRUE;
+            }
+        }).post();
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch(q));
+        int sat = 0;
+        for (int i = 0; i < 6; i++) {
+            for (int v = 0; v < 6; v++) {
+                if (solver.solveUnder(eq(solver, q[i], v)) == ESat.TRUE) {
+                    sat++;
+                }
+            }
+        }
+        // each queen can be placed on 4 rows when n = 6 (4 solutions)
+        Assert.assertEquals(sat, 24);
+        Assert.assertEquals(initial[0], 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFailedAssumptionsOnPropagation() {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 5);
+        IntVar y = model.intVar("y", 0, 5);
+        IntVar z = model.intVar("z", 0, 5);
+        model.arithm(x, "+", y, "=", 5).post();
+        Solver solver = model.getSolver();
+        IntDecision ax = eq(solver, x, 1);
+        IntDecision az = eq(solver, z, 2);
+        IntDecision ay = eq(solver, y, 3);
+        Assert.assertEquals(solver.solveUnder(ax, az, ay), ESat.FALSE);
+        List<IntDecision> core = solver.findFailedAssumptions();
+        Assert.assertEquals(core.size(), 2);
+        Assert.assertTrue(core.contains(ax));
+        Assert.assertTrue(core.contains(ay));
+        // the solver can still be queried
+        Assert.assertEquals(solver.solveUnder(ax, az), ESat.TRUE);
+        Assert.assertEquals(y.getValue(), 4);
+        Assert.assertEquals(z.getValue(), 2);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFailedAssumptionsOnSearch() {
+        // 4 pigeons in 3 holes once value 3 is forbidden, which is not detected by propagation
+        Model model = new Model();
+        IntVar[] p = model.intVarArray("p", 4, 0, 3);
+        for (int i = 0; i < 3; i++) {
+            for (int j = i + 1; j < 4; j++) {
+                model.arithm(p[i], "!=", p[j]).post();
+            }
+        }
+        IntVar free = model.intVar("f", 0, 3);
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch(p));
+        IntDecision[] assumptions = {
+                neq(solver, p[0], 3), neq(solver, free, 0), neq(solver, p[1], 3),
+                neq(solver, p[2], 3), neq(solver, p[3], 3)
+        };
+        Assert.assertEquals(solver.solveUnder(assumptions), ESat.FALSE);
+        List<IntDecision> core = solver.findFailedAssumptions();
+        Assert.assertEquals(core.size(), 4);
+        Assert.assertFalse(core.contains(assumptions[1]));
+        Assert.assertEquals(solver.solveUnder(assumptions[0], assumptions[1]), ESat.TRUE);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testWithLearning() {
+        int n = 8;
+        Model model = new Model();
+        IntVar[] q = queens(model, n);
+        Solver solver = model.getSolver();
+        solver.setLearningSignedClauses();
+        solver.setSearch(inputOrderLBSearch(q));
+        for (int i = 0; i < n; i++) {
+            for (int v = 0; v < n; v++) {
+                boolean expected = reference(n, new int[]{i}, new int[]{v}, new boolean[]{true});
+                Assert.assertEquals(solver.solveUnder(eq(solver, q[i], v)), ESat.eval(expected));
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSolveAfterAssumptions() {
+        Model model = new Model();
+        IntVar[] q = queens(model, 6);
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch(q));
+        int[] solutions = new int[1];
+        int[] closes = new int[1];
+        solver.plugMonitor((IMonitorSolution) () -> solutions[0]++);
+        solver.plugMonitor(new IMonitorClose() {
+            @Override
+            public void afterClose() {
+                closes[0]++;
+            }
+        });
+        // the 4 solutions are (1,3,5,0,2,4), (2,5,1,4,0,3), (3,0,4,1,5,2) and (4,2,0,5,3,1)
+        Assert.assertEquals(solver.solveUnder(eq(solver, q[0], 1)), ESat.TRUE);
+        Assert.assertEquals(solver.solveUnder(neq(solver, q[1], 3), eq(solver, q[0], 0)), ESat.FALSE);
+        long nodes = solver.getNodeCount();
+        long fails = solver.getFailCount();
+        long count = solver.getSolutionCount();
+        Assert.assertEquals(count, 1);
+        Assert.assertEquals(solutions[0], 1);
+        Assert.assertEquals(closes[0], 2);
+        List<IntDecision> core = solver.findFailedAssumptions();
+        Assert.assertEquals(core.size(), 1);
+        Assert.assertEquals(core.get(0).getDecisionValue().intValue(), 0);
+        // the extraction of the core is not part of the resolution
+        Assert.assertEquals(solver.getNodeCount(), nodes);
+        Assert.assertEquals(solver.getFailCount(), fails);
+        Assert.assertEquals(solver.getSolutionCount(), count);
+        Assert.assertEquals(solutions[0], 1);
+        Assert.assertEquals(closes[0], 2);
+        // a regular search runs without the assumptions
+        int found = 0;
+        while (solver.solve()) {
+            found++;
+        }
+        Assert.assertEquals(found, 4);
+        Assert.assertEquals(solver.getSolutionCount(), count + 4);
+        Assert.assertEquals(solutions[0], 5);
+        Assert.assertEquals(closes[0], 7);
+        Assert.assertTrue(solver.getNodeCount() > nodes);
+        // and assumptions can still be solved under
+        Assert.assertEquals(solver.solveUnder(eq(solver, q[0], 4)), ESat.TRUE);
+        Assert.assertEquals(q[1].getValue(), 2);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testNoFailure() {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 5);
+        Solver solver = model.getSolver();
+        Assert.assertEquals(solver.solveUnder(eq(solver, x, 1)), ESat.TRUE);
+        solver.findFailedAssumptions();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testUnsatisfiableModel() {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 5);
+        model.arithm(x, ">", 5).post();
+        Solver solver = model.getSolver();
+        Assert.assertEquals(solver.solveUnder(eq(solver, x, 1)), ESat.FALSE);
+        Assert.assertTrue(solver.findFailedAssumptions().isEmpty());
+    }
+}
@@ -76,6 +76,43 @@ public class LimitsTest {
         assertEquals(sc, sl);
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testTimeAndNode() {
+        Model s = makeNQueenWithBinaryConstraints(12);
+        s.getSolver().limitTime(10_000);
+        s.getSolver().limitNode(50);
+        while (s.getSolver().solve()) ;
+        assertEquals(s.getSolver().getNodeCount(), 50);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testLazyUserCriterion() {
+        Model s = makeNQueenWithBinaryConstraints(12);
+        s.getSettings().setCheckUserStopCriteriaLazily(true);
+        long tl = 500;
+        long start = System.currentTimeMillis();
+        long[] checks = new long[1];
+        s.getSolver().limitSearch(() -> {
+            checks[0]++;
+            return System.currentTimeMillis() - start >= tl;
+        });
+        while (s.getSolver().solve()) ;
+        long tc = System.currentTimeMillis() - start;
+        // the criterion is met, but it is not checked at each node
+        assertTrue(tl <= tc && tc <= tl + 10_000, tl + " vs. " + tc);
+        assertTrue(checks[0] < s.getSolver().getNodeCount(), checks[0] + " vs. " + s.getSolver().getNodeCount());
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testEagerCheck() {
+        Model s = makeNQueenWithBinaryConstraints(12);
+        s.getSettings().setStopCriteriaCheckPeriod(0);
+        s.getSettings().setCheckUserStopCriteriaLazily(true);
+        s.getSolver().limitSearch(() -> s.getSolver().getNodeCount() == 50);
+        while (s.getSolver().solve()) ;
+        assertEquals(s.getSolver().getNodeCount(), 50);
+    }
+
     @Test(groups="1s", timeOut=60000)
     public void durationTest() {
         long d = TimeUtils.convertInMilliseconds("0.50s");
@@ -0,0 +1,180 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.checker;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Settings;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.InvalidSolutionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.function.Predicate;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class ModelCheckerTest {
+
+    /**
+     * Queens on a 8x8 chessboard.
+     * When <i>bug</i> is set, an additional constraint does not filter anything but rejects queen 0 in row 3.
+     */
+    private static Model queens(Settings settings, boolean bug) {
+        int n = 8;
+        Model model = new Model(settings);
+        IntVar[] q = model.intVarArray("Q", n, 0, n - 1);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                model.arithm(q[i], "!=", q[j]).post();
+                model.arithm(q[i], "!=", q[j], "+", j - i).post();
+                model.arithm(q[i], "!=", q[j], "-", j - i).post();
+            }
+        }
+        if (bug) {
+            new Constraint("BUG", new Propagator<IntVar>(q[0]) {
+                @Override
+                public void propagate(int evtmask) {
+                }
+
+                @Override
+                public ESat isEntailed() {
+                    return vars[0].isInstantiatedTo(3) ? ESat.FALSE : ESat.TRUE;
+                }
+            }).post();
+        }
+        return model;
+    }
+
+    private static Predicate<Solver> checker(String name, boolean bug) {
+        switch (name) {
+            case "incremental":
+                return new IncrementalModelChecker();
+            case "sampling":
+                return new SamplingModelChecker(1., 0L);
+            case "async":
+                return new AsyncModelChecker(() -> queens(Settings.init(), bug));
+            case "async1":
+                return new AsyncModelChecker(() -> queens(Settings.init(), bug), 1);
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+
+    @DataProvider(name = "checkers")
+    public Object[][] checkers() {
+        return new Object[][]{{"incremental"}, {"sampling"}, {"async"}, {"async1"}};
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "checkers")
+    public void testValid(String name) {
+        Model model = queens(Settings.init().setModelChecker(checker(name, false)), false);
+        Assert.assertEquals(model.getSolver().findAllSolutions().size(), 92);
+        // a second resolution
+        model.getSolver().reset();
+        Assert.assertEquals(model.getSolver().findAllSolutions().size(), 92);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "checkers", expectedExceptions = InvalidSolutionException.class)
+    public void testInvalid(String name) {
+        Model model = queens(Settings.init().setModelChecker(checker(name, true)), true);
+        Solver solver = model.getSolver();
+        while (solver.solve()) ;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testIncrementalChecksLess() {
+        int[] calls = new int[1];
+        Model model = queens(Settings.init().setModelChecker(new IncrementalModelChecker()), false);
+        // counts the calls to the entailment check of a constraint on a variable fixed at root node
+        IntVar z = model.intVar("z", 0, 1);
+        model.arithm(z, "=", 0).post();
+        new Constraint("COUNT", new Propagator<IntVar>(z) {
+            @Override
+            public void propagate(int evtmask) {
+            }
+
+            @Override
+            public ESat isEntailed() {
+                calls[0]++;
+                return ESat.TRUE;
+            }
+        }).post();
+        Solver solver = model.getSolver();
+        while (solver.solve()) ;
+        Assert.assertEquals(solver.getSolutionCount(), 92);
+        Assert.assertTrue(calls[0] < 10);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSamplingDetectsEventually() {
+        Model model = queens(Settings.init().setModelChecker(new SamplingModelChecker(.1, 0L)), true);
+        Solver solver = model.getSolver();
+        try {
+            while (solver.solve()) ;
+            Assert.fail();
+        } catch (InvalidSolutionException e) {
+            Assert.assertTrue(solver.getSolutionCount() < 92);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "checkers")
+    public void testReleaseSolver(String name) throws InterruptedException {
+        Predicate<Solver> checker = checker(name, false);
+        Model model = queens(Settings.init().setModelChecker(checker), false);
+        Assert.assertEquals(model.getSolver().findAllSolutions().size(), 92);
+        WeakReference<Solver> solver = new WeakReference<>(model.getSolver());
+        model = null;
+        // the checker outlives the models it checked, but does not retain them
+        for (int i = 0; i < 20 && solver.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(solver.get());
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = InvalidSolutionException.class)
+    public void testIncrementalAfterModification() {
+        Model model = queens(Settings.init().setModelChecker(new IncrementalModelChecker()), false);
+        Solver solver = model.getSolver();
+        while (solver.solve()) ;
+        Assert.assertEquals(solver.getSolutionCount(), 92);
+        solver.reset();
+        // replace a constraint by another one, the number of constraints is unchanged
+        Constraint removed = model.getCstrs()[0];
+        model.unpost(removed);
+        IntVar q0 = (IntVar) model.getVar(0);
+        new Constraint("BUG", new Propagator<IntVar>(q0) {
+            @Override
+            public void propagate(int evtmask) {
+            }
+
+            @Override
+            public ESat isEntailed() {
+                return vars[0].isInstantiatedTo(3) ? ESat.FALSE : ESat.TRUE;
+            }
+        }).post();
+        while (solver.solve()) ;
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = IllegalArgumentException.class)
+    public void testSamplingRatio() {
+        new SamplingModelChecker(0., 0L);
+    }
+}
@@ -14,6 +14,7 @@ import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Random;
 import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Model;
@@ -158,6 +159,11 @@ public class AllDifferentTest {
                         while (ac.getSolver().solve()) ;
                         assertEquals(ac.getSolver().getSolutionCount(), neqs.getSolver().getSolutionCount(), "nb sol incorrect " + seed);
                         assertTrue(ac.getSolver().getNodeCount() <= neqs.getSolver().getNodeCount(), "nb nod incorrect" + seed);
+
+                        Model acb = alldiffs(domains, 4, b == 0);
+                        while (acb.getSolver().solve()) ;
+                        assertEquals(acb.getSolver().getSolutionCount(), neqs.getSolver().getSolutionCount(), "nb sol incorrect " + seed);
+                        assertEquals(acb.getSolver().getNodeCount(), ac.getSolver().getNodeCount(), "nb nod incorrect" + seed);
                     }
                 }
             }
@@ -196,6 +202,9 @@ public class AllDifferentTest {
             case 3:
                 s.allDifferent(vars, "AC").post();
                 break;
+            case 4:
+                s.allDifferent(vars, "AC_BITSET").post();
+                break;
         }
         s.getSolver().setSearch(inputOrderLBSearch(vars));
         return s;
@@ -333,4 +342,35 @@ public class AllDifferentTest {
         System.out.println("x1 = " + x1);  // should be left untouched
         System.out.println("x2 = " + x2); // should be left untouched
     }
-}
\ No newline at end of file
+
+    @Test(groups="1s", timeOut=60000)
+    public void testACBitset() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random rand = new Random(seed);
+            int n = 6 + rand.nextInt(5);
+            int[][] domains = buildFullDomains(n, -2, n, rand, 0.3 + rand.nextDouble() / 2, false);
+            // spread values over several words
+            int scale = 1 + seed % 3 * 7;
+
+            Model ac = scaledAlldiff(domains, scale, "AC");
+            while (ac.getSolver().solve()) ;
+
+            Model acb = scaledAlldiff(domains, scale, "AC_BITSET");
+            while (acb.getSolver().solve()) ;
+            assertEquals(acb.getSolver().getSolutionCount(), ac.getSolver().getSolutionCount(), "nb sol incorrect " + seed);
+            assertEquals(acb.getSolver().getNodeCount(), ac.getSolver().getNodeCount(), "nb nod incorrect " + seed);
+        }
+    }
+
+    protected Model scaledAlldiff(int[][] domains, int scale, String consistency) {
+        Model s = new Model();
+        IntVar[] vars = new IntVar[domains.length];
+        for (int i = 0; i < domains.length; i++) {
+            vars[i] = s.intVar("v_" + i, Arrays.stream(domains[i]).map(v -> v * scale).toArray());
+        }
+        s.allDifferent(vars, consistency).post();
+        s.sum(vars, "<=", domains.length * scale).post();
+        s.getSolver().setSearch(inputOrderLBSearch(vars));
+        return s;
+    }
+}
@@ -11,15 +11,20 @@ package org.chocosolver.solver.constraints.nary;
 
 import org.chocosolver.solver.Settings;
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.nary.globalcardinality.PropGCC;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import static org.chocosolver.solver.Cause.Null;
 import static org.chocosolver.solver.constraints.nary.globalcardinality.GlobalCardinality.reformulate;
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.chocosolver.util.tools.ArrayUtils.append;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
@@ -131,4 +136,135 @@ public class BoundGlobalCardinalityTest {
 
         }
     }
+
+    private static Model gcc(long seed, String consistency, boolean enumerated) {
+        Random random = new Random(seed);
+        int n = 3 + random.nextInt(5);
+        int m = 2 + random.nextInt(4);
+        Model model = new Model(Settings.init().setCheckDeclaredConstraints(false));
+        IntVar[] vars = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            int lb = random.nextInt(m + 2) - 1;
+            int ub = lb + random.nextInt(m);
+            vars[i] = model.intVar("x" + i, lb, ub, !enumerated);
+            if (enumerated && ub - lb > 1) {
+                try {
+                    vars[i].removeValue(lb + 1 + random.nextInt(ub - lb - 1), Null);
+                } catch (ContradictionException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        int[] values = new int[m];
+        IntVar[] cards = new IntVar[m];
+        for (int j = 0; j < m; j++) {
+            values[j] = j;
+            int lb = random.nextInt(3);
+            cards[j] = model.intVar("c" + j, lb, lb + random.nextInt(3), true);
+        }
+        model.globalCardinality(vars, values, cards, false, consistency).post();
+        model.getSolver().setSearch(inputOrderLBSearch(append(vars, cards)));
+        return model;
+    }
+
+    @DataProvider(name = "enumerated")
+    public Object[][] enumerated() {
+        return new Object[][]{{true}, {false}};
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "enumerated")
+    public void testConsistencies(boolean enumerated) {
+        for (int seed = 0; seed < 300; seed++) {
+            long[] nodes = new long[3];
+            long[] sols = new long[3];
+            String[] consistencies = {"FAST", "BC", "AC"};
+            for (int k = 0; k < 3; k++) {
+                Model model = gcc(seed, consistencies[k], enumerated);
+                while (model.getSolver().solve()) ;
+                nodes[k] = model.getSolver().getNodeCount();
+                sols[k] = model.getSolver().getSolutionCount();
+            }
+            assertEquals(sols[1], sols[0], "seed " + seed);
+            assertEquals(sols[2], sols[0], "seed " + seed);
+            assertTrue(nodes[1] <= nodes[0], "seed " + seed);
+            assertTrue(nodes[2] <= nodes[1], "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "enumerated")
+    public void testSupports(boolean enumerated) {
+        // after AC (resp. BC on bounded domains), each value (resp. bound) belongs to a solution
+        String consistency = enumerated ? "AC" : "BC";
+        for (int seed = 0; seed < 200; seed++) {
+            Model model = gcc(seed, consistency, enumerated);
+            IntVar[] vars = model.retrieveIntVars(true);
+            boolean fails = false;
+            try {
+                model.getSolver().propagate();
+            } catch (ContradictionException e) {
+                fails = true;
+            }
+            Model ref = gcc(seed, "FAST", enumerated);
+            if (fails) {
+                assertTrue(!ref.getSolver().solve(), "seed " + seed);
+                continue;
+            }
+            IntVar[] rvars = ref.retrieveIntVars(true);
+            for (int i = 0; i < vars.length; i++) {
+                // cardinality variables are not filtered
+                if (vars[i].getName().startsWith("x")) {
+                    int ub = vars[i].getUB();
+                    for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
+                        if (enumerated || v == vars[i].getLB() || v == ub) {
+                            ref.getSolver().reset();
+                            ref.getEnvironment().worldPush();
+                            ref.arithm(rvars[i], "=", v).post();
+                            assertTrue(ref.getSolver().solve(), "seed " + seed + ", " + vars[i] + " = " + v);
+                            ref.getSolver().reset();
+                            ref.unpost(ref.getCstrs()[ref.getNbCstrs() - 1]);
+                            ref.getEnvironment().worldPop();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRepairAlongSearch() {
+        // the graph is repaired from node to node: AC never fails below the root when branching on the variables
+        for (int seed = 0; seed < 300; seed++) {
+            Model model = gcc(seed, "AC", true);
+            IntVar[] vars = Arrays.stream(model.retrieveIntVars(true))
+                    .filter(v -> v.getName().startsWith("x"))
+                    .toArray(IntVar[]::new);
+            model.getSolver().setSearch(randomSearch(vars, seed));
+            while (model.getSolver().solve()) ;
+            Model ref = gcc(seed, "FAST", true);
+            while (ref.getSolver().solve()) ;
+            assertEquals(model.getSolver().getSolutionCount(), ref.getSolver().getSolutionCount(), "seed " + seed);
+            assertTrue(model.getSolver().getFailCount() <= (ref.getSolver().getSolutionCount() == 0 ? 1 : 0), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testDefault() {
+        Model model = new Model();
+        IntVar[] small = model.intVarArray("s", 5, 0, 10);
+        IntVar[] large = model.intVarArray("l", 5, 0, 1000, false);
+        IntVar[] cards = model.intVarArray("c", 3, 0, 2);
+        int[] values = {0, 1, 2};
+        assertEquals(model.globalCardinality(small, values, cards, false).getPropagators().length, 2);
+        assertTrue(model.globalCardinality(small, values, cards, false).getPropagator(1) instanceof PropGCC);
+        assertEquals(model.globalCardinality(large, values, cards, false).getPropagators().length, 2);
+        assertEquals(model.globalCardinality(large, values, cards, false, "FAST").getPropagators().length, 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testUnknownConsistency() {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("v", 5, 0, 10);
+        IntVar[] cards = model.intVarArray("c", 3, 0, 2);
+        model.globalCardinality(vars, new int[]{0, 1, 2}, cards, false, "GAC");
+    }
 }
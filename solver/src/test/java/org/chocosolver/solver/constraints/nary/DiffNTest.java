@@ -0,0 +1,92 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class DiffNTest {
+
+    private static Model packing(int n, int size, long seed, boolean sweep, boolean cumulative) {
+        Random rnd = new Random(seed);
+        Model model = new Model();
+        IntVar[] x = new IntVar[n];
+        IntVar[] y = new IntVar[n];
+        IntVar[] w = new IntVar[n];
+        IntVar[] h = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            int wi = 1 + rnd.nextInt(3);
+            int hi = 1 + rnd.nextInt(3);
+            w[i] = rnd.nextBoolean() ? model.intVar(wi) : model.intVar("w" + i, wi, wi + 1);
+            h[i] = model.intVar(hi);
+            x[i] = model.intVar("x" + i, 0, size - wi);
+            y[i] = model.intVar("y" + i, rnd.nextInt(2), size - hi);
+        }
+        model.diffN(x, y, w, h, cumulative, sweep).post();
+        return model;
+    }
+
+    /**
+     * Enumerate the first solutions of a packing, with a random search
+     */
+    private static Solver enumerate(Model model, long seed) {
+        Solver solver = model.getSolver();
+        solver.setSearch(randomSearch(model.retrieveIntVars(true), seed));
+        solver.limitSolution(500);
+        while (solver.solve()) ;
+        return solver;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSweepVsPairwise() {
+        for (long seed = 0; seed < 20; seed++) {
+            Solver pairwise = enumerate(packing(5, 5, seed, false, seed % 2 == 0), seed);
+            Solver sweep = enumerate(packing(5, 5, seed, true, seed % 2 == 0), seed);
+            Assert.assertEquals(sweep.getSolutionCount(), pairwise.getSolutionCount(), "seed " + seed);
+            Assert.assertEquals(sweep.getNodeCount(), pairwise.getNodeCount(), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSweepLarge() {
+        // 400 squares on a 20x20 grid, one per cell
+        int n = 20;
+        Model model = new Model();
+        IntVar[] x = new IntVar[n * n];
+        IntVar[] y = new IntVar[n * n];
+        IntVar[] s = new IntVar[n * n];
+        for (int i = 0; i < n * n - 1; i++) {
+            x[i] = model.intVar(i % n);
+            y[i] = model.intVar(i / n);
+            s[i] = model.intVar(1);
+        }
+        x[n * n - 1] = model.intVar("x", 0, n - 1);
+        y[n * n - 1] = model.intVar("y", 0, n - 1);
+        s[n * n - 1] = model.intVar(1);
+        model.diffN(x, y, s, s, false, true).post();
+        Assert.assertTrue(model.getSolver().solve());
+        Assert.assertEquals(x[n * n - 1].getValue(), n - 1);
+        Assert.assertEquals(y[n * n - 1].getValue(), n - 1);
+        Assert.assertFalse(model.getSolver().solve());
+    }
+}
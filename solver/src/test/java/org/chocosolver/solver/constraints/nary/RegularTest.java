@@ -15,6 +15,7 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
+import org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.strategy.Search;
@@ -23,6 +24,7 @@ import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
@@ -388,6 +390,69 @@ public class RegularTest {
         Assert.assertEquals(solver.getSolutionCount(), 272315);
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testCharMapping() {
+        for (int i = Character.MIN_VALUE; i <= Character.MAX_VALUE; i++) {
+            char c = FiniteAutomaton.getCharFromInt(i);
+            Assert.assertTrue("\"(){}<>[]".indexOf(c) < 0);
+            if (c >= i) { // no wrap around
+                Assert.assertEquals(FiniteAutomaton.getIntFromChar(c), i);
+            }
+        }
+        Assert.assertEquals(FiniteAutomaton.getIntFromChar('('), -1);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testSharedLayeredGraph() throws InterruptedException {
+        int nbModels = 4;
+        Model[] models = new Model[nbModels];
+        IntVar[][] xs = new IntVar[nbModels][];
+        Thread[] threads = new Thread[nbModels];
+        for (int m = 0; m < nbModels; m++) {
+            int fm = m;
+            threads[m] = new Thread(() -> {
+                Model model = new Model();
+                IntVar[] x = model.intVarArray("x", 6, 0, 2);
+                IntVar[] y = model.intVarArray("y", 6, 0, 2);
+                model.regular(x, makeAuto(false)).post();
+                model.regular(y, makeAuto(false)).post();
+                models[fm] = model;
+                xs[fm] = x;
+            });
+            threads[m].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        LayeredGraph g = LayeredGraph.of(makeAuto(false), xs[0]);
+        Assert.assertSame(LayeredGraph.of(makeAuto(false), xs[1]), g);
+        Assert.assertSame(LayeredGraph.of(makeAuto(true), xs[2]), g);
+        Model ref = new Model();
+        ref.regular(ref.intVarArray("x", 6, 0, 2), makeAuto(true)).post();
+        long nbSols = ref.getSolver().streamSolutions().count();
+        for (Model model : models) {
+            model.getSolver().findAllSolutions();
+            Assert.assertEquals(model.getSolver().getSolutionCount(), nbSols * nbSols);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testSharedLayeredGraphAfterGC() {
+        Model m1 = new Model();
+        m1.regular(m1.intVarArray("x", 6, 0, 2), makeAuto(false)).post();
+        WeakReference<LayeredGraph> g = new WeakReference<>(LayeredGraph.of(makeAuto(false), new Model().intVarArray("y", 6, 0, 2)));
+        // only the model references the graph
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Assert.assertNotNull(g.get());
+        Model m2 = new Model();
+        IntVar[] x = m2.intVarArray("x", 6, 0, 2);
+        m2.regular(x, makeAuto(true)).post();
+        Assert.assertSame(LayeredGraph.of(makeAuto(true), x), g.get());
+        Assert.assertEquals(m2.getSolver().streamSolutions().count(), m1.getSolver().streamSolutions().count());
+    }
+
     private FiniteAutomaton makeAuto(boolean which){
         if(which){
             TIntHashSet alphabet = new TIntHashSet();
@@ -16,6 +16,7 @@ package org.chocosolver.solver.constraints.nary;
 
 import org.chocosolver.solver.*;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.extension.ExtensionStructures;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.constraints.extension.TuplesFactory;
 import org.chocosolver.solver.constraints.extension.nary.TuplesLargeTable;
@@ -802,4 +803,101 @@ public class TableTest {
         Assert.assertEquals(model.getSolver().findAllSolutions().size(), 255);
     }
 
-}
\ No newline at end of file
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOneEventPerVariable() throws ContradictionException {
+        for (String algo : new String[]{"CT+", "STR2+", "MDD+"}) {
+            Model model = new Model();
+            IntVar[] vars = model.intVarArray("x", 3, 0, 9);
+            Tuples tuples = new Tuples(true);
+            tuples.add(0, 5, 9);
+            tuples.add(5, 9, 0);
+            tuples.add(9, 0, 5);
+            model.table(vars, tuples, algo).post();
+            int[] events = new int[vars.length];
+            for (int i = 0; i < vars.length; i++) {
+                int j = i;
+                vars[i].addMonitor((v, e) -> events[j]++);
+            }
+            model.getSolver().propagate();
+            for (int i = 0; i < vars.length; i++) {
+                Assert.assertEquals(vars[i].getDomainSize(), 3, algo);
+                Assert.assertEquals(events[i], 1, algo);
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "sharedAlgos")
+    public void testUnsharedStructures(String algo, boolean star) {
+        Tuples tuples = TuplesFactory.randomTuples(.3, new Random(0), new Model().intVarArray("x", 4, 0, 6));
+        if (star) {
+            tuples.setUniversalValue(-1);
+            tuples.add(-1, 3, 3, -1);
+        }
+        Model shared = sharedTable(tuples, algo, 6);
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("x", 4, 0, 6);
+        model.table(vars, tuples, algo).post();
+        model.sum(vars, "=", 12).post();
+        Assert.assertEquals(model.getSolver().findAllSolutions().size(), shared.getSolver().findAllSolutions().size());
+        // structures are shared on demand only
+        Assert.assertEquals(ExtensionStructures.count(tuples), 1);
+    }
+
+    private static Model sharedTable(Tuples tuples, String algo, int ub) {
+        Model model = new Model(Settings.init().setShareExtensionStructures(true));
+        IntVar[] vars = model.intVarArray("x", 4, 0, ub);
+        model.table(vars, tuples, algo).post();
+        model.sum(vars, "=", 12).post();
+        return model;
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "sharedAlgos")
+    public void testSharedStructures(String algo, boolean star) {
+        Tuples tuples = TuplesFactory.randomTuples(.3, new Random(0), new Model().intVarArray("x", 4, 0, 6));
+        if (star) {
+            tuples.setUniversalValue(-1);
+            tuples.add(-1, 3, 3, -1);
+        }
+        int[] counts = new int[3];
+        for (int k = 0; k < counts.length; k++) {
+            Model model = sharedTable(tuples, algo, 6);
+            counts[k] = model.getSolver().findAllSolutions().size();
+        }
+        Assert.assertEquals(counts[1], counts[0]);
+        Assert.assertEquals(counts[2], counts[0]);
+        Assert.assertEquals(ExtensionStructures.count(tuples), 1);
+        // different domains lead to different structures
+        Model model = sharedTable(tuples, algo, 5);
+        Assert.assertTrue(model.getSolver().findAllSolutions().size() <= counts[0]);
+        Assert.assertEquals(ExtensionStructures.count(tuples), 2);
+        // so do additional tuples
+        tuples.add(3, 3, 3, 3);
+        model = sharedTable(tuples, algo, 6);
+        Assert.assertTrue(model.getSolver().findAllSolutions().size() >= counts[0]);
+        Assert.assertEquals(ExtensionStructures.count(tuples), 3);
+    }
+
+    @DataProvider(name = "sharedAlgos")
+    public Object[][] sharedAlgos() {
+        return new Object[][]{{"CT+", false}, {"CT+", true}, {"MDD+", false}};
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSharedStructuresInPortfolio() {
+        Tuples tuples = TuplesFactory.randomTuples(.3, new Random(0), new Model().intVarArray("x", 4, 0, 6));
+        Model reference = sharedTable(tuples, "CT+", 6);
+        int count = reference.getSolver().findAllSolutions().size();
+        Assert.assertTrue(count > 0);
+        ParallelPortfolio portfolio = new ParallelPortfolio();
+        for (int k = 0; k < 4; k++) {
+            Model model = sharedTable(tuples, "CT+", 6);
+            IntVar[] vars = model.retrieveIntVars(true);
+            model.getSolver().setSearch(randomSearch(vars, k));
+            portfolio.addModel(model);
+        }
+        Assert.assertTrue(portfolio.solve());
+        Model best = portfolio.getBestModel();
+        Assert.assertEquals(best.getSolver().isSatisfied(), ESat.TRUE);
+        Assert.assertEquals(ExtensionStructures.count(tuples), 1);
+    }
+}
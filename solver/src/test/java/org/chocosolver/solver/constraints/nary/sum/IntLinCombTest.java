@@ -1073,4 +1073,59 @@ public class IntLinCombTest {
         model.getSolver().findAllSolutions();
         Assert.assertEquals(model.getSolver().getSolutionCount(), 772);
     }
+
+    private static Model scalar(int seed, boolean incr, boolean reif) {
+        Random rand = new Random(seed);
+        Model model = new Model(Settings.init().setEnableIncrementalityOnSum(i -> incr));
+        int n = 3 + rand.nextInt(3);
+        IntVar[] vars = model.intVarArray("x", n, -2, 2, rand.nextBoolean());
+        int[] coeffs = new int[n];
+        boolean unit = rand.nextBoolean();
+        for (int i = 0; i < n; i++) {
+            coeffs[i] = (rand.nextBoolean() ? 1 : -1) * (unit ? 1 : 1 + rand.nextInt(4));
+        }
+        String op = new String[]{"=", "!=", "<=", ">=", "<", ">"}[rand.nextInt(6)];
+        Constraint c = model.scalar(vars, coeffs, op, -5 + rand.nextInt(11));
+        if (reif) {
+            BoolVar r = model.boolVar("r");
+            c.reifyWith(r);
+            vars = ArrayUtils.append(new IntVar[]{r}, vars);
+        } else {
+            c.post();
+        }
+        model.getSolver().setSearch(inputOrderLBSearch(vars));
+        return model;
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "boolean")
+    public void testIncrVsNotIncr(boolean reif) {
+        for (int seed = 0; seed < 200; seed++) {
+            Model incr = scalar(seed, true, reif);
+            Model decr = scalar(seed, false, reif);
+            while (incr.getSolver().solve()) ;
+            while (decr.getSolver().solve()) ;
+            assertEquals(incr.getSolver().getSolutionCount(), decr.getSolver().getSolutionCount(), "seed " + seed);
+            assertEquals(incr.getSolver().getNodeCount(), decr.getSolver().getNodeCount(), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testIncrSelection() {
+        Model model = new Model(Settings.init().setEnableIncrementalityOnSum(i -> i > 3));
+        IntVar[] vars = model.intVarArray("x", 5, 0, 10);
+        Assert.assertTrue(model.sum(vars, "<=", 12).getPropagator(0) instanceof PropSumIncr);
+        Assert.assertTrue(model.scalar(vars, new int[]{1, 2, 3, 4, 5}, ">=", 12).getPropagator(0) instanceof PropScalarIncr);
+        Assert.assertTrue(model.sum(vars, "!=", 12).getPropagator(0).getClass() == PropSum.class);
+        Assert.assertTrue(model.sum(Arrays.copyOf(vars, 3), "<=", 12).getPropagator(0).getClass() == PropSum.class);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testIncrLongSum() {
+        Model model = new Model(Settings.init().setEnableIncrementalityOnSum(i -> true));
+        IntVar[] vars = model.intVarArray("x", 2000, 0, 3);
+        model.sum(vars, "=", 3000).post();
+        model.getSolver().setSearch(inputOrderLBSearch(vars));
+        Assert.assertTrue(model.getSolver().solve());
+        Assert.assertEquals(Arrays.stream(vars).mapToInt(IntVar::getValue).sum(), 3000);
+    }
 }
@@ -11,10 +11,18 @@ package org.chocosolver.solver.expression.continuous.relational;
 
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.expression.continuous.arithmetic.CArExpression;
 import org.chocosolver.solver.variables.RealVar;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Function;
+
 /**
  * <br/>
  *
@@ -53,4 +61,199 @@ public class PropEquationTest {
         }
         Assert.assertTrue(solver.getSolutionCount() >= 2);
     }
+
+    /**
+     * The filtering as it was before the expressions were flattened into an {@link EquationDAG},
+     * that is, evaluated on the sub-expressions themselves.
+     */
+    @SuppressWarnings("deprecation")
+    private static class LegacyPropEquation extends PropEquation {
+
+        LegacyPropEquation(RealVar[] vars, CArExpression e1, CReExpression.Operator op) {
+            super(vars, e1, op);
+        }
+
+        @Override
+        public void propagate(int evtmask) throws ContradictionException {
+            tighten(subExps);
+            subExps[subExps.length - 1].intersect(cste, this);
+            for (int i = subExps.length - 1; i > 0; i--) {
+                subExps[i].project(this);
+            }
+            for (int i = 0; i < nbBoxedVars; i++) {
+                bc(boxedVars[i], subExpsWX[i], subExpsWOX[i]);
+            }
+        }
+    }
+
+    private static final double[] CSTES = {0., 1., -1., 2., -.5, 3.};
+
+    /**
+     * Build an equation on a fresh model, with either the current or the legacy filtering, and propagate it.
+     *
+     * @param domains bounds of the variables
+     * @param builder builds the expression, the constraint being "expression op 0"
+     * @return the bounds of the variables after propagation, or the reason why propagation stopped
+     */
+    private static String propagate(double[][] domains, Function<RealVar[], CArExpression> builder,
+                                    CReExpression.Operator op, boolean legacy) {
+        Model model = new Model();
+        RealVar[] vars = new RealVar[domains.length];
+        for (int i = 0; i < vars.length; i++) {
+            vars[i] = model.realVar("x" + i, domains[i][0], domains[i][1], 1.0e-6);
+        }
+        CArExpression exp = builder.apply(vars);
+        TreeSet<RealVar> collected = new TreeSet<>();
+        exp.collectVariables(collected);
+        if (collected.isEmpty()) {
+            return "no variable";
+        }
+        new Constraint("Equation", legacy ?
+                new LegacyPropEquation(collected.toArray(new RealVar[0]), exp, op) :
+                new PropEquation(collected.toArray(new RealVar[0]), exp, op)).post();
+        try {
+            model.getSolver().propagate();
+        } catch (ContradictionException e) {
+            return "failure";
+        } catch (ArithmeticException e) {
+            // division by [0,0]
+            return e.getMessage();
+        }
+        StringBuilder bounds = new StringBuilder();
+        for (RealVar var : vars) {
+            bounds.append('[').append(var.getLB()).append(',').append(var.getUB()).append(']');
+        }
+        return bounds.toString();
+    }
+
+    private static void checkLegacy(double[][] domains, Function<RealVar[], CArExpression> builder,
+                                    CReExpression.Operator op) {
+        Assert.assertEquals(
+                propagate(domains, builder, op, false),
+                propagate(domains, builder, op, true));
+    }
+
+    private static CArExpression randomExpression(Random rnd, RealVar[] vars, int depth) {
+        if (depth == 0 || rnd.nextInt(4) == 0) {
+            return rnd.nextInt(4) == 0 ?
+                    vars[0].getModel().realVar(CSTES[rnd.nextInt(CSTES.length)]) :
+                    vars[rnd.nextInt(vars.length)];
+        }
+        CArExpression e = randomExpression(rnd, vars, depth - 1);
+        switch (rnd.nextInt(14)) {
+            case 0:
+                return e.neg();
+            case 1:
+                return e.abs();
+            case 2:
+                return e.sqr();
+            case 3:
+                return e.sqrt();
+            case 4:
+                return e.cub();
+            case 5:
+                return e.cbrt();
+            case 6:
+                return e.cos();
+            case 7:
+                return e.sin();
+            case 8:
+                return e.add(randomExpression(rnd, vars, depth - 1));
+            case 9:
+                return e.sub(randomExpression(rnd, vars, depth - 1));
+            case 10:
+                return e.mul(randomExpression(rnd, vars, depth - 1));
+            case 11:
+                return e.min(randomExpression(rnd, vars, depth - 1));
+            case 12:
+                return e.max(randomExpression(rnd, vars, depth - 1));
+            default:
+                return e.div(randomExpression(rnd, vars, depth - 1));
+        }
+    }
+
+    @DataProvider
+    public Object[][] seeds() {
+        Object[][] seeds = new Object[20][];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = new Object[]{i * 100L};
+        }
+        return seeds;
+    }
+
+    @Test(groups = "1s", dataProvider = "seeds")
+    public void testLegacyRandom(long seed) {
+        for (long s = seed; s < seed + 100; s++) {
+            Random rnd = new Random(s);
+            double[][] domains = new double[1 + rnd.nextInt(3)][];
+            for (int i = 0; i < domains.length; i++) {
+                double a = rnd.nextInt(21) / 2. - 5.;
+                double b = rnd.nextInt(21) / 2. - 5.;
+                domains[i] = new double[]{Math.min(a, b), Math.max(a, b)};
+            }
+            CReExpression.Operator op = CReExpression.Operator.values()[rnd.nextInt(CReExpression.Operator.values().length)];
+            long es = rnd.nextLong();
+            Function<RealVar[], CArExpression> builder = vars ->
+                    randomExpression(new Random(es), vars, 4).sub(CSTES[(int) Math.floorMod(es, CSTES.length)]);
+            Assert.assertEquals(
+                    propagate(domains, builder, op, false),
+                    propagate(domains, builder, op, true), "seed " + s);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testLegacyAbs() {
+        checkLegacy(new double[][]{{-3, 2}}, v -> v[0].abs().sub(1.5), CReExpression.Operator.EQ);
+        checkLegacy(new double[][]{{-3, 2}, {-1, 4}}, v -> v[0].abs().sub(v[1]), CReExpression.Operator.GE);
+    }
+
+    @Test(groups = "1s")
+    public void testLegacyPowers() {
+        // even and odd powers
+        checkLegacy(new double[][]{{-3, 2}}, v -> v[0].sqr().sub(2), CReExpression.Operator.EQ);
+        checkLegacy(new double[][]{{-3, 2}}, v -> v[0].cub().add(2), CReExpression.Operator.LE);
+        checkLegacy(new double[][]{{-3, 2}, {-5, 5}}, v -> v[0].sqr().sub(v[1].cub()), CReExpression.Operator.EQ);
+    }
+
+    @Test(groups = "1s")
+    public void testLegacyRoots() {
+        // even and odd roots
+        checkLegacy(new double[][]{{-3, 5}}, v -> v[0].sqrt().sub(1.5), CReExpression.Operator.EQ);
+        checkLegacy(new double[][]{{-9, 5}}, v -> v[0].cbrt().add(1.5), CReExpression.Operator.EQ);
+        checkLegacy(new double[][]{{-3, -1}}, v -> v[0].sqrt(), CReExpression.Operator.GE);
+    }
+
+    @Test(groups = "1s")
+    public void testLegacyDivision() {
+        // through 0
+        checkLegacy(new double[][]{{-1, 1}, {-2, 3}}, v -> v[1].div(v[0]).sub(1), CReExpression.Operator.EQ);
+        checkLegacy(new double[][]{{0, 1}, {1, 3}}, v -> v[1].div(v[0]).sub(2), CReExpression.Operator.GE);
+        checkLegacy(new double[][]{{-1, 0}, {-2, 2}}, v -> v[1].div(v[0]), CReExpression.Operator.EQ);
+        checkLegacy(new double[][]{{0, 0}, {1, 2}}, v -> v[1].div(v[0]), CReExpression.Operator.LT);
+    }
+
+    @Test(groups = "1s")
+    public void testDeeperBoxConsistency() throws ContradictionException {
+        Model model = new Model();
+        RealVar x = model.realVar("x", -3, 5, 1.0e-6);
+        CArExpression exp = x.sqr().sub(x).sub(2);
+        PropEquation deeper = new PropEquation(new RealVar[]{x}, exp, CReExpression.Operator.EQ) {
+            {
+                boxConsistencyDepth = 20;
+            }
+        };
+        new Constraint("Equation", deeper).post();
+        model.getSolver().propagate();
+        // roots are -1 and 2
+        Assert.assertTrue(x.getLB() >= -1.001 && x.getLB() <= -1, x.toString());
+        Assert.assertTrue(x.getUB() <= 2.001 && x.getUB() >= 2, x.toString());
+    }
+
+    @Test(groups = "1s", expectedExceptions = UnsupportedOperationException.class)
+    public void testPowNotSupported() {
+        // POW is neither supported by the legacy filtering, ABS, SQR, SQRT, CUB and CBRT should be used instead
+        Model model = new Model();
+        RealVar x = model.realVar("x", -2, 2, 1.0e-6);
+        x.pow(2).eq(1).equation();
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.learn;
+
+import org.chocosolver.sat.SatDecorator;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <p> Project: choco-solver.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class LazyClauseGenerationTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testQueens() {
+        for (int n = 4; n < 9; n++) {
+            Model model = ProblemMaker.makeNQueenWithBinaryConstraints(n);
+            Solver solver = model.getSolver();
+            solver.setLazyClauseGeneration();
+            Assert.assertEquals(solver.streamSolutions().count(), ProblemMaker.makeNQueenWithBinaryConstraints(n).getSolver().streamSolutions().count());
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testJobShop() {
+        for (long seed = 0; seed < 3; seed++) {
+            Model model = LazyImplicationsTest.jobShop(4, 4, seed);
+            Solver solver = model.getSolver();
+            while (solver.solve()) ;
+            Model lmodel = LazyImplicationsTest.jobShop(4, 4, seed);
+            Solver lsolver = lmodel.getSolver();
+            lsolver.setLazyClauseGeneration();
+            while (lsolver.solve()) ;
+            Assert.assertEquals(lsolver.getBestSolutionValue(), solver.getBestSolutionValue());
+            Assert.assertTrue(lsolver.getNodeCount() <= solver.getNodeCount());
+            Assert.assertTrue(((SatDecorator) lmodel.getMinisat().getPropSat().getMiniSat()).nLearnt() > 0);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandomClauses() {
+        for (long seed = 0; seed < 20; seed++) {
+            long[] counts = new long[2];
+            for (int l = 0; l < 2; l++) {
+                Random rnd = new Random(seed);
+                Model model = new Model();
+                IntVar[] x = model.intVarArray("x", 5, 0, 4);
+                BoolVar[] b = model.boolVarArray("b", 5);
+                for (int i = 0; i < 5; i++) {
+                    model.arithm(x[i], "<=", 2).reifyWith(b[i]);
+                }
+                model.sum(x, "=", 10).post();
+                for (int c = 0; c < 6; c++) {
+                    BoolVar[] cl = new BoolVar[3];
+                    for (int j = 0; j < 3; j++) {
+                        BoolVar v = b[rnd.nextInt(5)];
+                        cl[j] = rnd.nextBoolean() ? v : v.not();
+                    }
+                    model.addClausesBoolOrArrayEqualTrue(cl);
+                }
+                if (l == 1) {
+                    model.getSolver().setLazyClauseGeneration();
+                }
+                counts[l] = model.getSolver().streamSolutions().count();
+            }
+            Assert.assertEquals(counts[1], counts[0], "seed " + seed);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IntEventType;
@@ -23,6 +24,8 @@ import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 /**
  * <p> Project: choco-solver.
  *
@@ -41,8 +44,8 @@ public class LazyImplicationsTest {
         solver.setEventObserver(ee);
         while (solver.solve()) {
             for (IntVar q : qs) {
-                int i = aGI.rootEntries.get(q).p;
-                IntIterableRangeSet set = aGI.entries[i].d;
+                int i = aGI.lastEntryOf(q);
+                IntIterableRangeSet set = aGI.getDomainAt(i);
                 Assert.assertTrue(set.contains(q.getValue()));
                 Assert.assertEquals(set.size(), 1);
             }
@@ -87,5 +90,63 @@ public class LazyImplicationsTest {
         model.sum(ArrayUtils.append(x), "=", obj).post();
     }
 
+    static Model jobShop(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        Model model = new Model();
+        int[][] d = new int[n][m];
+        int[][] mach = new int[n][m];
+        int h = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                d[i][j] = 1 + rnd.nextInt(9);
+                h += d[i][j];
+                mach[i][j] = j;
+            }
+            for (int j = m - 1; j > 0; j--) {
+                int k = rnd.nextInt(j + 1);
+                int t = mach[i][j];
+                mach[i][j] = mach[i][k];
+                mach[i][k] = t;
+            }
+        }
+        IntVar[][] s = model.intVarMatrix("s", n, m, 0, h);
+        IntVar mk = model.intVar("mk", 0, h);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j + 1 < m; j++) {
+                model.arithm(s[i][j], "-", s[i][j + 1], "<=", -d[i][j]).post();
+            }
+            model.arithm(s[i][m - 1], "-", mk, "<=", -d[i][m - 1]).post();
+        }
+        for (int i = 0; i < n; i++) {
+            for (int i2 = i + 1; i2 < n; i2++) {
+                for (int j = 0; j < m; j++) {
+                    for (int j2 = 0; j2 < m; j2++) {
+                        if (mach[i][j] == mach[i2][j2]) {
+                            BoolVar b = model.arithm(s[i][j], "-", s[i2][j2], "<=", -d[i][j]).reify();
+                            BoolVar c = model.arithm(s[i2][j2], "-", s[i][j], "<=", -d[i2][j2]).reify();
+                            model.addClausesBoolOrArrayEqualTrue(new BoolVar[]{b, c});
+                        }
+                    }
+                }
+            }
+        }
+        model.setObjective(false, mk);
+        model.getSolver().setSearch(Search.inputOrderLBSearch(ArrayUtils.append(ArrayUtils.flatten(s), new IntVar[]{mk})));
+        return model;
+    }
 
-}
\ No newline at end of file
+    @Test(groups = "1s", timeOut = 60000)
+    public void testJobShop() {
+        for (long seed = 0; seed < 3; seed++) {
+            Model model = jobShop(4, 4, seed);
+            Solver solver = model.getSolver();
+            while (solver.solve()) ;
+            Model lmodel = jobShop(4, 4, seed);
+            Solver lsolver = lmodel.getSolver();
+            lsolver.setLearningSignedClauses();
+            while (lsolver.solve()) ;
+            Assert.assertEquals(lsolver.getBestSolutionValue(), solver.getBestSolutionValue());
+            Assert.assertTrue(lsolver.getNodeCount() <= solver.getNodeCount());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.math.BigInteger;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class ComponentSearchTest {
+
+    private static IntVar[] queens(Model model, String name, int n) {
+        IntVar[] q = model.intVarArray(name, n, 0, n - 1);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                model.arithm(q[i], "!=", q[j]).post();
+                model.arithm(q[i], "!=", q[j], "+", j - i).post();
+                model.arithm(q[i], "!=", q[j], "-", j - i).post();
+            }
+        }
+        return q;
+    }
+
+    private static boolean isQueens(Solution solution, IntVar[] q) {
+        for (int i = 0; i < q.length - 1; i++) {
+            for (int j = i + 1; j < q.length; j++) {
+                int qi = solution.getIntVal(q[i]);
+                int qj = solution.getIntVal(q[j]);
+                if (qi == qj || Math.abs(qi - qj) == j - i) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCountIndependent() {
+        Model model = new Model();
+        for (int k = 0; k < 5; k++) {
+            queens(model, "Q" + k, 8);
+        }
+        ComponentSearch search = new ComponentSearch(model, 1);
+        Assert.assertEquals(search.countSolutions(), BigInteger.valueOf(92).pow(5));
+        Assert.assertEquals(search.getDecompositionCount(), 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCountAsSolver() {
+        for (int period = 1; period < 4; period++) {
+            Model model = new Model();
+            IntVar hub = model.intVar("H", 0, 1);
+            for (int k = 0; k < 2; k++) {
+                IntVar[] q = queens(model, "Q" + k, 6);
+                model.arithm(q[0], "!=", hub).post();
+                model.arithm(q[5], ">", hub).post();
+            }
+            ComponentSearch search = new ComponentSearch(model, period);
+            BigInteger count = search.countSolutions();
+            Assert.assertTrue(search.getDecompositionCount() > 0);
+            while (model.getSolver().solve()) ;
+            Assert.assertEquals(count, BigInteger.valueOf(model.getSolver().getSolutionCount()));
+            Assert.assertEquals(count, BigInteger.valueOf(20));
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFindSolution() {
+        Model model = new Model();
+        IntVar[][] qs = new IntVar[4][];
+        for (int k = 0; k < qs.length; k++) {
+            qs[k] = queens(model, "Q" + k, 8 + k);
+        }
+        ComponentSearch search = new ComponentSearch(model, 1);
+        Solution solution = search.findSolution();
+        Assert.assertNotNull(solution);
+        for (IntVar[] q : qs) {
+            Assert.assertTrue(isQueens(solution, q));
+        }
+        // the model is left as it was
+        for (IntVar[] q : qs) {
+            Assert.assertFalse(q[0].isInstantiated());
+        }
+        Assert.assertTrue(model.getSolver().solve());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNoSolution() {
+        Model model = new Model();
+        for (int k = 0; k < 10; k++) {
+            queens(model, "Q" + k, 8);
+        }
+        queens(model, "R", 3);
+        ComponentSearch search = new ComponentSearch(model, 1);
+        Assert.assertNull(search.findSolution());
+        // the unsatisfiable component is not explored again for each solution of the others
+        Assert.assertTrue(search.getNodeCount() < 1000, "nodes: " + search.getNodeCount());
+        Assert.assertEquals(search.countSolutions(), BigInteger.ZERO);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRootFailure() {
+        Model model = new Model();
+        queens(model, "Q", 8);
+        IntVar x = model.intVar("X", 0, 3);
+        model.arithm(x, ">", 3).post();
+        ComponentSearch search = new ComponentSearch(model, 1);
+        Assert.assertEquals(search.countSolutions(), BigInteger.ZERO);
+        Assert.assertNull(search.findSolution());
+        Assert.assertEquals(search.getNodeCount(), 0);
+        Assert.assertEquals(search.getFailCount(), 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSolverStrategy() {
+        Model model = new Model();
+        IntVar[] q0 = queens(model, "Q0", 8);
+        IntVar[] q1 = queens(model, "Q1", 8);
+        model.getSolver().setSearch(Search.inputOrderUBSearch(ArrayUtils.append(q0, q1)));
+        Solution solution = new ComponentSearch(model, 1).findSolution();
+        Assert.assertNotNull(solution);
+        // the last solution in lexicographic order is the first one found by the strategy
+        int[] expected = {7, 3, 0, 2, 5, 1, 6, 4};
+        for (int i = 0; i < 8; i++) {
+            Assert.assertEquals(solution.getIntVal(q0[i]), expected[i]);
+            Assert.assertEquals(solution.getIntVal(q1[i]), expected[i]);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testStatefulSelector() {
+        Model model = new Model();
+        IntVar[] q0 = queens(model, "Q0", 6);
+        IntVar[] q1 = queens(model, "Q1", 6);
+        // dom/wdeg keeps an index on the array of the strategy
+        model.getSolver().setSearch(Search.domOverWDegSearch(ArrayUtils.append(q0, q1)));
+        ComponentSearch search = new ComponentSearch(model, 1);
+        Assert.assertEquals(search.countSolutions(), BigInteger.valueOf(16));
+        Assert.assertEquals(search.getDecompositionCount(), 1);
+        Solution solution = search.findSolution();
+        Assert.assertTrue(isQueens(solution, q0));
+        Assert.assertTrue(isQueens(solution, q1));
+        while (model.getSolver().solve()) ;
+        Assert.assertEquals(model.getSolver().getSolutionCount(), 16);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testStopCriterion() {
+        Model model = new Model();
+        for (int k = 0; k < 3; k++) {
+            queens(model, "Q" + k, 10);
+        }
+        Solver solver = model.getSolver();
+        solver.limitNode(100);
+        ComponentSearch search = new ComponentSearch(model, 1);
+        Assert.assertNull(search.countSolutions());
+        Assert.assertTrue(search.isStopped());
+        Assert.assertEquals(search.getNodeCount(), 100);
+        // the measures of the solver are restored, the limit is kept
+        Assert.assertEquals(solver.getNodeCount(), 0);
+        Assert.assertEquals(solver.getFailCount(), 0);
+        while (solver.solve()) ;
+        Assert.assertTrue(solver.isStopCriterionMet());
+        Assert.assertEquals(solver.getNodeCount(), 100);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testDuringSolving() {
+        Model model = new Model();
+        queens(model, "Q", 6);
+        model.getSolver().solve();
+        new ComponentSearch(model, 1).countSolutions();
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testSetVariable() {
+        Model model = new Model();
+        model.setVar("S", new int[]{}, new int[]{1, 2, 3});
+        new ComponentSearch(model, 1);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.SolutionCounter;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class SolutionPublisherTest {
+
+    private static Model queens(int n) {
+        Model model = new Model();
+        IntVar[] q = model.intVarArray("Q", n, 0, n - 1);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                model.arithm(q[i], "!=", q[j]).post();
+                model.arithm(q[i], "!=", q[j], "+", j - i).post();
+                model.arithm(q[i], "!=", q[j], "-", j - i).post();
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Records the signals received, requests <i>demand</i> solutions on subscription.
+     */
+    private static class Recorder implements SolutionPublisher.Subscriber {
+        final long demand;
+        final List<List<Solution>> batches = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile SolutionPublisher.Subscription subscription;
+        volatile boolean completed;
+        volatile Throwable error;
+
+        Recorder(long demand) {
+            this.demand = demand;
+        }
+
+        @Override
+        public void onSubscribe(SolutionPublisher.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(demand);
+        }
+
+        @Override
+        public void onNext(List<Solution> solutions) {
+            batches.add(solutions);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+
+        int count() {
+            synchronized (batches) {
+                return batches.stream().mapToInt(List::size).sum();
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testAllSolutions() throws InterruptedException {
+        Model model = queens(8);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        new SolutionPublisher(model.getSolver(), 10, 0, Thread::new).subscribe(recorder);
+        Assert.assertTrue(recorder.done.await(30, TimeUnit.SECONDS));
+        Assert.assertTrue(recorder.completed);
+        Assert.assertEquals(recorder.count(), 92);
+        Assert.assertEquals(recorder.batches.size(), 10);
+        for (List<Solution> batch : recorder.batches) {
+            Assert.assertTrue(batch.size() <= 10);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBackPressure() throws InterruptedException {
+        Model model = queens(8);
+        Solver solver = model.getSolver();
+        Recorder recorder = new Recorder(5);
+        new SolutionPublisher(solver, 3, 0, Thread::new).subscribe(recorder);
+        while (recorder.count() < 5) {
+            Thread.sleep(5);
+        }
+        // the search is paused
+        Thread.sleep(100);
+        Assert.assertEquals(recorder.count(), 5);
+        Assert.assertEquals(recorder.batches.size(), 2);
+        Assert.assertEquals(solver.getSolutionCount(), 5);
+        recorder.subscription.request(2);
+        while (recorder.count() < 7) {
+            Thread.sleep(5);
+        }
+        recorder.subscription.cancel();
+        Assert.assertFalse(recorder.done.await(100, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(recorder.count(), 7);
+        Assert.assertEquals(solver.getSolutionCount(), 7);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testStalledSubscriber() throws InterruptedException {
+        Model model = queens(8);
+        Solver solver = model.getSolver();
+        Thread[] searcher = new Thread[1];
+        // requests one solution, then neither requests another one nor cancels
+        Recorder recorder = new Recorder(1) {
+            @Override
+            public void onNext(List<Solution> solutions) {
+                searcher[0] = Thread.currentThread();
+                super.onNext(solutions);
+            }
+        };
+        solver.publishSolutions().subscribe(recorder);
+        while (recorder.count() < 1) {
+            Thread.sleep(5);
+        }
+        Thread thread = searcher[0];
+        // the search thread does not keep the JVM alive
+        Assert.assertTrue(thread.isDaemon());
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+        long nodes = solver.getNodeCount();
+        Thread.sleep(100);
+        Assert.assertEquals(thread.getState(), Thread.State.WAITING);
+        Assert.assertEquals(solver.getNodeCount(), nodes);
+        Assert.assertEquals(solver.getSolutionCount(), 1);
+        // cancelling releases the search thread
+        recorder.subscription.cancel();
+        thread.join(30000);
+        Assert.assertFalse(thread.isAlive());
+        Assert.assertFalse(recorder.completed);
+        Assert.assertNull(recorder.error);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRecycling() throws InterruptedException {
+        Model model = queens(8);
+        Set<Solution> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<String> values = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        new SolutionPublisher(model.getSolver(), 2, 4, Thread::new).subscribe(new SolutionPublisher.Subscriber() {
+            SolutionPublisher.Subscription subscription;
+
+            @Override
+            public void onSubscribe(SolutionPublisher.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(List<Solution> solutions) {
+                for (Solution s : solutions) {
+                    distinct.add(s);
+                    values.add(s.toString());
+                    subscription.release(s);
+                }
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+        Assert.assertTrue(done.await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(values.size(), 92);
+        Assert.assertEquals(values.stream().distinct().count(), 92);
+        Assert.assertTrue(distinct.size() <= 4);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testStopCriterion() throws InterruptedException {
+        Model model = queens(8);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        model.getSolver().publishSolutions(new SolutionCounter(model, 12)).subscribe(recorder);
+        Assert.assertTrue(recorder.done.await(30, TimeUnit.SECONDS));
+        Assert.assertTrue(recorder.completed);
+        Assert.assertEquals(recorder.count(), 12);
+        Assert.assertEquals(recorder.batches.size(), 12);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSingleSubscriber() throws InterruptedException {
+        Model model = queens(8);
+        SolutionPublisher publisher = model.getSolver().publishSolutions();
+        Recorder first = new Recorder(Long.MAX_VALUE);
+        Recorder second = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+        Assert.assertTrue(second.error instanceof IllegalStateException);
+        Assert.assertTrue(first.done.await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(first.count(), 92);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testInvalidRequest() throws InterruptedException {
+        Model model = queens(8);
+        Recorder recorder = new Recorder(0);
+        model.getSolver().publishSolutions().subscribe(recorder);
+        Assert.assertTrue(recorder.done.await(30, TimeUnit.SECONDS));
+        Assert.assertTrue(recorder.error instanceof IllegalArgumentException);
+        Assert.assertEquals(recorder.count(), 0);
+    }
+}
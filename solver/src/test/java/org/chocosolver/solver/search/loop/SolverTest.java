@@ -14,6 +14,7 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Settings;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.propagation.PropagationProfiler;
 import org.chocosolver.solver.search.limits.NodeCounter;
 import org.chocosolver.solver.search.loop.lns.neighbors.RandomNeighborhood;
@@ -37,6 +38,7 @@ import static org.chocosolver.solver.search.strategy.Search.*;
 import static org.chocosolver.util.ProblemMaker.makeGolombRuler;
 import static org.chocosolver.util.ProblemMaker.makeNQueenWithOneAlldifferent;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Created by cprudhom on 02/09/15.
@@ -119,6 +121,91 @@ public class SolverTest {
         assertEquals(model.getSolver().getNodeCount(), 4542);
     }
 
+    @Test(groups = "1s", timeOut = 60000)
+    public void test2HBFS() {
+        Model model = makeGolombRuler(7);
+        Solver r = model.getSolver();
+        r.setSearch(inputOrderLBSearch(model.retrieveIntVars(false)));
+        r.setHBFS(.05, .1, 8, 8);
+        IntVar objective = (IntVar) model.getObjective();
+        int best = Integer.MAX_VALUE;
+        while (model.getSolver().solve()) {
+            best = objective.getValue();
+        }
+        assertEquals(best, 25);
+        assertTrue(model.getSolver().getSolutionCount() > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void test3HBFS() {
+        Model model = makeGolombRuler(7);
+        Solver r = model.getSolver();
+        IntVar[] vars = model.retrieveIntVars(false);
+        // decisions that are not integer ones are duplicated in the open right branches
+        r.setSearch(new AbstractStrategy<IntVar>(vars) {
+            @Override
+            public Decision<IntVar> getDecision() {
+                for (IntVar var : vars) {
+                    if (!var.isInstantiated()) {
+                        return new LeqDecision(var, var.getLB());
+                    }
+                }
+                return null;
+            }
+        });
+        r.setHBFS(.05, .1, 8);
+        IntVar objective = (IntVar) model.getObjective();
+        int best = Integer.MAX_VALUE;
+        while (model.getSolver().solve()) {
+            best = objective.getValue();
+        }
+        assertEquals(best, 25);
+        assertTrue(r.getRestartCount() > 0);
+    }
+
+    /**
+     * A decision <i>var</i> &le; <i>value</i>, refuted by <i>var</i> &gt; <i>value</i>.
+     */
+    private static final class LeqDecision extends Decision<IntVar> {
+
+        private final int value;
+
+        LeqDecision(IntVar var, int value) {
+            super(2);
+            set(var);
+            this.value = value;
+        }
+
+        @Override
+        public void apply() throws ContradictionException {
+            if (branch == 1) {
+                var.updateUpperBound(value, this);
+            } else if (branch == 2) {
+                var.updateLowerBound(value + 1, this);
+            }
+        }
+
+        @Override
+        public Integer getDecisionValue() {
+            return value;
+        }
+
+        @Override
+        public void free() {
+        }
+
+        @Override
+        public Decision<IntVar> duplicate() {
+            return new LeqDecision(var, value);
+        }
+
+        @Override
+        public boolean isEquivalentTo(Decision dec) {
+            return dec instanceof LeqDecision && dec.getDecisionVariable() == var
+                    && ((LeqDecision) dec).value == value && dec.triesLeft() == triesLeft();
+        }
+    }
+
     @Test(groups = "1s", timeOut = 60000)
     public void test2DFS() {
         Model model = makeNQueenWithOneAlldifferent(8);
@@ -0,0 +1,137 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.monitors;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.trace.GraphvizGenerator;
+import org.chocosolver.solver.trace.SearchTraceConverter;
+import org.chocosolver.solver.trace.SearchTraceRecorder;
+import org.chocosolver.solver.trace.SearchViz;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class SearchTraceTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRecordAndConvert() throws IOException {
+        File trace = File.createTempFile("trace", ".bin");
+        File gv1 = File.createTempFile("direct", ".gv");
+        File gv2 = File.createTempFile("replay", ".gv");
+        try {
+            Model m1 = ProblemMaker.makeCostasArrays(7);
+            Solver s1 = m1.getSolver();
+            try (Closeable ignored = s1.outputSearchTreeToTrace(trace.getAbsolutePath())) {
+                while (s1.solve()) ;
+            }
+            Model m2 = ProblemMaker.makeCostasArrays(7);
+            Solver s2 = m2.getSolver();
+            try (Closeable ignored = new GraphvizGenerator(gv1.getAbsolutePath(), s2)) {
+                while (s2.solve()) ;
+            }
+            SearchTraceConverter converter = new SearchTraceConverter(trace.getAbsolutePath());
+            Assert.assertTrue(converter.getNbRecords() >= s1.getNodeCount());
+            Assert.assertTrue(trace.length() >= (long) converter.getNbRecords() * SearchTraceRecorder.RECORD);
+            converter.toGraphviz(gv2.getAbsolutePath());
+            // same tree, only labels differ
+            List<String> edges1 = edges(gv1);
+            List<String> edges2 = edges(gv2);
+            Assert.assertFalse(edges1.isEmpty());
+            Assert.assertEquals(edges2, edges1);
+            Assert.assertEquals(Files.readAllLines(gv2.toPath()).size(), Files.readAllLines(gv1.toPath()).size());
+        } finally {
+            Files.deleteIfExists(trace.toPath());
+            Files.deleteIfExists(gv1.toPath());
+            Files.deleteIfExists(gv2.toPath());
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testLargeAlternative() throws IOException {
+        File trace = File.createTempFile("trace", ".bin");
+        try {
+            Model model = new Model();
+            model.intVar("x", 0, 3);
+            new SearchTraceRecorder(trace.getAbsolutePath(), model.getSolver()) {
+                {
+                    sendNode(0, -1, -1, 3, 0, null, null);
+                    sendNode(1, 0, 200, 0, 0, null, null);
+                    sendFailure(2, 0, 70000, 0, 0, null, null);
+                }
+            }.close();
+            List<Integer> alts = new ArrayList<>();
+            new SearchTraceConverter(trace.getAbsolutePath()).replay(new SearchViz(new Model().getSolver(), false) {
+                @Override
+                protected boolean connect(String label) {
+                    return true;
+                }
+
+                @Override
+                protected void disconnect() {
+                }
+
+                @Override
+                protected void sendNode(int nc, int pid, int alt, int kid, int rid, String label, String info) {
+                    alts.add(alt);
+                }
+
+                @Override
+                protected void sendSolution(int nc, int pid, int alt, int kid, int rid, String label, String info) {
+                    alts.add(alt);
+                }
+
+                @Override
+                protected void sendFailure(int nc, int pid, int alt, int kid, int rid, String label, String info) {
+                    alts.add(alt);
+                }
+
+                @Override
+                protected void sendRestart(int rid) {
+                }
+            });
+            Assert.assertEquals(alts, Arrays.asList(-1, 200, 70000));
+        } finally {
+            Files.deleteIfExists(trace.toPath());
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testUnwritableTrace() throws IOException {
+        File dir = Files.createTempDirectory("trace").toFile();
+        try {
+            Model model = new Model();
+            model.getSolver().outputSearchTreeToTrace(new File(dir, "missing/trace.bin").getAbsolutePath());
+        } finally {
+            Files.deleteIfExists(dir.toPath());
+        }
+    }
+
+    private static List<String> edges(File gv) throws IOException {
+        return Files.readAllLines(gv.toPath()).stream().filter(l -> l.contains("->")).collect(Collectors.toList());
+    }
+}
@@ -13,11 +13,13 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.search.limits.FailCounter;
 import org.chocosolver.solver.search.limits.NodeCounter;
+import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
 import org.testng.annotations.Test;
 
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * <br/>
@@ -114,4 +116,69 @@ public class RestartTest {
 //        Assert.assertEquals(solver.getSolutionCount(), 92);
         assertEquals(model.getSolver().getRestartCount(), 2);
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testAdaptiveRestart1() {
+        Model model = buildQ(8);
+        model.getSolver().setAdaptiveRestarts(5, 100, .8, 1.4, 2);
+        while (model.getSolver().solve()) ;
+        assertTrue(model.getSolver().getSolutionCount() >= 92);
+        assertEquals(model.getSolver().getRestartCount(), 2);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testAdaptiveRestart2() {
+        Model model = buildQ(10);
+        model.getSolver().setSearch(Search.domOverWDegSearch(model.retrieveIntVars(true)));
+        model.getSolver().setAdaptiveRestarts();
+        while (model.getSolver().solve()) ;
+        // restarts are done, but nogoods avoid to find the same solution twice
+        assertEquals(model.getSolver().getSolutionCount(), 724);
+        assertTrue(model.getSolver().getRestartCount() > 0);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testAdaptiveRestartWithLearning() {
+        Model model = buildQ(8);
+        model.getSolver().setLearningSignedClauses();
+        Search.Restarts.ADAPTIVE.declare(model.getSolver(), 5, .8, Integer.MAX_VALUE);
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 92);
+        assertTrue(model.getSolver().getRestartCount() > 0);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testAdaptiveRestartDefaults() {
+        Model model = buildQ(10);
+        model.getSolver().setSearch(Search.domOverWDegSearch(model.retrieveIntVars(true)));
+        // like the portfolio does for cutoff sequences, which ignore the factor
+        Search.Restarts.ADAPTIVE.declare(model.getSolver(), 0, 0.d, Integer.MAX_VALUE);
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 724);
+        assertTrue(model.getSolver().getRestartCount() > 0);
+    }
+
+    @Test(groups="1s", timeOut=60000, expectedExceptions = IllegalArgumentException.class)
+    public void testAdaptiveRestartInvalidFactor() {
+        Model model = buildQ(8);
+        model.getSolver().setAdaptiveRestarts(50, 5000, 0., 1.4, Integer.MAX_VALUE);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testAdaptiveRestartAfterReset() {
+        Model model = buildQ(8);
+        model.getSolver().setSearch(inputOrderLBSearch(model.retrieveIntVars(true)));
+        model.getSolver().setAdaptiveRestarts(5, 100, .8, 1.4, 20);
+        while (model.getSolver().solve()) ;
+        long solutions = model.getSolver().getSolutionCount();
+        long nodes = model.getSolver().getNodeCount();
+        long restarts = model.getSolver().getRestartCount();
+        assertTrue(restarts > 0);
+        model.getSolver().reset();
+        // the state of the move is reset as well, the resolution is replayed
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), solutions);
+        assertEquals(model.getSolver().getNodeCount(), nodes);
+        assertEquals(model.getSolver().getRestartCount(), restarts);
+    }
 }
@@ -0,0 +1,225 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.variables.fast;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.impl.BitsetIntVarImpl;
+import org.chocosolver.solver.variables.impl.RangeSetIntVarImpl;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class RangeSetIntVarImplTest {
+
+    RangeSetIntVarImpl var;
+
+    public void setUp() {
+        IntIterableRangeSet dom = new IntIterableRangeSet(0, 10);
+        dom.addBetween(1_000_000, 1_000_010);
+        dom.add(1_000_000_000 / 100);
+        var = new RangeSetIntVarImpl("test", dom, new Model());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRemoveValue() throws Exception {
+        setUp();
+        Assert.assertFalse(var.removeValue(11, Cause.Null));
+        Assert.assertTrue(var.removeValue(5, Cause.Null));
+        Assert.assertFalse(var.contains(5));
+        Assert.assertTrue(var.contains(4));
+        Assert.assertTrue(var.contains(6));
+        Assert.assertEquals(var.getNbRanges(), 4);
+        Assert.assertEquals(var.getDomainSize(), 22);
+        Assert.assertTrue(var.removeValue(0, Cause.Null));
+        Assert.assertEquals(var.getLB(), 1);
+        Assert.assertTrue(var.removeValue(10_000_000, Cause.Null));
+        Assert.assertEquals(var.getUB(), 1_000_010);
+        Assert.assertEquals(var.getNbRanges(), 3);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRemoveInterval() throws Exception {
+        setUp();
+        Assert.assertFalse(var.removeInterval(11, 999_999, Cause.Null));
+        Assert.assertTrue(var.removeInterval(8, 1_000_004, Cause.Null));
+        Assert.assertFalse(var.contains(8));
+        Assert.assertFalse(var.contains(1_000_004));
+        Assert.assertTrue(var.contains(1_000_005));
+        Assert.assertEquals(var.getDomainSize(), 8 + 6 + 1);
+        Assert.assertEquals(var.nextValue(7), 1_000_005);
+        Assert.assertEquals(var.previousValue(1_000_005), 7);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testUpdateBounds() throws Exception {
+        setUp();
+        Assert.assertFalse(var.updateLowerBound(-1, Cause.Null));
+        Assert.assertTrue(var.updateLowerBound(11, Cause.Null));
+        Assert.assertEquals(var.getLB(), 1_000_000);
+        Assert.assertTrue(var.updateUpperBound(9_999_999, Cause.Null));
+        Assert.assertEquals(var.getUB(), 1_000_010);
+        Assert.assertTrue(var.updateBounds(1_000_002, 1_000_002, Cause.Null));
+        Assert.assertTrue(var.isInstantiatedTo(1_000_002));
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = ContradictionException.class)
+    public void testUpdateBounds2() throws Exception {
+        setUp();
+        var.updateBounds(11, 999_999, Cause.Null);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNextPrevious() {
+        setUp();
+        Assert.assertEquals(var.nextValue(-5), 0);
+        Assert.assertEquals(var.nextValue(10), 1_000_000);
+        Assert.assertEquals(var.nextValue(10_000_000), Integer.MAX_VALUE);
+        Assert.assertEquals(var.previousValue(1_000_000), 10);
+        Assert.assertEquals(var.previousValue(0), Integer.MIN_VALUE);
+        Assert.assertEquals(var.nextValueOut(3), 11);
+        Assert.assertEquals(var.nextValueOut(-1), 11);
+        Assert.assertEquals(var.nextValueOut(11), 12);
+        Assert.assertEquals(var.previousValueOut(1_000_003), 999_999);
+        Assert.assertEquals(var.previousValueOut(10_000_001), 9_999_999);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testIterators() throws Exception {
+        setUp();
+        var.removeValue(5, Cause.Null);
+        DisposableRangeIterator rit = var.getRangeIterator(true);
+        int[][] ranges = {{0, 4}, {6, 10}, {1_000_000, 1_000_010}, {10_000_000, 10_000_000}};
+        for (int[] r : ranges) {
+            Assert.assertTrue(rit.hasNext());
+            Assert.assertEquals(rit.min(), r[0]);
+            Assert.assertEquals(rit.max(), r[1]);
+            rit.next();
+        }
+        Assert.assertFalse(rit.hasNext());
+        rit.dispose();
+        DisposableValueIterator vit = var.getValueIterator(false);
+        int n = 0;
+        int prev = Integer.MAX_VALUE;
+        while (vit.hasPrevious()) {
+            int v = vit.previous();
+            Assert.assertTrue(v < prev);
+            Assert.assertTrue(var.contains(v));
+            prev = v;
+            n++;
+        }
+        vit.dispose();
+        Assert.assertEquals(n, var.getDomainSize());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFactory() {
+        Model model = new Model();
+        int[] values = new int[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 50_000 ? i : 1_000_000 + i;
+        }
+        IntVar x = model.intVar("x", values);
+        Assert.assertTrue(x instanceof RangeSetIntVarImpl);
+        Assert.assertEquals(x.getDomainSize(), 100_000);
+        Assert.assertFalse(model.intVar("y", new int[]{1, 3, 5, 7}) instanceof RangeSetIntVarImpl);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() throws ContradictionException {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 20; k++) {
+            Model model = new Model();
+            IEnvironment env = model.getEnvironment();
+            int[] values = rnd.ints(40, -50, 50).distinct().sorted().toArray();
+            RangeSetIntVarImpl x = new RangeSetIntVarImpl("x", values, model);
+            IntVar y = new BitsetIntVarImpl("y", values, model);
+            for (int it = 0; it < 200; it++) {
+                if (rnd.nextInt(4) == 0 && env.getWorldIndex() > 0) {
+                    env.worldPop();
+                } else {
+                    env.worldPush();
+                    int a = rnd.nextInt(100) - 50;
+                    int b = a + rnd.nextInt(10);
+                    try {
+                        switch (rnd.nextInt(5)) {
+                            case 0:
+                                Assert.assertEquals(x.removeValue(a, Cause.Null), y.removeValue(a, Cause.Null));
+                                break;
+                            case 1:
+                                Assert.assertEquals(x.removeInterval(a, b, Cause.Null), y.removeInterval(a, b, Cause.Null));
+                                break;
+                            case 2:
+                                Assert.assertEquals(x.updateBounds(a, a + 60, Cause.Null), y.updateBounds(a, a + 60, Cause.Null));
+                                break;
+                            case 3: {
+                                IntIterableRangeSet set = new IntIterableRangeSet(a, b);
+                                set.add(b + 3);
+                                Assert.assertEquals(x.removeValues(set, Cause.Null), y.removeValues(set, Cause.Null));
+                                break;
+                            }
+                            case 4: {
+                                IntIterableRangeSet set = new IntIterableRangeSet(a - 20, b);
+                                set.addBetween(b + 3, b + 20);
+                                Assert.assertEquals(x.removeAllValuesBut(set, Cause.Null),
+                                        y.removeAllValuesBut(set, Cause.Null));
+                                break;
+                            }
+                        }
+                    } catch (ContradictionException e) {
+                        env.worldPop();
+                        continue;
+                    }
+                }
+                Assert.assertEquals(x.getDomainSize(), y.getDomainSize());
+                Assert.assertEquals(x.getLB(), y.getLB());
+                Assert.assertEquals(x.getUB(), y.getUB());
+                for (int v = -52; v <= 52; v++) {
+                    Assert.assertEquals(x.contains(v), y.contains(v));
+                    Assert.assertEquals(x.nextValue(v), y.nextValue(v));
+                    Assert.assertEquals(x.previousValue(v), y.previousValue(v));
+                    Assert.assertEquals(x.nextValueOut(v), y.nextValueOut(v));
+                    Assert.assertEquals(x.previousValueOut(v), y.previousValueOut(v));
+                }
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSolve() {
+        long[] counts = new long[2];
+        for (int k = 0; k < 2; k++) {
+            Model model = new Model();
+            int[] values = {0, 1, 2, 3, 4, 5, 100, 101, 102, 103, 104, 105, 1000};
+            IntVar[] xs = new IntVar[4];
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = k == 0 ? new RangeSetIntVarImpl("x" + i, values, model) : new BitsetIntVarImpl("x" + i, values, model);
+            }
+            model.allDifferent(xs).post();
+            model.sum(xs, "<=", 210).post();
+            model.arithm(xs[0], "!=", xs[1], "+", 1).post();
+            counts[k] = model.getSolver().streamSolutions().count();
+        }
+        Assert.assertEquals(counts[0], counts[1]);
+    }
+}
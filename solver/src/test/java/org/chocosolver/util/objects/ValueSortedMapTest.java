@@ -0,0 +1,111 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2022, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author agent
+ * @since 4.10.9
+ */
+public class ValueSortedMapTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNominal() {
+        Model model = new Model();
+        IntVar a = model.intVar("a", 0, 5);
+        IntVar b = model.intVar("b", 0, 5);
+        IntVar c = model.intVar("c", 0, 5);
+        IntVar d = model.intVar("d", 0, 5);
+        ValueSortedMap<IntVar> map = new ValueSortedMap<>();
+        Assert.assertTrue(map.isEmpty());
+        map.put(a, 3);
+        map.put(b, 7);
+        map.put(c, 5);
+        Assert.assertEquals(map.getLastValue(), 7);
+        Assert.assertEquals(map.getValue(c), 5);
+        Assert.assertEquals(map.getValue(d), -1);
+        Assert.assertEquals(map.getValueOrDefault(d, 12), 12);
+        Assert.assertEquals(map.getLowerValue(7), 5);
+        Assert.assertEquals(map.getLowerValue(3), -1);
+        map.replace(b, 1);
+        Assert.assertEquals(map.getLastValue(), 5);
+        map.put(a, 9);
+        Assert.assertEquals(map.pollLastValue(), 9);
+        Assert.assertEquals(map.getValue(a), -1);
+        map.remove(c);
+        Assert.assertEquals(map.pollLastValue(), 1);
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRemoveIf() {
+        IntVar[] vars = new Model().intVarArray("x", 50, 0, 5);
+        ValueSortedMap<IntVar> map = new ValueSortedMap<>();
+        for (int i = 0; i < 50; i++) {
+            map.put(vars[i], (i * 17) % 50);
+        }
+        Assert.assertTrue(map.removeIf(k -> k.getId() % 2 == 0));
+        Assert.assertFalse(map.removeIf(k -> k.getId() % 2 == 0));
+        int last = Integer.MAX_VALUE;
+        int n = 0;
+        while (!map.isEmpty()) {
+            int v = map.pollLastValue();
+            Assert.assertTrue(v < last);
+            last = v;
+            n++;
+        }
+        Assert.assertEquals(n, 25);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        IntVar[] vars = new Model().intVarArray("x", 64, 0, 5);
+        ValueSortedMap<IntVar> map = new ValueSortedMap<>();
+        TreeMap<IntVar, Integer> ref = new TreeMap<>();
+        for (int it = 0; it < 10_000; it++) {
+            IntVar k = vars[rnd.nextInt(64)];
+            switch (rnd.nextInt(4)) {
+                case 0:
+                case 1: {
+                    int v = rnd.nextInt(1000);
+                    if (!ref.containsValue(v)) {
+                        ref.put(k, v);
+                        map.put(k, v);
+                    }
+                }
+                break;
+                case 2:
+                    ref.remove(k);
+                    map.remove(k);
+                    break;
+                case 3:
+                    if (!ref.isEmpty()) {
+                        int max = ref.values().stream().max(Integer::compare).get();
+                        Assert.assertEquals(map.pollLastValue(), max);
+                        ref.values().remove(max);
+                    }
+                    break;
+            }
+            Assert.assertEquals(map.isEmpty(), ref.isEmpty());
+            Assert.assertEquals(map.getValue(k), ref.getOrDefault(k, -1).intValue());
+        }
+    }
+}